@@ -0,0 +1,114 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jacobi.api.Matrix;
+import jacobi.api.unsupervised.GaussMixModel;
+import jacobi.api.unsupervised.KMeans;
+import jacobi.core.clustering.Dbscan;
+
+/**
+ * Benchmarks for clustering, i.e.&nbsp;k-means, Gaussian mixture model and DBSCAN.
+ * 
+ * <p>Data points are scattered around a number of centroids so that clusters exist.</p>
+ * 
+ * @author Y.K. Chan
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClusteringBenchmark extends ComputeState {
+	
+	/**
+	 * Number of data points
+	 */
+	@Param({"1024", "16384"})
+	public int size;
+	
+	/**
+	 * Number of dimensions
+	 */
+	@Param({"2", "8"})
+	public int dim;
+	
+	/**
+	 * Number of clusters in the data
+	 */
+	public static final int NUM_CLUSTERS = 8;
+	
+	/**
+	 * Standard deviation of each cluster
+	 */
+	public static final double SIGMA = 0.05;
+
+	@Override
+	protected void init(Random rand) {
+		this.data = blobs(rand, this.size, this.dim, NUM_CLUSTERS, SIGMA);
+	}
+	
+	/**
+	 * K-means clustering
+	 * @return  Row indices for each cluster
+	 */
+	@Benchmark
+	public List<int[]> kMeans() {
+		return new KMeans().compute(this.data, NUM_CLUSTERS);
+	}
+	
+	/**
+	 * Gaussian mixture model with diagonal co-variance
+	 * @return  Row indices for each cluster
+	 */
+	@Benchmark
+	public List<int[]> gmm() {
+		return new GaussMixModel().compute(this.data, NUM_CLUSTERS, false);
+	}
+	
+	/**
+	 * DBSCAN clustering
+	 * @return  Row indices for each cluster
+	 */
+	@Benchmark
+	public List<int[]> dbscan() {
+		return new Dbscan(16, SIGMA).compute(this.data);
+	}
+
+	private Matrix data;
+}
@@ -0,0 +1,153 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.benchmark;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.core.util.ComputePool;
+
+/**
+ * Common state for all benchmarks in jacobi.
+ * 
+ * <p>Each benchmark is parameterised by the number of threads in the shared compute pool,
+ * which is resized before each trial and restored to default afterwards. Input data are
+ * generated from a fixed seed such that results are comparable across runs.</p>
+ * 
+ * @author Y.K. Chan
+ *
+ */
+@State(Scope.Benchmark)
+public abstract class ComputeState {
+	
+	/**
+	 * Seed for generating input data
+	 */
+	public static final long DEFAULT_SEED = 20210101L;
+	
+	/**
+	 * Number of threads in the compute pool
+	 */
+	@Param({"1", "4"})
+	public int threads;
+	
+	/**
+	 * Resize the compute pool and prepare input data.
+	 */
+	@Setup(Level.Trial)
+	public void setUpPool() {
+		ComputePool.setParallelism(this.threads);
+		this.init(new Random(DEFAULT_SEED));
+	}
+	
+	/**
+	 * Restore the compute pool to default.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDownPool() {
+		ComputePool.setPool(null);
+	}
+	
+	/**
+	 * Prepare input data for the benchmark.
+	 * @param rand  Random number generator
+	 */
+	protected abstract void init(Random rand);
+	
+	/**
+	 * Create a matrix with uniformly random elements in [-1, 1).
+	 * @param rand  Random number generator
+	 * @param m  Number of rows
+	 * @param n  Number of columns
+	 * @return  Random matrix
+	 */
+	protected static Matrix random(Random rand, int m, int n) {
+		double[][] rows = new double[m][n];
+		for(double[] row : rows){
+			for(int j = 0; j < row.length; j++){
+				row[j] = 2.0 * rand.nextDouble() - 1.0;
+			}
+		}
+		return Matrices.wrap(rows);
+	}
+	
+	/**
+	 * Create a symmetric positive definite matrix, i.e.&nbsp;A^t * A + nI for a random A.
+	 * @param rand  Random number generator
+	 * @param n  Dimension of the matrix
+	 * @return  Symmetric positive definite matrix
+	 */
+	protected static Matrix spd(Random rand, int n) {
+		Matrix a = random(rand, n, n);
+		double[][] rows = new double[n][n];
+		for(int i = 0; i < n; i++){
+			for(int j = 0; j <= i; j++){
+				double sum = 0.0;
+				for(int k = 0; k < n; k++){
+					sum += a.get(k, i) * a.get(k, j);
+				}
+				rows[i][j] = sum;
+				rows[j][i] = sum;
+			}
+			rows[i][i] += n;
+		}
+		return Matrices.wrap(rows);
+	}
+	
+	/**
+	 * Create data points scattered around a number of random centroids in a unit hypercube.
+	 * @param rand  Random number generator
+	 * @param num  Number of data points
+	 * @param dim  Number of dimensions
+	 * @param numBlobs  Number of centroids
+	 * @param sigma  Standard deviation of each blob
+	 * @return  Data points as row vectors
+	 */
+	protected static Matrix blobs(Random rand, int num, int dim, int numBlobs, double sigma) {
+		double[][] centroids = new double[numBlobs][dim];
+		for(double[] c : centroids){
+			for(int j = 0; j < dim; j++){
+				c[j] = rand.nextDouble();
+			}
+		}
+		
+		double[][] rows = new double[num][dim];
+		for(int i = 0; i < num; i++){
+			double[] c = centroids[i % numBlobs];
+			for(int j = 0; j < dim; j++){
+				rows[i][j] = c[j] + sigma * rand.nextGaussian();
+			}
+		}
+		return Matrices.wrap(rows);
+	}
+
+}
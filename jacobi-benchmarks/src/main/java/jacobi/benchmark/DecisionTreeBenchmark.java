@@ -0,0 +1,118 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jacobi.api.Matrix;
+import jacobi.api.classifier.Column;
+import jacobi.api.classifier.DefinedSupervised;
+import jacobi.api.classifier.cart.DecisionNode;
+import jacobi.api.classifier.cart.DecisionTreeParams;
+import jacobi.api.ext.Learn;
+import jacobi.core.classifier.cart.measure.Impurity;
+
+/**
+ * Benchmarks for learning a decision tree on numeric features.
+ * 
+ * <p>The outcome is whether a data point lies inside a hyper-sphere, with a small portion
+ * of outcomes flipped as noise.</p>
+ * 
+ * @author Y.K. Chan
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecisionTreeBenchmark extends ComputeState {
+	
+	/**
+	 * Number of instances
+	 */
+	@Param({"1024", "16384"})
+	public int size;
+	
+	/**
+	 * Number of numeric features
+	 */
+	@Param({"4", "16"})
+	public int dim;
+	
+	/**
+	 * Maximum height of the decision tree
+	 */
+	public static final int MAX_HEIGHT = 8;
+	
+	/**
+	 * Probability of an outcome being flipped
+	 */
+	public static final double NOISE = 0.05;
+
+	@Override
+	protected void init(Random rand) {
+		Matrix data = random(rand, this.size, this.dim);
+		List<Boolean> outcomes = new ArrayList<>();
+		for(int i = 0; i < data.getRowCount(); i++){
+			double[] row = data.getRow(i);
+			double norm = 0.0;
+			for(double v : row){
+				norm += v * v;
+			}
+			boolean inside = norm < row.length / 3.0;
+			outcomes.add(rand.nextDouble() < NOISE ? !inside : inside);
+		}
+		
+		List<Column<?>> features = IntStream.range(0, this.dim)
+			.mapToObj(Column::numeric)
+			.collect(Collectors.toList());
+		this.learner = data.ext(Learn.class).classify(features, outcomes);
+	}
+	
+	/**
+	 * Learn a decision tree by entropy
+	 * @return  Root of the decision tree
+	 */
+	@Benchmark
+	public DecisionNode<Boolean> learnTree() {
+		return this.learner.learnTree(new DecisionTreeParams(Impurity.ENTROPY, MAX_HEIGHT));
+	}
+
+	private DefinedSupervised<Boolean> learner;
+}
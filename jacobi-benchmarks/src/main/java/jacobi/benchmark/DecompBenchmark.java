@@ -0,0 +1,111 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.benchmark;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.core.decomp.chol.CholeskyDecomp;
+import jacobi.core.decomp.qr.QRDecomp;
+import jacobi.core.decomp.qr.SchurDecomp;
+import jacobi.core.decomp.svd.SingularValueDecomp;
+import jacobi.core.util.Pair;
+
+/**
+ * Benchmarks for matrix decompositions, i.e.&nbsp;QR, Cholesky, Schur and SVD.
+ * 
+ * <p>All decompositions work in-place, thus each invocation decomposes a fresh copy of the input.</p>
+ * 
+ * @author Y.K. Chan
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecompBenchmark extends ComputeState {
+	
+	/**
+	 * Dimension of the square matrices
+	 */
+	@Param({"64", "128", "256"})
+	public int size;
+
+	@Override
+	protected void init(Random rand) {
+		this.general = random(rand, this.size, this.size);
+		this.posDef = spd(rand, this.size);
+	}
+	
+	/**
+	 * QR decomposition with Q computed explicitly
+	 * @return  Pair of Q and R
+	 */
+	@Benchmark
+	public Pair qr() {
+		return new QRDecomp().computeQR(Matrices.copy(this.general));
+	}
+	
+	/**
+	 * Cholesky decomposition
+	 * @return  Lower triangular factor
+	 */
+	@Benchmark
+	public Optional<Matrix> chol() {
+		return new CholeskyDecomp().compute(Matrices.copy(this.posDef));
+	}
+	
+	/**
+	 * Schur decomposition with upper quasi-triangular form only
+	 * @return  Schur form
+	 */
+	@Benchmark
+	public Matrix schur() {
+		return new SchurDecomp().compute(Matrices.copy(this.general));
+	}
+	
+	/**
+	 * Singular values of a general matrix
+	 * @return  Singular values
+	 */
+	@Benchmark
+	public double[] svd() {
+		return new SingularValueDecomp().compute(Matrices.copy(this.general));
+	}
+
+	private Matrix general, posDef;
+}
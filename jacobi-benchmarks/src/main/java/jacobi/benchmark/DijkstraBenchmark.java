@@ -0,0 +1,94 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.benchmark;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jacobi.api.Matrices;
+import jacobi.api.graph.RouteMap;
+import jacobi.core.graph.AdjMatrix;
+import jacobi.core.graph.Dijkstra;
+import jacobi.core.util.MinHeap;
+
+/**
+ * Benchmarks for finding single-source shortest paths by Dijkstra's algorithm.
+ * 
+ * <p>The graph is a random directed graph with a given out-degree and positive weights.
+ * Missing edges are represented by 0 in the adjacency matrix.</p>
+ * 
+ * @author Y.K. Chan
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DijkstraBenchmark extends ComputeState {
+	
+	/**
+	 * Number of vertices
+	 */
+	@Param({"256", "2048"})
+	public int order;
+	
+	/**
+	 * Number of out-going edges of each vertex
+	 */
+	@Param({"4", "32"})
+	public int degree;
+
+	@Override
+	protected void init(Random rand) {
+		double[][] adj = new double[this.order][this.order];
+		for(int i = 0; i < this.order; i++){
+			for(int k = 0; k < this.degree; k++){
+				adj[i][rand.nextInt(this.order)] = 1.0 + rand.nextDouble();
+			}
+		}
+		this.graph = AdjMatrix.of(Matrices.wrap(adj));
+	}
+	
+	/**
+	 * Shortest paths from the first vertex to all other vertices
+	 * @return  Route map
+	 */
+	@Benchmark
+	public Optional<RouteMap> dijkstra() {
+		return new Dijkstra(MinHeap::newDefault).compute(this.graph, 0);
+	}
+
+	private AdjMatrix graph;
+}
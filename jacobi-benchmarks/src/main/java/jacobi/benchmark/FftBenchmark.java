@@ -0,0 +1,84 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jacobi.api.Matrix;
+import jacobi.core.signal.fft.DiscreteFourierTransform;
+import jacobi.core.util.Pair;
+
+/**
+ * Benchmarks for the forward discrete Fourier transform by the Cooley-Tukey FFT.
+ * 
+ * <p>Signal lengths include powers of 2 and composite lengths with prime factors other than 2.</p>
+ * 
+ * @author Y.K. Chan
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FftBenchmark extends ComputeState {
+	
+	/**
+	 * Length of each signal
+	 */
+	@Param({"1024", "3000", "65536"})
+	public int length;
+	
+	/**
+	 * Number of signals
+	 */
+	@Param({"1", "64"})
+	public int count;
+
+	@Override
+	protected void init(Random rand) {
+		this.signals = random(rand, this.count, this.length);
+	}
+	
+	/**
+	 * Forward transform of real signals
+	 * @return  Pair of real and imaginary parts
+	 */
+	@Benchmark
+	public Pair forward() {
+		return new DiscreteFourierTransform.Forward().compute(this.signals);
+	}
+
+	private Matrix signals;
+}
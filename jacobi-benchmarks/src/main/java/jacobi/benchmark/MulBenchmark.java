@@ -0,0 +1,112 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jacobi.api.Matrix;
+import jacobi.api.ext.Op;
+import jacobi.core.impl.ArrayMatrix;
+
+/**
+ * Benchmarks for matrix products, i.e.&nbsp;Mul, MulT and Dot.
+ * 
+ * <p>Inputs are stored either as arrays of rows (default) or in a single flat array (flat).</p>
+ * 
+ * @author Y.K. Chan
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MulBenchmark extends ComputeState {
+	
+	/**
+	 * Dimension of the square matrices
+	 */
+	@Param({"64", "256", "1024"})
+	public int size;
+	
+	/**
+	 * Storage layout of the input matrices
+	 */
+	@Param({"default", "flat"})
+	public String layout;
+
+	@Override
+	protected void init(Random rand) {
+		this.a = this.layout(random(rand, this.size, this.size));
+		this.b = this.layout(random(rand, this.size, this.size));
+	}
+	
+	/**
+	 * Matrix multiplication A * B
+	 * @return  Product
+	 */
+	@Benchmark
+	public Matrix mul() {
+		return this.a.ext(Op.class).mul(this.b).get();
+	}
+	
+	/**
+	 * Matrix multiplication with transpose A * B^t
+	 * @return  Product
+	 */
+	@Benchmark
+	public Matrix mulT() {
+		return this.a.ext(Op.class).mulT(this.b).get();
+	}
+	
+	/**
+	 * Dot product of column vectors of A and B
+	 * @return  Dot products
+	 */
+	@Benchmark
+	public Matrix dot() {
+		return this.a.ext(Op.class).dot(this.b).get();
+	}
+	
+	/**
+	 * Convert a matrix to the storage layout under benchmark
+	 * @param matrix  Input matrix
+	 * @return  Matrix in the storage layout
+	 */
+	protected Matrix layout(Matrix matrix) {
+		return "flat".equals(this.layout) ? ArrayMatrix.of(matrix) : matrix;
+	}
+
+	private Matrix a, b;
+}
@@ -0,0 +1,111 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.benchmark;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.core.linprog.DantzigsRule;
+import jacobi.core.linprog.StandardSimplex;
+
+/**
+ * Benchmarks for solving linear programs by the standard simplex method.
+ * 
+ * <p>The problem is max c^t * x s.t.&nbsp;A * x &lt;= b, x &gt;= 0, with A and c non-negative 
+ * and b positive such that the problem is always feasible and bounded.</p>
+ * 
+ * @author Y.K. Chan
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimplexBenchmark extends ComputeState {
+	
+	/**
+	 * Number of variables
+	 */
+	@Param({"32", "128"})
+	public int numVars;
+	
+	/**
+	 * Number of constraints
+	 */
+	@Param({"64", "256"})
+	public int numCons;
+	
+	/**
+	 * Limit on number of pivoting, as a factor to the size of the constraint matrix
+	 */
+	public static final long LIMIT_FACTOR = 65536L;
+
+	@Override
+	protected void init(Random rand) {
+		this.c = this.positive(rand, this.numVars, 1);
+		this.a = this.positive(rand, this.numCons, this.numVars);
+		this.b = this.positive(rand, this.numCons, 1);
+	}
+	
+	/**
+	 * Simplex method with Dantzig's pivoting rule
+	 * @return  Optimal solution
+	 */
+	@Benchmark
+	public Optional<Matrix> simplex() {
+		return new StandardSimplex(LIMIT_FACTOR, new DantzigsRule()).compute(this.c, this.a, this.b);
+	}
+	
+	/**
+	 * Create a matrix with uniformly random elements in [1, 2)
+	 * @param rand  Random number generator
+	 * @param m  Number of rows
+	 * @param n  Number of columns
+	 * @return  Random matrix
+	 */
+	protected Matrix positive(Random rand, int m, int n) {
+		double[][] rows = new double[m][n];
+		for(double[] row : rows){
+			for(int j = 0; j < row.length; j++){
+				row[j] = 1.0 + rand.nextDouble();
+			}
+		}
+		return Matrices.wrap(rows);
+	}
+
+	private Matrix c, a, b;
+}
@@ -0,0 +1,170 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.benchmark;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jacobi.api.Matrix;
+import jacobi.api.spatial.DefaultRTreeFactory;
+import jacobi.api.spatial.SpatialIndex;
+import jacobi.core.spatial.DirectQuery;
+
+/**
+ * Benchmarks for spatial indices, i.e.&nbsp;building an inline R-Tree and querying by
+ * k-nearest neighbours and range.
+ * 
+ * <p>Queries are also run by linear scanning as a baseline.</p>
+ * 
+ * @author Y.K. Chan
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpatialBenchmark extends ComputeState {
+	
+	/**
+	 * Number of data points
+	 */
+	@Param({"4096", "65536"})
+	public int size;
+	
+	/**
+	 * Number of dimensions
+	 */
+	@Param({"2", "8"})
+	public int dim;
+	
+	/**
+	 * Number of queries in each invocation
+	 */
+	public static final int NUM_QUERIES = 64;
+	
+	/**
+	 * Number of neighbours in k-nearest neighbours query
+	 */
+	public static final int K_MAX = 16;
+	
+	/**
+	 * Query distance in range query
+	 */
+	public static final double QUERY_DIST = 0.05;
+
+	@Override
+	protected void init(Random rand) {
+		this.data = blobs(rand, this.size, this.dim, 16, 0.1);
+		this.queries = blobs(rand, NUM_QUERIES, this.dim, 16, 0.1);
+		this.rtree = new DefaultRTreeFactory(this.data).build();
+		this.direct = new DirectQuery(this.data);
+	}
+	
+	/**
+	 * Build an inline R-Tree
+	 * @return  Spatial index
+	 */
+	@Benchmark
+	public SpatialIndex<Integer> build() {
+		return new DefaultRTreeFactory(this.data).build();
+	}
+	
+	/**
+	 * k-nearest neighbours query with R-Tree
+	 * @param hole  Sink of query results
+	 */
+	@Benchmark
+	public void knnRTree(Blackhole hole) {
+		this.knn(this.rtree, hole);
+	}
+	
+	/**
+	 * k-nearest neighbours query by linear scanning
+	 * @param hole  Sink of query results
+	 */
+	@Benchmark
+	public void knnDirect(Blackhole hole) {
+		this.knn(this.direct, hole);
+	}
+	
+	/**
+	 * Range query with R-Tree
+	 * @param hole  Sink of query results
+	 */
+	@Benchmark
+	public void rangeRTree(Blackhole hole) {
+		this.range(this.rtree, hole);
+	}
+	
+	/**
+	 * Range query by linear scanning
+	 * @param hole  Sink of query results
+	 */
+	@Benchmark
+	public void rangeDirect(Blackhole hole) {
+		this.range(this.direct, hole);
+	}
+	
+	/**
+	 * Run all k-nearest neighbours queries against a spatial index
+	 * @param sIndex  Spatial index
+	 * @param hole  Sink of query results
+	 */
+	protected void knn(SpatialIndex<Integer> sIndex, Blackhole hole) {
+		for(int i = 0; i < this.queries.getRowCount(); i++){
+			List<Integer> result = sIndex.queryKNN(this.queries.getRow(i), K_MAX);
+			hole.consume(result);
+		}
+	}
+	
+	/**
+	 * Run all range queries against a spatial index and exhaust the results
+	 * @param sIndex  Spatial index
+	 * @param hole  Sink of query results
+	 */
+	protected void range(SpatialIndex<Integer> sIndex, Blackhole hole) {
+		for(int i = 0; i < this.queries.getRowCount(); i++){
+			Iterator<Integer> iter = sIndex.queryRange(this.queries.getRow(i), QUERY_DIST);
+			while(iter.hasNext()){
+				hole.consume(iter.next());
+			}
+		}
+	}
+
+	private Matrix data, queries;
+	private SpatialIndex<Integer> rtree, direct;
+}
@@ -24,13 +24,26 @@
 package jacobi.api;
 
 import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.BlockMatrix;
 import jacobi.core.impl.ColumnVector;
 import jacobi.core.impl.CopyOnWriteMatrix;
 import jacobi.core.impl.DefaultMatrix;
 import jacobi.core.impl.DiagonalMatrix;
 import jacobi.core.impl.Empty;
+import jacobi.core.impl.FloatMatrix;
 import jacobi.core.impl.ImmutableMatrix;
+import jacobi.core.impl.MappedMatrix;
+import jacobi.core.impl.MatrixFile;
+import jacobi.core.impl.SelectedMatrix;
+import jacobi.core.impl.SparseMatrix;
+import jacobi.core.impl.TextMatrixLoader;
+import jacobi.core.impl.TransposedMatrix;
+import jacobi.core.util.Throw;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.IntStream;
 
 /**
@@ -145,6 +158,77 @@ public final class Matrices {
         return new DefaultMatrix(m, n);
     }
     
+    /**
+     * Create a matrix with all elements zero, with elements stored contiguously row-by-row 
+     * in a single array. Operators work on the backing array directly for such matrices, 
+     * which is more efficient for large matrices.
+     * @param m  Number of rows
+     * @param n  Number of columns
+     * @return  Matrix instance.
+     */
+    public static Matrix flat(int m, int n) {
+        if(m < 0 || n < 0){
+            throw new IllegalArgumentException("Invalid number of rows / columns : " 
+                    + m + "x" + n);
+        }
+        
+        return m < 1 || n < 1 ? Empty.getInstance() : ArrayMatrix.of(m, n);
+    }
+    
+    /**
+     * Create a matrix by the given 2-D array, with elements copied contiguously row-by-row 
+     * into a single array.
+     * @param rows  Matrix elements.
+     * @return  Matrix instance.
+     */
+    public static Matrix flat(double[][] rows) {
+        Matrix matrix = Matrices.wrap(rows);
+        if(matrix.getRowCount() < 1){
+            return matrix;
+        }
+        
+        for(double[] row : rows){
+            if(row.length != matrix.getColCount()){
+                throw new UnsupportedOperationException(
+                    "Column count mismatch. " + matrix.getColCount() + " <> " + row.length
+                );
+            }
+        }
+        return ArrayMatrix.of(matrix);
+    }
+    
+    /**
+     * Create a sparse matrix with the non-zero elements of a matrix, stored in compressed 
+     * sparse row format. Operators compute in time proportional to the number of non-zero
+     * elements for such matrices. The returned matrix is immutable.
+     * @param matrix  Input matrix
+     * @return  Sparse matrix instance
+     */
+    public static Matrix sparse(Matrix matrix) {
+        return SparseMatrix.of(matrix);
+    }
+    
+    /**
+     * Create a matrix with the values of a matrix partitioned into square tiles, each stored
+     * in a contiguous array. Operators distribute work among threads tile by tile for such matrices.
+     * @param matrix  Input matrix
+     * @param tileSize  Number of rows and columns of a tile
+     * @return  Block matrix instance
+     */
+    public static Matrix block(Matrix matrix, int tileSize) {
+        return BlockMatrix.of(matrix, tileSize);
+    }
+    
+    /**
+     * Create a matrix with the values of a matrix stored in single precision, which halves the 
+     * memory footprint at the cost of precision. Values are widened to double when read.
+     * @param matrix  Input matrix
+     * @return  Matrix in single precision
+     */
+    public static Matrix floats(Matrix matrix) {
+        return FloatMatrix.of(matrix);
+    }
+    
     /**
      * Create an identity matrix.
      * @param n  Number of rows / columns
@@ -199,6 +283,132 @@ public final class Matrices {
         
         return matrix.copy();
     }
+
+    /**
+     * Create a view of a sub-matrix, which shares storage with the given matrix. Changes 
+     * on the view are written to the matrix, and vice versa.
+     * @param matrix  Base matrix
+     * @param rowBegin  Begin index of rows
+     * @param rowEnd  End index of rows, exclusive
+     * @param colBegin  Begin index of columns
+     * @param colEnd  End index of columns, exclusive
+     * @return  View of the sub-matrix
+     * @throws IllegalArgumentException  if matrix is null or range is invalid
+     */
+    public static Matrix subMatrix(Matrix matrix, int rowBegin, int rowEnd, int colBegin, int colEnd) {
+        if(matrix instanceof ArrayMatrix 
+            && rowBegin >= 0 && rowBegin < rowEnd && rowEnd <= matrix.getRowCount()
+            && colBegin >= 0 && colBegin < colEnd && colEnd <= matrix.getColCount()){
+            ArrayMatrix array = (ArrayMatrix) matrix;
+            return ArrayMatrix.wrap(array.getArray(), 
+                array.indexOf(rowBegin, colBegin), 
+                rowEnd - rowBegin, colEnd - colBegin, 
+                array.getStride());
+        }
+        return SelectedMatrix.range(matrix, rowBegin, rowEnd, colBegin, colEnd);
+    }
+    
+    /**
+     * Create a view of selected rows of a matrix, which shares storage with the given matrix.
+     * Rows can be selected in any order and be repeated.
+     * @param matrix  Base matrix
+     * @param rows  Indices of selected rows
+     * @return  View of the selected rows
+     * @throws IllegalArgumentException  if matrix or indices is null, or any index is out of range
+     */
+    public static Matrix rows(Matrix matrix, int... rows) {
+        Throw.when().isNull(() -> rows, () -> "No row selected.");
+        return SelectedMatrix.of(matrix, rows, null);
+    }
+    
+    /**
+     * Create a view of selected columns of a matrix, which shares storage with the given matrix.
+     * Columns can be selected in any order and be repeated.
+     * @param matrix  Base matrix
+     * @param cols  Indices of selected columns
+     * @return  View of the selected columns
+     * @throws IllegalArgumentException  if matrix or indices is null, or any index is out of range
+     */
+    public static Matrix cols(Matrix matrix, int... cols) {
+        Throw.when().isNull(() -> cols, () -> "No column selected.");
+        return SelectedMatrix.of(matrix, null, cols);
+    }
+    
+    /**
+     * Create a view of the transpose of a matrix, which shares storage with the given matrix.
+     * Row access on the view is column access of the matrix, thus it is preferred when the
+     * view is passed to operators that recognize it, e.g.&nbsp;multiplication.
+     * @param matrix  Base matrix
+     * @return  Transposed view of the matrix
+     * @throws IllegalArgumentException  if matrix is null
+     */
+    public static Matrix transposedView(Matrix matrix) {
+        return TransposedMatrix.of(matrix);
+    }
+    
+    /**
+     * Write a matrix to a file in binary format. Existing file would be overwritten.
+     * See MatrixFile for the layout of the file.
+     * @param matrix  Matrix instance
+     * @param path  Path of file
+     * @throws IOException  when failed to write the file
+     */
+    public static void write(Matrix matrix, Path path) throws IOException {
+        Matrices.write(matrix, path, Collections.emptyList());
+    }
+    
+    /**
+     * Write a matrix with column names to a file in binary format. Existing file would 
+     * be overwritten. See MatrixFile for the layout of the file.
+     * @param matrix  Matrix instance
+     * @param path  Path of file
+     * @param columnNames  Column names
+     * @throws IOException  when failed to write the file
+     * @throws IllegalArgumentException  if number of column names mismatch
+     */
+    public static void write(Matrix matrix, Path path, List<String> columnNames) throws IOException {
+        MatrixFile.write(matrix, columnNames, path);
+    }
+    
+    /**
+     * Read a matrix from a file in binary format into the heap.
+     * @param path  Path of file
+     * @return  Matrix instance
+     * @throws IOException  when failed to read the file
+     * @throws IllegalArgumentException  when the file is not a valid matrix file
+     */
+    public static Matrix read(Path path) throws IOException {
+        try(MappedMatrix matrix = MappedMatrix.open(path, true)){
+            return matrix.load();
+        }
+    }
+    
+    /**
+     * Map a matrix file in binary format in read-only mode, without copying the elements 
+     * into the heap. Column names in the file are available from the returned matrix.
+     * @param path  Path of file
+     * @return  Matrix backed by the file
+     * @throws IOException  when failed to read the file
+     * @throws IllegalArgumentException  when the file is not a valid matrix file
+     */
+    public static MappedMatrix map(Path path) throws IOException {
+        return MappedMatrix.open(path, true);
+    }
+    
+    /**
+     * Read a matrix from a delimited text file, e.g.&nbsp;CSV or TSV, into the heap. 
+     * Blank lines are skipped and empty fields are read as NaN. 
+     * See TextMatrixLoader for streaming the rows into other matrix, e.g.&nbsp;a MappedMatrix.
+     * @param path  Path of file
+     * @param delimiter  Delimiter character, e.g.&nbsp;',' or '\t'
+     * @param header  True if the first line is a header of column names to be skipped, false otherwise
+     * @return  Matrix instance
+     * @throws IOException  when failed to read the file
+     * @throws IllegalArgumentException  if a number is malformed or the number of columns mismatch
+     */
+    public static Matrix readText(Path path, char delimiter, boolean header) throws IOException {
+        return new TextMatrixLoader(delimiter, header, TextMatrixLoader.DEFAULT_CHUNK_SIZE).load(path);
+    }
     
     /**
      * Create a column vector of evenly distributed values in [min, max].
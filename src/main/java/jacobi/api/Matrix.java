@@ -26,6 +26,7 @@ package jacobi.api;
 import java.util.Iterator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Matrix data structure.
@@ -119,6 +120,44 @@ public interface Matrix {
      */
     public Matrix copy();
     
+    /**
+     * Get a view of a sub-matrix which shares storage with this matrix.
+     * @param rowBegin  Begin index of rows
+     * @param rowEnd  End index of rows, exclusive
+     * @param colBegin  Begin index of columns
+     * @param colEnd  End index of columns, exclusive
+     * @return  View of the sub-matrix
+     */
+    public default Matrix subMatrix(int rowBegin, int rowEnd, int colBegin, int colEnd) {
+        return Matrices.subMatrix(this, rowBegin, rowEnd, colBegin, colEnd);
+    }
+    
+    /**
+     * Get a view of selected rows which shares storage with this matrix.
+     * @param rows  Indices of selected rows
+     * @return  View of selected rows
+     */
+    public default Matrix rows(int... rows) {
+        return Matrices.rows(this, rows);
+    }
+    
+    /**
+     * Get a view of selected columns which shares storage with this matrix.
+     * @param cols  Indices of selected columns
+     * @return  View of selected columns
+     */
+    public default Matrix cols(int... cols) {
+        return Matrices.cols(this, cols);
+    }
+    
+    /**
+     * Get a view of the transpose which shares storage with this matrix.
+     * @return  Transposed view
+     */
+    public default Matrix transposedView() {
+        return Matrices.transposedView(this);
+    }
+    
     /**
      * Copy the matrix to a 2-D array.
      * @return  Matrix elements in row-by-row manner.
@@ -132,6 +171,22 @@ public interface Matrix {
     }
 
     
+    /**
+     * Visit the rows in a range in order. The row values passed to the consumer are read-only, 
+     * and the array may be reused for the next row thus should not be retained.
+     * 
+     * <p>Implementations not holding rows in memory may override this to stream rows without
+     * allocating an array for each row.</p>
+     * @param begin  Begin index of rows
+     * @param end  End index of rows, exclusive
+     * @param consumer  Consumer of row values and row index
+     */
+    public default void forEachRow(int begin, int end, ObjIntConsumer<double[]> consumer) {
+        for(int i = begin; i < end; i++){
+            consumer.accept(this.getRow(i), i);
+        }
+    }
+    
     /**
      * Get a row, apply a function on it, and set the row values back.
      * @param <T>  Function return type
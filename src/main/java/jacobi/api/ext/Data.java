@@ -81,7 +81,10 @@ public interface Data extends Supplier<Matrix> {
     public Data insert(int at, Function<List<Double>, Double> func);
     
     /**
-     * Select chosen elements, and discard others.
+     * Select chosen elements, and discard others. If no element is augmented, the built
+     * matrix is a view that shares storage with the original matrix until modified, i.e.&nbsp;
+     * changes to the original matrix after building are visible in the view. Selecting all
+     * elements in order builds a copy instead.
      * @param cols  Column indices of selected columns.
      * @return  Data object that builds with appending.
      */
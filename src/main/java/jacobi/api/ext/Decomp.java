@@ -28,10 +28,12 @@ import jacobi.api.annotations.Facade;
 import jacobi.api.annotations.Implementation;
 import jacobi.api.annotations.Pure;
 import jacobi.core.decomp.chol.CholeskyDecomp;
+import jacobi.core.decomp.chol.LDLDecomp;
 import jacobi.core.decomp.gauss.GaussianDecomp;
 import jacobi.core.decomp.qr.HessenbergDecomp;
 import jacobi.core.decomp.qr.QRDecomp;
 import jacobi.core.decomp.qr.SchurDecomp;
+import jacobi.core.solver.Factorization;
 import jacobi.core.util.Pair;
 import jacobi.core.util.Triplet;
 import java.util.Optional;
@@ -77,6 +79,25 @@ public interface Decomp extends Supplier<Matrix> {
     @Implementation(CholeskyDecomp.class)
     public Optional<Pair> chol2();
     
+    /**
+     * Compute Cholesky decomposition, i.e.&nbsp;A = L * L^t where L is lower triangular, and keeps
+     * it for solving A * X = B repeatedly for different B.
+     * @return  Factorization of A, or empty if A is not positive-definite
+     */
+    @Pure
+    @Implementation(CholeskyDecomp.class)
+    public Optional<Factorization> cholFactor();
+    
+    /**
+     * Compute LDL^t decomposition of a symmetric matrix, i.e.&nbsp;A = L * D * L^t where L is unit 
+     * lower triangular and D is diagonal. Unlike Cholesky decomposition, A can be semi-definite or 
+     * indefinite.
+     * @return  A pair of matrices &lt;L, D&gt;, or empty if A can not be decomposed without pivoting
+     */
+    @Pure
+    @Implementation(LDLDecomp.class)
+    public Optional<Pair> ldl();
+    
     /**
      * Compute QR decomposition, i.e.&nbsp;A = Q * R where Q is orthogonal 
      * and R is upper triangular.
@@ -97,6 +118,15 @@ public interface Decomp extends Supplier<Matrix> {
     @Implementation(QRDecomp.class)
     public Matrix qr(Matrix partner);
     
+    /**
+     * Compute QR decomposition, i.e.&nbsp;A = Q * R, and keeps it for solving A * X = B
+     * repeatedly for different B in a linear-least square sense.
+     * @return  Factorization of A, or empty if A is not full rank
+     */
+    @Pure
+    @Implementation(QRDecomp.class)
+    public Optional<Factorization> qrFactor();
+    
     /**
      * Compute Gaussian Decomposition, a.k.a. PLU Decomposition, i.e.
      * A = P * L * U, where P is a permutation matrix, L is lower triangular
@@ -118,6 +148,15 @@ public interface Decomp extends Supplier<Matrix> {
     @Implementation(GaussianDecomp.class)
     public Matrix gauss(Matrix partner);
     
+    /**
+     * Compute Gaussian Decomposition, a.k.a. PLU Decomposition, i.e.&nbsp;A = P * L * U, and 
+     * keeps it for solving A * X = B repeatedly for different B.
+     * @return  Factorization of A, or empty if A is singular
+     */
+    @Pure
+    @Implementation(GaussianDecomp.class)
+    public Optional<Factorization> gaussFactor();
+    
     /**
      * Compute Hessenberg Decomposition of parameter matrix A into Q * H * Q^t,
      * where Q is orthogonal, and H is upper Hessenberg, and gets H only.
@@ -0,0 +1,120 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.api.ext;
+
+import jacobi.api.Matrix;
+import jacobi.api.annotations.Facade;
+import jacobi.api.annotations.Implementation;
+import jacobi.core.op.Gemm;
+import jacobi.core.op.InPlaceOperators;
+import java.util.function.Supplier;
+
+/**
+ * Extension for matrix arithmetics operations that update the matrix in place.
+ * 
+ * This extension is a chaining interface like Op, but the extension parameter is the destination
+ * of all operations, and is updated in place without allocating any intermediate matrix. 
+ * It is suitable for iterative algorithms that repeat the same update many times.
+ * 
+ * This extension is perturbative, i.e.&nbsp;it changes the value of the matrix it operates upon.
+ * 
+ * @author Y.K. Chan
+ */
+@Facade
+public interface InPlace extends Supplier<Matrix> {
+    
+    /**
+     * Matrix addition in place, i.e.&nbsp;A = A + B
+     * @param b  2nd Operand. The first operand is the extension parameter.
+     * @return  InPlace instance with the extension parameter
+     */
+    @Implementation(InPlaceOperators.Add.class)
+    public InPlace add(Matrix b);
+    
+    /**
+     * Matrix subtraction in place, i.e.&nbsp;A = A - B
+     * @param b  2nd Operand. The first operand is the extension parameter.
+     * @return  InPlace instance with the extension parameter
+     */
+    @Implementation(InPlaceOperators.Sub.class)
+    public InPlace sub(Matrix b);
+    
+    /**
+     * Scaled matrix addition in place, i.e.&nbsp;A = A + k * B
+     * @param k  Scalar operand
+     * @param b  2nd Operand. The first operand is the extension parameter.
+     * @return  InPlace instance with the extension parameter
+     */
+    @Implementation(InPlaceOperators.Axpy.class)
+    public InPlace axpy(double k, Matrix b);
+    
+    /**
+     * Hadamand multiplication in place, i.e.&nbsp;element-by-element multiplication.
+     * @param b  2nd Operand. The first operand is the extension parameter.
+     * @return  InPlace instance with the extension parameter
+     */
+    @Implementation(InPlaceOperators.Hadamard.class)
+    public InPlace hadamard(Matrix b);
+    
+    /**
+     * Matrix multiplication with a scalar in place, i.e.&nbsp;A = k * A
+     * @param k  Scalar operand. The first operand is the extension parameter.
+     * @return  InPlace instance with the extension parameter
+     */
+    @Implementation(InPlaceOperators.Scale.class)
+    public InPlace mul(double k);
+    
+    /**
+     * Assign the elements of a matrix, i.e.&nbsp;A = B
+     * @param b  Matrix to be copied. The destination is the extension parameter.
+     * @return  InPlace instance with the extension parameter
+     */
+    @Implementation(InPlaceOperators.Assign.class)
+    public InPlace assign(Matrix b);
+    
+    /**
+     * General matrix multiplication in place, i.e.&nbsp;C = alpha * A * B + beta * C. 
+     * When beta is zero C is overwritten.
+     * @param alpha  Scalar multiplier of the product
+     * @param a  Matrix A
+     * @param b  Matrix B
+     * @param beta  Scalar multiplier of C. The matrix C is the extension parameter.
+     * @return  InPlace instance with the extension parameter
+     */
+    @Implementation(Gemm.class)
+    public InPlace gemm(double alpha, Matrix a, Matrix b, double beta);
+    
+    /**
+     * General matrix multiplication with transpose of B in place, i.e.&nbsp;C = alpha * A * B^t + beta * C. 
+     * When beta is zero C is overwritten.
+     * @param alpha  Scalar multiplier of the product
+     * @param a  Matrix A
+     * @param b  Matrix B
+     * @param beta  Scalar multiplier of C. The matrix C is the extension parameter.
+     * @return  InPlace instance with the extension parameter
+     */
+    @Implementation(Gemm.Transposed.class)
+    public InPlace gemmT(double alpha, Matrix a, Matrix b, double beta);
+    
+}
@@ -0,0 +1,115 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.api.ext;
+
+import jacobi.api.Matrix;
+import jacobi.api.annotations.Facade;
+import jacobi.api.annotations.Implementation;
+import jacobi.api.annotations.Pure;
+import jacobi.core.op.LazyOperators;
+import java.util.function.Supplier;
+
+/**
+ * Extension for lazily evaluated matrix arithmetics operations.
+ * 
+ * This extension is a chaining interface like Op, but each operation only builds an expression 
+ * and no element is computed until get() is called. The element-wise operations are then fused into 
+ * a single pass without intermediate matrices, and scalar multiplications are folded into
+ * the matrix products.
+ * 
+ * This extension is non-perturbative, i.e.&nbsp;it preserves the value of the matrices
+ * it operates upon.
+ * 
+ * @author Y.K. Chan
+ */
+@Pure
+@Facade
+public interface LazyOp extends Supplier<Matrix> {
+    
+    /**
+     * Matrix addition, i.e.&nbsp;C = A + B
+     * @param b  2nd Operand. The first operand is the extension parameter.
+     * @return  LazyOp instance with expression of resultant matrix
+     */
+    @Implementation(LazyOperators.Add.class)
+    public LazyOp add(Matrix b);
+    
+    /**
+     * Matrix subtraction, i.e.&nbsp;C = A - B
+     * @param b  2nd Operand. The first operand is the extension parameter.
+     * @return  LazyOp instance with expression of resultant matrix
+     */
+    @Implementation(LazyOperators.Sub.class)
+    public LazyOp sub(Matrix b);
+    
+    /**
+     * Matrix multiplication, i.e.&nbsp;C = A * B
+     * @param b  2nd Operand. The first operand is the extension parameter.
+     * @return  LazyOp instance with expression of resultant matrix
+     */
+    @Implementation(LazyOperators.Mul.class)
+    public LazyOp mul(Matrix b);
+    
+    /**
+     * Matrix multiplication with transpose of the 2nd operand, i.e.&nbsp;C = A * B^t
+     * @param b  2nd Operand. The first operand is the extension parameter.
+     * @return  LazyOp instance with expression of resultant matrix
+     */
+    @Implementation(LazyOperators.MulT.class)
+    public LazyOp mulT(Matrix b);
+    
+    /**
+     * Hadamand multiplication, i.e.&nbsp;element-by-element multiplication.
+     * @param b  2nd Operand. The first operand is the extension parameter.
+     * @return  LazyOp instance with expression of resultant matrix
+     */
+    @Implementation(LazyOperators.Hadamard.class)
+    public LazyOp hadamard(Matrix b);
+    
+    /**
+     * Matrix multiplication with a scalar. C = k * A
+     * @param k  scalar operand. The first operand is the extension parameter.
+     * @return  LazyOp instance with expression of resultant matrix
+     */
+    @Implementation(LazyOperators.Hadamard.class)
+    public LazyOp mul(double k);
+    
+    /**
+     * Evaluate the expression into a destination matrix, which can be an operand of 
+     * the expression. A matrix product is computed directly into the destination.
+     * @param dest  Destination matrix
+     * @return  Destination matrix
+     */
+    @Implementation(LazyOperators.Into.class)
+    public Matrix into(Matrix dest);
+    
+    /**
+     * Evaluate the expression.
+     * @return  Resultant matrix
+     */
+    @Override
+    @Implementation(LazyOperators.Evaluate.class)
+    public Matrix get();
+    
+}
@@ -28,9 +28,11 @@ import jacobi.api.annotations.Facade;
 import jacobi.api.annotations.Implementation;
 import jacobi.api.annotations.Pure;
 import jacobi.core.op.Dot;
+import jacobi.core.op.LazyOperators;
 import jacobi.core.op.Mul;
 import jacobi.core.op.MulT;
 import jacobi.core.op.Operators;
+import jacobi.core.op.StrassenMul;
 import java.util.function.Supplier;
 
 /**
@@ -74,6 +76,16 @@ public interface Op extends Supplier<Matrix> {
     @Implementation(Mul.class)
     public Op mul(Matrix b);
     
+    /**
+     * Matrix multiplication by Strassen-Winograd algorithm, i.e.&nbsp;C = A * B with fewer flop 
+     * than the conventional product for large matrices, at the cost of larger rounding error.
+     * This is never selected by mul, which always computes the conventional product.
+     * @param b  2nd Operand. The first operand is the extension parameter.
+     * @return  Op instance with Resultant matrix
+     */
+    @Implementation(StrassenMul.class)
+    public Op mulStrassen(Matrix b);
+    
     /**
      * Matrix multiplication with transpose of the 2nd operand, i.e.&nbsp;C = A * B^t
      * @param b  2nd Operand. The first operand is the extension parameter.
@@ -106,4 +118,12 @@ public interface Op extends Supplier<Matrix> {
     @Implementation(Dot.class)
     public Op dot(Matrix b);
     
+    /**
+     * Continue the chain with lazily evaluated operations, s.t.&nbsp;the subsequent operations 
+     * are evaluated in a single pass on get(). See LazyOp.
+     * @return  LazyOp instance with the matrix as the first operand
+     */
+    @Implementation(LazyOperators.Lazy.class)
+    public LazyOp lazy();
+    
 }
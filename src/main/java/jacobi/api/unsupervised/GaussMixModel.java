@@ -42,6 +42,8 @@ import jacobi.core.clustering.StandardScoreCluster;
 import jacobi.core.clustering.WithinClusterDistance;
 import jacobi.core.util.Pair;
 import jacobi.core.util.ParallelSupplier;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
 import jacobi.core.util.Throw;
 import jacobi.core.util.Weighted;
 
@@ -64,7 +66,8 @@ public class GaussMixModel {
 	public static final int DEFAULT_KMEANS_PP_SAMPLING = 4;
 	
 	/**
-     * Suggested maximum number of flop to parallelize.
+     * Suggested maximum number of flop to parallelize. The threshold in use is given by Thresholds 
+     * for KMEANS, which shares the k-means++ initialization and the euclidean metric with k-means.
      */
 	public static final int DEFAULT_FLOP_THRESHOLD = ParallelSupplier.DEFAULT_FLOP_THRESHOLD;
 	
@@ -137,7 +140,7 @@ public class GaussMixModel {
 	 * @return  Implementation of clustering algorithm
 	 */
 	protected Clustering init(int k, boolean full) {
-		long flop = GaussMixModel.DEFAULT_FLOP_THRESHOLD;
+		long flop = Thresholds.threshold(Operation.KMEANS);
 		
 		KMeansPP init = new KMeansPP(EuclideanCluster.getInstance(),
 			n -> (int) Math.floor(n * this.randFn.getAsDouble()),
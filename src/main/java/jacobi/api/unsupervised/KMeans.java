@@ -40,6 +40,8 @@ import jacobi.core.clustering.IterativeClustering;
 import jacobi.core.clustering.KMeansPP;
 import jacobi.core.clustering.PseudoSilhouetteCoeff;
 import jacobi.core.clustering.WithinClusterDistance;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
 import jacobi.core.util.Throw;
 
 /**
@@ -53,7 +55,7 @@ import jacobi.core.util.Throw;
 public class KMeans {
 	
 	/**
-	 * Default number of FLOPs to start parallelizing
+	 * Default number of FLOPs to start parallelizing. The threshold in use is given by Thresholds for KMEANS.
 	 */
 	public static final long DEFAULT_FLOP_THRESHOLD = 4096L;
 	
@@ -73,7 +75,8 @@ public class KMeans {
 	public KMeans() {
 		this.randFn = () -> ThreadLocalRandom.current().nextDouble();
 		this.measureIntra = WithinClusterDistance.of(EuclideanCluster.getInstance());
-		this.measureInter = new PseudoSilhouetteCoeff(EuclideanCluster.getInstance(), DEFAULT_FLOP_THRESHOLD);
+		this.measureInter = new PseudoSilhouetteCoeff(EuclideanCluster.getInstance(), 
+			Thresholds.threshold(Operation.KMEANS));
 	}
 
 	/**
@@ -95,7 +98,7 @@ public class KMeans {
 			return Collections.singletonList(IntStream.range(0, matrix.getRowCount()).toArray());
 		}
 		
-		long flop = DEFAULT_FLOP_THRESHOLD;
+		long flop = Thresholds.threshold(Operation.KMEANS);
 		
 		KMeansPP init = new KMeansPP(EuclideanCluster.getInstance(),
 			n -> (int) Math.floor(n * this.randFn.getAsDouble()),
@@ -24,6 +24,7 @@
 package jacobi.api.unsupervised;
 
 import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -82,7 +83,7 @@ public class Segregation {
 	}
 	
 	/**
-	 * Wrap a sub-matrix into a matrix given the sequence of row indices
+	 * Wrap a sub-matrix into an immutable view of matrix given the sequence of row indices
 	 * @param input  Input matrix
 	 * @param seq  Sequence of row indices
 	 * @param begin  Begin index of interest
@@ -95,26 +96,7 @@ public class Segregation {
 			return Matrices.zeros(0);
 		}
 		
-		int numCols = input.getColCount();
-		return new ImmutableMatrix(){
-
-			@Override
-			public int getRowCount() {
-				return len;
-			}
-
-			@Override
-			public int getColCount() {
-				return numCols;
-			}
-
-			@Override
-			public double[] getRow(int index) {
-				int i = seq[begin + index];
-				return input.getRow(i);
-			}
-			
-		};
+		return ImmutableMatrix.of(Matrices.rows(input, Arrays.copyOfRange(seq, begin, end)));
 	}
 
 	private static final Segregation INSTANCE = new Segregation();
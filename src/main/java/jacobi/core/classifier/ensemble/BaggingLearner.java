@@ -32,6 +32,7 @@ import java.util.function.IntUnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import jacobi.api.Matrices;
 import jacobi.api.Matrix;
 import jacobi.api.classifier.Classifier;
 import jacobi.api.classifier.ClassifierLearner;
@@ -189,24 +190,9 @@ public class BaggingLearner<T, C extends Classifier<T>, P>
 	 * @return  Matrix with only the sampled rows
 	 */
 	protected Matrix subMatrix(Matrix matrix, Sequence samples) {
-		return new ImmutableMatrix() {
-
-			@Override
-			public int getRowCount() {
-				return samples.length();
-			}
-
-			@Override
-			public int getColCount() {
-				return matrix.getColCount();
-			}
-
-			@Override
-			public double[] getRow(int index) {
-				return matrix.getRow(samples.indexAt(index));
-			}
-			
-		};
+		return ImmutableMatrix.of(
+			Matrices.rows(matrix, IntStream.range(0, samples.length()).map(samples::indexAt).toArray())
+		);
 	}
 	
 	/**
@@ -32,7 +32,7 @@ import java.util.stream.Collectors;
 
 import jacobi.api.Matrix;
 import jacobi.api.unsupervised.Segregation;
-import jacobi.core.util.ParallelSupplier;
+import jacobi.core.util.MapReducer;
 
 /**
  * Clustering using Expectation-Maximization algorithm.
@@ -47,6 +47,9 @@ import jacobi.core.util.ParallelSupplier;
  * <p>In the context of clustering, expectation is obtaining the cluster models given the memberships of
  * each vectors as parameter, and maximization is assign the vector to the updated cluster models.</p>
  * 
+ * <p>Vectors are only visited by forEachRow(...) in both steps, s.t.&nbsp;a matrix stored in single precision
+ * or memory-mapped is streamed through a reused buffer without widening copies of the rows.</p>
+ * 
  * @author Y.K. Chan
  * @param T  Type of cluster descriptor
  *
@@ -155,22 +158,19 @@ public class ExpectationMaximization<T> implements Clustering {
 		
 		long estCost = (long) clusters.size() * matrix.getRowCount() * matrix.getColCount();
 		if(estCost > this.flop){
-			ParallelSupplier.cyclic(i -> {
-				int c = this.select(clusters, matrix.getRow(i));
-				memberships[i] = c;
-			}, 0, matrix.getRowCount());
-			
-			Arrays.fill(counts, 0);
-			for(int m : memberships){
-				counts[m]++;
-			}
+			MapReducer.of(0, matrix.getRowCount())
+				.flop(clusters.size() * matrix.getColCount())
+				.forEach((begin, end) -> matrix.forEachRow(begin, end, 
+					(row, i) -> memberships[i] = this.select(clusters, row)
+				));
 		}else{
+			matrix.forEachRow(0, matrix.getRowCount(), 
+				(row, i) -> memberships[i] = this.select(clusters, row)
+			);
+		}
 		
-			for(int i = 0; i < matrix.getRowCount(); i++){
-				int c = this.select(clusters, matrix.getRow(i));
-				memberships[i] = c;
-				counts[c]++;
-			}
+		for(int m : memberships){
+			counts[m]++;
 		}
 		
 		return new Array(memberships, counts);
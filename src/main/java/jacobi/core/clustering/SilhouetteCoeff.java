@@ -27,7 +27,9 @@ import java.util.List;
 import java.util.function.ToDoubleBiFunction;
 
 import jacobi.api.Matrix;
+import jacobi.core.impl.FloatMatrix;
 import jacobi.core.util.ParallelSupplier;
+import jacobi.core.util.VectorKernels;
 
 /**
  * Compute the Silhouette coefficient measurement of the fitness of clustering result.
@@ -107,6 +109,10 @@ public class SilhouetteCoeff implements ToDoubleBiFunction<Matrix, List<int[]>>
 	 * @return   Total distance between a given vector and all other vectors grouped by clusters
 	 */
 	protected double[] clusterDists(Matrix input, int index, int[] clusterMap, double[] dists) {
+		if(input instanceof FloatMatrix){
+			return this.clusterDists((FloatMatrix) input, index, clusterMap, dists);
+		}
+		
 		double[] u = input.getRow(index);
 		for(int i = 0; i < input.getRowCount(); i++){
 			if(i == index){
@@ -121,6 +127,31 @@ public class SilhouetteCoeff implements ToDoubleBiFunction<Matrix, List<int[]>>
 		return dists;
 	}
 	
+	/**
+	 * Compute the total distance between a given vector and all other vectors grouped by clusters, 
+	 * with vectors read directly from the single precision storage.
+	 * @param input  Input row vectors
+	 * @param index  Index of the given vector
+	 * @param clusterMap  Cluster that each vector belongs to
+	 * @param dists  Distances buffer for each cluster
+	 * @return   Total distance between a given vector and all other vectors grouped by clusters
+	 */
+	protected double[] clusterDists(FloatMatrix input, int index, int[] clusterMap, double[] dists) {
+		VectorKernels kernels = VectorKernels.getInstance();
+		float[] array = input.getArray();
+		int u = input.indexOf(index, 0);
+		for(int i = 0; i < input.getRowCount(); i++){
+			if(i == index){
+				continue;
+			}
+			
+			int cluster = clusterMap[i];
+			dists[cluster] += kernels.sqDist(array, u, array, input.indexOf(i, 0), input.getColCount());
+		}
+		
+		return dists;
+	}
+	
 	/**
 	 * Build a hash table on sequence of indices for each clusters
 	 * @param num  Number of vectors
@@ -145,12 +176,7 @@ public class SilhouetteCoeff implements ToDoubleBiFunction<Matrix, List<int[]>>
 	 * @return  Squared euclidean distance
 	 */
 	protected double sqDist(double[] u, double[] v) {
-		double sum = 0.0;
-		for(int i = 0; i < u.length; i++){
-			double dx = u[i] - v[i];
-			sum += dx * dx;
-		}
-		return sum;
+		return VectorKernels.getInstance().sqDist(u, 0, v, 0, u.length);
 	}
 	
 	/**
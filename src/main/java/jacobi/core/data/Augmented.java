@@ -28,6 +28,7 @@ import jacobi.api.Matrix;
 import jacobi.api.annotations.Delegate;
 import jacobi.api.annotations.Pure;
 import jacobi.api.ext.Data;
+import jacobi.core.impl.CopyOnWriteMatrix;
 import jacobi.core.impl.ImmutableMatrix;
 import java.util.List;
 import java.util.function.Function;
@@ -196,7 +197,11 @@ public class Augmented extends ImmutableMatrix implements Data {
     }
 
     /**
-     * Build the augmented matrix.
+     * Build the augmented matrix. If columns are only selected without augmentation, the
+     * returned matrix is a copy-on-write view of the selected columns that shares storage
+     * with the base matrix until it is modified, except a single column which is always
+     * built as a column vector. Selecting all columns in order is not a selection, and the
+     * returned matrix is a copy as any other augmentation.
      * @return  The augmented matrix.
      */
     @Pure
@@ -205,6 +210,10 @@ public class Augmented extends ImmutableMatrix implements Data {
         if(this.base.getRowCount() == 0){
             return Matrices.zeros(0);
         }
+        int[] selection = this.builder.getSelection();
+        if(selection != null && selection.length > 1 && !this.isIdentity(selection)){
+            return CopyOnWriteMatrix.of(Matrices.cols(this.base, selection));
+        }
         PaddingPlan plan = this.builder.build();
         Buffer buffer = plan.createBuffer();
         double[] recon = plan.apply(buffer, this.base.getRow(0));
@@ -215,6 +224,23 @@ public class Augmented extends ImmutableMatrix implements Data {
         }
         return matrix;
     }
+    
+    /**
+     * Determine if a selection of columns is all columns of the base matrix in order.
+     * @param selection  Selection of columns
+     * @return  True if the selection is a no-op, false otherwise
+     */
+    protected boolean isIdentity(int[] selection) {
+        if(selection.length != this.base.getColCount()){
+            return false;
+        }
+        for(int i = 0; i < selection.length; i++){
+            if(selection[i] != i){
+                return false;
+            }
+        }
+        return true;
+    }
 
     @Override
     public Matrix get() {
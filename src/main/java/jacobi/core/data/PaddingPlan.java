@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * Determines the maximum number of element and number of element to pre-allocate
@@ -102,6 +103,7 @@ class PaddingPlan {
             this.currentLength = initLength;
             this.currentPrepend = 0;
             this.funcs = new ArrayList<>();
+            this.selection = IntStream.range(0, initLength).toArray();
         }
         
         /**
@@ -112,6 +114,7 @@ class PaddingPlan {
         public Builder append(Function<List<Double>, Double> func) {
             this.currentLength++;
             this.funcs.add((buf) -> buf.insert(Integer.MAX_VALUE, func.apply(buf)) );
+            this.selection = null;
             return this.update();
         }
         
@@ -124,6 +127,7 @@ class PaddingPlan {
             //this.currentLength++;
             this.currentPrepend++;
             this.funcs.add((buf) -> buf.insert(0, func.apply(buf)) );
+            this.selection = null;
             return this.update();
         }
         
@@ -139,6 +143,7 @@ class PaddingPlan {
             } 
             this.currentLength++;
             this.funcs.add((buf) -> buf.insert(at, func.apply(buf)) );
+            this.selection = null;
             return this.update();
         }
         
@@ -161,6 +166,10 @@ class PaddingPlan {
                         () -> "Invalid column " + i);
             }
             this.funcs.add((buf) -> buf.select(cols));
+            if(this.selection != null){
+                int[] sel = this.selection;
+                this.selection = IntStream.of(cols).map(i -> sel[i]).toArray();
+            }
             this.currentPrepend = 0;
             this.currentLength = cols.length;
             return this.update();
@@ -176,6 +185,15 @@ class PaddingPlan {
             return new PaddingPlan(() -> new Buffer(prep, prep + max), this.funcs);
         }
         
+        /**
+         * Get the column indices of the original row selected by this plan, if this plan only
+         * selects columns without augmenting any column.
+         * @return  Selected column indices, or null if any column is augmented
+         */
+        public int[] getSelection() {
+            return this.selection == null ? null : this.selection.clone();
+        }
+        
         /**
          * Copy the state of this builder and retain the original.
          * @return  New builder
@@ -186,6 +204,7 @@ class PaddingPlan {
             builder.currentLength = this.currentLength;
             builder.currentPrepend = this.currentPrepend;
             builder.funcs = new ArrayList<>(this.funcs);
+            builder.selection = this.selection;
             return builder;
         }
         
@@ -198,6 +217,7 @@ class PaddingPlan {
         private int maxPrepend, maxLength;
         private int currentPrepend, currentLength;
         private List<Consumer<Buffer>> funcs;
+        private int[] selection;
     }
 
 }
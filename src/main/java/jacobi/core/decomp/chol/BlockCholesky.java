@@ -0,0 +1,150 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.chol;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import jacobi.api.annotations.Pure;
+import jacobi.core.impl.BlockMatrix;
+import jacobi.core.op.BlockMul;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Throw;
+import jacobi.core.util.VectorKernels;
+
+/**
+ * Implementation of tiled Cholesky decomposition of a block matrix.
+ * 
+ * <p>For each grid column k, the diagonal tile is decomposed as L[k,k] * L[k,k]^t, then the tiles below
+ * are solved by L[i,k] = A[i,k] * L[k,k]^-t, and the trailing tiles are updated by 
+ * A[i,j] = A[i,j] - L[i,k] * L[j,k]^t. Tiles in each of the latter two steps are independent, and
+ * they are distributed among threads tile by tile. Only the trailing tiles on or below the diagonal
+ * are updated, which halves the work of the symmetric update.</p>
+ * 
+ * <p>Only the lower triangular part of A is accessed.</p>
+ * 
+ * @author Y.K. Chan
+ */
+@Pure
+public class BlockCholesky {
+    
+    /**
+     * Find lower triangular L of a matrix A s.t.&nbsp;A = L * L^t.
+     * @param matrix  Matrix A
+     * @return  Matrix L partitioned in the same tile size, or empty if A is not positive definite
+     * @throws  IllegalArgumentException if A is null or A is not square
+     */
+    public Optional<BlockMatrix> compute(BlockMatrix matrix) {
+        Throw.when()
+            .isNull(() -> matrix, () -> "No matrix to decompose.")
+            .isTrue(
+                () -> matrix.getRowCount() != matrix.getColCount(),
+                () -> "Unable to decompose a " 
+                        + matrix.getRowCount() + "x" + matrix.getColCount()
+                        + " matrix.");
+        
+        BlockMatrix lower = matrix.copy();
+        return this.factor(lower) ? Optional.of(lower) : Optional.empty();
+    }
+    
+    /**
+     * Factor a matrix A in-place into its lower triangular factor L, with upper part set to zero.
+     * @param lower  Matrix A, overwritten by L
+     * @return  True if A is positive definite, false otherwise
+     */
+    protected boolean factor(BlockMatrix lower) {
+        int grid = lower.getGridRowCount();
+        boolean parallel = (long) lower.getRowCount() * lower.getRowCount() * lower.getRowCount() 
+            >= Thresholds.threshold(Operation.MUL);
+        
+        for(int k = 0; k < grid; k++){
+            if(!this.factor(lower.getTile(k, k), lower.tileRowCount(k))){
+                return false;
+            }
+            int diag = k;
+            BlockMul.forEach(parallel, grid - k - 1, (begin, end) -> {
+                for(int i = diag + 1 + begin; i < diag + 1 + end; i++){
+                    this.solve(lower.getTile(diag, diag), lower.getTile(i, diag), 
+                        lower.tileRowCount(i), lower.tileColCount(diag));
+                }
+            });
+            
+            int next = k + 1;
+            BlockMul.forEachLower(parallel, grid - next, (i, j) -> {
+                BlockMul.gemmT(-1.0, lower.getTile(next + i, diag), lower.getTile(next + j, diag), 
+                    lower.getTile(next + i, next + j), 
+                    lower.tileRowCount(next + i), lower.tileColCount(diag), lower.tileRowCount(next + j));
+            });
+        }
+        
+        for(int i = 0; i < grid; i++){
+            for(int j = i + 1; j < grid; j++){
+                Arrays.fill(lower.getTile(i, j), 0.0);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Decompose a diagonal tile in-place into its lower triangular factor, with upper part set to zero.
+     * @param tile  Diagonal tile in row-major order
+     * @param n  Number of rows and columns of the tile
+     * @return  True if the tile is positive definite, false otherwise
+     */
+    protected boolean factor(double[] tile, int n) {
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int i = 0; i < n; i++){
+            for(int j = 0; j < i; j++){
+                double temp = tile[i * n + j] - kernels.dot(tile, i * n, tile, j * n, j);
+                tile[i * n + j] = temp / tile[j * n + j];
+            }
+            double sumOfSquares = kernels.dot(tile, i * n, tile, i * n, i);
+            if(tile[i * n + i] < sumOfSquares){
+                return false;
+            }
+            tile[i * n + i] = Math.sqrt(tile[i * n + i] - sumOfSquares);
+            Arrays.fill(tile, i * n + i + 1, (i + 1) * n, 0.0);
+        }
+        return true;
+    }
+    
+    /**
+     * Solve X * L^t = B in-place for a tile B below the diagonal tile L.
+     * @param diag  Diagonal tile L with n rows and columns
+     * @param tile  Tile B with m rows and n columns, overwritten by X
+     * @param m  Number of rows of B
+     * @param n  Number of columns of B
+     */
+    protected void solve(double[] diag, double[] tile, int m, int n) {
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int i = 0; i < m; i++){
+            for(int j = 0; j < n; j++){
+                double temp = tile[i * n + j] - kernels.dot(tile, i * n, diag, j * n, j);
+                tile[i * n + j] = temp / diag[j * n + j];
+            }
+        }
+    }
+
+}
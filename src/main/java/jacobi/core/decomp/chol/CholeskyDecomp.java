@@ -26,10 +26,18 @@ package jacobi.core.decomp.chol;
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
 import jacobi.api.annotations.Pure;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.BlockMatrix;
 import jacobi.core.impl.CopyOnWriteMatrix;
+import jacobi.core.solver.Factorization;
 import jacobi.core.util.Pair;
+import jacobi.core.util.Real;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
 import jacobi.core.util.Throw;
 import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
 
 /**
  *
@@ -38,11 +46,36 @@ import java.util.Optional;
  * Cholesky decomposition is given a square matrix A, find lower triangular L 
  * s.t.&nbsp;A = L * L^t.
  * 
+ * Large dense matrices are packed into tiles and decomposed by BlockCholesky, since the cost of 
+ * packing is O(n^2) against O(n^3) of the decomposition. Small matrices are decomposed row by row.
+ * 
  * @author Y.K. Chan
  */
 @Pure
 public class CholeskyDecomp {
     
+    /**
+     * Default minimum number of flop n^3 to justify packing a matrix into tiles, i.e.&nbsp;the 
+     * measured crossover n = 1024 of a single thread. The threshold in use is given by Thresholds 
+     * for DECOMP.
+     */
+    public static final long DEFAULT_PACK_FLOP = 1024L * 1024L * 1024L;
+    
+    /**
+     * Constructor.
+     */
+    public CholeskyDecomp() {
+        this.packFlop = () -> Thresholds.threshold(Operation.DECOMP);
+    }
+    
+    /**
+     * Constructor.
+     * @param packFlop  Minimum number of flop to justify packing a matrix into tiles
+     */
+    public CholeskyDecomp(long packFlop) {
+        this.packFlop = () -> packFlop;
+    }
+    
     /**
      * Find if a matrix is positive-definite by Cholesky decomposition.
      * @param matrix  Matrix A
@@ -64,6 +97,22 @@ public class CholeskyDecomp {
                 .orElse(Optional.empty());
     }
     
+    /**
+     * Factor a positive-definite matrix A into A = L * L^t, which is reusable for solving
+     * systems of linear equations.
+     * @param matrix  Matrix A
+     * @return  Factorization of A, or empty if A is not positive definite
+     * @throws  IllegalArgumentException if A is null, empty or A is not square
+     */
+    public Optional<Factorization> factorize(Matrix matrix) {
+        Throw.when()
+            .isNull(() -> matrix, () -> "No matrix to decompose.")
+            .isTrue(() -> matrix.getRowCount() == 0, () -> "No matrix to decompose.");
+        return this.compute(matrix)
+            .filter((lower) -> IntStream.range(0, lower.getRowCount()).noneMatch((i) -> Real.isNegl(lower.get(i, i))))
+            .map((lower) -> new CholeskyFactorization(ArrayMatrix.of(lower), ArrayMatrix.of(this.transpose(lower))));
+    }
+    
     /**
      * Compute the Cholesky decomposition on a symmetric tri-diagonal matrix A, and return the squared elements.
      * @param diags  Diagonal and sup-diagonal elements of A in B-notation
@@ -98,6 +147,14 @@ public class CholeskyDecomp {
                         + matrix.getRowCount() + "x" + matrix.getColCount()
                         + " matrix.");
         
+        if(matrix instanceof BlockMatrix){
+            return new BlockCholesky().compute((BlockMatrix) matrix).map((lower) -> lower);
+        }
+        if(this.isPackable(matrix)){
+            BlockMatrix lower = BlockMatrix.of(matrix);
+            return new BlockCholesky().factor(lower) ? Optional.of(ArrayMatrix.of(lower)) : Optional.empty();
+        }
+        
         Matrix lower = Matrices.zeros(matrix.getRowCount());
         for(int i = 0; i < lower.getRowCount(); i++){ 
             double[] target = matrix.getRow(i);
@@ -114,6 +171,19 @@ public class CholeskyDecomp {
         return Optional.of(lower);
     }            
 
+    /**
+     * Determine if a matrix is large enough to justify packing into tiles for decomposition. Only
+     * square matrices are packed.
+     * @param matrix  Input matrix
+     * @return  True if worth packing, false otherwise
+     */
+    protected boolean isPackable(Matrix matrix) {
+        int n = matrix.getRowCount();
+        return !(matrix instanceof BlockMatrix)
+            && n == matrix.getColCount()
+            && (long) n * n * n >= this.packFlop.getAsLong();
+    }
+
     /**
      * Compute a 1 to n columns of row of lower triangular matrix L.
      * @param target  N-th row in matrix A
@@ -152,4 +222,6 @@ public class CholeskyDecomp {
         }
         return upper;
     }
+    
+    private LongSupplier packFlop;
 }
@@ -0,0 +1,109 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.chol;
+
+import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.solver.Factorization;
+import jacobi.core.solver.PackedSubstitution;
+import jacobi.core.solver.Substitution.Mode;
+import jacobi.core.util.Throw;
+
+/**
+ * Reusable Cholesky decomposition A = L * L^t of a positive-definite matrix A, for solving 
+ * A * X = B by X = L^-t * L^-1 * B.
+ * 
+ * <p>Both L and L^t are kept in a single array each, s.t.&nbsp;both forward and backward 
+ * substitution access the triangular matrix row by row.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class CholeskyFactorization implements Factorization {
+    
+    /**
+     * Constructor.
+     * @param lower  Lower triangular matrix L
+     * @param upper  Upper triangular matrix L^t
+     */
+    public CholeskyFactorization(ArrayMatrix lower, ArrayMatrix upper) {
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.lower.getRowCount();
+    }
+
+    @Override
+    public int getColCount() {
+        return this.lower.getColCount();
+    }
+
+    @Override
+    public Matrix solve(Matrix rhs) {
+        this.validate(rhs);
+        return this.compute(ArrayMatrix.of(rhs));
+    }
+
+    @Override
+    public Matrix solveInPlace(Matrix rhs) {
+        this.validate(rhs);
+        if(rhs instanceof ArrayMatrix){
+            return this.compute((ArrayMatrix) rhs);
+        }
+        ArrayMatrix x = this.compute(ArrayMatrix.of(rhs));
+        for(int i = 0; i < x.getRowCount(); i++){
+            rhs.setRow(i, x.getRow(i));
+        }
+        return rhs;
+    }
+    
+    /**
+     * Transform B to L^-t * L^-1 * B.
+     * @param rhs  Right-hand side B
+     * @return  Instance of B transformed
+     */
+    protected ArrayMatrix compute(ArrayMatrix rhs) {
+        new PackedSubstitution(Mode.FORWARD, this.lower, false).compute(rhs);
+        return new PackedSubstitution(Mode.BACKWARD, this.upper, false).compute(rhs);
+    }
+    
+    /**
+     * Validate the right-hand side of the system of linear equations.
+     * @param rhs  Right-hand side B
+     * @throws  IllegalArgumentException if B is null or dimension mismatch
+     */
+    protected void validate(Matrix rhs) {
+        Throw.when()
+            .isNull(() -> rhs, () -> "No known values.")
+            .isTrue(
+                () -> rhs.getRowCount() != this.lower.getRowCount(), 
+                () -> "Dimension mismatch. Encounters " + this.lower.getRowCount() 
+                    + " equations and " + rhs.getRowCount() + " known values.");
+    }
+
+    private ArrayMatrix lower;
+    private ArrayMatrix upper;
+}
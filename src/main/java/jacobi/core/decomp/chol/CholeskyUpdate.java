@@ -0,0 +1,101 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.chol;
+
+import jacobi.api.Matrix;
+import jacobi.core.decomp.qr.QRUpdate;
+import jacobi.core.impl.TransposedMatrix;
+import jacobi.core.util.Throw;
+import java.util.Optional;
+
+/**
+ * Implementation of rank-one update and downdate of a Cholesky decomposition A = L * L^t, 
+ * i.e.&nbsp;find L' s.t.&nbsp;L' * L'^t = A +/- x * x^t.
+ * 
+ * <p>L^t is the upper triangular factor R of a QR decomposition of a matrix whose Gramian is A, 
+ * thus the update is delegated to QRUpdate on a transposed view of L. Each row access of the view
+ * is a column access of L, thus the update remains O(n^2).</p>
+ * 
+ * <p>This class is mutating, i.e.&nbsp;it transforms L in-place.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class CholeskyUpdate {
+    
+    /**
+     * Constructor.
+     */
+    public CholeskyUpdate() {
+        this(new QRUpdate());
+    }
+    
+    /**
+     * Constructor.
+     * @param qrUpdate  Implementation of update on upper triangular factor
+     */
+    public CholeskyUpdate(QRUpdate qrUpdate) {
+        this.qrUpdate = qrUpdate;
+    }
+    
+    /**
+     * Update L to L' s.t.&nbsp;L' * L'^t = L * L^t + x * x^t.
+     * @param lower  Lower triangular matrix L
+     * @param vector  Vector x
+     * @return  Instance of L, now containing L'
+     * @throws  IllegalArgumentException if L or x is null, L is not square or dimension mismatch
+     */
+    public Matrix update(Matrix lower, double[] vector) {
+        this.validate(lower);
+        this.qrUpdate.update(TransposedMatrix.of(lower), vector);
+        return lower;
+    }
+    
+    /**
+     * Downdate L to L' s.t.&nbsp;L' * L'^t = L * L^t - x * x^t. L is not changed if failed.
+     * @param lower  Lower triangular matrix L
+     * @param vector  Vector x
+     * @return  Instance of L, now containing L', or empty if L * L^t - x * x^t is not positive definite
+     * @throws  IllegalArgumentException if L or x is null, L is not square or dimension mismatch
+     */
+    public Optional<Matrix> downdate(Matrix lower, double[] vector) {
+        this.validate(lower);
+        return this.qrUpdate.downdate(TransposedMatrix.of(lower), vector).map((upper) -> lower);
+    }
+    
+    /**
+     * Validate the lower triangular matrix.
+     * @param lower  Lower triangular matrix L
+     * @throws  IllegalArgumentException if L is null or not square
+     */
+    protected void validate(Matrix lower) {
+        Throw.when()
+            .isNull(() -> lower, () -> "No lower triangular matrix.")
+            .isTrue(
+                () -> lower.getRowCount() != lower.getColCount(), 
+                () -> "Matrix L is not a square matrix. (" 
+                    + lower.getRowCount() + "x" + lower.getColCount() + ")");
+    }
+
+    private QRUpdate qrUpdate;
+}
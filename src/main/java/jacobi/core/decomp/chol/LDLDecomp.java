@@ -0,0 +1,227 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.chol;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jacobi.api.Matrix;
+import jacobi.api.annotations.Pure;
+import jacobi.core.impl.BlockMatrix;
+import jacobi.core.impl.DiagonalMatrix;
+import jacobi.core.op.BlockMul;
+import jacobi.core.util.Pair;
+import jacobi.core.util.Real;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Throw;
+import jacobi.core.util.VectorKernels;
+
+/**
+ * Implementation of tiled LDL^t decomposition of a symmetric matrix, i.e.&nbsp;A = L * D * L^t where
+ * L is unit lower triangular and D is diagonal.
+ * 
+ * <p>Unlike Cholesky decomposition, A needs not be positive definite. The elements of D are 
+ * negative for an indefinite A, and zero for a semi-definite A where a column is degenerated. A column 
+ * with a negligible element in D is only allowed if the rest of the column is also negligible, in which 
+ * case the column of L is set to zero. Negligible is relative to the magnitude of A, i.e.&nbsp;an 
+ * absolute value not greater than Real.EPSILON times the largest absolute diagonal element of A. No pivoting is done, thus the decomposition fails for matrices 
+ * like [0 1; 1 0] although they are non-singular.</p>
+ * 
+ * <p>The matrix is packed into tiles. For each grid column k, the diagonal tile is decomposed as 
+ * L[k,k] * D[k] * L[k,k]^t, then the tiles below are solved by L[i,k] = A[i,k] * L[k,k]^-t * D[k]^-1, 
+ * and the trailing tiles on or below the diagonal are updated by A[i,j] = A[i,j] - W[i,k] * L[j,k]^t, 
+ * where W[i,k] = L[i,k] * D[k]. Tiles in each of the latter two steps are independent, and
+ * they are distributed among threads tile by tile.</p>
+ * 
+ * <p>Only the lower triangular part of A is accessed.</p>
+ * 
+ * @author Y.K. Chan
+ */
+@Pure
+public class LDLDecomp {
+    
+    /**
+     * Find unit lower triangular L and diagonal D of a symmetric matrix A s.t.&nbsp;A = L * D * L^t.
+     * @param matrix  Matrix A
+     * @return  A pair of matrices &lt;L, D&gt;, or empty if A can not be decomposed without pivoting
+     * @throws  IllegalArgumentException if A is null or A is not square
+     */
+    public Optional<Pair> compute(Matrix matrix) {
+        Throw.when()
+            .isNull(() -> matrix, () -> "No matrix to decompose.")
+            .isTrue(
+                () -> matrix.getRowCount() != matrix.getColCount(),
+                () -> "Unable to decompose a " 
+                        + matrix.getRowCount() + "x" + matrix.getColCount()
+                        + " matrix.");
+        if(matrix.getRowCount() == 0){
+            return Optional.of(Pair.of(matrix, matrix));
+        }
+        
+        BlockMatrix lower = matrix instanceof BlockMatrix 
+            ? ((BlockMatrix) matrix).copy() 
+            : BlockMatrix.of(matrix);
+        double[] diag = new double[lower.getRowCount()];
+        if(!this.factor(lower, diag)){
+            return Optional.empty();
+        }
+        return Optional.of(Pair.of(lower, new DiagonalMatrix(diag)));
+    }
+    
+    /**
+     * Factor a matrix A in-place into unit lower triangular L, with upper part set to zero, and 
+     * the diagonal elements of D.
+     * @param lower  Matrix A, overwritten by L
+     * @param diag  Buffer for diagonal elements of D
+     * @return  True if decomposed, false otherwise
+     */
+    protected boolean factor(BlockMatrix lower, double[] diag) {
+        double tol = this.tolerance(lower);
+        int grid = lower.getGridRowCount();
+        int size = lower.getTileSize();
+        boolean parallel = (long) lower.getRowCount() * lower.getRowCount() * lower.getRowCount() 
+            >= Thresholds.threshold(Operation.DECOMP);
+        
+        for(int k = 0; k < grid; k++){
+            int width = lower.tileColCount(k);
+            if(!this.factor(lower.getTile(k, k), width, diag, k * size, tol)){
+                return false;
+            }
+            
+            int diagIndex = k;
+            int next = k + 1;
+            double[][] scaled = new double[grid - next][];
+            AtomicBoolean valid = new AtomicBoolean(true);
+            BlockMul.forEach(parallel, grid - next, (begin, end) -> {
+                for(int i = begin; i < end; i++){
+                    double[] tile = lower.getTile(next + i, diagIndex);
+                    scaled[i] = new double[tile.length];
+                    if(!this.solve(lower.getTile(diagIndex, diagIndex), tile, scaled[i], 
+                            lower.tileRowCount(next + i), width, diag, diagIndex * size, tol)){
+                        valid.set(false);
+                    }
+                }
+            });
+            if(!valid.get()){
+                return false;
+            }
+            
+            BlockMul.forEachLower(parallel, grid - next, (i, j) -> {
+                BlockMul.gemmT(-1.0, scaled[i], lower.getTile(next + j, diagIndex), 
+                    lower.getTile(next + i, next + j), 
+                    lower.tileRowCount(next + i), width, lower.tileRowCount(next + j));
+            });
+        }
+        
+        for(int i = 0; i < grid; i++){
+            for(int j = i + 1; j < grid; j++){
+                Arrays.fill(lower.getTile(i, j), 0.0);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Find the tolerance of negligible values relative to the magnitude of a matrix A, i.e.&nbsp;
+     * Real.EPSILON times the largest absolute diagonal element of A.
+     * @param matrix  Matrix A
+     * @return  Tolerance of negligible values
+     */
+    protected double tolerance(Matrix matrix) {
+        double max = 0.0;
+        for(int i = 0; i < matrix.getRowCount(); i++){
+            max = Math.max(max, Math.abs(matrix.get(i, i)));
+        }
+        return Real.EPSILON * max;
+    }
+    
+    /**
+     * Decompose a diagonal tile in-place into its unit lower triangular factor, with upper part set 
+     * to zero, and the corresponding diagonal elements of D.
+     * @param tile  Diagonal tile in row-major order
+     * @param n  Number of rows and columns of the tile
+     * @param diag  Diagonal elements of D
+     * @param offset  Index of the first diagonal element of the tile in D
+     * @param tol  Tolerance of negligible values
+     * @return  True if decomposed, false otherwise
+     */
+    protected boolean factor(double[] tile, int n, double[] diag, int offset, double tol) {
+        VectorKernels kernels = VectorKernels.getInstance();
+        double[] scaled = new double[n];
+        for(int j = 0; j < n; j++){
+            for(int p = 0; p < j; p++){
+                scaled[p] = tile[j * n + p] * diag[offset + p];
+            }
+            double elem = tile[j * n + j] - kernels.dot(scaled, 0, tile, j * n, j);
+            diag[offset + j] = Math.abs(elem) <= tol ? 0.0 : elem;
+            tile[j * n + j] = 1.0;
+            Arrays.fill(tile, j * n + j + 1, (j + 1) * n, 0.0);
+            
+            for(int i = j + 1; i < n; i++){
+                double temp = tile[i * n + j] - kernels.dot(tile, i * n, scaled, 0, j);
+                if(diag[offset + j] == 0.0 && Math.abs(temp) > tol){
+                    return false;
+                }
+                tile[i * n + j] = diag[offset + j] == 0.0 ? 0.0 : temp / diag[offset + j];
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Solve X * D * L^t = B in-place for a tile B below the diagonal tile L, and find W = X * D.
+     * @param diagTile  Diagonal tile L with n rows and columns
+     * @param tile  Tile B with m rows and n columns, overwritten by X
+     * @param scaled  Buffer for W with m rows and n columns
+     * @param m  Number of rows of B
+     * @param n  Number of columns of B
+     * @param diag  Diagonal elements of D
+     * @param offset  Index of the first diagonal element of the diagonal tile in D
+     * @param tol  Tolerance of negligible values
+     * @return  True if solved, false otherwise
+     */
+    protected boolean solve(double[] diagTile, double[] tile, double[] scaled, int m, int n, 
+            double[] diag, int offset, double tol) {
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int i = 0; i < m; i++){
+            for(int j = 0; j < n; j++){
+                double temp = tile[i * n + j] - kernels.dot(scaled, i * n, diagTile, j * n, j);
+                if(diag[offset + j] == 0.0){
+                    if(Math.abs(temp) > tol){
+                        return false;
+                    }
+                    scaled[i * n + j] = 0.0;
+                    tile[i * n + j] = 0.0;
+                    continue;
+                }
+                scaled[i * n + j] = temp;
+                tile[i * n + j] = temp / diag[offset + j];
+            }
+        }
+        return true;
+    }
+
+}
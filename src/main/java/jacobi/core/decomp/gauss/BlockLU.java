@@ -0,0 +1,365 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.gauss;
+
+import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.BlockMatrix;
+import jacobi.core.impl.CopyOnWriteMatrix;
+import jacobi.core.op.BlockMul;
+import jacobi.core.solver.PackedSubstitution;
+import jacobi.core.solver.Substitution.Mode;
+import jacobi.core.util.Real;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Throw;
+import jacobi.core.util.Triplet;
+import jacobi.core.util.VectorKernels;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementation of tiled LU decomposition with partial pivoting of a block matrix, 
+ * i.e.&nbsp;A = P * L * U where P is a permutation matrix, L is unit lower triangular and 
+ * U is upper triangular.
+ * 
+ * <p>For each grid column k, the column of tiles is eliminated column by column with partial 
+ * pivoting, swapping the entire rows. Then the tiles on the right of the diagonal tile are solved
+ * by U[k,j] = L[k,k]^-1 * A[k,j], and the trailing tiles are updated by 
+ * A[i,j] = A[i,j] - L[i,k] * U[k,j]. Tiles in each of the latter two steps are independent, and
+ * they are distributed among threads tile by tile.</p>
+ * 
+ * <p>Columns with all candidate pivots smaller than a threshold are not eliminated, s.t.&nbsp;the
+ * result agrees with GenericGaussianElim within the threshold.</p>
+ * 
+ * <p>Large dense matrices are worth packing into tiles for the decomposition, since the cost of 
+ * packing is O(n^2) against O(n^3) of the decomposition. Systems of equations are solved by 
+ * substitution on the packed factors, with the right-hand side partitioned into panels of 
+ * columns which are distributed among threads.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class BlockLU {
+    
+    /**
+     * Default minimum number of flop n^3 to justify packing a matrix into tiles, i.e.&nbsp;the 
+     * measured crossover n = 1024 of a single thread. The threshold in use is given by Thresholds 
+     * for DECOMP.
+     */
+    public static final long DEFAULT_PACK_FLOP = 1024L * 1024L * 1024L;
+    
+    /**
+     * Constructor.
+     */
+    public BlockLU() {
+        this.packFlop = () -> Thresholds.threshold(Operation.DECOMP);
+    }
+    
+    /**
+     * Constructor.
+     * @param packFlop  Minimum number of flop to justify packing a matrix into tiles
+     */
+    public BlockLU(long packFlop) {
+        this.packFlop = () -> packFlop;
+    }
+    
+    /**
+     * Determine if a matrix is large enough to justify packing into tiles for decomposition. Only
+     * square matrices are packed.
+     * @param matrix  Input matrix
+     * @return  True if worth packing, false otherwise
+     */
+    public boolean isPackable(Matrix matrix) {
+        int n = matrix.getRowCount();
+        return !(matrix instanceof BlockMatrix)
+            && n == matrix.getColCount()
+            && (long) n * n * n >= this.packFlop.getAsLong();
+    }
+    
+    /**
+     * Performs LU decomposition i.e.&nbsp;transform A to U and returns &lt;P, L, U&gt;, 
+     * where A = P * L * U.
+     * @param matrix  Matrix A
+     * @return  Permutation P, lower triangular L and instance of A transformed into U
+     * @throws  IllegalArgumentException if A is null
+     */
+    public Triplet compute(BlockMatrix matrix) {
+        Permutation perm = this.factor(matrix);
+        BlockMatrix lower = BlockMatrix.zeros(matrix.getRowCount(), matrix.getRowCount(), matrix.getTileSize());
+        for(int i = 0; i < matrix.getRowCount(); i++){
+            for(int j = 0; j < Math.min(i, matrix.getColCount()); j++){
+                lower.set(i, j, matrix.get(i, j));
+                matrix.set(i, j, 0.0);
+            }
+            lower.set(i, i, 1.0);
+        }
+        return Triplet.of(CopyOnWriteMatrix.of(perm.inv()), lower, matrix);
+    }
+    
+    /**
+     * Factor a matrix A in-place into L and U, where the strictly lower triangular part is 
+     * overwritten by L without its unit diagonal, and the upper triangular part by U.
+     * @param matrix  Matrix A
+     * @return  Permutation of rows of A
+     * @throws  IllegalArgumentException if A is null
+     */
+    public Permutation factor(BlockMatrix matrix) {
+        Throw.when().isNull(() -> matrix, () -> "No matrix to decompose.");
+        int[] perm = new int[matrix.getRowCount()];
+        for(int i = 0; i < perm.length; i++){
+            perm[i] = i;
+        }
+        
+        int order = 0;
+        int grid = Math.min(matrix.getGridRowCount(), matrix.getGridColCount());
+        boolean parallel = (long) matrix.getRowCount() * matrix.getColCount() 
+            * Math.min(matrix.getRowCount(), matrix.getColCount()) >= Thresholds.threshold(Operation.MUL);
+        
+        for(int k = 0; k < grid; k++){
+            order += this.panel(matrix, k, perm);
+            
+            int diag = k;
+            int span = matrix.getGridColCount() - k - 1;
+            BlockMul.forEach(parallel, span, (begin, end) -> {
+                for(int j = diag + 1 + begin; j < diag + 1 + end; j++){
+                    this.solve(matrix.getTile(diag, diag), matrix.getTile(diag, j), 
+                        matrix.tileRowCount(diag), matrix.tileColCount(diag), matrix.tileColCount(j));
+                }
+            });
+            
+            int height = matrix.getGridRowCount() - k - 1;
+            BlockMul.forEach(parallel, height * span, (begin, end) -> {
+                for(int t = begin; t < end; t++){
+                    int i = diag + 1 + t / span;
+                    int j = diag + 1 + t % span;
+                    BlockMul.gemm(-1.0, matrix.getTile(i, diag), matrix.getTile(diag, j), matrix.getTile(i, j), 
+                        matrix.tileRowCount(i), matrix.tileColCount(diag), matrix.tileColCount(j));
+                }
+            });
+        }
+        return new Permutation(perm, order % 2 == 0 ? 1 : -1);
+    }
+    
+    /**
+     * Factor a matrix A in-place, and transform a partner matrix B to L^-1 * P^-1 * B.
+     * @param matrix  Matrix A
+     * @param partner  Partner matrix B
+     * @return  Permutation of rows of A
+     * @throws  IllegalArgumentException if A or B is null, or dimension mismatch
+     */
+    public Permutation compute(BlockMatrix matrix, Matrix partner) {
+        Throw.when()
+            .isNull(() -> partner, () -> "No partner matrix.")
+            .isTrue(
+                () -> matrix != null && matrix.getRowCount() != partner.getRowCount(), 
+                () -> "Dimension mismatch. Expects " + matrix.getRowCount() 
+                    + " rows, actual partner has " + partner.getRowCount() + " rows.");
+        Permutation perm = this.factor(matrix);
+        ArrayMatrix lu = ArrayMatrix.of(matrix);
+        ArrayMatrix x = this.permute(perm, partner);
+        this.substitute(lu, x, false);
+        for(int i = 0; i < x.getRowCount(); i++){
+            partner.setRow(i, x.getRow(i));
+        }
+        return perm;
+    }
+    
+    /**
+     * Solve the system of linear equations A * X = B, where A is square. A is factored in-place.
+     * @param matrix  Matrix A
+     * @param rhs  Right-hand side B
+     * @return  Solution X, or null if A is singular
+     * @throws  IllegalArgumentException if A or B is null, A is not square, or dimension mismatch
+     */
+    public Matrix solve(BlockMatrix matrix, Matrix rhs) {
+        Throw.when()
+            .isNull(() -> matrix, () -> "No matrix to decompose.")
+            .isNull(() -> rhs, () -> "No known values.")
+            .isTrue(
+                () -> matrix.getRowCount() != matrix.getColCount(), 
+                () -> "Matrix A is not a square matrix. (" 
+                    + matrix.getRowCount() + "x" + matrix.getColCount() + ")")
+            .isTrue(
+                () -> matrix.getRowCount() != rhs.getRowCount(), 
+                () -> "Dimension mismatch. Encounters " + matrix.getRowCount() 
+                    + " equations and " + rhs.getRowCount() + " known values.");
+        Permutation perm = this.factor(matrix);
+        ArrayMatrix lu = ArrayMatrix.of(matrix);
+        for(int i = 0; i < lu.getRowCount(); i++){
+            if(Real.isNegl(lu.get(i, i))){
+                return null;
+            }
+        }
+        
+        ArrayMatrix x = this.permute(perm, rhs);
+        this.substitute(lu, x, true);
+        return x;
+    }
+    
+    /**
+     * Find the determinant of a square matrix A. A is factored in-place.
+     * @param matrix  Matrix A
+     * @return  det(A)
+     * @throws  IllegalArgumentException if A is null or not square
+     */
+    public double det(BlockMatrix matrix) {
+        Throw.when()
+            .isNull(() -> matrix, () -> "No matrix to decompose.")
+            .isTrue(
+                () -> matrix.getRowCount() != matrix.getColCount(), 
+                () -> "Matrix A is not a square matrix. (" 
+                    + matrix.getRowCount() + "x" + matrix.getColCount() + ")");
+        double det = this.factor(matrix).det();
+        for(int i = 0; i < matrix.getRowCount(); i++){
+            det *= matrix.get(i, i);
+        }
+        return det;
+    }
+    
+    /**
+     * Copy the rows of a matrix in the order of a permutation.
+     * @param perm  Permutation of rows
+     * @param matrix  Input matrix
+     * @return  Matrix with permuted rows
+     */
+    protected ArrayMatrix permute(Permutation perm, Matrix matrix) {
+        ArrayMatrix ans = ArrayMatrix.of(matrix.getRowCount(), matrix.getColCount());
+        for(int i = 0; i < ans.getRowCount(); i++){
+            ans.setRow(i, matrix.getRow(perm.indexAt(i)));
+        }
+        return ans;
+    }
+    
+    /**
+     * Substitute the right-hand side X by the packed factors, i.e.&nbsp;transform X to L^-1 * X, 
+     * and further to U^-1 * L^-1 * X if specified. Panels of columns of X are independent, and are
+     * distributed among threads if the number of flop justifies.
+     * @param lu  Packed factors with unit lower triangular L and upper triangular U
+     * @param x  Right-hand side X
+     * @param backward  True to also substitute by U, false to substitute only by L
+     */
+    protected void substitute(ArrayMatrix lu, ArrayMatrix x, boolean backward) {
+        new PackedSubstitution(Mode.FORWARD, lu, true).compute(x);
+        if(backward){
+            new PackedSubstitution(Mode.BACKWARD, lu, false).compute(x);
+        }
+    }
+    
+    /**
+     * Eliminate a column of tiles below the diagonal with partial pivoting.
+     * @param matrix  Matrix A
+     * @param k  Index of grid column
+     * @param perm  Permutation of rows
+     * @return  Number of rows swapped
+     */
+    protected int panel(BlockMatrix matrix, int k, int[] perm) {
+        int size = matrix.getTileSize();
+        int width = matrix.tileColCount(k);
+        int swaps = 0;
+        for(int c = 0; c < width; c++){
+            int col = k * size + c;
+            if(col >= matrix.getRowCount()){
+                break;
+            }
+            int pivotRow = this.findPivot(matrix, k, col);
+            if(pivotRow != col){
+                matrix.swapRow(col, pivotRow);
+                int temp = perm[col];
+                perm[col] = perm[pivotRow];
+                perm[pivotRow] = temp;
+                swaps++;
+            }
+            
+            double[] pivotTile = matrix.getTile(k, k);
+            int pivotBase = (col - k * size) * width;
+            double pivot = pivotTile[pivotBase + c];
+            boolean singular = Math.abs(pivot) < EPSILON;
+            for(int i = k; i < matrix.getGridRowCount(); i++){
+                double[] tile = matrix.getTile(i, k);
+                for(int r = i == k ? col - k * size + 1 : 0; r < matrix.tileRowCount(i); r++){
+                    int base = r * width;
+                    if(singular){
+                        tile[base + c] = 0.0;
+                        continue;
+                    }
+                    double factor = tile[base + c] / pivot;
+                    tile[base + c] = factor;
+                    for(int q = c + 1; q < width; q++){
+                        tile[base + q] -= factor * pivotTile[pivotBase + q];
+                    }
+                }
+            }
+        }
+        return swaps;
+    }
+    
+    /**
+     * Find the row with the element of maximum absolute value in a column on or below the diagonal.
+     * @param matrix  Matrix A
+     * @param k  Index of grid column
+     * @param col  Column index
+     * @return  Pivot row index
+     */
+    protected int findPivot(BlockMatrix matrix, int k, int col) {
+        int size = matrix.getTileSize();
+        int width = matrix.tileColCount(k);
+        int c = col - k * size;
+        int maxIndex = col;
+        double maxElem = -1.0;
+        for(int i = col / size; i < matrix.getGridRowCount(); i++){
+            double[] tile = matrix.getTile(i, k);
+            for(int r = i == col / size ? col % size : 0; r < matrix.tileRowCount(i); r++){
+                double elem = Math.abs(tile[r * width + c]);
+                if(elem > maxElem){
+                    maxIndex = i * size + r;
+                    maxElem = elem;
+                }
+            }
+        }
+        return maxIndex;
+    }
+    
+    /**
+     * Solve U = L^-1 * B in-place for a tile B on the right of the diagonal tile L.
+     * @param diag  Diagonal tile with L stored in the strictly lower triangular part
+     * @param tile  Tile B, overwritten by U
+     * @param m  Number of rows of the diagonal tile and B
+     * @param width  Number of columns of the diagonal tile
+     * @param n  Number of columns of B
+     */
+    protected void solve(double[] diag, double[] tile, int m, int width, int n) {
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int i = 1; i < m; i++){
+            for(int p = 0; p < Math.min(i, width); p++){
+                double factor = diag[i * width + p];
+                if(factor != 0.0){
+                    kernels.axpy(-factor, tile, p * n, tile, i * n, n);
+                }
+            }
+        }
+    }
+    
+    private LongSupplier packFlop;
+    
+    private static final double EPSILON = 1e-10;
+}
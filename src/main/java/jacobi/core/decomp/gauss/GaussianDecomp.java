@@ -25,8 +25,15 @@ package jacobi.core.decomp.gauss;
 
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.BlockMatrix;
 import jacobi.core.impl.CopyOnWriteMatrix;
+import jacobi.core.solver.Factorization;
+import jacobi.core.util.Real;
+import jacobi.core.util.Throw;
 import jacobi.core.util.Triplet;
+import java.util.Arrays;
+import java.util.Optional;
 
 /**
  * 
@@ -34,6 +41,12 @@ import jacobi.core.util.Triplet;
  * series of elementary matrix, and U is upper triangular, and P is permutation
  * matrix.
  * 
+ * <p>Large square matrices are packed into tiles and decomposed by BlockLU, and the result is
+ * copied back into the input matrix.</p>
+ * 
+ * <p>The decomposition can also be kept as a Factorization for solving systems of linear 
+ * equations repeatedly with different right-hand sides.</p>
+ * 
  * @author Y.K. Chan
  */
 public class GaussianDecomp {
@@ -50,7 +63,17 @@ public class GaussianDecomp {
      * @param gaussElim  Generic Gaussian elimination base
      */
     protected GaussianDecomp(GenericGaussianElim gaussElim) {
+        this(gaussElim, new BlockLU());
+    }
+    
+    /**
+     * Constructor with injection.
+     * @param gaussElim  Generic Gaussian elimination base
+     * @param blockLU  Implementation of tiled LU decomposition
+     */
+    protected GaussianDecomp(GenericGaussianElim gaussElim, BlockLU blockLU) {
         this.gaussElim = gaussElim;
+        this.blockLU = blockLU;
     }
     
     /**
@@ -62,6 +85,11 @@ public class GaussianDecomp {
      * @return  Instance of A, transformed into R
      */
     public Matrix compute(Matrix matrix, Matrix partner) {
+        if(this.blockLU.isPackable(matrix)){
+            BlockMatrix packed = BlockMatrix.of(matrix);
+            this.blockLU.compute(packed, partner);
+            return this.unpack(packed, matrix);
+        }
         this.gaussElim.compute(matrix, (op) -> new FullMatrixOperator(op, partner));
         return matrix;
     }
@@ -74,6 +102,13 @@ public class GaussianDecomp {
      * @return  Instance of A, transformed into R
      */
     public Triplet compute(Matrix matrix) {
+        if(matrix instanceof BlockMatrix){
+            return this.blockLU.compute((BlockMatrix) matrix);
+        }
+        if(this.blockLU.isPackable(matrix)){
+            Triplet plu = this.blockLU.compute(BlockMatrix.of(matrix));
+            return Triplet.of(plu.getLeft(), plu.getMiddle(), this.unpack(plu.getRight(), matrix));
+        }
         Memento mem = this.gaussElim.compute(matrix, (op) -> new Memento(op));
         return Triplet.of(
             CopyOnWriteMatrix.of(mem.getPermutation().inv()), 
@@ -81,7 +116,71 @@ public class GaussianDecomp {
             matrix);
     }
     
+    /**
+     * Factor a non-singular square matrix A into A = P * L * U, which is reusable for solving
+     * systems of linear equations. Large matrices are packed into tiles and decomposed by BlockLU,
+     * otherwise a copy of A is decomposed by Gaussian elimination. Value of A is not disturbed 
+     * unless A is a BlockMatrix, which is factored in-place.
+     * @param matrix  Matrix A
+     * @return  Factorization of A, or empty if A is singular
+     * @throws  IllegalArgumentException if A is null, empty or not square
+     */
+    public Optional<Factorization> factorize(Matrix matrix) {
+        Throw.when()
+            .isNull(() -> matrix, () -> "No matrix to decompose.")
+            .isTrue(
+                () -> matrix.getRowCount() != matrix.getColCount(), 
+                () -> "Matrix A is not a square matrix. (" 
+                    + matrix.getRowCount() + "x" + matrix.getColCount() + ")")
+            .isTrue(() -> matrix.getRowCount() == 0, () -> "No matrix to decompose.");
+        if(!(matrix instanceof BlockMatrix) && !this.blockLU.isPackable(matrix)){
+            ArrayMatrix lu = ArrayMatrix.of(matrix);
+            Memento mem = this.gaussElim.compute(lu, (op) -> new Memento(op));
+            Matrix lower = mem.getLower();
+            for(int i = 1; i < lu.getRowCount(); i++){
+                for(int j = 0; j < i; j++){
+                    lu.set(i, j, lower.get(i, j));
+                }
+            }
+            return this.toFactorization(mem.getPermutation(), lu);
+        }
+        BlockMatrix packed = matrix instanceof BlockMatrix ? (BlockMatrix) matrix : BlockMatrix.of(matrix);
+        Permutation perm = this.blockLU.factor(packed);
+        return this.toFactorization(perm, ArrayMatrix.of(packed));
+    }
+    
+    /**
+     * Wrap the packed factors of A = P * L * U as a factorization, if U is non-singular.
+     * @param perm  Permutation of rows of A
+     * @param lu  Packed factors L and U
+     * @return  Factorization of A, or empty if A is singular
+     */
+    protected Optional<Factorization> toFactorization(Permutation perm, ArrayMatrix lu) {
+        for(int i = 0; i < lu.getRowCount(); i++){
+            if(Real.isNegl(lu.get(i, i))){
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new LUFactorization(this.blockLU, perm, lu));
+    }
+    
+    /**
+     * Copy the upper triangular part of a packed matrix into a matrix, with the lower part zeroed.
+     * @param packed  Packed matrix
+     * @param matrix  Output matrix
+     * @return  Instance of output matrix
+     */
+    public Matrix unpack(Matrix packed, Matrix matrix) {
+        for(int i = 0; i < matrix.getRowCount(); i++){
+            double[] row = packed.getRow(i);
+            Arrays.fill(row, 0, Math.min(i, row.length), 0.0);
+            matrix.setRow(i, row);
+        }
+        return matrix;
+    }
+    
     private GenericGaussianElim gaussElim;
+    private BlockLU blockLU;
 
     private static class Memento extends AbstractElementaryOperatorDecor {
 
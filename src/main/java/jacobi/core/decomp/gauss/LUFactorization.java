@@ -0,0 +1,98 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.gauss;
+
+import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.solver.Factorization;
+import jacobi.core.util.Throw;
+
+/**
+ * Reusable LU decomposition A = P * L * U of a non-singular square matrix A, for solving 
+ * A * X = B by X = U^-1 * L^-1 * P^-1 * B.
+ * 
+ * <p>L and U are packed in a single array, with L stored in the strictly lower triangular part
+ * without its unit diagonal.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class LUFactorization implements Factorization {
+    
+    /**
+     * Constructor.
+     * @param blockLU  Implementation of tiled LU decomposition
+     * @param perm  Permutation of rows of A
+     * @param lu  Packed factors L and U
+     */
+    public LUFactorization(BlockLU blockLU, Permutation perm, ArrayMatrix lu) {
+        this.blockLU = blockLU;
+        this.perm = perm;
+        this.lu = lu;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.lu.getRowCount();
+    }
+
+    @Override
+    public int getColCount() {
+        return this.lu.getColCount();
+    }
+
+    @Override
+    public Matrix solve(Matrix rhs) {
+        this.validate(rhs);
+        ArrayMatrix x = this.blockLU.permute(this.perm, rhs);
+        this.blockLU.substitute(this.lu, x, true);
+        return x;
+    }
+
+    @Override
+    public Matrix solveInPlace(Matrix rhs) {
+        Matrix x = this.solve(rhs);
+        for(int i = 0; i < x.getRowCount(); i++){
+            rhs.setRow(i, x.getRow(i));
+        }
+        return rhs;
+    }
+    
+    /**
+     * Validate the right-hand side of the system of linear equations.
+     * @param rhs  Right-hand side B
+     * @throws  IllegalArgumentException if B is null or dimension mismatch
+     */
+    protected void validate(Matrix rhs) {
+        Throw.when()
+            .isNull(() -> rhs, () -> "No known values.")
+            .isTrue(
+                () -> rhs.getRowCount() != this.lu.getRowCount(), 
+                () -> "Dimension mismatch. Encounters " + this.lu.getRowCount() 
+                    + " equations and " + rhs.getRowCount() + " known values.");
+    }
+
+    private BlockLU blockLU;
+    private Permutation perm;
+    private ArrayMatrix lu;
+}
@@ -115,6 +115,15 @@ public class Permutation extends ImmutableMatrix {
         return ans;
     }
 
+    /**
+     * Get the index of the row in the original matrix which is permuted to a row.
+     * @param index  Row index after permutation
+     * @return  Row index in the original matrix
+     */
+    protected int indexAt(int index) {
+        return this.indices[index];
+    }
+
     @Override
     public int getRowCount() {
         return this.indices.length;
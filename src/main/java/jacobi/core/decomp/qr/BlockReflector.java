@@ -0,0 +1,287 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.qr;
+
+import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.util.MapReducer;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.VectorKernels;
+
+/**
+ * This class represents a product of Householder reflectors in compact WY representation.
+ * 
+ * <p>The product Q = H<sub>1</sub> * H<sub>2</sub> * ... * H<sub>k</sub> of k Householder reflectors
+ * H<sub>j</sub> = I - &tau;<sub>j</sub>*v<sub>j</sub>*v<sub>j</sub>^t can be written as Q = I - V*T*V^t, 
+ * where V = [v<sub>1</sub> ... v<sub>k</sub>] and T is a k-by-k upper triangular matrix.</p>
+ * 
+ * <p>Applying Q to a matrix A thus takes two multiplications with the thin matrix V and one with 
+ * the small matrix T, instead of k rank-1 updates each streaming through the whole of A. Rows of A are 
+ * visited once per multiplication, and are distributed among threads if A is an ArrayMatrix.</p>
+ * 
+ * <p>All reflectors are zero before a certain row index, thus only rows from this index of V are 
+ * stored, in row-major order.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class BlockReflector {
+    
+    /**
+     * Constructor.
+     * @param from  Row index which all reflectors are zero before
+     * @param width  Number of reflectors
+     * @param vectors  Rows of V from the row index in row-major order
+     * @param factor  Upper triangular factor T in row-major order
+     */
+    public BlockReflector(int from, int width, double[] vectors, double[] factor) { // NOPMD - controlled usage
+        this.from = from;
+        this.width = width;
+        this.vectors = vectors;
+        this.factor = factor;
+    }
+    
+    /**
+     * Get the row index which all reflectors are zero before.
+     * @return  Row index
+     */
+    public int getFrom() {
+        return this.from;
+    }
+    
+    /**
+     * Get the number of reflectors.
+     * @return  Number of reflectors
+     */
+    public int getWidth() {
+        return this.width;
+    }
+    
+    /**
+     * Transform matrix A to Q^t * A. This method changes the value of A.
+     * @param matrix  Matrix A
+     */
+    public void applyTransLeft(Matrix matrix) {
+        this.applyTransLeft(matrix, 0);
+    }
+    
+    /**
+     * Transform matrix A to Q^t * A, interested only in columns beyond a certain index.
+     * This method changes the value of A.
+     * @param matrix  Matrix A
+     * @param startCol  Start index of columns of interest
+     */
+    public void applyTransLeft(Matrix matrix, int startCol) {
+        int len = matrix.getColCount() - startCol;
+        if(len < 1){
+            return;
+        }
+        
+        double[] w = this.mulTrans(this.project(matrix, startCol, len), len);
+        if(this.isParallel(matrix, len)){
+            ArrayMatrix array = (ArrayMatrix) matrix;
+            MapReducer.of(this.from, matrix.getRowCount())
+                .flop(this.width * len, Thresholds.grain(Operation.MUL))
+                .forEach((begin, end) -> this.update(array, startCol, len, w, begin, end));
+            return;
+        }
+        
+        for(int i = this.from; i < matrix.getRowCount(); i++){
+            double[] row = matrix.getRow(i);
+            this.subtract(row, startCol, len, w, i);
+            matrix.setRow(i, row);
+        }
+    }
+    
+    /**
+     * Transform matrix A to A * Q. This method changes the value of A.
+     * @param matrix  Matrix A
+     */
+    public void applyRight(Matrix matrix) {
+        int len = matrix.getColCount() - this.from;
+        if(this.isParallel(matrix, len)){
+            ArrayMatrix array = (ArrayMatrix) matrix;
+            MapReducer.of(0, matrix.getRowCount())
+                .flop(2 * this.width * len, Thresholds.grain(Operation.MUL))
+                .forEach((begin, end) -> {
+                    for(int i = begin; i < end; i++){
+                        this.applyRightAt(array.getArray(), array.indexOf(i, this.from));
+                    }
+                });
+            return;
+        }
+        
+        for(int i = 0; i < matrix.getRowCount(); i++){
+            double[] row = matrix.getRow(i);
+            this.applyRightAt(row, this.from);
+            matrix.setRow(i, row);
+        }
+    }
+    
+    /**
+     * Compute W = V^t * A for columns of interest in A.
+     * @param matrix  Matrix A
+     * @param startCol  Start index of columns of interest
+     * @param len  Number of columns of interest
+     * @return  Matrix W in row-major order
+     */
+    protected double[] project(Matrix matrix, int startCol, int len) {
+        if(this.isParallel(matrix, len)){
+            ArrayMatrix array = (ArrayMatrix) matrix;
+            return MapReducer.of(this.from, matrix.getRowCount())
+                .flop(this.width * len, Thresholds.grain(Operation.MUL))
+                .map((begin, end) -> {
+                    double[] w = new double[this.width * len];
+                    for(int i = begin; i < end; i++){
+                        this.accumulate(array.getArray(), array.indexOf(i, startCol), len, w, i);
+                    }
+                    return w;
+                })
+                .reduce((u, v) -> {
+                    for(int k = 0; k < v.length; k++){
+                        v[k] += u[k];
+                    }
+                    return v;
+                })
+                .get();
+        }
+        
+        double[] w = new double[this.width * len];
+        for(int i = this.from; i < matrix.getRowCount(); i++){
+            this.accumulate(matrix.getRow(i), startCol, len, w, i);
+        }
+        return w;
+    }
+    
+    /**
+     * Compute T^t * W.
+     * @param w  Matrix W in row-major order
+     * @param len  Number of columns of W
+     * @return  T^t * W in row-major order
+     */
+    protected double[] mulTrans(double[] w, int len) {
+        double[] ans = new double[w.length];
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int p = 0; p < this.width; p++){
+            for(int q = 0; q <= p; q++){
+                double t = this.factor[q * this.width + p];
+                if(t != 0.0){
+                    kernels.axpy(t, w, q * len, ans, p * len, len);
+                }
+            }
+        }
+        return ans;
+    }
+    
+    /**
+     * Accumulate the contribution of the i-th row of A to W = V^t * A.
+     * @param row  Array containing the i-th row of A
+     * @param offset  Index of the first column of interest in the array
+     * @param len  Number of columns of interest
+     * @param w  Matrix W in row-major order
+     * @param i  Row index
+     */
+    protected void accumulate(double[] row, int offset, int len, double[] w, int i) {
+        VectorKernels kernels = VectorKernels.getInstance();
+        int base = (i - this.from) * this.width;
+        for(int p = 0; p < this.width; p++){
+            double v = this.vectors[base + p];
+            if(v != 0.0){
+                kernels.axpy(v, row, offset, w, p * len, len);
+            }
+        }
+    }
+    
+    /**
+     * Subtract the i-th row of V * W from the i-th row of A.
+     * @param row  Array containing the i-th row of A
+     * @param offset  Index of the first column of interest in the array
+     * @param len  Number of columns of interest
+     * @param w  Matrix W in row-major order
+     * @param i  Row index
+     */
+    protected void subtract(double[] row, int offset, int len, double[] w, int i) {
+        VectorKernels kernels = VectorKernels.getInstance();
+        int base = (i - this.from) * this.width;
+        for(int p = 0; p < this.width; p++){
+            double v = this.vectors[base + p];
+            if(v != 0.0){
+                kernels.axpy(-v, w, p * len, row, offset, len);
+            }
+        }
+    }
+    
+    /**
+     * Subtract rows of V * W from rows of A within a range, for A stored in a single array.
+     * @param matrix  Matrix A
+     * @param startCol  Start index of columns of interest
+     * @param len  Number of columns of interest
+     * @param w  Matrix W in row-major order
+     * @param begin  Begin index of rows
+     * @param end  End index of rows
+     */
+    protected void update(ArrayMatrix matrix, int startCol, int len, double[] w, int begin, int end) {
+        for(int i = begin; i < end; i++){
+            this.subtract(matrix.getArray(), matrix.indexOf(i, startCol), len, w, i);
+        }
+    }
+    
+    /**
+     * Transform a row vector u to u * Q, i.e.&nbsp;u - ((u * V) * T) * V^t.
+     * @param row  Array containing the row vector
+     * @param offset  Index of the element at the row index which all reflectors are zero before
+     */
+    protected void applyRightAt(double[] row, int offset) {
+        int rows = this.vectors.length / this.width;
+        VectorKernels kernels = VectorKernels.getInstance();
+        
+        double[] y = new double[this.width];
+        for(int i = 0; i < rows; i++){
+            kernels.axpy(row[offset + i], this.vectors, i * this.width, y, 0, this.width);
+        }
+        
+        double[] z = new double[this.width];
+        for(int q = 0; q < this.width; q++){
+            kernels.axpy(y[q], this.factor, q * this.width, z, 0, this.width);
+        }
+        
+        for(int i = 0; i < rows; i++){
+            row[offset + i] -= kernels.dot(z, 0, this.vectors, i * this.width, this.width);
+        }
+    }
+    
+    /**
+     * Determine if a matrix is to be transformed in parallel.
+     * @param matrix  Input matrix
+     * @param len  Number of columns of interest
+     * @return  True if in parallel, false otherwise
+     */
+    protected boolean isParallel(Matrix matrix, int len) {
+        return matrix instanceof ArrayMatrix
+            && (long) (matrix.getRowCount() - this.from) * len * this.width >= Thresholds.threshold(Operation.MUL);
+    }
+    
+    private int from, width;
+    private double[] vectors, factor;
+}
@@ -0,0 +1,224 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.qr;
+
+import java.util.function.Consumer;
+
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.util.MapReducer;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Throw;
+import jacobi.core.util.VectorKernels;
+
+/**
+ * Implementation of blocked QR decomposition by Householder reflections.
+ * 
+ * <p>Columns are eliminated panel by panel. Within a panel of b columns, each column is eliminated
+ * by a Householder reflector applied only to the rest of the panel. The b reflectors are then 
+ * accumulated into compact WY representation Q = I - V*T*V^t, and the trailing columns are 
+ * transformed to Q^t * A at once, which consists of multiplications of matrices instead of 
+ * b rank-1 updates each streaming through the trailing columns.</p>
+ * 
+ * <p>The reflectors are identical to the ones in QRDecomp, including leaving the last column of 
+ * a square matrix as is, thus the result agrees with it up to rounding errors.</p>
+ * 
+ * <p>This class is mutating, i.e.&nbsp;it transform the input parameters.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class BlockedQR {
+    
+    /**
+     * Default number of columns in a panel.
+     */
+    public static final int DEFAULT_PANEL_WIDTH = 32;
+    
+    /**
+     * Constructor.
+     */
+    public BlockedQR() {
+        this(DEFAULT_PANEL_WIDTH);
+    }
+    
+    /**
+     * Constructor.
+     * @param panelWidth  Number of columns in a panel
+     */
+    public BlockedQR(int panelWidth) {
+        Throw.when().isTrue(() -> panelWidth < 1, () -> "Invalid panel width " + panelWidth);
+        this.panelWidth = panelWidth;
+    }
+    
+    /**
+     * Get the number of columns in a panel.
+     * @return  Number of columns in a panel
+     */
+    public int getPanelWidth() {
+        return this.panelWidth;
+    }
+    
+    /**
+     * Compute QR decomposition by transforming matrix A to R, with a listener listening 
+     * each block reflector applied.
+     * @param matrix  Matrix A
+     * @param listener  Block reflector listener
+     */
+    public void compute(ArrayMatrix matrix, Consumer<BlockReflector> listener) {
+        int n = Math.min(matrix.getRowCount(), matrix.getColCount());
+        if(matrix.getRowCount() == matrix.getColCount()){
+            n--; // last 1x1 matrix need no elimination
+        }
+        for(int k = 0; k < n; k += this.panelWidth){
+            int width = Math.min(this.panelWidth, n - k);
+            BlockReflector wy = this.eliminate(matrix, k, width);
+            wy.applyTransLeft(matrix, k + width);
+            listener.accept(wy);
+        }
+        
+        double[] array = matrix.getArray();
+        for(int i = 1; i < matrix.getRowCount(); i++){
+            for(int j = 0; j < Math.min(i, matrix.getColCount()); j++){
+                array[matrix.indexOf(i, j)] = 0.0;
+            }
+        }
+    }
+    
+    /**
+     * Eliminate all sub-diagonal entries of a panel of columns, and accumulate the reflectors.
+     * @param matrix  Matrix A
+     * @param k  Column index of the first column of the panel
+     * @param width  Number of columns in the panel
+     * @return  Product of reflectors of the panel
+     */
+    protected BlockReflector eliminate(ArrayMatrix matrix, int k, int width) {
+        int m = matrix.getRowCount();
+        double[] array = matrix.getArray();
+        double[] vectors = new double[(m - k) * width];
+        double[] taus = new double[width];
+        
+        double[] column = new double[m];
+        for(int p = 0; p < width; p++){
+            int j = k + p;
+            for(int i = j; i < m; i++){
+                column[i] = array[matrix.indexOf(i, j)];
+            }
+            
+            double norm = new Householder(column, j).normalize();
+            if(norm == 0.0){
+                continue;
+            }
+            
+            for(int i = j; i < m; i++){
+                vectors[(i - k) * width + p] = column[i];
+            }
+            taus[p] = 2.0;
+            this.reflect(matrix, column, j, k + width);
+            array[matrix.indexOf(j, j)] = norm;
+        }
+        return new BlockReflector(k, width, vectors, this.factor(vectors, taus, m - k));
+    }
+    
+    /**
+     * Transform the columns within a panel after a column by a Householder reflector.
+     * @param matrix  Matrix A
+     * @param vector  Unit vector of the reflector
+     * @param j  Column index of the eliminated column
+     * @param end  End index of columns of the panel
+     */
+    protected void reflect(ArrayMatrix matrix, double[] vector, int j, int end) {
+        int len = end - j - 1;
+        if(len < 1){
+            return;
+        }
+        
+        double[] array = matrix.getArray();
+        VectorKernels kernels = VectorKernels.getInstance();
+        double[] w = MapReducer.of(j, matrix.getRowCount())
+            .flop(len, Thresholds.grain(Operation.MUL))
+            .map((begin, last) -> {
+                double[] partial = new double[len];
+                for(int i = begin; i < last; i++){
+                    kernels.axpy(vector[i], array, matrix.indexOf(i, j + 1), partial, 0, len);
+                }
+                return partial;
+            })
+            .reduce((u, v) -> {
+                kernels.axpy(1.0, u, 0, v, 0, len);
+                return v;
+            })
+            .get();
+        
+        MapReducer.of(j, matrix.getRowCount())
+            .flop(len, Thresholds.grain(Operation.MUL))
+            .forEach((begin, last) -> {
+                for(int i = begin; i < last; i++){
+                    kernels.axpy(-2.0 * vector[i], w, 0, array, matrix.indexOf(i, j + 1), len);
+                }
+            });
+    }
+    
+    /**
+     * Compute the upper triangular factor T of the compact WY representation, given by the 
+     * recurrence T[0:j, j] = -&tau;<sub>j</sub> * T[0:j, 0:j] * V[:, 0:j]^t * v<sub>j</sub> 
+     * and T[j, j] = &tau;<sub>j</sub>.
+     * @param vectors  Rows of V in row-major order
+     * @param taus  Scaling factors of the reflectors, or 0 for no reflection
+     * @param rows  Number of rows of V
+     * @return  Upper triangular factor T in row-major order
+     */
+    protected double[] factor(double[] vectors, double[] taus, int rows) {
+        int width = taus.length;
+        VectorKernels kernels = VectorKernels.getInstance();
+        
+        double[] gram = new double[width * width];
+        for(int i = 0; i < rows; i++){
+            for(int p = 0; p < width; p++){
+                double v = vectors[i * width + p];
+                if(v != 0.0){
+                    kernels.axpy(v, vectors, i * width, gram, p * width, width);
+                }
+            }
+        }
+        
+        double[] factor = new double[width * width];
+        for(int j = 0; j < width; j++){
+            if(taus[j] == 0.0){
+                continue;
+            }
+            
+            for(int r = 0; r < j; r++){
+                double sum = 0.0;
+                for(int q = r; q < j; q++){
+                    sum += factor[r * width + q] * gram[q * width + j];
+                }
+                factor[r * width + j] = -taus[j] * sum;
+            }
+            factor[j * width + j] = taus[j];
+        }
+        return factor;
+    }
+    
+    private int panelWidth;
+}
@@ -32,7 +32,9 @@ import jacobi.api.ext.Prop;
 import jacobi.core.impl.ColumnVector;
 import jacobi.core.impl.CopyOnWriteMatrix;
 import jacobi.core.impl.ImmutableMatrix;
+import jacobi.core.util.ComputePool;
 import jacobi.core.util.Throw;
+import jacobi.core.util.VectorKernels;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.stream.IntStream;
@@ -200,12 +202,11 @@ public class Householder extends ImmutableMatrix {
      */
     public void applyLeft(Matrix matrix, int startCol) {
         double[] partial = this.partialApply(matrix, startCol);
+        int len = matrix.getColCount() - startCol;
+        VectorKernels kernels = VectorKernels.getInstance();
         for(int i = from; i < this.vector.length; i++){
             double[] row = matrix.getRow(i);
-            double k = this.vector[i];
-            for(int j = startCol; j < matrix.getColCount(); j++){
-                row[j] -= 2.0 * k * partial[j];
-            }
+            kernels.axpy(-2.0 * this.vector[i], partial, startCol, row, startCol, len);
             matrix.setRow(i, row);
         }
     }
@@ -226,9 +227,9 @@ public class Householder extends ImmutableMatrix {
     public void applyRight(Matrix matrix, int fromRow) {
         int len = this.vector.length - this.from;
         if(matrix.getRowCount() * len >= DEFAULT_THRESHOLD){
-            IntStream.range(fromRow, matrix.getRowCount())
+            ComputePool.run(() -> IntStream.range(fromRow, matrix.getRowCount())
                 .parallel()
-                .forEach((i) -> this.applyRightAt(matrix, i));
+                .forEach((i) -> this.applyRightAt(matrix, i)));
         }else{
             for(int i = fromRow; i < matrix.getRowCount(); i++){
                 this.applyRightAt(matrix, i);
@@ -281,12 +282,9 @@ public class Householder extends ImmutableMatrix {
         int n = matrix.getColCount();
         if((matrix.getRowCount() - from) * len < DEFAULT_THRESHOLD){
             double[] sum = new double[n];
+            VectorKernels kernels = VectorKernels.getInstance();
             for(int i = from; i < this.vector.length; i++){
-                double k = this.vector[i];
-                double[] row = matrix.getRow(i);
-                for(int j = startCol; j < n; j++){
-                    sum[j] += k * row[j];
-                }
+                kernels.axpy(this.vector[i], matrix.getRow(i), startCol, sum, startCol, len);
             }
             return sum;
         }
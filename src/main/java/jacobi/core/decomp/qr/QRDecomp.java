@@ -25,8 +25,15 @@ package jacobi.core.decomp.qr;
 
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.solver.Factorization;
 import jacobi.core.util.Pair;
+import jacobi.core.util.Real;
+import jacobi.core.util.Throw;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
@@ -36,18 +43,56 @@ import java.util.function.Consumer;
  * <p>QR decomposition refers to consider A = Q*R where Q is orthogonal and R is 
  * upper triangular.</p>
  * 
+ * <p>For large matrices, columns are eliminated in panels by BlockedQR, which applies the 
+ * reflectors of a panel at once in compact WY representation. Matrices not stored in a single
+ * array are copied into one for the blocked decomposition and copied back afterwards.</p>
+ * 
+ * <p>The reflections applied can also be kept with R as a Factorization for solving systems of 
+ * linear equations repeatedly with different right-hand sides.</p>
+ * 
  * <p>This class is mutating, i.e.&nbsp;it transform the input parameters.</p>
  * 
  * @author Y.K. Chan
  */
 public class QRDecomp {
     
+    /**
+     * Default minimum number of flop to justify blocked decomposition.
+     */
+    public static final long DEFAULT_BLOCK_FLOP = 64L * 64L * 64L;
+    
+    /**
+     * Constructor.
+     */
+    public QRDecomp() {
+        this(new BlockedQR(), DEFAULT_BLOCK_FLOP);
+    }
+    
+    /**
+     * Constructor.
+     * @param blocked  Implementation of blocked QR decomposition
+     * @param blockFlop  Minimum number of flop to justify blocked decomposition
+     */
+    public QRDecomp(BlockedQR blocked, long blockFlop) {
+        this.blocked = blocked;
+        this.blockFlop = blockFlop;
+    }
+    
     /**
      * Compute QR Decomposition of a matrix A = Q * R.
      * @param matrix  Matrix A to be transformed to R
      * @return  A pair of matrix &lt;Q, R&gt;
      */
     public Pair computeQR(Matrix matrix) {
+        if(this.isBlocked(matrix)){
+            ArrayMatrix q = ArrayMatrix.of(matrix.getRowCount(), matrix.getRowCount());
+            for(int i = 0; i < q.getRowCount(); i++){
+                q.set(i, i, 1.0);
+            }
+            this.computeBlocked(matrix, wy -> wy.applyRight(q));
+            return Pair.of(q, matrix);
+        }
+        
         AtomicBoolean first = new AtomicBoolean(true);
         Matrix q = Matrices.zeros(matrix.getRowCount(), matrix.getRowCount());
         this.compute(matrix, (hh) -> {
@@ -71,6 +116,10 @@ public class QRDecomp {
      * @return  Instance of A, now containing value of R
      */
     public Matrix compute(Matrix matrix, Matrix partner) {
+        if(this.isBlocked(matrix)){
+            this.computeBlocked(matrix, wy -> wy.applyTransLeft(partner));
+            return matrix;
+        }
         this.compute(matrix, (hh) -> hh.applyLeft(partner) );
         return matrix;
     }
@@ -81,10 +130,46 @@ public class QRDecomp {
      * @return  Instance of matrix A that is transformed to R
      */
     public Matrix compute(Matrix matrix) {
+        if(this.isBlocked(matrix)){
+            this.computeBlocked(matrix, wy -> {});
+            return matrix;
+        }
         this.compute(matrix, (hh) -> {});
         return matrix;
     }
     
+    /**
+     * Factor a full-rank matrix A with at least as many rows as columns into A = Q * R, which is 
+     * reusable for solving systems of linear equations in a linear-least square sense.
+     * @param matrix  Matrix A
+     * @return  Factorization of A, or empty if A is not full rank
+     * @throws  IllegalArgumentException if A is null, empty or not over-determined
+     */
+    public Optional<Factorization> factorize(Matrix matrix) {
+        Throw.when()
+            .isNull(() -> matrix, () -> "No matrix to decompose.")
+            .isTrue(
+                () -> matrix.getRowCount() < matrix.getColCount(), 
+                () -> "Matrix A is not over-determined. (" 
+                    + matrix.getRowCount() + "x" + matrix.getColCount() + ")")
+            .isTrue(() -> matrix.getColCount() == 0, () -> "No matrix to decompose.");
+        List<Consumer<Matrix>> reflections = new ArrayList<>();
+        if(this.isBlocked(matrix)){
+            this.computeBlocked(matrix, wy -> reflections.add(wy::applyTransLeft));
+        }else{
+            this.compute(matrix, (hh) -> reflections.add(hh::applyLeft));
+        }
+        
+        ArrayMatrix upper = ArrayMatrix.of(matrix.getColCount(), matrix.getColCount());
+        for(int i = 0; i < upper.getRowCount(); i++){
+            upper.setRow(i, matrix.getRow(i));
+            if(Real.isNegl(upper.get(i, i))){
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new QRFactorization(matrix.getRowCount(), reflections, upper));
+    }
+    
     /**
      * Compute QR decomposition with a listener listening each Householder
      * Reflection operation done.
@@ -109,6 +194,35 @@ public class QRDecomp {
         return;
     }    
     
+    /**
+     * Compute QR decomposition in panels, with a listener listening each block reflector applied.
+     * @param matrix  Matrix A
+     * @param listener  Block reflector listener
+     */
+    protected void computeBlocked(Matrix matrix, Consumer<BlockReflector> listener) {
+        if(matrix instanceof ArrayMatrix){
+            this.blocked.compute((ArrayMatrix) matrix, listener);
+            return;
+        }
+        
+        ArrayMatrix packed = ArrayMatrix.of(matrix);
+        this.blocked.compute(packed, listener);
+        for(int i = 0; i < matrix.getRowCount(); i++){
+            matrix.setRow(i, packed.getRow(i));
+        }
+    }
+    
+    /**
+     * Determine if a matrix is to be decomposed in panels.
+     * @param matrix  Matrix A
+     * @return  True if to be decomposed in panels, false otherwise
+     */
+    protected boolean isBlocked(Matrix matrix) {
+        int n = Math.min(matrix.getRowCount(), matrix.getColCount());
+        return n > this.blocked.getPanelWidth()
+            && (long) matrix.getRowCount() * matrix.getColCount() * n >= this.blockFlop;
+    }
+    
     /**
      * Eliminate all sub-diagonal entries of a column 
      * in a matrix A by Householder reflection. 
@@ -142,4 +256,6 @@ public class QRDecomp {
         }
     }
     
+    private BlockedQR blocked;
+    private long blockFlop;
 }
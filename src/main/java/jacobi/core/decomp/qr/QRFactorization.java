@@ -0,0 +1,120 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.qr;
+
+import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.solver.Factorization;
+import jacobi.core.solver.PackedSubstitution;
+import jacobi.core.solver.Substitution.Mode;
+import jacobi.core.util.Throw;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reusable QR decomposition A = Q * R of a full-rank matrix A with at least as many rows as columns,
+ * for solving A * X = B in a linear-least square sense by R * X = Q^t * B.
+ * 
+ * <p>Q is not formed explicitly but kept as the sequence of reflections applied during the 
+ * decomposition, which is either Householder reflections or block reflectors in compact WY 
+ * representation. Only the leading square part of R is kept.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class QRFactorization implements Factorization {
+    
+    /**
+     * Constructor.
+     * @param numRows  Number of rows of A
+     * @param reflections  Reflections in order of application, each transforms B to H^t * B
+     * @param upper  Leading square part of upper triangular matrix R
+     */
+    public QRFactorization(int numRows, List<Consumer<Matrix>> reflections, ArrayMatrix upper) {
+        this.numRows = numRows;
+        this.reflections = Collections.unmodifiableList(new ArrayList<>(reflections));
+        this.upper = upper;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.numRows;
+    }
+
+    @Override
+    public int getColCount() {
+        return this.upper.getColCount();
+    }
+
+    @Override
+    public Matrix solve(Matrix rhs) {
+        this.validate(rhs);
+        ArrayMatrix x = this.compute(ArrayMatrix.of(rhs));
+        return ArrayMatrix.wrap(x.getArray(), 0, this.upper.getRowCount(), x.getColCount(), x.getStride());
+    }
+
+    @Override
+    public Matrix solveInPlace(Matrix rhs) {
+        this.validate(rhs);
+        if(rhs instanceof ArrayMatrix){
+            return this.compute((ArrayMatrix) rhs);
+        }
+        ArrayMatrix x = this.compute(ArrayMatrix.of(rhs));
+        for(int i = 0; i < x.getRowCount(); i++){
+            rhs.setRow(i, x.getRow(i));
+        }
+        return rhs;
+    }
+    
+    /**
+     * Transform B to Q^t * B, and solve R * X = Q^t * B in the leading rows.
+     * @param rhs  Right-hand side B
+     * @return  Instance of B transformed
+     */
+    protected ArrayMatrix compute(ArrayMatrix rhs) {
+        for(Consumer<Matrix> reflection : this.reflections){
+            reflection.accept(rhs);
+        }
+        return new PackedSubstitution(Mode.BACKWARD, this.upper, false).compute(rhs);
+    }
+    
+    /**
+     * Validate the right-hand side of the system of linear equations.
+     * @param rhs  Right-hand side B
+     * @throws  IllegalArgumentException if B is null or dimension mismatch
+     */
+    protected void validate(Matrix rhs) {
+        Throw.when()
+            .isNull(() -> rhs, () -> "No known values.")
+            .isTrue(
+                () -> rhs.getRowCount() != this.numRows, 
+                () -> "Dimension mismatch. Encounters " + this.numRows 
+                    + " equations and " + rhs.getRowCount() + " known values.");
+    }
+
+    private int numRows;
+    private List<Consumer<Matrix>> reflections;
+    private ArrayMatrix upper;
+}
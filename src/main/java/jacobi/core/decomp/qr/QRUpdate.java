@@ -0,0 +1,200 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.qr;
+
+import jacobi.api.Matrix;
+import jacobi.core.givens.Givens;
+import jacobi.core.util.Real;
+import jacobi.core.util.Throw;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Implementation of rank-one update and downdate of the upper triangular factor R of a QR 
+ * decomposition A = Q * R, when a row is appended to or removed from A.
+ * 
+ * <p>Since A^t * A = R^t * R, R is also the transpose of the Cholesky factor of A^t * A, and 
+ * updating R to R' s.t.&nbsp;R'^t * R' = R^t * R +/- x * x^t is the same problem for both
+ * decompositions. Q is not updated, which is not needed for solving linear-least squares if the
+ * right-hand side is appended to A as the last column.</p>
+ * 
+ * <p>Appending a row x^t, x is eliminated against R by Givens rotations row by row. For removing a 
+ * row x^t, p is solved by R^t * p = x, and the vector [p, rho] with rho = sqrt(1 - |p|^2) 
+ * is rotated to [0, 1] bottom-up. The same rotations applied on [R; 0] gives [R'; x^t]. 
+ * Both take O(n^2) flops instead of O(n^3) of a new decomposition.</p>
+ * 
+ * <p>Values are negligible relative to the magnitude of R, i.e.&nbsp;with absolute value not greater 
+ * than Real.EPSILON times the largest absolute diagonal element of R. A negligible diagonal element 
+ * of R is allowed in downdating if the corresponding component of x is also negligible, e.g.&nbsp;the 
+ * residual of a right-hand side appended to A that fits exactly, in which case the component is 
+ * left as zero. A row can also be removed by its projection on the leading columns only, which leaves 
+ * the trailing rows of R unchanged.</p>
+ * 
+ * <p>This class is mutating, i.e.&nbsp;it transforms R in-place. Only the top n rows of R are 
+ * accessed for a matrix R with n columns.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class QRUpdate {
+    
+    /**
+     * Update R to R' s.t.&nbsp;R'^t * R' = R^t * R + x * x^t.
+     * @param upper  Upper triangular matrix R
+     * @param row  Row vector x
+     * @return  Instance of R, now containing R'
+     * @throws  IllegalArgumentException if R or x is null, or dimension mismatch
+     */
+    public Matrix update(Matrix upper, double[] row) {
+        this.validate(upper, row);
+        int n = upper.getColCount();
+        double[] vector = Arrays.copyOf(row, n);
+        for(int k = 0; k < n; k++){
+            if(vector[k] == 0.0){
+                continue;
+            }
+            double[] target = upper.getRow(k);
+            Givens.of(target[k], vector[k]).applyLeft(target, vector, k, n);
+            vector[k] = 0.0;
+            upper.setRow(k, target);
+        }
+        return upper;
+    }
+    
+    /**
+     * Downdate R to R' s.t.&nbsp;R'^t * R' = R^t * R - x * x^t. R is not changed if failed.
+     * @param upper  Upper triangular matrix R
+     * @param row  Row vector x
+     * @return  Instance of R, now containing R', or empty if R^t * R - x * x^t is not positive definite
+     * @throws  IllegalArgumentException if R or x is null, or dimension mismatch
+     */
+    public Optional<Matrix> downdate(Matrix upper, double[] row) {
+        return this.downdate(upper, row, upper.getColCount());
+    }
+    
+    /**
+     * Downdate R to R' s.t.&nbsp;R'^t * R' = R^t * R - z * z^t, where z is the projection of x on the 
+     * first k columns, i.e.&nbsp;z agrees with x in the first k elements and the rest of z is fitted 
+     * by R, e.g.&nbsp;the fitted value instead of the observed value of a right-hand side appended to A. 
+     * The last n - k rows of R are not changed. R is not changed if failed.
+     * @param upper  Upper triangular matrix R
+     * @param row  Row vector x
+     * @param cols  Number of columns k projected
+     * @return  Instance of R, now containing R', or empty if R^t * R - z * z^t is not positive definite
+     * @throws  IllegalArgumentException if R or x is null, dimension mismatch or k is out of range
+     */
+    public Optional<Matrix> downdate(Matrix upper, double[] row, int cols) {
+        this.validate(upper, row);
+        int n = upper.getColCount();
+        Throw.when().isTrue(() -> cols < 0 || cols > n, () -> "Invalid number of columns " + cols);
+        double[] proj = this.project(upper, row, cols);
+        if(proj == null){
+            return Optional.empty();
+        }
+        
+        double rest = 1.0;
+        for(double p : proj){
+            rest -= p * p;
+        }
+        if(rest < 0.0 || Real.isNegl(rest)){
+            return Optional.empty();
+        }
+        
+        double rho = Math.sqrt(rest);
+        double[] vector = new double[n];
+        for(int k = cols - 1; k >= 0; k--){
+            Givens giv = Givens.of(rho, proj[k]);
+            rho = giv.getMag();
+            
+            double[] target = upper.getRow(k);
+            giv.applyLeft(vector, target, k, n);
+            upper.setRow(k, target);
+        }
+        return Optional.of(upper);
+    }
+    
+    /**
+     * Solve R^t * p = x by forward substitution for the first k elements of p, with the rest of p 
+     * being zero.
+     * @param upper  Upper triangular matrix R
+     * @param row  Row vector x
+     * @param cols  Number of elements k solved
+     * @return  Vector p, or null if R is singular and x is not in the range of R^t
+     */
+    protected double[] project(Matrix upper, double[] row, int cols) {
+        int n = upper.getColCount();
+        double tol = this.tolerance(upper);
+        double[] proj = Arrays.copyOf(row, n);
+        Arrays.fill(proj, cols, n, 0.0);
+        for(int i = 0; i < cols; i++){
+            double[] tri = upper.getRow(i);
+            if(Math.abs(tri[i]) <= tol){
+                if(Math.abs(proj[i]) > tol){
+                    return null;
+                }
+                proj[i] = 0.0;
+                continue;
+            }
+            proj[i] /= tri[i];
+            for(int j = i + 1; j < cols; j++){
+                proj[j] -= proj[i] * tri[j];
+            }
+        }
+        return proj;
+    }
+    
+    /**
+     * Find the tolerance of negligible values relative to the magnitude of R, i.e.&nbsp;Real.EPSILON 
+     * times the largest absolute diagonal element of R.
+     * @param upper  Upper triangular matrix R
+     * @return  Tolerance of negligible values
+     */
+    protected double tolerance(Matrix upper) {
+        double max = 0.0;
+        for(int i = 0; i < upper.getColCount(); i++){
+            max = Math.max(max, Math.abs(upper.get(i, i)));
+        }
+        return Real.EPSILON * max;
+    }
+    
+    /**
+     * Validate the upper triangular matrix and the row vector.
+     * @param upper  Upper triangular matrix R
+     * @param row  Row vector x
+     * @throws  IllegalArgumentException if R or x is null, or dimension mismatch
+     */
+    protected void validate(Matrix upper, double[] row) {
+        Throw.when()
+            .isNull(() -> upper, () -> "No upper triangular matrix.")
+            .isNull(() -> row, () -> "No row vector.")
+            .isTrue(
+                () -> upper.getRowCount() < upper.getColCount(), 
+                () -> "Matrix R is not over-determined. (" 
+                    + upper.getRowCount() + "x" + upper.getColCount() + ")")
+            .isTrue(
+                () -> row.length != upper.getColCount(), 
+                () -> "Dimension mismatch. Expects " + upper.getColCount() 
+                    + " elements, actual row has " + row.length + " elements.");
+    }
+
+}
@@ -30,10 +30,7 @@ import jacobi.core.util.Throw;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -57,57 +54,71 @@ public class DelegateEngine extends FacadeEngine {
      * Constructor.
      */
     public DelegateEngine() {
-        this.delegates = Collections.synchronizedMap(new HashMap<>());
+        this.delegates = this.newCache();
     }
 
     @Override
     public void clearCache() {
-        this.delegates.clear();
+        this.delegates = this.newCache();
         super.clearCache();
     }
 
     @Override
-    public Object invoke(Method method, Object target, Object[] args) {
-        if(!this.delegates.containsKey(new Key(target.getClass()))){
-            this.addDelegates(target.getClass());
-        }
-        Invocator invocator = this.delegates.get(new Key(target.getClass(), method));    
+    protected Object dispatch(Method method, Object target, Object[] args) {
+        Invocator invocator = this.delegates.get(target.getClass()).get(method);
         return invocator == null
-                ? super.invoke(method, target, args)
+                ? super.dispatch(method, target, args)
                 : invocator.invoke(target, args);
     }
     
     /**
-     * Add methods annotated with @Delegate and corresponding facade method
+     * Create a cache of delegates for each concrete class. Failure in finding 
+     * delegates is not cached and would be thrown again on next invocation.
+     * @return  Cache of delegates by concrete class
+     */
+    private ClassValue<Map<Method, Invocator>> newCache() {
+        return new ClassValue<Map<Method, Invocator>>() {
+
+            @Override
+            protected Map<Method, Invocator> computeValue(Class<?> type) {
+                return findDelegates(type);
+            }
+            
+        };
+    }
+    
+    /**
+     * Find methods annotated with @Delegate and corresponding facade method
      * @param clazz  Concrete class of target object
+     * @return  Delegators by facade method
      */
-    private void addDelegates(Class<?> clazz) {        
-        this.delegates.putAll(
-            Arrays.asList(clazz.getMethods())
-                .stream()
-                .filter((m) -> m.isAnnotationPresent(Delegate.class))
-                .map((m) -> this.toKey(m))
-                .filter((k) -> k.isValid())
-                .collect(Collectors.toMap(
-                    Function.identity(), 
-                    (k) -> new Delegator(k.method),
-                    (k0, k1) -> {
-                        if(k0.getReturnType().isAssignableFrom(k1.getReturnType())){
-                            return k1;
-                        }
-                        if(k1.getReturnType().isAssignableFrom(k0.getReturnType())){
-                            return k0;
-                        }
-                        throw new UnsupportedOperationException(
-                            "Unable to resolve between " 
-                            + this.toString(k0.getMethod())
-                            + " and "
-                            + this.toString(k1.getMethod())
-                        );
+    private Map<Method, Invocator> findDelegates(Class<?> clazz) {
+        Map<Method, Delegator> delegators = Arrays.asList(clazz.getMethods())
+            .stream()
+            .filter((m) -> m.isAnnotationPresent(Delegate.class))
+            .map((m) -> this.toKey(m))
+            .filter((k) -> k.isValid() && k.clazz == clazz)
+            .collect(Collectors.toMap(
+                (k) -> k.facade, 
+                (k) -> new Delegator(k.method),
+                (k0, k1) -> {
+                    if(k0.getReturnType().isAssignableFrom(k1.getReturnType())){
+                        return k1;
+                    }
+                    if(k1.getReturnType().isAssignableFrom(k0.getReturnType())){
+                        return k0;
                     }
-                ))
-        );
-        this.delegates.put(new Key(clazz), NULL);
+                    throw new UnsupportedOperationException(
+                        "Unable to resolve between " 
+                        + this.toString(k0.getMethod())
+                        + " and "
+                        + this.toString(k1.getMethod())
+                    );
+                }
+            ));
+        return delegators.isEmpty() 
+            ? Collections.<Method, Invocator>emptyMap() 
+            : Collections.unmodifiableMap(delegators);
     }
     
     /**
@@ -159,25 +170,12 @@ public class DelegateEngine extends FacadeEngine {
             + method.getReturnType().getName();
     }
     
-    private Map<Key, Invocator> delegates;
-    
-    private static final Invocator NULL = (target, args) -> { 
-        throw new UnsupportedOperationException("Invalid invocator."); 
-    };
+    private volatile ClassValue<Map<Method, Invocator>> delegates;
     
     private static final DelegateEngine INSTANCE = new DelegateEngine();
 
     private static class Key {
         
-        public Key(Class<?> clazz) {
-            this(clazz, null);
-        }
-
-        public Key(Class<?> clazz, Method facade) {
-            this.clazz = clazz;
-            this.facade = facade;
-        }
-        
         public Key(Class<?> clazz, Method method, Method facade) {
             this.clazz = clazz;
             this.method = method;
@@ -190,21 +188,6 @@ public class DelegateEngine extends FacadeEngine {
             return !needPure || this.method.isAnnotationPresent(Pure.class);
         }
 
-        @Override
-        public boolean equals(Object obj) {
-            if(obj instanceof Key){
-                Key other = (Key) obj;
-                return Objects.equals(this.clazz, other.clazz)
-                    && Objects.equals(this.facade, other.facade);
-            }
-            return false;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(this.clazz, this.facade);
-        }
-        
         private Class<?> clazz;
         private Method method, facade;
     }
@@ -23,12 +23,18 @@
  */
 package jacobi.core.facade;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 /**
  * A delegator is an method wrapped as an Invocator.
  * 
+ * <p>The method is resolved into a method handle once on construction, such that 
+ * no reflective access check is done on invocation.</p>
+ * 
  * @author Y.K. Chan
  */
 public class Delegator implements Invocator {
@@ -39,6 +45,7 @@ public class Delegator implements Invocator {
      */
     public Delegator(Method method) {
         this.method = method;
+        this.handle = this.toHandle(method);
     }
 
     /**
@@ -59,17 +66,41 @@ public class Delegator implements Invocator {
 
     @Override
     public Object invoke(Object target, Object[] args) {
+        if(this.handle == null){
+            throw new UnsupportedOperationException("Unable to access " + this.method);
+        }
+        
+        try {
+            return this.handle.invokeExact(target, args);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new UnsupportedOperationException(ex); // NOPMD - intended
+        }
+    }
+    
+    /**
+     * Resolve a method into a method handle which accepts the target object and all 
+     * arguments in an object array, and returns an object.
+     * @param method  Method to be invoked
+     * @return  Method handle, or null if the method is not accessible
+     */
+    private MethodHandle toHandle(Method method) {
+        MethodHandle handle;
         try {
-            return this.method.invoke(target, args);
-        } catch (IllegalAccessException | IllegalArgumentException ex) {
-            throw new UnsupportedOperationException(ex);
-        } catch (InvocationTargetException ex) {
-            if(ex.getTargetException() instanceof RuntimeException){
-                throw (RuntimeException) ex.getTargetException();
-            }
-            throw new UnsupportedOperationException(ex.getTargetException()); // NOPMD - intended
+            handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+        
+        if(Modifier.isStatic(method.getModifiers())){
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
         }
+        return handle
+            .asSpreader(Object[].class, method.getParameterCount())
+            .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
     }
 
     private Method method;
+    private MethodHandle handle;
 }
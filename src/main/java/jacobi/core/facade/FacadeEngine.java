@@ -30,16 +30,16 @@ import jacobi.api.annotations.Implementation;
 import jacobi.api.annotations.Pure;
 import jacobi.core.util.Throw;
 import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Detect and invoke the implementation class given a facade method.
  * 
  * <p>This class will cache the implementation class with correct invocator
  * so duplicate searching of implementation method for multiple invocation
- * of the same facade method is avoided.</p>
+ * of the same facade method is avoided. The cache is lock-free for look-up, 
+ * and invocators can be resolved in advance by warming up.</p>
  * 
  * @author Y.K. Chan
  */
@@ -57,7 +57,7 @@ public class FacadeEngine {
      * Construct a new Facade engine.
      */
     public FacadeEngine() {
-        this.invocators = Collections.synchronizedMap(new HashMap<>());
+        this.invocators = new ConcurrentHashMap<>();
     }
         
     /**
@@ -69,24 +69,82 @@ public class FacadeEngine {
     }
     
     /**
-     * Invoke a facade method.
+     * Invoke a facade method. The invocation is recorded when FacadeMetrics is enabled.
      * @param method  Facade method
      * @param target  Facade argument
      * @param args  Facade method argument(s)
      * @return   Method result returned.
      */
     public Object invoke(Method method, Object target, Object[] args) {
+        if(FacadeMetrics.isRecording()){
+            return FacadeMetrics.getInstance().record(method, target, args, 
+                (t, a) -> this.dispatch(method, t, a));
+        }
+        return this.dispatch(method, target, args);
+    }
+    
+    /**
+     * Find and invoke the implementation of a facade method.
+     * @param method  Facade method
+     * @param target  Facade argument
+     * @param args  Facade method argument(s)
+     * @return   Method result returned.
+     */
+    protected Object dispatch(Method method, Object target, Object[] args) {
         Invocator invocator = this.invocators.get(method);
         if(invocator == null){
-            // getting invocator multiple times yields the same result
-            // whole class synchronization is omitted
-            Facade facade = method.getDeclaringClass().getAnnotation(Facade.class);
-            invocator = this.createInvocator(facade, method);
-            this.invocators.put(method, invocator);
+            invocator = this.resolve(method);
         }
         return invocator.invoke(target, args);
     }
     
+    /**
+     * Resolve the invocators of all implemented methods of facade interfaces in advance,
+     * to avoid the latency of resolving on the first call. Methods that fail to resolve
+     * are skipped and would report the failure on invocation.
+     * @param facadeClasses  Facade interfaces
+     * @return  Number of facade methods resolved
+     * @throws IllegalArgumentException  if any class is not a facade
+     */
+    public int warmUp(Class<?>... facadeClasses) {
+        int count = 0;
+        for(Class<?> facadeClass : facadeClasses){
+            Throw.when()
+                .isNull(() -> facadeClass, () -> "No facade.")
+                .isFalse(
+                    () -> facadeClass.isAnnotationPresent(Facade.class),
+                    () -> facadeClass.getName() + " is not a facade."
+                );
+            for(Method method : facadeClass.getMethods()){
+                if(!method.isAnnotationPresent(Implementation.class)
+                    || this.invocators.containsKey(method)){
+                    continue;
+                }
+                try {
+                    this.resolve(method);
+                    count++;
+                } catch (RuntimeException ex) {
+                    // leave the failure to invocation
+                }
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Resolve and cache the invocator for a facade method. 
+     * @param method  Facade method
+     * @return  Invocator of the facade method
+     */
+    protected Invocator resolve(Method method) {
+        // resolving the same method concurrently yields the same result,
+        // only the first one is kept
+        Facade facade = method.getDeclaringClass().getAnnotation(Facade.class);
+        Invocator invocator = this.createInvocator(facade, method);
+        Invocator prev = this.invocators.putIfAbsent(method, invocator);
+        return prev == null ? invocator : prev;
+    }
+    
     /**
      * Create invocator for a facade method.
      * @param facade  Facade annotation
@@ -0,0 +1,637 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.facade;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jacobi.api.Matrix;
+import jacobi.core.util.ComputePool;
+import jacobi.core.util.Throw;
+
+/**
+ * Instrumentation of facade methods. 
+ * 
+ * <p>When enabled, each invocation of a facade method by the facade engines records the call count, 
+ * latency in a histogram, the dimension of the facade argument if it is a matrix, the estimated 
+ * number of flop, and whether a parallel region in ComputePool is entered by the calling thread.
+ * The records are available by snapshot, or through JMX by registering this as an MBean.</p>
+ * 
+ * <p>Generated facade classes record around the call of the implementation, and Java proxies record 
+ * in the facade engines, thus facade objects created before enabling are also recorded. When disabled, 
+ * the cost is a single volatile read per call.</p>
+ * 
+ * <p>Recording is enabled at start-up by the system property jacobi.metrics, which also registers 
+ * the MBean in the platform MBean server.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public final class FacadeMetrics implements FacadeMetricsMBean {
+    
+    /**
+     * Name of system property to enable recording at start-up
+     */
+    public static final String PROPERTY_METRICS = "jacobi.metrics";
+    
+    /**
+     * Object name of the MBean
+     */
+    public static final String OBJECT_NAME = "jacobi:type=FacadeMetrics";
+    
+    /**
+     * Number of buckets in latency histograms, where bucket i counts latencies 
+     * in [2^i, 2^(i+1)) nanoseconds.
+     */
+    public static final int NUM_BUCKETS = 64;
+    
+    /**
+     * Get singleton instance.
+     * @return  Instance of facade metrics
+     */
+    public static FacadeMetrics getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Determine if invocations of facade methods are recorded. This is the static equivalent of
+     * isEnabled for the facade engines.
+     * @return  True if enabled, false otherwise
+     */
+    public static boolean isRecording() {
+        return enabled;
+    }
+    
+    /**
+     * Constructor.
+     */
+    private FacadeMetrics() {
+        this.counters = new ConcurrentHashMap<>();
+        this.byMethod = new ConcurrentHashMap<>();
+        this.current = new ThreadLocal<>();
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean value) {
+        synchronized(FacadeMetrics.class){
+            ComputePool.setListener(value ? this::markParallel : null);
+            enabled = value;
+        }
+    }
+    
+    /**
+     * Register this as an MBean in the platform MBean server, if not registered.
+     * @return  Object name of the MBean
+     * @throws IllegalStateException  if failed to register
+     */
+    public ObjectName register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            synchronized(FacadeMetrics.class){
+                if(!server.isRegistered(name)){
+                    server.registerMBean(this, name);
+                }
+            }
+            return name;
+        } catch (JMException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    /**
+     * Unregister the MBean from the platform MBean server, if registered.
+     * @throws IllegalStateException  if failed to unregister
+     */
+    public void unregister() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            synchronized(FacadeMetrics.class){
+                if(server.isRegistered(name)){
+                    server.unregisterMBean(name);
+                }
+            }
+        } catch (JMException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    /**
+     * Get a snapshot of the records of all facade methods.
+     * @return  Snapshots by name of facade method, in order of name
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshots = new TreeMap<>();
+        this.counters.forEach((k, v) -> snapshots.put(k, v.snapshot(k)));
+        return Collections.unmodifiableMap(snapshots);
+    }
+    
+    /**
+     * Get a snapshot of the records of a facade method.
+     * @param name  Name of facade method, e.g.&nbsp;Decomp.qr
+     * @return  Snapshot of the records, or empty records if not recorded
+     */
+    public Snapshot snapshot(String name) {
+        Counter counter = this.counters.get(name);
+        return counter == null ? new Counter().snapshot(name) : counter.snapshot(name);
+    }
+
+    @Override
+    public String[] getMethodNames() {
+        return this.snapshot().keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public long getTotalCallCount() {
+        return this.counters.values().stream().mapToLong(c -> c.count.sum()).sum();
+    }
+
+    @Override
+    public long getCallCount(String name) {
+        return this.snapshot(name).getCount();
+    }
+
+    @Override
+    public long getParallelCallCount(String name) {
+        return this.snapshot(name).getParallelCount();
+    }
+
+    @Override
+    public double getMeanLatencyMillis(String name) {
+        return this.snapshot(name).getMeanNanos() / 1e6;
+    }
+
+    @Override
+    public double getLatencyPercentileMillis(String name, double percentile) {
+        return this.snapshot(name).getPercentileNanos(percentile) / 1e6;
+    }
+
+    @Override
+    public long getEstimatedFlop(String name) {
+        return this.snapshot(name).getFlop();
+    }
+
+    @Override
+    public String report() {
+        StringBuilder buf = new StringBuilder();
+        this.snapshot().values().forEach(s -> buf.append(s).append('\n'));
+        return buf.toString();
+    }
+
+    @Override
+    public void reset() {
+        this.counters.clear();
+        this.byMethod.clear();
+    }
+    
+    /**
+     * Find a facade method for recording by generated facade classes.
+     * @param facade  Facade interface class
+     * @param name  Name of facade method
+     * @param params  Erased parameter types of facade method
+     * @return  Facade method
+     * @throws IllegalStateException  if the facade method is not found
+     */
+    public static Method methodOf(Class<?> facade, String name, Class<?>... params) {
+        try {
+            return facade.getMethod(name, params);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    /**
+     * Invoke a facade method and record the invocation by generated facade classes.
+     * @param method  Facade method
+     * @param target  Facade argument
+     * @param args  Facade method argument(s)
+     * @param invocator  Invocator of the implementation method
+     * @return  Method result returned
+     */
+    public static Object invoke(Method method, Object target, Object[] args, Invocator invocator) {
+        return INSTANCE.record(method, target, args, invocator);
+    }
+    
+    /**
+     * Invoke a facade method and record the invocation.
+     * @param method  Facade method
+     * @param target  Facade argument
+     * @param args  Facade method argument(s)
+     * @param invocator  Invocator of the facade method
+     * @return  Method result returned
+     */
+    protected Object record(Method method, Object target, Object[] args, Invocator invocator) {
+        Counter counter = this.byMethod.computeIfAbsent(method, 
+            m -> this.counters.computeIfAbsent(nameOf(m), k -> new Counter()));
+        
+        Call outer = this.current.get();
+        Call call = new Call();
+        this.current.set(call);
+        
+        boolean failed = true;
+        long start = System.nanoTime();
+        try {
+            Object result = invocator.invoke(target, args);
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            this.current.set(outer);
+            if(outer != null && call.parallel){
+                outer.parallel = true;
+            }
+            
+            long rows = 0, cols = 0;
+            if(target instanceof Matrix){
+                rows = ((Matrix) target).getRowCount();
+                cols = ((Matrix) target).getColCount();
+            }
+            counter.add(elapsed, failed, call.parallel, rows, cols, estimateFlop(method, rows, cols, args));
+        }
+    }
+    
+    /**
+     * Mark the invocation of current thread as entered a parallel region.
+     */
+    protected void markParallel() {
+        Call call = this.current.get();
+        if(call != null){
+            call.parallel = true;
+        }
+    }
+    
+    /**
+     * Get the name of a facade method, i.e.&nbsp;the simple name of the facade interface and the method name.
+     * @param method  Facade method
+     * @return  Name of the facade method
+     */
+    protected static String nameOf(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+    
+    /**
+     * Estimate the number of flop, counting a multiply-add as a single flop, of a facade method 
+     * on a m-by-n matrix. Matrix products are estimated by the dimension of the operands, factorizations,
+     * solvers and properties that need factorizations as O(mn min(m, n)), co-variance as O(mn^2), building 
+     * spatial indices as O(mn log m), and others as O(mn).
+     * @param method  Facade method
+     * @param m  Number of rows of the facade argument
+     * @param n  Number of columns of the facade argument
+     * @param args  Facade method argument(s)
+     * @return  Estimated number of flop
+     */
+    protected static long estimateFlop(Method method, long m, long n, Object[] args) {
+        Matrix operand = args == null ? null : (Matrix) Arrays.stream(args)
+            .filter(a -> a instanceof Matrix)
+            .findFirst()
+            .orElse(null);
+        
+        String facade = method.getDeclaringClass().getSimpleName();
+        switch(method.getName()) {
+            case "mul":
+            case "mulStrassen":
+                return operand == null ? m * n : m * n * operand.getColCount();
+            case "mulT":
+                return operand == null ? m * n : m * n * operand.getRowCount();
+            case "gemm":
+            case "gemmT":
+                return operand == null ? m * n : m * n * operand.getColCount();
+            case "covar":
+                return m * n * n;
+            case "build":
+                return m * n * (64 - Long.numberOfLeadingZeros(Math.max(m, 1)));
+            case "tr":
+                return Math.min(m, n);
+            case "transpose":
+            case "linprog":
+                return m * n;
+            default:
+                break;
+        }
+        return "Decomp".equals(facade) || "Solver".equals(facade) || "Prop".equals(facade)
+            ? m * n * Math.min(m, n)
+            : m * n;
+    }
+    
+    private Map<String, Counter> counters;
+    private Map<Method, Counter> byMethod;
+    private ThreadLocal<Call> current;
+    
+    private static volatile boolean enabled;
+    
+    private static final FacadeMetrics INSTANCE = new FacadeMetrics();
+    
+    static {
+        if(Boolean.getBoolean(PROPERTY_METRICS)){
+            INSTANCE.setEnabled(true);
+            try {
+                INSTANCE.register();
+            } catch(IllegalStateException | SecurityException ex) {
+                // recording is available by snapshot without JMX
+            }
+        }
+    }
+    
+    /**
+     * Mutable state of an invocation in progress.
+     */
+    private static class Call {
+        
+        private boolean parallel;
+    }
+    
+    /**
+     * Thread-safe counters of a facade method.
+     */
+    private static class Counter {
+        
+        /**
+         * Constructor.
+         */
+        public Counter() {
+            this.count = new LongAdder();
+            this.failed = new LongAdder();
+            this.parallel = new LongAdder();
+            this.nanos = new LongAdder();
+            this.elements = new LongAdder();
+            this.flop = new LongAdder();
+            this.maxNanos = new LongAccumulator(Math::max, 0L);
+            this.maxRows = new LongAccumulator(Math::max, 0L);
+            this.maxCols = new LongAccumulator(Math::max, 0L);
+            this.histogram = new AtomicLongArray(NUM_BUCKETS);
+        }
+        
+        /**
+         * Add the record of an invocation.
+         * @param elapsed  Latency in nanoseconds
+         * @param isFailed  True if an exception is thrown
+         * @param isParallel  True if a parallel region is entered
+         * @param rows  Number of rows of the facade argument
+         * @param cols  Number of columns of the facade argument
+         * @param numFlop  Estimated number of flop
+         */
+        public void add(long elapsed, boolean isFailed, boolean isParallel, long rows, long cols, long numFlop) {
+            this.count.increment();
+            if(isFailed){
+                this.failed.increment();
+            }
+            if(isParallel){
+                this.parallel.increment();
+            }
+            this.nanos.add(elapsed);
+            this.maxNanos.accumulate(elapsed);
+            this.histogram.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(elapsed, 1L)));
+            this.elements.add(rows * cols);
+            this.maxRows.accumulate(rows);
+            this.maxCols.accumulate(cols);
+            this.flop.add(numFlop);
+        }
+        
+        /**
+         * Get a snapshot of the counters.
+         * @param name  Name of facade method
+         * @return  Snapshot
+         */
+        public Snapshot snapshot(String name) {
+            long[] buckets = new long[NUM_BUCKETS];
+            for(int i = 0; i < buckets.length; i++){
+                buckets[i] = this.histogram.get(i);
+            }
+            return new Snapshot(name, this.count.sum(), this.failed.sum(), this.parallel.sum(),
+                this.nanos.sum(), this.maxNanos.get(), buckets, 
+                this.elements.sum(), this.maxRows.get(), this.maxCols.get(), this.flop.sum());
+        }
+        
+        private LongAdder count, failed, parallel, nanos, elements, flop;
+        private LongAccumulator maxNanos, maxRows, maxCols;
+        private AtomicLongArray histogram;
+    }
+    
+    /**
+     * Immutable snapshot of the records of a facade method.
+     * 
+     * @author Y.K. Chan
+     */
+    public static final class Snapshot {
+        
+        /**
+         * Constructor.
+         * @param name  Name of facade method
+         * @param count  Number of calls
+         * @param failed  Number of calls that threw an exception
+         * @param parallel  Number of calls that entered a parallel region
+         * @param nanos  Total latency in nanoseconds
+         * @param maxNanos  Maximum latency in nanoseconds
+         * @param histogram  Latency histogram
+         * @param elements  Total number of elements of facade arguments
+         * @param maxRows  Maximum number of rows of facade arguments
+         * @param maxCols  Maximum number of columns of facade arguments
+         * @param flop  Total estimated number of flop
+         */
+        public Snapshot(String name, long count, long failed, long parallel, 
+                long nanos, long maxNanos, long[] histogram,
+                long elements, long maxRows, long maxCols, long flop) {
+            Throw.when()
+                .isNull(() -> histogram, () -> "No histogram.")
+                .isTrue(() -> histogram.length != NUM_BUCKETS, () -> "Invalid histogram length " + histogram.length);
+            this.name = name;
+            this.count = count;
+            this.failed = failed;
+            this.parallel = parallel;
+            this.nanos = nanos;
+            this.maxNanos = maxNanos;
+            this.histogram = histogram.clone();
+            this.elements = elements;
+            this.maxRows = maxRows;
+            this.maxCols = maxCols;
+            this.flop = flop;
+        }
+        
+        /**
+         * Get the name of facade method.
+         * @return  Name of facade method
+         */
+        public String getName() {
+            return name;
+        }
+        
+        /**
+         * Get the number of calls.
+         * @return  Number of calls
+         */
+        public long getCount() {
+            return count;
+        }
+        
+        /**
+         * Get the number of calls that threw an exception.
+         * @return  Number of failed calls
+         */
+        public long getFailedCount() {
+            return failed;
+        }
+        
+        /**
+         * Get the number of calls that entered a parallel region.
+         * @return  Number of parallel calls
+         */
+        public long getParallelCount() {
+            return parallel;
+        }
+        
+        /**
+         * Get the number of calls that computed in serial.
+         * @return  Number of serial calls
+         */
+        public long getSerialCount() {
+            return count - parallel;
+        }
+        
+        /**
+         * Get the total latency.
+         * @return  Total latency in nanoseconds
+         */
+        public long getTotalNanos() {
+            return nanos;
+        }
+        
+        /**
+         * Get the maximum latency.
+         * @return  Maximum latency in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+        
+        /**
+         * Get the mean latency.
+         * @return  Mean latency in nanoseconds, or 0 if no calls
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0.0 : nanos / (double) count;
+        }
+        
+        /**
+         * Get an upper bound of a percentile of latency by the histogram.
+         * @param percentile  Percentile in [0, 100]
+         * @return  Latency in nanoseconds, or 0 if no calls
+         * @throws IllegalArgumentException  if percentile is out of range
+         */
+        public long getPercentileNanos(double percentile) {
+            Throw.when().isTrue(
+                () -> !(percentile >= 0.0 && percentile <= 100.0), 
+                () -> "Invalid percentile " + percentile);
+            long total = 0;
+            for(long c : this.histogram){
+                total += c;
+            }
+            if(total == 0){
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+            long sum = 0;
+            for(int i = 0; i < this.histogram.length; i++){
+                sum += this.histogram[i];
+                if(sum >= rank){
+                    return Math.min(i < 62 ? (2L << i) - 1 : Long.MAX_VALUE, this.maxNanos);
+                }
+            }
+            return this.maxNanos;
+        }
+        
+        /**
+         * Get the latency histogram, where bucket i counts latencies in [2^i, 2^(i+1)) nanoseconds.
+         * @return  Latency histogram
+         */
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+        
+        /**
+         * Get the total number of elements of facade arguments.
+         * @return  Total number of elements
+         */
+        public long getElementCount() {
+            return elements;
+        }
+        
+        /**
+         * Get the maximum number of rows of facade arguments.
+         * @return  Maximum number of rows
+         */
+        public long getMaxRows() {
+            return maxRows;
+        }
+        
+        /**
+         * Get the maximum number of columns of facade arguments.
+         * @return  Maximum number of columns
+         */
+        public long getMaxCols() {
+            return maxCols;
+        }
+        
+        /**
+         * Get the total estimated number of flop.
+         * @return  Estimated number of flop
+         */
+        public long getFlop() {
+            return flop;
+        }
+
+        @Override
+        public String toString() {
+            return this.name 
+                + " count=" + this.count
+                + " failed=" + this.failed
+                + " parallel=" + this.parallel
+                + " mean=" + this.getMeanNanos() / 1e6 + "ms"
+                + " p99=" + this.getPercentileNanos(99.0) / 1e6 + "ms"
+                + " max=" + this.maxNanos / 1e6 + "ms"
+                + " maxDim=" + this.maxRows + "x" + this.maxCols
+                + " flop=" + this.flop;
+        }
+        
+        private String name;
+        private long count, failed, parallel, nanos, maxNanos, elements, maxRows, maxCols, flop;
+        private long[] histogram;
+    }
+}
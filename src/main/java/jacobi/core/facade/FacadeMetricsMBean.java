@@ -0,0 +1,107 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.facade;
+
+/**
+ * Management interface of FacadeMetrics for JMX.
+ * 
+ * <p>Facade methods are named by the simple name of the facade interface and the method name,
+ * e.g.&nbsp;Decomp.qr. Overloaded methods are recorded under the same name.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public interface FacadeMetricsMBean {
+    
+    /**
+     * Determine if invocations of facade methods are recorded.
+     * @return  True if enabled, false otherwise
+     */
+    public boolean isEnabled();
+    
+    /**
+     * Enable or disable recording invocations of facade methods.
+     * @param enabled  True to enable, false to disable
+     */
+    public void setEnabled(boolean enabled);
+    
+    /**
+     * Get the names of facade methods recorded.
+     * @return  Names of facade methods
+     */
+    public String[] getMethodNames();
+    
+    /**
+     * Get the total number of calls recorded of all facade methods.
+     * @return  Total number of calls
+     */
+    public long getTotalCallCount();
+    
+    /**
+     * Get the number of calls of a facade method.
+     * @param name  Name of facade method
+     * @return  Number of calls, or 0 if not recorded
+     */
+    public long getCallCount(String name);
+    
+    /**
+     * Get the number of calls of a facade method that entered a parallel region.
+     * @param name  Name of facade method
+     * @return  Number of parallel calls, or 0 if not recorded
+     */
+    public long getParallelCallCount(String name);
+    
+    /**
+     * Get the mean latency of a facade method.
+     * @param name  Name of facade method
+     * @return  Mean latency in milliseconds, or 0 if not recorded
+     */
+    public double getMeanLatencyMillis(String name);
+    
+    /**
+     * Get an upper bound of a percentile of latency of a facade method.
+     * @param name  Name of facade method
+     * @param percentile  Percentile in [0, 100]
+     * @return  Latency in milliseconds, or 0 if not recorded
+     */
+    public double getLatencyPercentileMillis(String name, double percentile);
+    
+    /**
+     * Get the total estimated number of flop of a facade method.
+     * @param name  Name of facade method
+     * @return  Estimated number of flop, or 0 if not recorded
+     */
+    public long getEstimatedFlop(String name);
+    
+    /**
+     * Get a report of all facade methods recorded, one line for each method.
+     * @return  Report in text
+     */
+    public String report();
+    
+    /**
+     * Clear all records.
+     */
+    public void reset();
+    
+}
@@ -0,0 +1,619 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.facade;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+
+/**
+ * Annotation processor that generates concrete implementations of facade interfaces at compile time.
+ * 
+ * <p>For each interface annotated with {@literal @}Facade, a final class named after the facade 
+ * with suffix $Facade is generated in the same package. The implementation method of each facade 
+ * method is resolved by the same rules as Functor, and is called directly instead of through a 
+ * reflective proxy. Copying the facade argument for {@literal @}Pure facade methods, returning 
+ * the return value for Supplier and chaining of facade methods behave the same as FacadeProxy.
+ * When FacadeMetrics is recording, the call of the implementation method is recorded in place,
+ * by the facade method resolved once when the generated class is loaded.</p>
+ * 
+ * <p>A facade is left to the reflective proxy if any of its methods can not be resolved, 
+ * e.g.&nbsp;no {@literal @}Implementation, ambiguous, inaccessible or throwing checked exceptions.
+ * The same error is then reported at run-time as before.</p>
+ * 
+ * <p>Annotations are referred by name only such that this class can be compiled before the rest
+ * of the library.</p>
+ * 
+ * @author Y.K. Chan
+ */
+@SupportedAnnotationTypes(FacadeProcessor.FACADE)
+public class FacadeProcessor extends AbstractProcessor {
+    
+    /**
+     * Suffix to the name of facade interface for the generated class
+     */
+    public static final String GENERATED_SUFFIX = "$Facade";
+    
+    /**
+     * Name of the static field in generated class for creating facade objects
+     */
+    public static final String FACTORY_FIELD = "FACTORY";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for(TypeElement annotation : annotations){
+            for(Element element : roundEnv.getElementsAnnotatedWith(annotation)){
+                if(element.getKind() != ElementKind.INTERFACE){
+                    continue;
+                }
+                
+                TypeElement facade = (TypeElement) element;
+                try {
+                    this.write(facade, this.generate(facade));
+                } catch (UnsupportedOperationException ex) {
+                    this.processingEnv.getMessager().printMessage(Kind.NOTE, 
+                        facade.getQualifiedName() + " is left to reflection: " + ex.getMessage(), facade);
+                } catch (IOException ex) {
+                    this.processingEnv.getMessager().printMessage(Kind.WARNING, 
+                        "Unable to generate " + facade.getQualifiedName() + ": " + ex.getMessage(), facade);
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Generate the source of the implementation of a facade interface.
+     * @param facade  Facade interface
+     * @return  Java source of the generated class
+     * @throws UnsupportedOperationException  if any facade method can not be resolved
+     */
+    protected String generate(TypeElement facade) {
+        Types types = this.processingEnv.getTypeUtils();
+        Elements elements = this.processingEnv.getElementUtils();
+        
+        TypeMirror facadeArg = types.erasure(this.facadeArg(facade));
+        String className = this.generatedName(facade);
+        String facadeType = this.typeOf(facade.asType());
+        
+        Map<String, String> impls = new LinkedHashMap<>();
+        Map<String, String> methods = new LinkedHashMap<>();
+        StringBuilder body = new StringBuilder();
+        for(ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(facade))){
+            if(!method.getModifiers().contains(Modifier.ABSTRACT)){
+                continue;
+            }
+            
+            if(this.isSupplierGet(facade, method)){
+                body.append(this.generateGet(facade, method));
+                continue;
+            }
+            
+            body.append(this.generateMethod(facade, facadeArg, method, impls, methods));
+        }
+        
+        String pkg = elements.getPackageOf(facade).getQualifiedName().toString();
+        StringBuilder src = new StringBuilder();
+        if(!pkg.isEmpty()){
+            src.append("package ").append(pkg).append(";\n\n");
+        }
+        
+        src.append("/**\n")
+            .append(" * Implementation of facade ").append(facade.getQualifiedName()).append(".\n")
+            .append(" * Generated by ").append(FacadeProcessor.class.getName()).append(". Do not edit.\n")
+            .append(" */\n")
+            .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+            .append("public final class ").append(className).append(this.typeParams(facade.getTypeParameters()))
+            .append(" implements ").append(facadeType).append(" {\n\n")
+            .append("    public static final java.util.function.BiFunction<Object, Object, Object> ")
+            .append(FACTORY_FIELD).append(" = ").append(className).append("::new;\n\n")
+            .append("    public ").append(className).append("(Object target, Object returnValue) {\n")
+            .append("        this.target = (").append(this.typeOf(facadeArg)).append(") target;\n")
+            .append("        this.returnValue = returnValue;\n")
+            .append("    }\n")
+            .append(body)
+            .append("\n    private final ").append(this.typeOf(facadeArg)).append(" target;\n")
+            .append("    private final Object returnValue;\n");
+        
+        for(Map.Entry<String, String> entry : impls.entrySet()){
+            src.append("    private static final ").append(entry.getKey()).append(' ').append(entry.getValue())
+                .append(" = new ").append(entry.getKey()).append("();\n");
+        }
+        for(Map.Entry<String, String> entry : methods.entrySet()){
+            src.append("    private static final java.lang.reflect.Method ").append(entry.getKey())
+                .append(" = ").append(entry.getValue()).append(";\n");
+        }
+        return src.append("}\n").toString();
+    }
+    
+    /**
+     * Generate the Supplier get method which returns the return value.
+     * @param facade  Facade interface
+     * @param method  Supplier get method
+     * @return  Java source of the method
+     */
+    protected String generateGet(TypeElement facade, ExecutableElement method) {
+        TypeMirror returnType = this.memberOf(facade, method).getReturnType();
+        return "\n    @Override\n"
+            + "    public " + this.typeOf(returnType) + " get() {\n"
+            + "        return (" + this.typeOf(returnType) + ") this.returnValue;\n"
+            + "    }\n";
+    }
+    
+    /**
+     * Generate a facade method which calls the implementation method directly, or through 
+     * FacadeMetrics when recording.
+     * @param facade  Facade interface
+     * @param facadeArg  Erased type of facade argument
+     * @param method  Facade method
+     * @param impls  Instances of implementation classes by type, updated when a new implementation is found
+     * @param methods  Initializers of facade methods for recording by field name, updated for each method
+     * @return  Java source of the method
+     * @throws UnsupportedOperationException  if the facade method can not be resolved
+     */
+    protected String generateMethod(TypeElement facade, TypeMirror facadeArg, 
+            ExecutableElement method, Map<String, String> impls, Map<String, String> methods) {
+        Types types = this.processingEnv.getTypeUtils();
+        
+        Element declaring = method.getEnclosingElement();
+        AnnotationMirror implAnnotation = this.annotationOf(method, IMPLEMENTATION)
+            .orElseThrow(() -> new UnsupportedOperationException(method.getSimpleName() + " is not implemented."));
+        Optional<AnnotationMirror> declaringFacade = this.annotationOf(declaring, FACADE);
+        if(!declaringFacade.isPresent()){
+            throw new UnsupportedOperationException(method.getSimpleName() + " is not declared by a facade.");
+        }
+        
+        TypeElement implClass = (TypeElement) ((DeclaredType) this.valueOf(implAnnotation)).asElement();
+        this.checkAccess(implClass);
+        
+        TypeMirror declaredArg = types.erasure(this.facadeArg((TypeElement) declaring));
+        ExecutableElement impl = this.findImpl(implClass, declaredArg, method);
+        
+        boolean needCopy = MATRIX.equals(declaredArg.toString())
+            && (this.annotationOf(method, PURE).isPresent() || this.annotationOf(declaring, PURE).isPresent())
+            && !this.annotationOf(implClass, PURE).isPresent()
+            && !this.annotationOf(impl, PURE).isPresent();
+        
+        String implType = this.typeOf(types.erasure(implClass.asType()));
+        String receiver = impl.getModifiers().contains(Modifier.STATIC)
+            ? implType
+            : impls.computeIfAbsent(implType, k -> "IMPL_" + impls.size());
+        
+        ExecutableType type = this.memberOf(facade, method);
+        List<String> args = new ArrayList<>();
+        args.add(needCopy ? "jacobi.api.Matrices.copy(this.target)" : "this.target");
+        
+        List<String> argNames = new ArrayList<>();
+        List<String> paramClasses = new ArrayList<>();
+        StringBuilder params = new StringBuilder();
+        for(int i = 0; i < type.getParameterTypes().size(); i++){
+            TypeMirror paramType = type.getParameterTypes().get(i);
+            TypeMirror implParam = impl.getParameters().get(i + 1).asType();
+            
+            boolean isVarArgs = method.isVarArgs() && i + 1 == type.getParameterTypes().size();
+            params.append(i > 0 ? ", " : "")
+                .append(isVarArgs ? this.typeOf(this.componentOf(paramType)) + "..." : this.typeOf(paramType))
+                .append(" arg").append(i);
+            argNames.add("arg" + i);
+            paramClasses.add(this.typeOf(types.erasure(method.getParameters().get(i).asType())) + ".class");
+            
+            args.add(types.isSameType(paramType, implParam) 
+                ? "arg" + i 
+                : "(" + this.typeOf(types.erasure(implParam)) + ") arg" + i);
+        }
+        
+        String call = receiver + "." + impl.getSimpleName() + "(" + String.join(", ", args) + ")";
+        TypeMirror returnType = type.getReturnType();
+        
+        String field = "METHOD_" + methods.size();
+        methods.put(field, METRICS + ".methodOf(" + this.typeOf(types.erasure(facade.asType())) + ".class, \"" 
+            + method.getSimpleName() + "\"" + paramClasses.stream().map(c -> ", " + c).collect(Collectors.joining()) + ")");
+        String recorded = METRICS + ".invoke(" + field + ", this.target, new Object[] {" + String.join(", ", argNames) 
+            + "}, (t, a) -> " + (returnType.getKind() == TypeKind.VOID ? "{ " + call + "; return null; }" : call) + ")";
+        String recording = METRICS + ".isRecording()";
+        
+        StringBuilder src = new StringBuilder()
+            .append("\n    @Override\n")
+            .append("    public ").append(this.typeParams(method.getTypeParameters()))
+            .append(method.getTypeParameters().isEmpty() ? "" : " ")
+            .append(this.typeOf(returnType)).append(' ').append(method.getSimpleName())
+            .append('(').append(params).append(") {\n");
+        
+        if(returnType.getKind() == TypeKind.VOID){
+            src.append("        if(").append(recording).append("){\n")
+                .append("            ").append(recorded).append(";\n")
+                .append("            return;\n")
+                .append("        }\n")
+                .append("        ").append(call).append(";\n");
+        }else if(returnType.getKind().isPrimitive()){
+            String boxed = this.typeOf(types.boxedClass((PrimitiveType) returnType).asType());
+            src.append("        return ").append(recording).append(" ? (").append(boxed).append(") ")
+                .append(recorded).append(" : ").append(call).append(";\n");
+        }else if(types.isSameType(types.erasure(returnType), types.erasure(facade.asType()))){
+            src.append("        Object result = ").append(recording).append(" ? ").append(recorded)
+                .append(" : ").append(call).append(";\n")
+                .append("        return jacobi.core.facade.FacadeProxy.chain(")
+                .append(this.typeOf(types.erasure(facade.asType()))).append(".class, result, ")
+                .append("result == this.target ? this.returnValue : result);\n");
+        }else{
+            src.append("        Object result = ").append(recording).append(" ? ").append(recorded)
+                .append(" : ").append(call).append(";\n")
+                .append("        return (").append(this.typeOf(returnType)).append(") result;\n");
+        }
+        return src.append("    }\n").toString();
+    }
+    
+    /**
+     * Find the implementation method of a facade method, i.e.&nbsp;the only public method that
+     * accepts the facade argument followed by the facade method arguments, and returns the same 
+     * type as the facade method or the facade argument for chaining.
+     * @param implClass  Implementation class
+     * @param facadeArg  Erased type of facade argument
+     * @param method  Facade method
+     * @return  Implementation method
+     * @throws UnsupportedOperationException  if no or multiple methods are found
+     */
+    protected ExecutableElement findImpl(TypeElement implClass, TypeMirror facadeArg, ExecutableElement method) {
+        Elements elements = this.processingEnv.getElementUtils();
+        
+        List<ExecutableElement> candidates = ElementFilter.methodsIn(elements.getAllMembers(implClass))
+            .stream()
+            .filter(m -> m.getModifiers().contains(Modifier.PUBLIC))
+            .filter(m -> !Object.class.getName().equals(
+                ((TypeElement) m.getEnclosingElement()).getQualifiedName().toString()
+            ))
+            .filter(m -> this.argumentMatches(m, facadeArg, method))
+            .filter(m -> this.returnTypeMatches(m, facadeArg, method))
+            .collect(Collectors.toList());
+        
+        if(candidates.size() != 1){
+            throw new UnsupportedOperationException(candidates.size() 
+                + " implementation method(s) found for " + method.getSimpleName());
+        }
+        
+        ExecutableElement impl = candidates.get(0);
+        TypeMirror runtimeException = elements.getTypeElement(RuntimeException.class.getName()).asType();
+        TypeMirror error = elements.getTypeElement(Error.class.getName()).asType();
+        for(TypeMirror thrown : impl.getThrownTypes()){
+            if(!this.processingEnv.getTypeUtils().isSubtype(thrown, runtimeException)
+                && !this.processingEnv.getTypeUtils().isSubtype(thrown, error)){
+                throw new UnsupportedOperationException(impl.getSimpleName() + " throws checked exception " + thrown);
+            }
+        }
+        return impl;
+    }
+    
+    /**
+     * Check if the parameters of a candidate method are the facade argument followed by 
+     * the facade method arguments, after erasure.
+     * @param candidate  Candidate implementation method
+     * @param facadeArg  Erased type of facade argument
+     * @param method  Facade method
+     * @return  True if matches, false otherwise
+     */
+    protected boolean argumentMatches(ExecutableElement candidate, TypeMirror facadeArg, ExecutableElement method) {
+        Types types = this.processingEnv.getTypeUtils();
+        if(candidate.getParameters().size() != 1 + method.getParameters().size()
+            || !types.isSameType(types.erasure(candidate.getParameters().get(0).asType()), facadeArg)){
+            return false;
+        }
+        
+        for(int i = 0; i < method.getParameters().size(); i++){
+            TypeMirror expected = types.erasure(method.getParameters().get(i).asType());
+            TypeMirror actual = types.erasure(candidate.getParameters().get(i + 1).asType());
+            if(!types.isSameType(expected, actual)){
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Check if the return type of a candidate method matches with the facade method, i.e.&nbsp;same 
+     * type after erasure with the same type argument for Optional, or being the facade argument
+     * when the facade method returns a facade of the same facade argument.
+     * @param candidate  Candidate implementation method
+     * @param facadeArg  Erased type of facade argument
+     * @param method  Facade method
+     * @return  True if matches, false otherwise
+     */
+    protected boolean returnTypeMatches(ExecutableElement candidate, TypeMirror facadeArg, ExecutableElement method) {
+        Types types = this.processingEnv.getTypeUtils();
+        
+        TypeMirror actual = candidate.getReturnType();
+        TypeMirror expected = method.getReturnType();
+        if(types.isSameType(types.erasure(actual), types.erasure(expected))){
+            if(!Optional.class.getName().equals(types.erasure(expected).toString())){
+                return true;
+            }
+            
+            TypeMirror expectedArg = this.optionalArg(expected, method, facadeArg);
+            if(expectedArg.getKind() == TypeKind.TYPEVAR){
+                return true;
+            }
+            
+            TypeMirror actualArg = this.optionalArg(actual, candidate, facadeArg);
+            if(expectedArg.getKind() == TypeKind.NONE || actualArg.getKind() == TypeKind.NONE){
+                throw new UnsupportedOperationException("Raw optional returned by " + candidate.getSimpleName());
+            }
+            return types.isSameType(expectedArg, actualArg);
+        }
+        
+        if(types.isSameType(types.erasure(actual), facadeArg) && expected.getKind() == TypeKind.DECLARED){
+            Element retType = ((DeclaredType) expected).asElement();
+            return this.annotationOf(retType, FACADE)
+                .map(a -> types.isSameType(types.erasure(this.facadeArg((TypeElement) retType)), facadeArg))
+                .orElse(false);
+        }
+        return false;
+    }
+    
+    /**
+     * Find the type argument of an optional returned by a method. The interface declaring the method
+     * as type argument is regarded as the facade argument.
+     * @param optional  Optional type
+     * @param method  Method returning the optional
+     * @param facadeArg  Erased type of facade argument
+     * @return  Type argument of the optional, or NONE type if raw
+     */
+    protected TypeMirror optionalArg(TypeMirror optional, ExecutableElement method, TypeMirror facadeArg) {
+        List<? extends TypeMirror> typeArgs = ((DeclaredType) optional).getTypeArguments();
+        if(typeArgs.isEmpty()){
+            return this.processingEnv.getTypeUtils().getNoType(TypeKind.NONE);
+        }
+        
+        TypeMirror typeArg = typeArgs.get(0);
+        Element declaring = method.getEnclosingElement();
+        if(declaring.getKind() == ElementKind.INTERFACE 
+            && this.processingEnv.getTypeUtils().isSameType(typeArg, declaring.asType())){
+            return facadeArg;
+        }
+        return typeArg;
+    }
+    
+    /**
+     * Check if an implementation class can be instantiated and called by a generated class.
+     * @param implClass  Implementation class
+     * @throws UnsupportedOperationException  if the class is not accessible
+     */
+    protected void checkAccess(TypeElement implClass) {
+        if(implClass.getModifiers().contains(Modifier.ABSTRACT)){
+            throw new UnsupportedOperationException(implClass.getQualifiedName() + " is abstract.");
+        }
+        
+        for(Element elem = implClass; elem instanceof TypeElement; elem = elem.getEnclosingElement()){
+            TypeElement type = (TypeElement) elem;
+            if(!type.getModifiers().contains(Modifier.PUBLIC)
+                || (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)
+                    && type.getKind() == ElementKind.CLASS)){
+                throw new UnsupportedOperationException(implClass.getQualifiedName() + " is not accessible.");
+            }
+        }
+        
+        boolean hasNoArgs = ElementFilter.constructorsIn(implClass.getEnclosedElements())
+            .stream()
+            .anyMatch(c -> c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC));
+        if(!hasNoArgs){
+            throw new UnsupportedOperationException(implClass.getQualifiedName() + " has no public no-arg constructor.");
+        }
+    }
+    
+    /**
+     * Check if a facade method is the get method of Supplier without implementation.
+     * @param facade  Facade interface
+     * @param method  Facade method
+     * @return  True if is the get method of Supplier, false otherwise
+     */
+    protected boolean isSupplierGet(TypeElement facade, ExecutableElement method) {
+        Types types = this.processingEnv.getTypeUtils();
+        TypeMirror supplier = types.erasure(
+            this.processingEnv.getElementUtils().getTypeElement(SUPPLIER).asType()
+        );
+        return GET.contentEquals(method.getSimpleName()) 
+            && method.getParameters().isEmpty()
+            && types.isSubtype(types.erasure(facade.asType()), supplier)
+            && !this.annotationOf(method, IMPLEMENTATION).isPresent();
+    }
+    
+    /**
+     * Write the generated source of a facade interface.
+     * @param facade  Facade interface
+     * @param source  Java source
+     * @throws IOException  if failed to write
+     */
+    protected void write(TypeElement facade, String source) throws IOException {
+        PackageElement pkg = this.processingEnv.getElementUtils().getPackageOf(facade);
+        String name = pkg.isUnnamed() 
+            ? this.generatedName(facade) 
+            : pkg.getQualifiedName() + "." + this.generatedName(facade);
+        try(Writer writer = this.processingEnv.getFiler().createSourceFile(name, facade).openWriter()){
+            writer.write(source);
+        }
+    }
+    
+    /**
+     * Get the simple name of the generated class, i.e.&nbsp;binary name of the facade interface 
+     * without package with the generated suffix.
+     * @param facade  Facade interface
+     * @return  Simple name of the generated class
+     */
+    protected String generatedName(TypeElement facade) {
+        String binaryName = this.processingEnv.getElementUtils().getBinaryName(facade).toString();
+        return binaryName.substring(binaryName.lastIndexOf('.') + 1) + GENERATED_SUFFIX;
+    }
+    
+    /**
+     * Get the facade argument type of a facade interface.
+     * @param facade  Facade interface
+     * @return  Type of facade argument
+     */
+    protected TypeMirror facadeArg(TypeElement facade) {
+        return this.annotationOf(facade, FACADE)
+            .map(this::valueOf)
+            .orElseThrow(() -> new UnsupportedOperationException(facade.getQualifiedName() + " is not a facade."));
+    }
+    
+    /**
+     * Find the type of a facade method as a member of the facade interface.
+     * @param facade  Facade interface
+     * @param method  Facade method
+     * @return  Type of facade method
+     */
+    protected ExecutableType memberOf(TypeElement facade, ExecutableElement method) {
+        return (ExecutableType) this.processingEnv.getTypeUtils().asMemberOf((DeclaredType) facade.asType(), method);
+    }
+    
+    /**
+     * Find an annotation on an element by name.
+     * @param element  Annotated element
+     * @param name  Qualified name of the annotation
+     * @return  Annotation mirror, or empty if not present
+     */
+    protected Optional<AnnotationMirror> annotationOf(Element element, String name) {
+        return element.getAnnotationMirrors()
+            .stream()
+            .filter(a -> ((TypeElement) a.getAnnotationType().asElement()).getQualifiedName().contentEquals(name))
+            .map(a -> (AnnotationMirror) a)
+            .findAny();
+    }
+    
+    /**
+     * Get the class value of an annotation, with default value if omitted.
+     * @param annotation  Annotation mirror
+     * @return  Type of the class value
+     */
+    protected TypeMirror valueOf(AnnotationMirror annotation) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values = 
+            this.processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+        return values.entrySet()
+            .stream()
+            .filter(e -> VALUE.contentEquals(e.getKey().getSimpleName()))
+            .map(e -> (TypeMirror) e.getValue().getValue())
+            .findAny()
+            .orElseThrow(() -> new UnsupportedOperationException("No value in " + annotation));
+    }
+    
+    /**
+     * Get the component type of an array type.
+     * @param type  Array type
+     * @return  Component type
+     */
+    protected TypeMirror componentOf(TypeMirror type) {
+        return ((javax.lang.model.type.ArrayType) type).getComponentType();
+    }
+    
+    /**
+     * Get the source representation of a type.
+     * @param type  Type
+     * @return  Source representation
+     */
+    protected String typeOf(TypeMirror type) {
+        return type.toString();
+    }
+    
+    /**
+     * Get the source representation of type parameters.
+     * @param typeParams  Type parameters
+     * @return  Source representation including angle brackets, or empty if no type parameter
+     */
+    protected String typeParams(List<? extends TypeParameterElement> typeParams) {
+        if(typeParams.isEmpty()){
+            return "";
+        }
+        return typeParams.stream()
+            .map(t -> t.getSimpleName() + t.getBounds().stream()
+                .map(this::typeOf)
+                .filter(b -> !Object.class.getName().equals(b))
+                .reduce((a, b) -> a + " & " + b)
+                .map(b -> " extends " + b)
+                .orElse(""))
+            .collect(Collectors.joining(", ", "<", ">"));
+    }
+    
+    /**
+     * Qualified name of Facade annotation
+     */
+    protected static final String FACADE = "jacobi.api.annotations.Facade";
+    
+    /**
+     * Qualified name of Implementation annotation
+     */
+    protected static final String IMPLEMENTATION = "jacobi.api.annotations.Implementation";
+    
+    /**
+     * Qualified name of Pure annotation
+     */
+    protected static final String PURE = "jacobi.api.annotations.Pure";
+    
+    /**
+     * Qualified name of Matrix interface
+     */
+    protected static final String MATRIX = "jacobi.api.Matrix";
+    
+    /**
+     * Qualified name of FacadeMetrics class
+     */
+    protected static final String METRICS = "jacobi.core.facade.FacadeMetrics";
+    
+    private static final String SUPPLIER = "java.util.function.Supplier";
+    
+    private static final String GET = "get";
+    
+    private static final String VALUE = "value";
+}
@@ -23,7 +23,22 @@
  */
 package jacobi.core.facade;
 
+import jacobi.api.annotations.Delegate;
 import jacobi.api.annotations.Facade;
+import jacobi.api.classifier.DefinedSupervised;
+import jacobi.api.ext.Data;
+import jacobi.api.ext.Decomp;
+import jacobi.api.ext.Graph;
+import jacobi.api.ext.InPlace;
+import jacobi.api.ext.LazyOp;
+import jacobi.api.ext.Learn;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.api.ext.Solver;
+import jacobi.api.ext.Spatial;
+import jacobi.api.ext.Stats;
+import jacobi.api.graph.Adjacency;
+import jacobi.api.unsupervised.Unsupervised;
 import jacobi.core.util.Throw;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
@@ -31,11 +46,17 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
 /**
  * Invocation handler for creating Java proxy object.
  * 
+ * <p>Facade objects are created from the class generated by FacadeProcessor when available,
+ * which invokes the implementation directly. Java proxy with this invocation handler is used
+ * for facades without generated class, and for facade arguments with {@literal @}Delegate methods.</p>
+ * 
  * @author Y.K. Chan
  */
 public class FacadeProxy implements InvocationHandler {
@@ -76,6 +97,63 @@ public class FacadeProxy implements InvocationHandler {
            .isFalse(
                 () -> isCorrectSupplierType(facadeClass),
                 () -> "Invalid supplier type argument.");
+        return create(facadeClass, target, returnValue);
+    }
+    
+    /**
+     * Load and resolve all facade interfaces of this library in advance, which is advised
+     * to be called at start-up for latency sensitive applications.
+     * @return  Number of facade methods resolved
+     */
+    public static int warmUp() {
+        return FacadeProxy.warmUp(LIBRARY_FACADES);
+    }
+    
+    /**
+     * Load and resolve facade interfaces in advance, such that the first call of a facade
+     * method would not be burdened by class loading and searching of implementations.
+     * @param facadeClasses  Facade interface classes
+     * @return  Number of facade methods resolved
+     * @throws IllegalArgumentException  if any class is not a facade
+     */
+    public static int warmUp(Class<?>... facadeClasses) {
+        int count = DelegateEngine.getInstance().warmUp(facadeClasses);
+        for(Class<?> facadeClass : facadeClasses){
+            GENERATED.get(facadeClass);
+        }
+        return count;
+    }
+    
+    /**
+     * Create a facade object for chaining with the result of a facade method. 
+     * This is used by generated facade classes.
+     * @param <T>  Facade interface type
+     * @param facadeClass  Facade interface class
+     * @param result  Result of the facade method as the new facade argument
+     * @param returnValue  Returned object for supplier interface
+     * @return  Facade object
+     * @throws UnsupportedOperationException  if result is not a valid facade argument
+     */
+    public static <T> T chain(Class<T> facadeClass, Object result, Object returnValue) {
+        if(!facadeClass.getAnnotation(Facade.class).value().isInstance(result)){
+            throw new UnsupportedOperationException("Unable to create chain with result " + result);
+        }
+        return create(facadeClass, result, returnValue);
+    }
+    
+    /**
+     * Create a facade object by the generated facade class if available, or Java proxy otherwise.
+     * @param <T>  Facade interface type
+     * @param facadeClass  Facade interface class
+     * @param target  Facade interface argument
+     * @param returnValue  Returned object for supplier interface
+     * @return  Facade object
+     */
+    private static <T> T create(Class<T> facadeClass, Object target, Object returnValue) {
+        Optional<BiFunction<Object, Object, Object>> factory = GENERATED.get(facadeClass);
+        if(factory.isPresent() && !DELEGATED.get(target.getClass())){
+            return facadeClass.cast(factory.get().apply(target, returnValue));
+        }
         InvocationHandler handler = new FacadeProxy(
                 DelegateEngine.getInstance(), 
                 facadeClass, 
@@ -84,6 +162,29 @@ public class FacadeProxy implements InvocationHandler {
         );
         return newProxy(facadeClass, handler);
     }
+    
+    /**
+     * Find the factory of the generated class of a facade interface.
+     * @param facadeClass  Facade interface class
+     * @return  Factory of facade objects, or empty if not generated
+     */
+    @SuppressWarnings("unchecked")
+    private static Optional<BiFunction<Object, Object, Object>> findGenerated(Class<?> facadeClass) {
+        try {
+            Class<?> generated = Class.forName(
+                facadeClass.getName() + FacadeProcessor.GENERATED_SUFFIX, 
+                true, 
+                facadeClass.getClassLoader()
+            );
+            if(!facadeClass.isAssignableFrom(generated)){
+                return Optional.empty();
+            }
+            return Optional.of((BiFunction<Object, Object, Object>) 
+                generated.getField(FacadeProcessor.FACTORY_FIELD).get(null));
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException ex) {
+            return Optional.empty();
+        }
+    }
 
     /**
      * Construct a new Facade proxy.
@@ -180,4 +281,29 @@ public class FacadeProxy implements InvocationHandler {
     private FacadeEngine engine;
     
     private static final String GET_METHOD = Supplier.class.getMethods()[0].getName();
+    
+    private static final Class<?>[] LIBRARY_FACADES = {
+        Op.class, LazyOp.class, InPlace.class, Prop.class, Decomp.class, Solver.class, Stats.class, Data.class,
+        Spatial.class, Graph.class, Learn.class, Adjacency.class, Unsupervised.class,
+        DefinedSupervised.class
+    };
+    
+    private static final ClassValue<Optional<BiFunction<Object, Object, Object>>> GENERATED = 
+        new ClassValue<Optional<BiFunction<Object, Object, Object>>>() {
+
+            @Override
+            protected Optional<BiFunction<Object, Object, Object>> computeValue(Class<?> type) {
+                return findGenerated(type);
+            }
+            
+        };
+    
+    private static final ClassValue<Boolean> DELEGATED = new ClassValue<Boolean>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return Arrays.stream(type.getMethods()).anyMatch(m -> m.isAnnotationPresent(Delegate.class));
+        }
+        
+    };
 }
@@ -26,8 +26,11 @@ package jacobi.core.facade;
 import jacobi.api.annotations.Facade;
 import jacobi.core.util.Throw;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
@@ -98,7 +101,11 @@ import java.util.Optional;
  * is ambiguous.</p>
  * 
  * <p>Implementation classes are encouraged to be stateless and immutable since
- * the instance maybe used in a multi-threaded environment.</p>
+ * the instance maybe used in a multi-threaded environment. An enum with a single
+ * constant can also be used as implementation class.</p>
+ * 
+ * <p>The implementation method is resolved into a method handle bound to the instance
+ * once on construction, such that no reflective access check is done on invocation.</p>
  * 
  * @author Y.K. Chan
  */
@@ -123,6 +130,7 @@ public class Functor implements Invocator {
         
         this.method = this.findImpl(implClass, facade, facadeMethod);
         this.inst = this.newInstance(implClass);
+        this.handle = this.toHandle(this.method, this.inst);
     }
 
     /**
@@ -142,25 +150,32 @@ public class Functor implements Invocator {
             System.arraycopy(args, 0, implArgs, 1, args.length);
         }
         
+        if(this.handle == null){
+            throw new UnsupportedOperationException("Unable to access " + this.method);
+        }
+        
         try {
-            return this.method.invoke(this.inst, implArgs);
-        } catch (IllegalAccessException ex) {
-            throw new UnsupportedOperationException(ex);
-        } catch (InvocationTargetException ex) {
-            if(ex.getTargetException() instanceof RuntimeException){
-                throw (RuntimeException) ex.getTargetException();
-            }
-            throw new UnsupportedOperationException(ex.getTargetException()); // NOPMD
+            return this.handle.invokeExact(implArgs);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new UnsupportedOperationException(ex); // NOPMD
         }
     }
     
     /**
-     * Construct a new instance of implementation class using no-arg constructor.
+     * Construct a new instance of implementation class using no-arg constructor, 
+     * or the only constant if the implementation class is an enum.
      * @param implClass  Implementation class
      * @return   New instance of implementation class
      * @throws   UnsupportedOperationException if failed
      */
     private Object newInstance(Class<?> implClass) {
+        Object[] constants = implClass.getEnumConstants();
+        if(constants != null && constants.length == 1){
+            return constants[0];
+        }
+        
         try {
             return implClass.newInstance();
         } catch (InstantiationException | IllegalAccessException ex) {
@@ -168,6 +183,29 @@ public class Functor implements Invocator {
         }
     }
     
+    /**
+     * Resolve a method into a method handle bound to an instance, which accepts all arguments 
+     * in an object array and returns an object.
+     * @param method  Implementation method
+     * @param inst  Instance of implementation class
+     * @return  Method handle, or null if the method is not accessible
+     */
+    private MethodHandle toHandle(Method method, Object inst) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+        
+        handle = Modifier.isStatic(method.getModifiers())
+            ? handle
+            : handle.bindTo(inst);
+        return handle
+            .asSpreader(Object[].class, method.getParameterCount())
+            .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+    
     /**
      * Find implementation method that matches the facade method prototype.
      * @param implClass  Implementation class
@@ -262,4 +300,5 @@ public class Functor implements Invocator {
     
     private Method method;
     private Object inst;
+    private MethodHandle handle;
 }
@@ -33,6 +33,7 @@ import java.util.stream.Stream;
 import jacobi.api.Matrix;
 import jacobi.api.graph.AdjList;
 import jacobi.api.graph.Edge;
+import jacobi.core.impl.SparseMatrix;
 import jacobi.core.util.IntStack;
 import jacobi.core.util.Throw;
 
@@ -106,6 +107,33 @@ public class AdjMatrix implements AdjList {
 				.mapToObj(func);
 	}
 	
+	/**
+	 * Convert to a sparse matrix of edge weights in compressed sparse row format, 
+	 * by the indices of non-zero entries without scanning the adjacency matrix again.
+	 * @return  Sparse matrix of edge weights
+	 */
+	public SparseMatrix toSparse() {
+		int[] ptr = new int[this.order() + 1];
+		for(int i = 0; i < this.order(); i++) {
+			int[] map = this.index.get(i);
+			ptr[i + 1] = ptr[i] + (map == null 
+				? this.order() 
+				: (int) (map.length > 0 && map[0] < 0 ? this.ranges(map).count() : map.length)
+			);
+		}
+		
+		int[] indices = new int[ptr[this.order()]];
+		double[] values = new double[indices.length];
+		for(int i = 0; i < this.order(); i++) {
+			int[] k = {ptr[i]};
+			this.edges(i).forEach(e -> {
+				indices[k[0]] = e.to;
+				values[k[0]++] = e.weight;
+			});
+		}
+		return SparseMatrix.csr(this.order(), this.order(), ptr, indices, values);
+	}
+	
 	/**
 	 * Create a integer stream from pairs of begin and end index
 	 * @param map  Pairs of begin and end index
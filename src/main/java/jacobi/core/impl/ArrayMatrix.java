@@ -32,6 +32,11 @@ import jacobi.core.util.Throw;
 /**
  * Implementation of a dense matrix by a 1-D array.
  * 
+ * <p>Elements are stored row-by-row in a single backing array. The i-th row begins at 
+ * offset + i * stride, where stride, a.k.a.&nbsp;the leading dimension, is at least the 
+ * number of columns. This allows a matrix to share the backing array of a larger matrix, 
+ * and operators to work on the backing array directly with index arithmetic.</p>
+ * 
  * @author Y.K. Chan
  */
 public class ArrayMatrix implements Matrix {
@@ -42,7 +47,7 @@ public class ArrayMatrix implements Matrix {
 	 * @param elements  Array of matrix elements
 	 * @return  New instance of an ArrayMatrix with elements as backing array
 	 */
-	public static Matrix wrap(int n, double... elements) {
+	public static ArrayMatrix wrap(int n, double... elements) {
 		Throw.when()
 			.isTrue(
 				() -> elements == null || elements.length < 1, 
@@ -56,13 +61,36 @@ public class ArrayMatrix implements Matrix {
 		return new ArrayMatrix(elements, elements.length / n, n);
 	}
 	
+	/**
+	 * Factory method for wrapping a region of an array into a matrix with a given leading dimension.
+	 * @param array  Backing array
+	 * @param offset  Index of the first element
+	 * @param m  Number of rows
+	 * @param n  Number of columns
+	 * @param stride  Distance between the beginning of two consecutive rows
+	 * @return  New instance of an ArrayMatrix with the region of array as backing storage
+	 */
+	public static ArrayMatrix wrap(double[] array, int offset, int m, int n, int stride) {
+		Throw.when()
+			.isNull(() -> array, () -> "No matrix elements")
+			.isTrue(() -> m < 1 || n < 1, () -> "Invalid dimension " + m + "x" + n)
+			.isTrue(() -> offset < 0, () -> "Invalid offset " + offset)
+			.isTrue(() -> stride < n, () -> "Stride " + stride + " is less than number of columns " + n)
+			.isTrue(
+				() -> offset + (long) (m - 1) * stride + n > array.length, 
+				() -> "Unable to fit a " + m + "x" + n + " matrix with stride " + stride 
+					+ " into an array of length " + array.length + " from " + offset
+			);
+		return new ArrayMatrix(array, offset, m, n, stride);
+	}
+	
 	/**
 	 * Factory method
 	 * @param m  Number of rows
 	 * @param n  Number of columns
 	 * @return  New instance of an ArrayMatrix
 	 */
-	public static Matrix of(int m, int n) {
+	public static ArrayMatrix of(int m, int n) {
 		if(m <= 0 || n <= 0) {
 			throw new IllegalArgumentException("Invalid dimension " + m + "x" + n);
 		}
@@ -75,6 +103,19 @@ public class ArrayMatrix implements Matrix {
 		return new ArrayMatrix(new double[m * n], m, n);
 	}
 	
+	/**
+	 * Factory method for copying the elements of a matrix into a single backing array.
+	 * @param matrix  Input matrix
+	 * @return  New instance of an ArrayMatrix
+	 */
+	public static ArrayMatrix of(Matrix matrix) {
+		ArrayMatrix ans = ArrayMatrix.of(matrix.getRowCount(), matrix.getColCount());
+		for(int i = 0; i < matrix.getRowCount(); i++){
+			System.arraycopy(matrix.getRow(i), 0, ans.array, i * ans.stride, ans.numCol);
+		}
+		return ans;
+	}
+	
 	/**
 	 * Constructor
 	 * @param array  Backing array
@@ -82,9 +123,73 @@ public class ArrayMatrix implements Matrix {
 	 * @param n  Number of columns
 	 */
 	protected ArrayMatrix(double[] array, int m, int n) {
+		this(array, 0, m, n, n);
+	}
+	
+	/**
+	 * Constructor
+	 * @param array  Backing array
+	 * @param offset  Index of the first element
+	 * @param m  Number of rows
+	 * @param n  Number of columns
+	 * @param stride  Distance between the beginning of two consecutive rows
+	 */
+	protected ArrayMatrix(double[] array, int offset, int m, int n, int stride) {
 		this.array = array;
+		this.offset = offset;
 		this.numRow = m;
-		this.numCol = n;		
+		this.numCol = n;
+		this.stride = stride;
+	}
+	
+	/**
+	 * Get the backing array of the matrix elements
+	 * @return  Backing array
+	 */
+	public double[] getArray() {
+		return this.array; // NOPMD - intended to be mutable
+	}
+	
+	/**
+	 * Get the index of the first element in the backing array
+	 * @return  Index of the first element
+	 */
+	public int getOffset() {
+		return this.offset;
+	}
+	
+	/**
+	 * Get the distance between the beginning of two consecutive rows in the backing array
+	 * @return  Leading dimension
+	 */
+	public int getStride() {
+		return this.stride;
+	}
+	
+	/**
+	 * Get the index of an element in the backing array
+	 * @param i  Row index
+	 * @param j  Column index
+	 * @return  Index of the element in the backing array
+	 */
+	public int indexOf(int i, int j) {
+		return this.offset + i * this.stride + j;
+	}
+	
+	/**
+	 * Determine if the elements of this matrix may share storage with another matrix. Ranges
+	 * of the backing array are compared, s.t.&nbsp;interleaving rows are also regarded as overlapping.
+	 * @param other  Another matrix
+	 * @return  True if any element may be stored in the same position, false otherwise
+	 */
+	public boolean overlaps(ArrayMatrix other) {
+		if(this.array != other.array
+			|| this.numRow == 0 || this.numCol == 0 
+			|| other.numRow == 0 || other.numCol == 0){
+			return false;
+		}
+		return this.indexOf(0, 0) <= other.indexOf(other.numRow - 1, other.numCol - 1)
+			&& other.indexOf(0, 0) <= this.indexOf(this.numRow - 1, this.numCol - 1);
 	}
 
 	@Override
@@ -103,15 +208,14 @@ public class ArrayMatrix implements Matrix {
 			throw new ArrayIndexOutOfBoundsException(index);
 		}
 		
-		return Arrays.copyOfRange(this.array, 
-			index * this.numCol, 
-			index * this.numCol + this.numCol);
+		int begin = this.indexOf(index, 0);
+		return Arrays.copyOfRange(this.array, begin, begin + this.numCol);
 	}
 
 	@Override
 	public Matrix setRow(int index, double[] values) {
-		if(index < 0){
-			throw new ArrayIndexOutOfBoundsException();
+		if(index < 0 || index >= this.numRow){
+			throw new ArrayIndexOutOfBoundsException(index);
 		}
 		
 		if(values == null) {
@@ -122,15 +226,30 @@ public class ArrayMatrix implements Matrix {
 			throw new IllegalArgumentException("Dimension mismatch");
 		}
 		
-		System.arraycopy(values, 0, this.array, index * this.numCol, this.numCol);
+		System.arraycopy(values, 0, this.array, this.indexOf(index, 0), this.numCol);
+		return this;
+	}
+	
+	@Override
+	public double get(int i, int j) {
+		return this.array[this.indexOf(i, j)];
+	}
+
+	@Override
+	public Matrix set(int i, int j, double value) {
+		this.array[this.indexOf(i, j)] = value;
 		return this;
 	}
 
 	@Override
 	public Matrix swapRow(int i, int j) {
+		if(i == j){
+			return this;
+		}
+		
 		double[] temp = this.getRow(i);
-		System.arraycopy(this.array, j * this.numCol, this.array, i * this.numCol, this.numCol);
-		System.arraycopy(temp, 0, this.array, j * this.numCol, this.numCol);
+		System.arraycopy(this.array, this.indexOf(j, 0), this.array, this.indexOf(i, 0), this.numCol);
+		System.arraycopy(temp, 0, this.array, this.indexOf(j, 0), this.numCol);
 		return this;
 	}
 
@@ -141,12 +260,15 @@ public class ArrayMatrix implements Matrix {
 
 	@Override
 	public Matrix copy() {
-		return new ArrayMatrix(
-			Arrays.copyOf(this.array, this.array.length), 
-			this.numRow, this.numCol
-		);
+		if(this.offset == 0 && this.stride == this.numCol){
+			return new ArrayMatrix(
+				Arrays.copyOf(this.array, this.numRow * this.numCol), 
+				this.numRow, this.numCol
+			);
+		}
+		return ArrayMatrix.of(this);
 	}
 
-	private int numRow, numCol;
+	private int offset, numRow, numCol, stride;
 	private double[] array;
 }
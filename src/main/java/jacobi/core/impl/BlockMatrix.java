@@ -0,0 +1,267 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import jacobi.api.Matrix;
+import jacobi.core.facade.FacadeProxy;
+import jacobi.core.util.Throw;
+
+/**
+ * Implementation of a dense matrix partitioned into a grid of tiles, each stored as a contiguous 
+ * array in row-major order.
+ * 
+ * <p>A tile in the i-th grid row and j-th grid column is the sub-matrix of rows [i*b, (i+1)*b) and
+ * columns [j*b, (j+1)*b), where b is the tile size. Tiles at the bottom and right edge may have
+ * fewer rows and columns respectively. Each tile is small enough to be cache-resident, thus 
+ * operators distribute work among threads tile by tile instead of row by row.</p>
+ * 
+ * <p>Rows are not stored contiguously, thus getRow(...) always returns a copy of the row.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class BlockMatrix implements Matrix {
+    
+    /**
+     * Default number of rows and columns of a tile.
+     */
+    public static final int DEFAULT_TILE_SIZE = 64;
+    
+    /**
+     * Create a block matrix with the values of a matrix, with default tile size.
+     * @param matrix  Input matrix
+     * @return  Block matrix
+     */
+    public static BlockMatrix of(Matrix matrix) {
+        return of(matrix, DEFAULT_TILE_SIZE);
+    }
+    
+    /**
+     * Create a block matrix with the values of a matrix.
+     * @param matrix  Input matrix
+     * @param tileSize  Number of rows and columns of a tile
+     * @return  Block matrix
+     * @throws IllegalArgumentException  if matrix is null or tile size is not positive
+     */
+    public static BlockMatrix of(Matrix matrix, int tileSize) {
+        Throw.when().isNull(() -> matrix, () -> "No matrix to partition.");
+        BlockMatrix block = zeros(matrix.getRowCount(), matrix.getColCount(), tileSize);
+        for(int i = 0; i < matrix.getRowCount(); i++){
+            block.setRow(i, matrix.getRow(i));
+        }
+        return block;
+    }
+    
+    /**
+     * Create a block matrix with all zeros.
+     * @param m  Number of rows
+     * @param n  Number of columns
+     * @param tileSize  Number of rows and columns of a tile
+     * @return  Block matrix
+     * @throws IllegalArgumentException  if dimension is negative or tile size is not positive
+     */
+    public static BlockMatrix zeros(int m, int n, int tileSize) {
+        Throw.when()
+            .isTrue(() -> m < 0 || n < 0, () -> "Invalid dimension " + m + "x" + n)
+            .isTrue(() -> tileSize < 1, () -> "Invalid tile size " + tileSize);
+        return new BlockMatrix(m, n, tileSize);
+    }
+
+    /**
+     * Constructor.
+     * @param m  Number of rows
+     * @param n  Number of columns
+     * @param tileSize  Number of rows and columns of a tile
+     */
+    protected BlockMatrix(int m, int n, int tileSize) {
+        this.numRows = m;
+        this.numCols = n;
+        this.tileSize = tileSize;
+        this.gridRows = (m + tileSize - 1) / tileSize;
+        this.gridCols = (n + tileSize - 1) / tileSize;
+        this.tiles = new double[this.gridRows * this.gridCols][];
+        for(int i = 0; i < this.gridRows; i++){
+            for(int j = 0; j < this.gridCols; j++){
+                this.tiles[i * this.gridCols + j] = new double[this.tileRowCount(i) * this.tileColCount(j)];
+            }
+        }
+    }
+    
+    /**
+     * Get the number of rows and columns of a tile not on the edge.
+     * @return  Tile size
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+    
+    /**
+     * Get the number of rows of tiles.
+     * @return  Number of rows of tiles
+     */
+    public int getGridRowCount() {
+        return gridRows;
+    }
+    
+    /**
+     * Get the number of columns of tiles.
+     * @return  Number of columns of tiles
+     */
+    public int getGridColCount() {
+        return gridCols;
+    }
+    
+    /**
+     * Get the number of rows of tiles in a grid row.
+     * @param i  Index of grid row
+     * @return  Number of rows of tiles
+     */
+    public int tileRowCount(int i) {
+        return Math.min(this.tileSize, this.numRows - i * this.tileSize);
+    }
+    
+    /**
+     * Get the number of columns of tiles in a grid column.
+     * @param j  Index of grid column
+     * @return  Number of columns of tiles
+     */
+    public int tileColCount(int j) {
+        return Math.min(this.tileSize, this.numCols - j * this.tileSize);
+    }
+    
+    /**
+     * Get the backing array of a tile, in row-major order.
+     * @param i  Index of grid row
+     * @param j  Index of grid column
+     * @return  Backing array of a tile
+     */
+    public double[] getTile(int i, int j) {
+        return this.tiles[i * this.gridCols + j];
+    }
+    
+    /**
+     * Determine if another block matrix is partitioned in the same grid as this matrix.
+     * @param other  Other block matrix
+     * @return  True if in same dimension and tile size, false otherwise
+     */
+    public boolean isConformed(BlockMatrix other) {
+        return this.numRows == other.numRows 
+            && this.numCols == other.numCols 
+            && this.tileSize == other.tileSize;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.numRows;
+    }
+
+    @Override
+    public int getColCount() {
+        return this.numCols;
+    }
+
+    @Override
+    public double[] getRow(int index) {
+        double[] row = new double[this.numCols];
+        int bi = index / this.tileSize;
+        int offset = (index % this.tileSize);
+        for(int bj = 0; bj < this.gridCols; bj++){
+            int cols = this.tileColCount(bj);
+            System.arraycopy(this.getTile(bi, bj), offset * cols, row, bj * this.tileSize, cols);
+        }
+        return row;
+    }
+
+    @Override
+    public Matrix setRow(int index, double[] values) {
+        Throw.when()
+           .isNull(() -> values, () -> "Unable to set a row to null.")
+           .isFalse(
+                () -> values.length == this.numCols,
+                () -> "Unable to assign " 
+                   + values.length 
+                   + " values to a row of a "
+                   + this.getRowCount() + "x" + this.getColCount()
+                   + " matrix."
+           );
+        int bi = index / this.tileSize;
+        int offset = (index % this.tileSize);
+        for(int bj = 0; bj < this.gridCols; bj++){
+            int cols = this.tileColCount(bj);
+            System.arraycopy(values, bj * this.tileSize, this.getTile(bi, bj), offset * cols, cols);
+        }
+        return this;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        int bj = j / this.tileSize;
+        return this.getTile(i / this.tileSize, bj)[(i % this.tileSize) * this.tileColCount(bj) + j % this.tileSize];
+    }
+
+    @Override
+    public Matrix set(int i, int j, double value) {
+        int bj = j / this.tileSize;
+        this.getTile(i / this.tileSize, bj)[(i % this.tileSize) * this.tileColCount(bj) + j % this.tileSize] = value;
+        return this;
+    }
+
+    @Override
+    public Matrix swapRow(int i, int j) {
+        if(i == j){
+            return this;
+        }
+        int bi = i / this.tileSize;
+        int bj = j / this.tileSize;
+        int p = i % this.tileSize;
+        int q = j % this.tileSize;
+        for(int k = 0; k < this.gridCols; k++){
+            int cols = this.tileColCount(k);
+            double[] u = this.getTile(bi, k);
+            double[] v = this.getTile(bj, k);
+            for(int s = p * cols, t = q * cols; s < (p + 1) * cols; s++, t++){
+                double temp = u[s];
+                u[s] = v[t];
+                v[t] = temp;
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public <T> T ext(Class<T> clazz) {
+        return FacadeProxy.of(clazz, this);
+    }
+
+    @Override
+    public BlockMatrix copy() {
+        BlockMatrix clone = new BlockMatrix(this.numRows, this.numCols, this.tileSize);
+        for(int k = 0; k < this.tiles.length; k++){
+            System.arraycopy(this.tiles[k], 0, clone.tiles[k], 0, this.tiles[k].length);
+        }
+        return clone;
+    }
+    
+    private int numRows, numCols, tileSize, gridRows, gridCols;
+    private double[][] tiles;
+}
@@ -0,0 +1,393 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+import jacobi.api.Matrix;
+import jacobi.core.facade.FacadeProxy;
+import jacobi.core.util.Throw;
+
+/**
+ * Implementation of a dense matrix stored in a file and accessed by memory mapping, which 
+ * allows matrices larger than the heap.
+ * 
+ * <p>Elements are not loaded into the heap. Each row is read from the mapped file when accessed
+ * and the operating system pages the file in and out as needed. Since a mapped buffer is 
+ * limited to 2 GB, the file is mapped in segments of whole rows.</p>
+ * 
+ * <p>The layout of the file is defined in MatrixFile, with elements row-by-row as IEEE 754 double 
+ * values from the payload offset.</p>
+ * 
+ * <p>A matrix can be opened in read-only mode, in which mutating methods would results in an
+ * UnsupportedOperationException to be thrown. Rows returned by getRow(...) are copies, thus
+ * changes must be set back by setRow(...).</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class MappedMatrix implements Matrix, Closeable {
+    
+    /**
+     * Default maximum number of bytes mapped in a segment
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 1L << 30;
+    
+    /**
+     * Create a new file with all elements zero and map it in read-write mode. Existing file
+     * would be overwritten.
+     * @param path  Path of file
+     * @param m  Number of rows
+     * @param n  Number of columns
+     * @return  Matrix backed by the file
+     * @throws IOException  when failed to create or map the file
+     */
+    public static MappedMatrix create(Path path, int m, int n) throws IOException {
+        return MappedMatrix.create(path, m, n, Collections.emptyList());
+    }
+    
+    /**
+     * Create a new file with all elements zero and map it in read-write mode. Existing file
+     * would be overwritten.
+     * @param path  Path of file
+     * @param m  Number of rows
+     * @param n  Number of columns
+     * @param names  Column names, or empty if none
+     * @return  Matrix backed by the file
+     * @throws IOException  when failed to create or map the file
+     */
+    public static MappedMatrix create(Path path, int m, int n, List<String> names) throws IOException {
+        Throw.when().isNull(() -> path, () -> "No file path.");
+        MatrixFile layout = new MatrixFile(ByteOrder.nativeOrder(), m, n, names);
+        
+        FileChannel channel = FileChannel.open(path, 
+            StandardOpenOption.CREATE, 
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, 
+            StandardOpenOption.WRITE);
+        try {
+            layout.writeHeader(channel);
+            channel.write(ByteBuffer.allocate(1), layout.getLength() - 1);
+            return new MappedMatrix(channel, MapMode.READ_WRITE, layout, DEFAULT_SEGMENT_SIZE);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Open an existing file of a matrix.
+     * @param path  Path of file
+     * @param readOnly  True to map in read-only mode, false to map in read-write mode
+     * @return  Matrix backed by the file
+     * @throws IOException  when failed to open or map the file
+     * @throws IllegalArgumentException  when the file is not in valid layout
+     */
+    public static MappedMatrix open(Path path, boolean readOnly) throws IOException {
+        Throw.when().isNull(() -> path, () -> "No file path.");
+        FileChannel channel = readOnly 
+            ? FileChannel.open(path, StandardOpenOption.READ)
+            : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new MappedMatrix(channel, 
+                readOnly ? MapMode.READ_ONLY : MapMode.READ_WRITE, 
+                MatrixFile.read(channel), 
+                DEFAULT_SEGMENT_SIZE);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Constructor.
+     * @param channel  File channel
+     * @param mode  Map mode, either read-only or read-write
+     * @param layout  Layout of the file
+     * @param segmentSize  Maximum number of bytes mapped in a segment
+     * @throws IOException  when failed to map the file
+     */
+    protected MappedMatrix(FileChannel channel, MapMode mode, MatrixFile layout, long segmentSize) throws IOException {
+        int m = layout.getRowCount();
+        int n = layout.getColCount();
+        long rowLength = (long) n * Double.BYTES;
+        Throw.when().isTrue(
+            () -> rowLength > Integer.MAX_VALUE, 
+            () -> "Row of " + n + " columns is too long to be mapped.");
+        
+        this.channel = channel;
+        this.readOnly = mode == MapMode.READ_ONLY;
+        this.names = layout.getColumnNames();
+        this.numRows = m;
+        this.numCols = n;
+        this.rowsPerSegment = (int) Math.max(1L, Math.min(m, Math.min(segmentSize, Integer.MAX_VALUE) / rowLength));
+        
+        int numSegments = (m + this.rowsPerSegment - 1) / this.rowsPerSegment;
+        this.segments = new MappedByteBuffer[numSegments];
+        this.views = new DoubleBuffer[numSegments];
+        for(int i = 0; i < numSegments; i++){
+            int span = Math.min(this.rowsPerSegment, m - i * this.rowsPerSegment);
+            this.segments[i] = channel.map(mode, layout.getOffset() + i * this.rowsPerSegment * rowLength, span * rowLength);
+            this.views[i] = this.segments[i].order(layout.getOrder()).asDoubleBuffer();
+        }
+    }
+    
+    /**
+     * Get the column names stored in the file.
+     * @return  Column names, or empty if none
+     */
+    public List<String> getColumnNames() {
+        return this.names;
+    }
+    
+    /**
+     * Read all elements into a matrix in the heap.
+     * @return  Matrix with elements copied
+     */
+    public Matrix load() {
+        if((long) this.numRows * this.numCols > Integer.MAX_VALUE){
+            Matrix matrix = new DefaultMatrix(this.numRows, this.numCols);
+            this.forEachRow(0, this.numRows, (row, i) -> matrix.setRow(i, Arrays.copyOf(row, row.length)));
+            return matrix;
+        }
+        
+        ArrayMatrix matrix = ArrayMatrix.of(this.numRows, this.numCols);
+        for(int i = 0; i < this.views.length; i++){
+            DoubleBuffer view = this.views[i].duplicate();
+            ((Buffer) view).clear();
+            view.get(matrix.getArray(), matrix.indexOf(i * this.rowsPerSegment, 0), view.remaining());
+        }
+        return matrix;
+    }
+    
+    /**
+     * Determine if this matrix is mapped in read-only mode.
+     * @return  True if read-only, false otherwise
+     */
+    public boolean isReadOnly() {
+        return this.readOnly;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.numRows;
+    }
+
+    @Override
+    public int getColCount() {
+        return this.numCols;
+    }
+
+    @Override
+    public double[] getRow(int index) {
+        return this.read(index, new double[this.numCols]);
+    }
+
+    @Override
+    public Matrix setRow(int index, double[] values) {
+        this.checkWritable();
+        if(values == null) {
+            throw new IllegalArgumentException("No row values");
+        }
+        
+        if(values.length != this.numCols) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        
+        this.locate(index).put(values);
+        return this;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        this.checkColumn(j);
+        DoubleBuffer view = this.views[this.segmentOf(i)];
+        return view.get((i % this.rowsPerSegment) * this.numCols + j);
+    }
+
+    @Override
+    public Matrix set(int i, int j, double value) {
+        this.checkWritable();
+        this.checkColumn(j);
+        DoubleBuffer view = this.views[this.segmentOf(i)];
+        view.put((i % this.rowsPerSegment) * this.numCols + j, value);
+        return this;
+    }
+
+    @Override
+    public Matrix swapRow(int i, int j) {
+        this.checkWritable();
+        if(i != j){
+            double[] temp = this.getRow(i);
+            this.setRow(i, this.getRow(j));
+            this.setRow(j, temp);
+        }
+        return this;
+    }
+
+    /**
+     * Visit rows in the order of storage, with a single buffer reused for all rows.
+     */
+    @Override
+    public void forEachRow(int begin, int end, ObjIntConsumer<double[]> consumer) {
+        double[] buffer = new double[this.numCols];
+        for(int i = begin; i < end; i++){
+            consumer.accept(this.read(i, buffer), i);
+        }
+    }
+
+    @Override
+    public <T> T ext(Class<T> clazz) {
+        return FacadeProxy.of(clazz, this);
+    }
+
+    /**
+     * Copy to a new temporary file in read-write mode. The temporary file is deleted when 
+     * the copy is closed, or when the virtual machine exits if the copy is never closed.
+     */
+    @Override
+    public Matrix copy() {
+        try {
+            Path path = Files.createTempFile("jacobi", ".mat");
+            path.toFile().deleteOnExit();
+            try {
+                MappedMatrix clone = this.copy(path);
+                clone.temp = path;
+                return clone;
+            } catch (IOException | RuntimeException ex) {
+                Files.deleteIfExists(path);
+                throw ex;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    /**
+     * Copy to a file in read-write mode. Existing file would be overwritten.
+     * @param path  Path of file
+     * @return  Matrix backed by the file
+     * @throws IOException  when failed to create or map the file
+     */
+    public MappedMatrix copy(Path path) throws IOException {
+        MappedMatrix clone = MappedMatrix.create(path, this.numRows, this.numCols, this.names);
+        this.forEachRow(0, this.numRows, (row, i) -> clone.setRow(i, row));
+        return clone;
+    }
+    
+    /**
+     * Write changes of elements to the file.
+     */
+    public void force() {
+        if(!this.readOnly){
+            for(MappedByteBuffer segment : this.segments){
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * Write changes to the file and close the file channel. Mapped segments remain valid until
+     * this matrix is garbage collected. The file is deleted if this matrix is a temporary copy.
+     * @throws IOException  when failed to close or delete the file
+     */
+    @Override
+    public void close() throws IOException {
+        this.force();
+        this.channel.close();
+        if(this.temp != null){
+            Files.deleteIfExists(this.temp);
+        }
+    }
+    
+    /**
+     * Read a row into a buffer
+     * @param index  Row index
+     * @param buffer  Buffer of row values
+     * @return  Buffer of row values
+     */
+    protected double[] read(int index, double[] buffer) {
+        this.locate(index).get(buffer);
+        return buffer;
+    }
+    
+    /**
+     * Get a buffer positioned at the beginning of a row. The returned buffer is not shared
+     * thus is safe to be used concurrently.
+     * @param index  Row index
+     * @return  Buffer positioned at the beginning of a row
+     */
+    protected DoubleBuffer locate(int index) {
+        DoubleBuffer buf = this.views[this.segmentOf(index)].duplicate();
+        ((Buffer) buf).position((index % this.rowsPerSegment) * this.numCols);
+        return buf;
+    }
+    
+    /**
+     * Find the index of segment of a row
+     * @param index  Row index
+     * @return  Index of segment
+     */
+    protected int segmentOf(int index) {
+        if(index < 0 || index >= this.numRows){
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return index / this.rowsPerSegment;
+    }
+    
+    private void checkColumn(int j) {
+        if(j < 0 || j >= this.numCols){
+            throw new ArrayIndexOutOfBoundsException(j);
+        }
+    }
+    
+    private void checkWritable() {
+        if(this.readOnly){
+            throw new UnsupportedOperationException(this.getClass() + " is opened in read-only mode.");
+        }
+    }
+    
+    private FileChannel channel;
+    private Path temp;
+    private boolean readOnly;
+    private List<String> names;
+    private int numRows, numCols, rowsPerSegment;
+    private MappedByteBuffer[] segments;
+    private DoubleBuffer[] views;
+}
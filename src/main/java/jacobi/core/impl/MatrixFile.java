@@ -0,0 +1,350 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import jacobi.api.Matrix;
+import jacobi.core.util.Throw;
+
+/**
+ * Layout of a binary matrix file.
+ * 
+ * <p>A matrix file consists of a header of 32 bytes in big-endian, optionally followed by the 
+ * column names, and the elements row-by-row from the payload offset.</p>
+ * <pre>
+ *  Offset  Size  Field
+ *  0       4     Magic number 0x4A4D4154, i.e.&nbsp;"JMAT" in ASCII
+ *  4       1     Version, currently 1
+ *  5       1     Byte order of elements, 0 for big-endian and 1 for little-endian
+ *  6       1     Element type by size in bytes, currently 8 for IEEE 754 double only
+ *  7       1     Flags, bit 0 is set if column names present
+ *  8       8     Number of rows
+ *  16      8     Number of columns
+ *  24      8     Payload offset, a multiple of 8 not less than 32
+ * </pre>
+ * 
+ * <p>Column names, if present, begin at offset 32, each as a 4-byte length in big-endian followed by
+ * the name in UTF-8. The payload offset is padded to a multiple of the element size s.t.&nbsp;the 
+ * payload can be mapped and read as an array of elements directly.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class MatrixFile {
+    
+    /**
+     * Magic number at the beginning of the file
+     */
+    public static final int MAGIC = 0x4A4D4154;
+    
+    /**
+     * Current version of file layout
+     */
+    public static final byte VERSION = 1;
+    
+    /**
+     * Length of the header in bytes
+     */
+    public static final int HEADER_LENGTH = 32;
+    
+    /**
+     * Flag for column names present
+     */
+    public static final byte FLAG_COLUMN_NAMES = 1;
+    
+    /**
+     * Default size of buffer in bytes for writing elements
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    
+    /**
+     * Read the layout from the header of a matrix file.
+     * @param channel  File channel
+     * @return  Layout of the matrix file
+     * @throws IOException  when failed to read the file
+     * @throws IllegalArgumentException  when the file is not in valid layout
+     */
+    public static MatrixFile read(FileChannel channel) throws IOException {
+        ByteBuffer header = MatrixFile.read(channel, 0L, HEADER_LENGTH);
+        
+        int magic = header.getInt();
+        byte version = header.get();
+        byte order = header.get();
+        byte size = header.get();
+        byte flags = header.get();
+        long m = header.getLong();
+        long n = header.getLong();
+        long offset = header.getLong();
+        long length = channel.size();
+        
+        Throw.when()
+            .isTrue(() -> magic != MAGIC, () -> "Not a matrix file.")
+            .isTrue(() -> version != VERSION, () -> "Unsupported version " + version)
+            .isTrue(() -> order != 0 && order != 1, () -> "Invalid byte order " + order)
+            .isTrue(() -> size != Double.BYTES, () -> "Unsupported element size " + size)
+            .isTrue(
+                () -> m < 1 || n < 1 || m > Integer.MAX_VALUE || n > Integer.MAX_VALUE, 
+                () -> "Invalid dimension " + m + "x" + n)
+            .isTrue(
+                () -> offset < HEADER_LENGTH || offset % size != 0, 
+                () -> "Invalid payload offset " + offset)
+            .isTrue(
+                () -> length < offset || (length - offset) / size < m * n, 
+                () -> "File too short for a " + m + "x" + n + " matrix.");
+        
+        List<String> names = (flags & FLAG_COLUMN_NAMES) == 0 
+            ? Collections.emptyList()
+            : MatrixFile.readNames(MatrixFile.read(channel, HEADER_LENGTH, offset - HEADER_LENGTH), (int) n);
+        
+        MatrixFile file = new MatrixFile(
+            order == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN, 
+            (int) m, (int) n, names
+        );
+        file.offset = offset;
+        return file;
+    }
+    
+    /**
+     * Write a matrix to a file. Existing file would be overwritten.
+     * @param matrix  Input matrix
+     * @param names  Column names, or empty if none
+     * @param path  Path of file
+     * @throws IOException  when failed to write the file
+     */
+    public static void write(Matrix matrix, List<String> names, Path path) throws IOException {
+        Throw.when()
+            .isNull(() -> matrix, () -> "No matrix to write.")
+            .isTrue(
+                () -> matrix.getRowCount() < 1 || matrix.getColCount() < 1, 
+                () -> "Unable to write an empty matrix.")
+            .isTrue(
+                () -> (long) matrix.getColCount() * Double.BYTES > Integer.MAX_VALUE, 
+                () -> "Row of " + matrix.getColCount() + " columns is too long to be buffered.");
+        
+        MatrixFile file = new MatrixFile(ByteOrder.nativeOrder(), matrix.getRowCount(), matrix.getColCount(), names);
+        try(FileChannel channel = FileChannel.open(path, 
+                StandardOpenOption.CREATE, 
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)){
+            file.writeHeader(channel);
+            
+            long rowLength = (long) matrix.getColCount() * Double.BYTES;
+            ByteBuffer buffer = ByteBuffer
+                .allocateDirect((int) (Math.max(DEFAULT_BUFFER_SIZE / rowLength, 1L) * rowLength))
+                .order(file.order);
+            DoubleBuffer view = buffer.asDoubleBuffer();
+            
+            IOException[] error = new IOException[1];
+            matrix.forEachRow(0, matrix.getRowCount(), (row, i) -> {
+                if(error[0] != null){
+                    return;
+                }
+                view.put(row);
+                if(view.hasRemaining() && i + 1 < matrix.getRowCount()){
+                    return;
+                }
+                
+                ((Buffer) buffer).limit(view.position() * Double.BYTES).position(0);
+                try {
+                    while(buffer.hasRemaining()){
+                        channel.write(buffer);
+                    }
+                } catch (IOException ex) {
+                    error[0] = ex;
+                }
+                ((Buffer) buffer).clear();
+                ((Buffer) view).clear();
+            });
+            
+            if(error[0] != null){
+                throw error[0];
+            }
+        }
+    }
+    
+    /**
+     * Constructor.
+     * @param order  Byte order of elements
+     * @param numRows  Number of rows
+     * @param numCols  Number of columns
+     * @param names  Column names, or empty if none
+     */
+    public MatrixFile(ByteOrder order, int numRows, int numCols, List<String> names) {
+        Throw.when()
+            .isNull(() -> order, () -> "No byte order.")
+            .isTrue(() -> numRows < 1 || numCols < 1, () -> "Invalid dimension " + numRows + "x" + numCols)
+            .isNull(() -> names, () -> "No column names.")
+            .isTrue(
+                () -> !names.isEmpty() && names.size() != numCols, 
+                () -> "Expected " + numCols + " column names, found " + names.size());
+        
+        this.order = order;
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.names = names.isEmpty() 
+            ? Collections.emptyList() 
+            : Collections.unmodifiableList(new ArrayList<>(names));
+        
+        long len = HEADER_LENGTH;
+        for(String name : this.names){
+            len += Integer.BYTES + name.getBytes(StandardCharsets.UTF_8).length;
+        }
+        this.offset = (len + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+    }
+    
+    /**
+     * Get the byte order of elements
+     * @return  Byte order of elements
+     */
+    public ByteOrder getOrder() {
+        return this.order;
+    }
+    
+    /**
+     * Get the number of rows
+     * @return  Number of rows
+     */
+    public int getRowCount() {
+        return this.numRows;
+    }
+    
+    /**
+     * Get the number of columns
+     * @return  Number of columns
+     */
+    public int getColCount() {
+        return this.numCols;
+    }
+    
+    /**
+     * Get the column names
+     * @return  Column names, or empty if none
+     */
+    public List<String> getColumnNames() {
+        return this.names;
+    }
+    
+    /**
+     * Get the payload offset
+     * @return  Payload offset in bytes
+     */
+    public long getOffset() {
+        return this.offset;
+    }
+    
+    /**
+     * Get the length of the file in bytes
+     * @return  Length of the file
+     */
+    public long getLength() {
+        return this.offset + (long) this.numRows * this.numCols * Double.BYTES;
+    }
+    
+    /**
+     * Write the header and column names to a file, with position of the channel moved to
+     * the payload offset.
+     * @param channel  File channel
+     * @throws IOException  when failed to write the file
+     */
+    public void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) this.offset)
+            .putInt(MAGIC)
+            .put(VERSION)
+            .put((byte) (this.order == ByteOrder.BIG_ENDIAN ? 0 : 1))
+            .put((byte) Double.BYTES)
+            .put(this.names.isEmpty() ? 0 : FLAG_COLUMN_NAMES)
+            .putLong(this.numRows)
+            .putLong(this.numCols)
+            .putLong(this.offset);
+        
+        for(String name : this.names){
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        ((Buffer) buffer).clear();
+        
+        channel.position(0L);
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+    }
+    
+    /**
+     * Read a region of a file into a buffer
+     * @param channel  File channel
+     * @param position  Position of the region
+     * @param length  Length of the region
+     * @return  Buffer of the region
+     * @throws IOException  when failed to read the file
+     */
+    protected static ByteBuffer read(FileChannel channel, long position, long length) throws IOException {
+        Throw.when().isTrue(() -> length > Integer.MAX_VALUE, () -> "Header too long.");
+        
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer, position + buffer.position()) < 0){
+                throw new IllegalArgumentException("File too short for a matrix header.");
+            }
+        }
+        ((Buffer) buffer).flip();
+        return buffer;
+    }
+    
+    /**
+     * Read the column names
+     * @param buffer  Buffer of column names
+     * @param numCols  Number of columns
+     * @return  Column names
+     */
+    protected static List<String> readNames(ByteBuffer buffer, int numCols) {
+        List<String> names = new ArrayList<>(numCols);
+        for(int j = 0; j < numCols; j++){
+            int len = buffer.remaining() < Integer.BYTES ? -1 : buffer.getInt();
+            if(len < 0 || len > buffer.remaining()){
+                throw new IllegalArgumentException("Invalid name of column " + j);
+            }
+            
+            byte[] bytes = new byte[len];
+            buffer.get(bytes);
+            names.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return names;
+    }
+    
+    private ByteOrder order;
+    private int numRows, numCols;
+    private List<String> names;
+    private long offset;
+}
@@ -0,0 +1,274 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.core.facade.FacadeProxy;
+import jacobi.core.util.Throw;
+
+/**
+ * A view of selected rows and columns of a base matrix, which shares storage with the base matrix.
+ * 
+ * <p>Changes in the base matrix are visible in the view, and changes on the view are written to 
+ * the base matrix. If all columns are selected in order, getRow returns the row of the base matrix,
+ * thus a row reference if the base matrix returns one. Otherwise the selected columns are gathered
+ * into a new array.</p>
+ * 
+ * <p>A view of a view is created on the base matrix directly, s.t.&nbsp;selections do not chain.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class SelectedMatrix implements Matrix {
+    
+    /**
+     * Create a view of a range of rows and columns.
+     * @param base  Base matrix
+     * @param rowBegin  Begin index of rows
+     * @param rowEnd  End index of rows, exclusive
+     * @param colBegin  Begin index of columns
+     * @param colEnd  End index of columns, exclusive
+     * @return  View of the sub-matrix
+     * @throws IllegalArgumentException  if range is invalid
+     */
+    public static SelectedMatrix range(Matrix base, int rowBegin, int rowEnd, int colBegin, int colEnd) {
+        Throw.when()
+            .isNull(() -> base, () -> "No base matrix.")
+            .isTrue(
+                () -> rowBegin < 0 || rowEnd > base.getRowCount() || rowBegin > rowEnd, 
+                () -> "Invalid row range [" + rowBegin + ", " + rowEnd + ") of " + base.getRowCount() + " rows.")
+            .isTrue(
+                () -> colBegin < 0 || colEnd > base.getColCount() || colBegin > colEnd, 
+                () -> "Invalid column range [" + colBegin + ", " + colEnd + ") of " + base.getColCount() + " columns.");
+        return of(base, 
+            IntStream.range(rowBegin, rowEnd).toArray(), 
+            colBegin == 0 && colEnd == base.getColCount() ? null : IntStream.range(colBegin, colEnd).toArray());
+    }
+    
+    /**
+     * Create a view of selected rows and columns.
+     * @param base  Base matrix
+     * @param rows  Indices of rows in base matrix, or null for all rows
+     * @param cols  Indices of columns in base matrix, or null for all columns
+     * @return  View of selected rows and columns
+     * @throws IllegalArgumentException  if any index is out of range
+     */
+    public static SelectedMatrix of(Matrix base, int[] rows, int[] cols) {
+        Throw.when()
+            .isNull(() -> base, () -> "No base matrix.")
+            .isTrue(
+                () -> !isValid(rows, base.getRowCount()), 
+                () -> "Row index out of range of " + base.getRowCount() + " rows.")
+            .isTrue(
+                () -> !isValid(cols, base.getColCount()), 
+                () -> "Column index out of range of " + base.getColCount() + " columns.");
+        if(base instanceof SelectedMatrix){
+            SelectedMatrix view = (SelectedMatrix) base;
+            return new SelectedMatrix(view.base, 
+                compose(view.rows, rows, view.getRowCount()), 
+                compose(view.cols, cols, view.getColCount()));
+        }
+        return new SelectedMatrix(base, 
+            rows == null ? IntStream.range(0, base.getRowCount()).toArray() : rows.clone(), 
+            cols == null ? null : cols.clone());
+    }
+
+    /**
+     * Constructor.
+     * @param base  Base matrix
+     * @param rows  Indices of rows in base matrix
+     * @param cols  Indices of columns in base matrix, or null for all columns
+     */
+    protected SelectedMatrix(Matrix base, int[] rows, int[] cols) {
+        this.base = base;
+        this.rows = rows;
+        this.cols = cols;
+    }
+    
+    /**
+     * Get the base matrix.
+     * @return  Base matrix
+     */
+    public Matrix getBase() {
+        return base;
+    }
+    
+    /**
+     * Get the row index in the base matrix.
+     * @param index  Row index in this view
+     * @return  Row index in the base matrix
+     */
+    public int rowOf(int index) {
+        return this.rows[index];
+    }
+    
+    /**
+     * Get the column index in the base matrix.
+     * @param index  Column index in this view
+     * @return  Column index in the base matrix
+     */
+    public int colOf(int index) {
+        return this.cols == null ? index : this.cols[index];
+    }
+    
+    /**
+     * Determine if all columns of the base matrix are selected in order.
+     * @return  True if all columns are selected in order, false otherwise
+     */
+    public boolean isAllColumns() {
+        return this.cols == null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.rows.length;
+    }
+
+    @Override
+    public int getColCount() {
+        return this.cols == null ? this.base.getColCount() : this.cols.length;
+    }
+
+    @Override
+    public double[] getRow(int index) {
+        double[] row = this.base.getRow(this.rows[index]);
+        if(this.cols == null){
+            return row;
+        }
+        double[] values = new double[this.cols.length];
+        for(int j = 0; j < values.length; j++){
+            values[j] = row[this.cols[j]];
+        }
+        return values;
+    }
+
+    @Override
+    public Matrix setRow(int index, double[] values) {
+        Throw.when()
+            .isNull(() -> values, () -> "No row values")
+            .isTrue(() -> values.length != this.getColCount(), () -> "Dimension mismatch");
+        if(this.cols == null){
+            this.base.setRow(this.rows[index], values);
+            return this;
+        }
+        double[] row = this.base.getRow(this.rows[index]);
+        for(int j = 0; j < values.length; j++){
+            row[this.cols[j]] = values[j];
+        }
+        this.base.setRow(this.rows[index], row);
+        return this;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return this.base.get(this.rows[i], this.colOf(j));
+    }
+
+    @Override
+    public Matrix set(int i, int j, double value) {
+        this.base.set(this.rows[i], this.colOf(j), value);
+        return this;
+    }
+
+    @Override
+    public Matrix swapRow(int i, int j) {
+        if(i == j){
+            return this;
+        }
+        if(this.cols == null){
+            this.base.swapRow(this.rows[i], this.rows[j]);
+            return this;
+        }
+        double[] temp = this.getRow(i);
+        this.setRow(i, this.getRow(j));
+        this.setRow(j, temp);
+        return this;
+    }
+
+    /**
+     * Rows selected from a matrix in single precision are widened into a single reused buffer.
+     */
+    @Override
+    public void forEachRow(int begin, int end, ObjIntConsumer<double[]> consumer) {
+        if(this.base instanceof FloatMatrix && this.cols == null){
+            FloatMatrix floats = (FloatMatrix) this.base;
+            double[] buffer = new double[floats.getColCount()];
+            for(int i = begin; i < end; i++){
+                consumer.accept(floats.read(this.rows[i], buffer, 0), i);
+            }
+            return;
+        }
+        Matrix.super.forEachRow(begin, end, consumer);
+    }
+
+    @Override
+    public <T> T ext(Class<T> clazz) {
+        return FacadeProxy.of(clazz, this);
+    }
+
+    @Override
+    public Matrix copy() {
+        if(this.getRowCount() == 0 || this.getColCount() == 0){
+            return Matrices.zeros(this.getRowCount(), this.getColCount());
+        }
+        Matrix ans = Matrices.zeros(this.getRowCount(), this.getColCount());
+        for(int i = 0; i < this.getRowCount(); i++){
+            double[] row = this.getRow(i);
+            ans.setRow(i, this.cols == null ? row.clone() : row);
+        }
+        return ans;
+    }
+    
+    /**
+     * Compose the indices of a view of a view.
+     * @param outer  Indices of the existing view in base matrix, or null for all
+     * @param inner  Indices of the new view in the existing view, or null for all
+     * @param len  Number of indices of the existing view
+     * @return  Indices of the new view in base matrix, or null for all
+     */
+    protected static int[] compose(int[] outer, int[] inner, int len) {
+        if(inner == null){
+            return outer == null ? null : outer.clone();
+        }
+        return outer == null 
+            ? inner.clone() 
+            : IntStream.of(inner).map(i -> outer[i]).toArray();
+    }
+    
+    /**
+     * Determine if all indices are within range.
+     * @param indices  Indices, or null for all
+     * @param len  Length of range
+     * @return  True if all within range, false otherwise
+     */
+    protected static boolean isValid(int[] indices, int len) {
+        return indices == null || IntStream.of(indices).allMatch(i -> i >= 0 && i < len);
+    }
+
+    private Matrix base;
+    private int[] rows, cols;
+}
@@ -0,0 +1,330 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.util.Arrays;
+
+import jacobi.api.Matrix;
+import jacobi.core.util.Throw;
+
+/**
+ * Implementation of a sparse matrix in compressed sparse row (CSR) or compressed sparse column (CSC) format.
+ * 
+ * <p>In CSR format, non-zero elements are stored row-by-row in an array of values, with the column index
+ * of each element in an array of indices. The elements of the i-th row occupies the range [ptr[i], ptr[i + 1])
+ * of both arrays, with column indices in increasing order. CSC format is the same with the roles of rows
+ * and columns interchanged.</p>
+ * 
+ * <p>A matrix in CSC format is the transpose of the matrix in CSR format with the same arrays, thus
+ * transposing is done without copying.</p>
+ * 
+ * <p>Operators detect sparse operands and compute in time proportional to the number of non-zero elements.
+ * Accessing a row of a matrix in CSC format requires a search for each column, it is advised to
+ * convert to CSR format if rows are accessed frequently.</p>
+ * 
+ * <p>To maintain the sparse structure, this class is immutable. The arrays are not copied when
+ * constructed and should not be changed afterwards.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class SparseMatrix extends ImmutableMatrix {
+    
+    /**
+     * Factory method for a matrix in compressed sparse row format.
+     * @param m  Number of rows
+     * @param n  Number of columns
+     * @param ptr  Beginning of each row in indices and values, followed by the number of non-zero elements
+     * @param indices  Column index of each non-zero element
+     * @param values  Value of each non-zero element
+     * @return  Sparse matrix in CSR format
+     * @throws IllegalArgumentException  if any of the arrays is missing or inconsistent
+     */
+    public static SparseMatrix csr(int m, int n, int[] ptr, int[] indices, double[] values) {
+        SparseMatrix.validate(m, n, ptr, indices, values);
+        return new SparseMatrix(m, n, ptr, indices, values, true);
+    }
+    
+    /**
+     * Factory method for a matrix in compressed sparse column format.
+     * @param m  Number of rows
+     * @param n  Number of columns
+     * @param ptr  Beginning of each column in indices and values, followed by the number of non-zero elements
+     * @param indices  Row index of each non-zero element
+     * @param values  Value of each non-zero element
+     * @return  Sparse matrix in CSC format
+     * @throws IllegalArgumentException  if any of the arrays is missing or inconsistent
+     */
+    public static SparseMatrix csc(int m, int n, int[] ptr, int[] indices, double[] values) {
+        SparseMatrix.validate(n, m, ptr, indices, values);
+        return new SparseMatrix(m, n, ptr, indices, values, false);
+    }
+    
+    /**
+     * Factory method for compressing the non-zero elements of a matrix in CSR format.
+     * @param matrix  Input matrix
+     * @return  Sparse matrix in CSR format
+     */
+    public static SparseMatrix of(Matrix matrix) {
+        Throw.when().isNull(() -> matrix, () -> "No matrix to compress.");
+        if(matrix instanceof SparseMatrix){
+            return ((SparseMatrix) matrix).toCsr();
+        }
+        
+        int[] ptr = new int[matrix.getRowCount() + 1];
+        int[] indices = new int[Math.max(matrix.getRowCount(), 1)];
+        double[] values = new double[indices.length];
+        
+        int nnz = 0;
+        for(int i = 0; i < matrix.getRowCount(); i++){
+            double[] row = matrix.getRow(i);
+            for(int j = 0; j < row.length; j++){
+                if(row[j] == 0.0){
+                    continue;
+                }
+                
+                if(nnz == indices.length){
+                    indices = Arrays.copyOf(indices, 2 * nnz);
+                    values = Arrays.copyOf(values, 2 * nnz);
+                }
+                indices[nnz] = j;
+                values[nnz++] = row[j];
+            }
+            ptr[i + 1] = nnz;
+        }
+        return new SparseMatrix(matrix.getRowCount(), matrix.getColCount(), ptr, indices, values, true);
+    }
+    
+    /**
+     * Constructor.
+     * @param numRows  Number of rows
+     * @param numCols  Number of columns
+     * @param ptr  Beginning of each row (column) in indices and values
+     * @param indices  Column (row) index of each non-zero element
+     * @param values  Value of each non-zero element
+     * @param byRow  True if in CSR format, false if in CSC format
+     */
+    protected SparseMatrix(int numRows, int numCols, int[] ptr, int[] indices, double[] values, boolean byRow) {
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.ptr = ptr;
+        this.indices = indices;
+        this.values = values;
+        this.byRow = byRow;
+    }
+    
+    /**
+     * Determine if this matrix is in CSR format.
+     * @return  True if in CSR format, false if in CSC format
+     */
+    public boolean isRowMajor() {
+        return this.byRow;
+    }
+    
+    /**
+     * Get the beginning of each row (column) in the indices and values arrays, followed by
+     * the number of non-zero elements.
+     * @return  Array of pointers
+     */
+    public int[] getPointers() {
+        return this.ptr; // NOPMD - intended to be shared
+    }
+    
+    /**
+     * Get the column (row) index of each non-zero element.
+     * @return  Array of indices
+     */
+    public int[] getIndices() {
+        return this.indices; // NOPMD - intended to be shared
+    }
+    
+    /**
+     * Get the value of each non-zero element.
+     * @return  Array of values
+     */
+    public double[] getValues() {
+        return this.values; // NOPMD - intended to be shared
+    }
+    
+    /**
+     * Get the number of non-zero elements
+     * @return  Number of non-zero elements
+     */
+    public int getNonZeroCount() {
+        return this.ptr[this.ptr.length - 1];
+    }
+    
+    /**
+     * Get the transpose of this matrix, which shares the same arrays with format interchanged.
+     * @return  Transpose of this matrix
+     */
+    public SparseMatrix transpose() {
+        return new SparseMatrix(this.numCols, this.numRows, this.ptr, this.indices, this.values, !this.byRow);
+    }
+    
+    /**
+     * Get this matrix in CSR format.
+     * @return  This matrix if in CSR format, or a converted copy otherwise
+     */
+    public SparseMatrix toCsr() {
+        return this.byRow ? this : this.reorient();
+    }
+    
+    /**
+     * Get this matrix in CSC format.
+     * @return  This matrix if in CSC format, or a converted copy otherwise
+     */
+    public SparseMatrix toCsc() {
+        return this.byRow ? this.reorient() : this;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.numRows;
+    }
+
+    @Override
+    public int getColCount() {
+        return this.numCols;
+    }
+
+    @Override
+    public double[] getRow(int index) {
+        if(index < 0 || index >= this.numRows){
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        
+        double[] row = new double[this.numCols];
+        if(this.byRow){
+            for(int k = this.ptr[index]; k < this.ptr[index + 1]; k++){
+                row[this.indices[k]] = this.values[k];
+            }
+            return row;
+        }
+        
+        for(int j = 0; j < row.length; j++){
+            int k = Arrays.binarySearch(this.indices, this.ptr[j], this.ptr[j + 1], index);
+            if(k >= 0){
+                row[j] = this.values[k];
+            }
+        }
+        return row;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        int line = this.byRow ? i : j;
+        int k = Arrays.binarySearch(this.indices, this.ptr[line], this.ptr[line + 1], this.byRow ? j : i);
+        return k < 0 ? 0.0 : this.values[k];
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] elem = new double[this.numRows][this.numCols];
+        for(int line = 0; line + 1 < this.ptr.length; line++){
+            for(int k = this.ptr[line]; k < this.ptr[line + 1]; k++){
+                if(this.byRow){
+                    elem[line][this.indices[k]] = this.values[k];
+                }else{
+                    elem[this.indices[k]][line] = this.values[k];
+                }
+            }
+        }
+        return elem;
+    }
+
+    @Override
+    public Matrix copy() {
+        return new DefaultMatrix(this.toArray());
+    }
+    
+    /**
+     * Convert this matrix from CSR format to CSC format or vice versa.
+     * @return  Matrix in the other format
+     */
+    protected SparseMatrix reorient() {
+        int nnz = this.getNonZeroCount();
+        int[] count = new int[(this.byRow ? this.numCols : this.numRows) + 1];
+        for(int k = 0; k < nnz; k++){
+            count[this.indices[k] + 1]++;
+        }
+        
+        for(int i = 1; i < count.length; i++){
+            count[i] += count[i - 1];
+        }
+        
+        int[] next = Arrays.copyOf(count, count.length - 1);
+        int[] idx = new int[nnz];
+        double[] vals = new double[nnz];
+        for(int line = 0; line + 1 < this.ptr.length; line++){
+            for(int k = this.ptr[line]; k < this.ptr[line + 1]; k++){
+                int pos = next[this.indices[k]]++;
+                idx[pos] = line;
+                vals[pos] = this.values[k];
+            }
+        }
+        return new SparseMatrix(this.numRows, this.numCols, count, idx, vals, !this.byRow);
+    }
+    
+    /**
+     * Validate the arrays of a compressed sparse matrix.
+     * @param numLines  Number of rows (columns) in CSR (CSC) format
+     * @param length  Number of columns (rows) in CSR (CSC) format
+     * @param ptr  Beginning of each row (column) in indices and values
+     * @param indices  Column (row) index of each non-zero element
+     * @param values  Value of each non-zero element
+     */
+    protected static void validate(int numLines, int length, int[] ptr, int[] indices, double[] values) {
+        Throw.when()
+            .isTrue(() -> numLines < 0 || length < 0, () -> "Invalid dimension.")
+            .isNull(() -> ptr, () -> "No pointers.")
+            .isNull(() -> indices, () -> "No indices.")
+            .isNull(() -> values, () -> "No values.")
+            .isTrue(
+                () -> ptr.length != numLines + 1, 
+                () -> "Expected " + (numLines + 1) + " pointers, found " + ptr.length)
+            .isTrue(() -> ptr[0] != 0, () -> "Pointers must begin with 0.")
+            .isTrue(
+                () -> ptr[numLines] > indices.length || ptr[numLines] > values.length, 
+                () -> "Number of non-zero elements " + ptr[numLines] + " exceeds the arrays.");
+        
+        for(int line = 0; line < numLines; line++){
+            if(ptr[line] > ptr[line + 1]){
+                throw new IllegalArgumentException("Pointers must be non-decreasing.");
+            }
+            
+            int prev = -1;
+            for(int k = ptr[line]; k < ptr[line + 1]; k++){
+                if(indices[k] <= prev || indices[k] >= length){
+                    throw new IllegalArgumentException("Invalid index " + indices[k] + " at " + k);
+                }
+                prev = indices[k];
+            }
+        }
+    }
+    
+    private int numRows, numCols;
+    private int[] ptr, indices;
+    private double[] values;
+    private boolean byRow;
+}
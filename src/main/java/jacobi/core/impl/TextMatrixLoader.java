@@ -0,0 +1,419 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.core.lexer.ItemLexer.Action;
+import jacobi.core.lexer.NumericRowLexer;
+import jacobi.core.util.ParallelSupplier;
+
+/**
+ * Loader of a matrix from a delimited text file, e.g.&nbsp;CSV or TSV, with an optional header line
+ * of column names.
+ * 
+ * <p>The file is split into chunks of byte ranges at line boundaries. The number of rows in each chunk 
+ * is counted in parallel, s.t.&nbsp;the dimension and the row offset of each chunk are known before 
+ * parsing. The chunks are then parsed in parallel by NumericRowLexer without allocation per element,
+ * and each row is streamed into a matrix sink given the dimension, which can be in the heap or 
+ * mapped to a file, e.g.&nbsp;MappedMatrix for data larger than the heap.</p>
+ * 
+ * <p>Blank lines are skipped. Empty fields are loaded as NaN. The text is assumed to be in UTF-8 or 
+ * any ASCII compatible encoding.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class TextMatrixLoader {
+    
+    /**
+     * Default size of a chunk in bytes
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 24;
+    
+    /**
+     * Create a loader for comma-separated values.
+     * @param header  True if the first line is a header of column names, false otherwise
+     * @return  Text matrix loader
+     */
+    public static TextMatrixLoader csv(boolean header) {
+        return new TextMatrixLoader(',', header, DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * Create a loader for tab-separated values.
+     * @param header  True if the first line is a header of column names, false otherwise
+     * @return  Text matrix loader
+     */
+    public static TextMatrixLoader tsv(boolean header) {
+        return new TextMatrixLoader('\t', header, DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * Constructor.
+     * @param delimiter  Delimiter character
+     * @param header  True if the first line is a header of column names, false otherwise
+     * @param chunkSize  Size of a chunk in bytes for parsing in parallel
+     * @throws IllegalArgumentException  if delimiter is invalid or chunk size is not positive
+     */
+    public TextMatrixLoader(char delimiter, boolean header, int chunkSize) {
+        if(chunkSize < 1){
+            throw new IllegalArgumentException("Invalid chunk size " + chunkSize);
+        }
+        
+        if(!NumericRowLexer.isDelimiter(delimiter)){
+            throw new IllegalArgumentException("Invalid delimiter " + delimiter);
+        }
+        this.delimiter = delimiter;
+        this.header = header;
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Read the column names in the header line.
+     * @param path  Path of file
+     * @return  Column names, or empty if this loader expects no header
+     * @throws IOException  when failed to read the file
+     */
+    public List<String> header(Path path) throws IOException {
+        if(!this.header){
+            return Collections.emptyList();
+        }
+        
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            return this.names(this.line(channel, 0L));
+        }
+    }
+    
+    /**
+     * Load a matrix into the heap.
+     * @param path  Path of file
+     * @return  Matrix loaded
+     * @throws IOException  when failed to read the file
+     * @throws IllegalArgumentException  if a number is malformed or the number of columns mismatch
+     */
+    public Matrix load(Path path) throws IOException {
+        return this.load(path, (m, n, names) -> Matrices.zeros(m, n));
+    }
+    
+    /**
+     * Load a matrix and stream the rows into a sink.
+     * @param <T>  Type of matrix sink
+     * @param path  Path of file
+     * @param sink  Factory of the matrix sink given the dimension and the column names
+     * @return  Matrix sink with the rows loaded
+     * @throws IOException  when failed to read the file or to open the sink
+     * @throws IllegalArgumentException  if a number is malformed or the number of columns mismatch
+     */
+    public <T extends Matrix> T load(Path path, Sink<T> sink) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            long begin = 0L;
+            List<String> names = Collections.emptyList();
+            if(this.header){
+                byte[] line = this.line(channel, 0L);
+                names = this.names(line);
+                begin = Math.min(line.length + 1L, channel.size());
+            }
+            
+            long[] bounds = this.split(channel, begin);
+            ByteBuffer[] chunks = new ByteBuffer[bounds.length - 1];
+            for(int k = 0; k < chunks.length; k++){
+                chunks[k] = channel.map(FileChannel.MapMode.READ_ONLY, bounds[k], bounds[k + 1] - bounds[k]);
+            }
+            
+            int[] offsets = new int[chunks.length + 1];
+            ParallelSupplier.cyclic(k -> offsets[k + 1] = this.count(chunks[k].duplicate()), 0, chunks.length);
+            for(int k = 0; k < chunks.length; k++){
+                offsets[k + 1] = Math.addExact(offsets[k + 1], offsets[k]);
+            }
+            
+            int numCols = this.width(chunks);
+            if(!names.isEmpty() && numCols > 0 && names.size() != numCols){
+                throw new IllegalArgumentException("Found " + names.size() 
+                    + " column names for " + numCols + " columns.");
+            }
+            
+            T matrix = sink.open(offsets[chunks.length], numCols, names);
+            if(offsets[chunks.length] == 0){
+                return matrix;
+            }
+            
+            ParallelSupplier.cyclic(k -> this.parse(chunks[k].duplicate(), offsets[k], numCols, matrix), 
+                0, chunks.length);
+            return matrix;
+        }
+    }
+    
+    /**
+     * Split the content of a file into chunks at line boundaries.
+     * @param channel  File channel
+     * @param begin  Beginning position of content
+     * @return  Boundaries of chunks, including the beginning and the end of content
+     * @throws IOException  when failed to read the file
+     */
+    protected long[] split(FileChannel channel, long begin) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(begin);
+        
+        long last = begin;
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        for(long pos = begin + this.chunkSize; pos < size; pos = last + this.chunkSize){
+            long bound = this.nextLine(channel, pos, buffer);
+            if(bound >= size){
+                break;
+            }
+            bounds.add(bound);
+            last = bound;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+    
+    /**
+     * Count the number of non-blank lines in a chunk.
+     * @param chunk  Chunk of bytes
+     * @return  Number of non-blank lines
+     */
+    protected int count(ByteBuffer chunk) {
+        NumericRowLexer lexer = new NumericRowLexer(this.delimiter);
+        int count = 0;
+        boolean blank = true;
+        while(chunk.hasRemaining()){
+            char ch = (char) (chunk.get() & 0xFF);
+            if(ch == '\n'){
+                count += blank ? 0 : 1;
+                blank = true;
+                continue;
+            }
+            blank = blank && lexer.isBlank(ch);
+        }
+        return blank ? count : count + 1;
+    }
+    
+    /**
+     * Find the number of columns by the first non-blank line.
+     * @param chunks  Chunks of bytes
+     * @return  Number of columns, or 0 if no non-blank line
+     */
+    protected int width(ByteBuffer[] chunks) {
+        NumericRowLexer lexer = new NumericRowLexer(this.delimiter);
+        for(ByteBuffer chunk : chunks){
+            ByteBuffer buf = chunk.duplicate();
+            boolean end = false;
+            while(!end){
+                char ch = '\0';
+                if(buf.hasRemaining()){
+                    ch = (char) (buf.get() & 0xFF);
+                }else{
+                    end = true;
+                }
+                
+                Action action = this.push(lexer, ch, 0);
+                if(action == Action.ACCEPT){
+                    return lexer.getCount();
+                }
+                
+                if(action == Action.REJECT){
+                    lexer.reset();
+                }
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Parse the rows in a chunk into a matrix sink.
+     * @param chunk  Chunk of bytes
+     * @param offset  Index of the first row of the chunk
+     * @param numCols  Number of columns
+     * @param matrix  Matrix sink
+     */
+    protected void parse(ByteBuffer chunk, int offset, int numCols, Matrix matrix) {
+        NumericRowLexer lexer = new NumericRowLexer(this.delimiter);
+        double[] row = new double[numCols];
+        int index = offset;
+        boolean end = false;
+        while(!end){
+            char ch = '\0';
+            if(chunk.hasRemaining()){
+                ch = (char) (chunk.get() & 0xFF);
+            }else{
+                end = true;
+            }
+            
+            switch(this.push(lexer, ch, index)){
+                case ACCEPT :
+                    if(lexer.getCount() != numCols){
+                        throw new IllegalArgumentException("Expected " + numCols 
+                            + " columns but found " + lexer.getCount() + " in row " + index);
+                    }
+                    System.arraycopy(lexer.getValues(), 0, row, 0, numCols);
+                    matrix.setRow(index++, row);
+                    lexer.reset();
+                    break;
+                case REJECT :
+                    lexer.reset();
+                    break;
+                default :
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Push a character to a row lexer.
+     * @param lexer  Row lexer
+     * @param ch  Input character
+     * @param index  Index of row for error reporting
+     * @return  Action of the lexer
+     * @throws IllegalArgumentException  if the row is malformed
+     */
+    protected Action push(NumericRowLexer lexer, char ch, int index) {
+        Action action = lexer.push(ch);
+        if(action == Action.FAIL){
+            throw new IllegalArgumentException("Malformed value " 
+                + Arrays.toString(Arrays.copyOf(lexer.getValues(), lexer.getCount()))
+                + " followed by '" + ch + "' in row " + index);
+        }
+        return action;
+    }
+    
+    /**
+     * Find the position of the next line, i.e.&nbsp;after the first new line at or after a given position.
+     * @param channel  File channel
+     * @param pos  Position to begin search
+     * @param buffer  Buffer for reading
+     * @return  Position of the next line, or the size of the file if not found
+     * @throws IOException  when failed to read the file
+     */
+    protected long nextLine(FileChannel channel, long pos, ByteBuffer buffer) throws IOException {
+        long begin = pos;
+        while(true){
+            ((Buffer) buffer).clear();
+            int len = channel.read(buffer, begin);
+            if(len < 0){
+                return channel.size();
+            }
+            
+            for(int i = 0; i < len; i++){
+                if(buffer.get(i) == '\n'){
+                    return begin + i + 1;
+                }
+            }
+            begin += len;
+        }
+    }
+    
+    /**
+     * Read a line from a position, excluding the new line character.
+     * @param channel  File channel
+     * @param pos  Position to begin
+     * @return  Bytes in the line
+     * @throws IOException  when failed to read the file
+     */
+    protected byte[] line(FileChannel channel, long pos) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long begin = pos;
+        while(true){
+            ((Buffer) buffer).clear();
+            int len = channel.read(buffer, begin);
+            if(len < 0){
+                return line.toByteArray();
+            }
+            
+            for(int i = 0; i < len; i++){
+                if(buffer.get(i) == '\n'){
+                    line.write(buffer.array(), 0, i);
+                    return line.toByteArray();
+                }
+            }
+            line.write(buffer.array(), 0, len);
+            begin += len;
+        }
+    }
+    
+    /**
+     * Parse column names from a header line.
+     * @param line  Bytes in the header line
+     * @return  Column names
+     */
+    protected List<String> names(byte[] line) {
+        String text = new String(line, StandardCharsets.UTF_8);
+        if(text.trim().isEmpty()){
+            return Collections.emptyList();
+        }
+        
+        List<String> names = new ArrayList<>();
+        int begin = 0;
+        for(int i = 0; i <= text.length(); i++){
+            if(i == text.length() || text.charAt(i) == this.delimiter){
+                names.add(text.substring(begin, i).trim());
+                begin = i + 1;
+            }
+        }
+        return names;
+    }
+    
+    /**
+     * Size of buffer for scanning line boundaries
+     */
+    protected static final int SCAN_BUFFER_SIZE = 4096;
+    
+    private char delimiter;
+    private boolean header;
+    private int chunkSize;
+    
+    /**
+     * Factory of a matrix sink given the dimension.
+     * @param <T>  Type of matrix sink
+     */
+    @FunctionalInterface
+    public interface Sink<T extends Matrix> {
+        
+        /**
+         * Open a matrix sink.
+         * @param numRows  Number of rows
+         * @param numCols  Number of columns
+         * @param names  Column names, or empty if none
+         * @return  Matrix sink
+         * @throws IOException  when failed to open the sink
+         */
+        public T open(int numRows, int numCols, List<String> names) throws IOException;
+        
+    }
+}
@@ -0,0 +1,151 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import jacobi.api.Matrix;
+import jacobi.core.facade.FacadeProxy;
+import jacobi.core.prop.Transpose;
+import jacobi.core.util.Throw;
+
+/**
+ * A view of the transpose of a base matrix, which shares storage with the base matrix.
+ * 
+ * <p>Rows of this view are columns of the base matrix, thus getRow always gathers the column 
+ * values into a new array and setRow scatters the values back to the base matrix. Row access is
+ * column access in the base matrix, which is costly for matrices stored row-wise. Operators 
+ * recognize this view and work on the base matrix instead, e.g.&nbsp;A * B^T is computed 
+ * by multiplying with the rows of B directly.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class TransposedMatrix implements Matrix {
+    
+    /**
+     * Create a transposed view of a matrix. The transposed view of a transposed view is
+     * the base matrix itself.
+     * @param base  Base matrix
+     * @return  Transposed view of the base matrix
+     * @throws IllegalArgumentException  if base matrix is null
+     */
+    public static Matrix of(Matrix base) {
+        Throw.when().isNull(() -> base, () -> "No base matrix.");
+        return base instanceof TransposedMatrix 
+            ? ((TransposedMatrix) base).getBase()
+            : new TransposedMatrix(base);
+    }
+
+    /**
+     * Constructor.
+     * @param base  Base matrix
+     */
+    protected TransposedMatrix(Matrix base) {
+        this.base = base;
+    }
+    
+    /**
+     * Get the base matrix
+     * @return  Base matrix
+     */
+    public Matrix getBase() {
+        return base;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.base.getColCount();
+    }
+
+    @Override
+    public int getColCount() {
+        return this.base.getRowCount();
+    }
+
+    @Override
+    public double[] getRow(int index) {
+        double[] values = new double[this.getColCount()];
+        if(this.base instanceof ArrayMatrix){
+            ArrayMatrix array = (ArrayMatrix) this.base;
+            double[] elem = array.getArray();
+            int stride = array.getStride();
+            for(int j = 0, k = array.indexOf(0, index); j < values.length; j++, k += stride){
+                values[j] = elem[k];
+            }
+            return values;
+        }
+        for(int j = 0; j < values.length; j++){
+            values[j] = this.base.get(j, index);
+        }
+        return values;
+    }
+
+    @Override
+    public Matrix setRow(int index, double[] values) {
+        Throw.when()
+            .isNull(() -> values, () -> "No row values")
+            .isTrue(() -> values.length != this.getColCount(), () -> "Dimension mismatch");
+        for(int j = 0; j < values.length; j++){
+            this.base.set(j, index, values[j]);
+        }
+        return this;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return this.base.get(j, i);
+    }
+
+    @Override
+    public Matrix set(int i, int j, double value) {
+        this.base.set(j, i, value);
+        return this;
+    }
+
+    @Override
+    public Matrix swapRow(int i, int j) {
+        if(i == j){
+            return this;
+        }
+        for(int k = 0; k < this.base.getRowCount(); k++){
+            double[] row = this.base.getRow(k);
+            double temp = row[i];
+            row[i] = row[j];
+            row[j] = temp;
+            this.base.setRow(k, row);
+        }
+        return this;
+    }
+
+    @Override
+    public <T> T ext(Class<T> clazz) {
+        return FacadeProxy.of(clazz, this);
+    }
+
+    @Override
+    public Matrix copy() {
+        Matrix trans = new Transpose().compute(this.base);
+        return trans instanceof SparseMatrix ? new DefaultMatrix(trans) : trans;
+    }
+
+    private Matrix base;
+}
@@ -0,0 +1,378 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.lexer;
+
+import java.util.Optional;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A lexer for analyzing a decimal number in plain or scientific notation without allocation.
+ * 
+ * <p>Unlike DoubleLexer which collects the characters and parse the result by Double.valueOf,
+ * this lexer accumulates the digits into a long mantissa and a decimal exponent. When the mantissa 
+ * is exactly representable, i.e.&nbsp;not more than 2<sup>53</sup>, and the magnitude of the exponent 
+ * is not more than 22, the result is a single multiplication or division by an exact power of 10, 
+ * which is correctly rounded. Otherwise the lexer falls back to Double.parseDouble.</p>
+ * 
+ * <p>An instance can be reset and reused s.t.&nbsp;parsing a stream of numbers does not allocate any
+ * object in the common cases. The result can be obtained without boxing by getAsDouble.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class DecimalLexer implements ItemLexer<Double>, DoubleSupplier {
+    
+    /**
+     * Constructor.
+     */
+    public DecimalLexer() {
+        this.text = new char[DEFAULT_TEXT_LENGTH];
+        this.reset();
+    }
+    
+    /**
+     * Reset this lexer s.t.&nbsp;it can be reused for lexing another number.
+     * @return  This object
+     */
+    public DecimalLexer reset() {
+        this.state = State.START;
+        this.negative = false;
+        this.inexact = false;
+        this.mantissa = 0L;
+        this.scale = 0;
+        this.exponent = 0;
+        this.negativeExp = false;
+        this.length = 0;
+        return this;
+    }
+
+    @Override
+    public Action push(char ch) {
+        if(this.state.action != Action.MOVE){
+            throw new IllegalStateException("Lexer has finished in state " + this.state);
+        }
+        
+        this.state = this.state.jump(this, ch);
+        if(this.state.action == Action.MOVE){
+            this.append(ch);
+        }
+        return this.state.action;
+    }
+
+    @Override
+    public Optional<Double> get() {
+        return this.state == State.ACCEPT ? Optional.of(this.getAsDouble()) : Optional.empty();
+    }
+
+    @Override
+    public double getAsDouble() {
+        if(this.state != State.ACCEPT){
+            throw new IllegalStateException("No number accepted.");
+        }
+        
+        if(!this.inexact && this.mantissa <= MAX_EXACT){
+            int exp = this.scale + (this.negativeExp ? -this.exponent : this.exponent);
+            double value = (double) this.mantissa;
+            if(this.mantissa == 0L || exp == 0){
+                return this.negative ? -value : value;
+            }
+            
+            if(exp > 0 && exp < POW_10.length){
+                return this.negative ? -value * POW_10[exp] : value * POW_10[exp];
+            }
+            
+            if(exp < 0 && -exp < POW_10.length){
+                return this.negative ? -value / POW_10[-exp] : value / POW_10[-exp];
+            }
+        }
+        return Double.parseDouble(new String(this.text, 0, this.length));
+    }
+    
+    /**
+     * Accumulate a digit into the mantissa.
+     * @param ch  Digit character
+     * @param fractional  True if the digit is in the fractional part, false otherwise
+     */
+    protected void digit(char ch, boolean fractional) {
+        if(this.mantissa > MANTISSA_LIMIT){
+            this.inexact = true;
+            return;
+        }
+        this.mantissa = 10 * this.mantissa + (ch - '0');
+        if(fractional){
+            this.scale--;
+        }
+    }
+    
+    /**
+     * Accumulate a digit into the exponent.
+     * @param ch  Digit character
+     */
+    protected void exponent(char ch) {
+        if(this.exponent > EXPONENT_LIMIT){
+            this.inexact = true;
+            return;
+        }
+        this.exponent = 10 * this.exponent + (ch - '0');
+    }
+    
+    /**
+     * Append a character to the text, for falling back to Double.parseDouble.
+     * @param ch  Character accepted
+     */
+    protected void append(char ch) {
+        if(this.length == this.text.length){
+            char[] array = new char[2 * this.text.length];
+            System.arraycopy(this.text, 0, array, 0, this.length);
+            this.text = array;
+        }
+        this.text[this.length++] = ch;
+    }
+    
+    /**
+     * Default length of text buffer
+     */
+    protected static final int DEFAULT_TEXT_LENGTH = 32;
+    
+    /**
+     * Maximum of a mantissa that can be exactly represented by a double, i.e.&nbsp;2^53
+     */
+    protected static final long MAX_EXACT = 1L << 53;
+    
+    /**
+     * Maximum of a mantissa before accumulating a digit without overflow
+     */
+    protected static final long MANTISSA_LIMIT = (Long.MAX_VALUE - 9) / 10;
+    
+    /**
+     * Maximum of an exponent before accumulating a digit without overflow
+     */
+    protected static final int EXPONENT_LIMIT = (Integer.MAX_VALUE - 9) / 10;
+    
+    /**
+     * Powers of 10 that are exactly representable by a double
+     */
+    protected static final double[] POW_10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    
+    private State state;
+    private boolean negative, inexact, negativeExp;
+    private long mantissa;
+    private int scale, exponent, length;
+    private char[] text;
+    
+    /**
+     * States this lexer could be in.
+     */
+    protected enum State {
+        /**
+         * Initial state.
+         */
+        START {
+
+            @Override
+            public State jump(DecimalLexer context, char ch) {
+                switch(ch){
+                    case '+' :
+                        return State.SIGNED;
+                    case '-' :
+                        context.negative = true;
+                        return State.SIGNED;
+                    case '.' :
+                        return State.DOTTED;
+                    default :
+                        break;
+                }
+                return this.isDigit(ch) ? State.INT.digit(context, ch) : State.REJECT;
+            }
+            
+        },
+        /**
+         * A sign (+|-) has been encountered. Need a number or dot for fractional part.
+         */
+        SIGNED {
+
+            @Override
+            public State jump(DecimalLexer context, char ch) {
+                return ch == '.' 
+                    ? State.DOTTED 
+                    : this.isDigit(ch) ? State.INT.digit(context, ch) : State.FAIL;
+            }
+            
+        },
+        /**
+         * Within the integral part of the number.
+         */
+        INT {
+
+            @Override
+            public State jump(DecimalLexer context, char ch) {
+                return ch == '.' 
+                    ? State.FRAC 
+                    : this.isDigit(ch) ? this.digit(context, ch) : this.exponent(ch);
+            }
+            
+        },
+        /**
+         * Encountered decimal dot without integral part, need at least 1 digit decimal.
+         */
+        DOTTED {
+
+            @Override
+            public State jump(DecimalLexer context, char ch) {
+                return this.isDigit(ch) ? State.FRAC.digit(context, ch) : State.FAIL;
+            }
+            
+        },
+        /**
+         * Within the fractional part.
+         */
+        FRAC {
+
+            @Override
+            public State jump(DecimalLexer context, char ch) {
+                return this.isDigit(ch) 
+                    ? this.digit(context, ch) 
+                    : ch == '.' ? State.FAIL : this.exponent(ch);
+            }
+            
+        },
+        /**
+         * Encountered the exponent marker e|E, need a sign or a digit.
+         */
+        EXP {
+
+            @Override
+            public State jump(DecimalLexer context, char ch) {
+                switch(ch){
+                    case '+' :
+                        return State.EXP_SIGNED;
+                    case '-' :
+                        context.negativeExp = true;
+                        return State.EXP_SIGNED;
+                    default :
+                        break;
+                }
+                return State.EXP_SIGNED.jump(context, ch);
+            }
+            
+        },
+        /**
+         * Encountered the sign of exponent, need a digit.
+         */
+        EXP_SIGNED {
+
+            @Override
+            public State jump(DecimalLexer context, char ch) {
+                if(this.isDigit(ch)){
+                    context.exponent(ch);
+                    return State.EXP_INT;
+                }
+                return State.FAIL;
+            }
+            
+        },
+        /**
+         * Within the exponent, terminal upon any non-numerical character.
+         */
+        EXP_INT {
+
+            @Override
+            public State jump(DecimalLexer context, char ch) {
+                if(this.isDigit(ch)){
+                    context.exponent(ch);
+                    return this;
+                }
+                return ch == '.' || ch == 'e' || ch == 'E' ? State.FAIL : State.ACCEPT;
+            }
+            
+        },
+        /**
+         * Result accepted.
+         */
+        ACCEPT(Action.ACCEPT), 
+        /**
+         * Input rejected.
+         */
+        REJECT(Action.REJECT), 
+        /**
+         * Lexer failed.
+         */
+        FAIL(Action.FAIL)
+        ;
+        
+        private State() {
+            this(Action.MOVE);
+        }
+
+        private State(Action action) {
+            this.action = action;
+        }
+        
+        /**
+         * Jump to another state upon receiving a character.
+         * @param context  Lexer with intermediate result
+         * @param ch  Character received.
+         * @return  Next state
+         */
+        public State jump(DecimalLexer context, char ch) {
+            throw new IllegalStateException(this.name());
+        }
+        
+        /**
+         * Accumulate a digit and return this state.
+         * @param context  Lexer with intermediate result
+         * @param ch  Digit character
+         * @return  This state
+         */
+        protected final State digit(DecimalLexer context, char ch) {
+            context.digit(ch, this == State.FRAC);
+            return this;
+        }
+        
+        /**
+         * Jump to exponent if encountered exponent marker, otherwise accept the number. 
+         * @param ch  Character received
+         * @return  Next state
+         */
+        protected final State exponent(char ch) {
+            return ch == 'e' || ch == 'E' ? State.EXP : State.ACCEPT;
+        }
+        
+        /**
+         * Determine if a character is a decimal digit.
+         * @param ch  Character received
+         * @return  True if ch is a decimal digit, false otherwise
+         */
+        protected final boolean isDigit(char ch) {
+            return ch >= '0' && ch <= '9';
+        }
+        
+        /**
+         * Action to be returned in this state.
+         */
+        public final Action action;
+    }
+}
@@ -0,0 +1,232 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.lexer;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * A lexer for analyzing a line of delimited decimal numbers, e.g.&nbsp;a row in a CSV or TSV file.
+ * 
+ * <p>Spaces, tabs and carriage returns around a field are ignored, unless it is the delimiter. An empty 
+ * field, e.g.&nbsp;consecutive delimiters, is treated as a missing value and accepted as NaN. A row is 
+ * terminated by a new line or '\0', which is not included. A blank line is rejected.</p>
+ * 
+ * <p>Numbers are lexed by a DecimalLexer, and the values are collected into an internal buffer, 
+ * s.t.&nbsp;an instance can be reset and reused for lexing rows without allocation.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class NumericRowLexer implements ItemLexer<double[]> {
+    
+    /**
+     * Determine if a character can be a delimiter, i.e.&nbsp;it can not be a part of a number or
+     * a terminator of a row.
+     * @param ch  Input character
+     * @return  True if ch can be a delimiter, false otherwise
+     */
+    public static boolean isDelimiter(char ch) {
+        return ch != '\n' && ch != '\0' && ch != '.' && ch != '+' && ch != '-' 
+            && ch != 'e' && ch != 'E' && (ch < '0' || ch > '9');
+    }
+    
+    /**
+     * Constructor.
+     * @param delimiter  Delimiter character
+     */
+    public NumericRowLexer(char delimiter) {
+        if(!NumericRowLexer.isDelimiter(delimiter)){
+            throw new IllegalArgumentException("Invalid delimiter " + delimiter);
+        }
+        this.delimiter = delimiter;
+        this.number = new DecimalLexer();
+        this.values = new double[DEFAULT_ROW_LENGTH];
+        this.reset();
+    }
+    
+    /**
+     * Reset this lexer s.t.&nbsp;it can be reused for lexing another row.
+     * @return  This object
+     */
+    public NumericRowLexer reset() {
+        this.state = State.BEFORE;
+        this.action = Action.MOVE;
+        this.count = 0;
+        this.content = false;
+        return this;
+    }
+
+    @Override
+    public Action push(char ch) {
+        if(this.action != Action.MOVE){
+            throw new IllegalStateException("Lexer has finished with " + this.action);
+        }
+        
+        switch(this.state){
+            case FIELD :
+                Action act = this.number.push(ch);
+                if(act == Action.MOVE){
+                    return act;
+                }
+                
+                if(act != Action.ACCEPT){
+                    return this.action = Action.FAIL;
+                }
+                this.add(this.number.getAsDouble());
+                this.state = State.AFTER;
+                return this.after(ch);
+                
+            case AFTER :
+                return this.after(ch);
+                
+            default :
+                break;
+        }
+        return this.before(ch);
+    }
+
+    @Override
+    public Optional<double[]> get() {
+        return this.action == Action.ACCEPT 
+            ? Optional.of(Arrays.copyOf(this.values, this.count)) 
+            : Optional.empty();
+    }
+    
+    /**
+     * Get the number of values lexed in the current row.
+     * @return  Number of values
+     */
+    public int getCount() {
+        return this.count;
+    }
+    
+    /**
+     * Get the internal buffer of values, which is valid for the first getCount() elements 
+     * and is overwritten after reset.
+     * @return  Buffer of values
+     */
+    public double[] getValues() {
+        return this.values;
+    }
+    
+    /**
+     * Determine if a character is ignorable around a field.
+     * @param ch  Input character
+     * @return  True if ignorable, false otherwise
+     */
+    public boolean isBlank(char ch) {
+        return ch != this.delimiter && (ch == ' ' || ch == '\t' || ch == '\r');
+    }
+    
+    /**
+     * Update upon receiving a character when expecting a field.
+     * @param ch  Input character
+     * @return  Subsequent action
+     */
+    protected Action before(char ch) {
+        if(ch == this.delimiter){
+            this.add(Double.NaN);
+            this.content = true;
+            return Action.MOVE;
+        }
+        
+        if(ch == '\n' || ch == '\0'){
+            if(!this.content){
+                return this.action = Action.REJECT;
+            }
+            this.add(Double.NaN);
+            return this.action = Action.ACCEPT;
+        }
+        
+        if(this.isBlank(ch)){
+            return Action.MOVE;
+        }
+        
+        this.content = true;
+        if(this.number.reset().push(ch) != Action.MOVE){
+            return this.action = Action.FAIL;
+        }
+        this.state = State.FIELD;
+        return Action.MOVE;
+    }
+    
+    /**
+     * Update upon receiving a character after a field.
+     * @param ch  Input character
+     * @return  Subsequent action
+     */
+    protected Action after(char ch) {
+        if(ch == this.delimiter){
+            this.state = State.BEFORE;
+            return Action.MOVE;
+        }
+        
+        if(ch == '\n' || ch == '\0'){
+            return this.action = Action.ACCEPT;
+        }
+        return this.isBlank(ch) ? Action.MOVE : (this.action = Action.FAIL);
+    }
+    
+    /**
+     * Append a value to the buffer.
+     * @param value  Value of field
+     */
+    protected void add(double value) {
+        if(this.count == this.values.length){
+            this.values = Arrays.copyOf(this.values, 2 * this.values.length);
+        }
+        this.values[this.count++] = value;
+    }
+    
+    /**
+     * Default length of the buffer of values
+     */
+    protected static final int DEFAULT_ROW_LENGTH = 16;
+
+    private char delimiter;
+    private DecimalLexer number;
+    private State state;
+    private Action action;
+    private double[] values;
+    private int count;
+    private boolean content;
+    
+    /**
+     * States this lexer could be in.
+     */
+    protected enum State {
+        /**
+         * Expecting a field.
+         */
+        BEFORE,
+        /**
+         * Within a field.
+         */
+        FIELD,
+        /**
+         * After a field, expecting a delimiter or end of line.
+         */
+        AFTER
+    }
+}
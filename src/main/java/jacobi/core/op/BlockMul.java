@@ -0,0 +1,191 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import jacobi.api.annotations.Pure;
+import jacobi.core.impl.BlockMatrix;
+import jacobi.core.util.MapReducer;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Throw;
+import jacobi.core.util.VectorKernels;
+import java.util.function.BiConsumer;
+
+/**
+ * Matrix multiplication of block matrices partitioned in tiles, i.e.&nbsp;computes C = A * B.
+ * 
+ * <p>Each tile of C is computed by a single task as the sum of products of tiles of A and B, 
+ * thus the work is distributed among threads tile by tile, and each task only accesses contiguous 
+ * tiles that are small enough to be cache-resident.</p>
+ * 
+ * <p>The tile-level kernels are also used by tiled decompositions, and are public for 
+ * this purpose.</p>
+ * 
+ * @author Y.K. Chan
+ */
+@Pure
+public class BlockMul {
+    
+    /**
+     * Compute matrix C where C = A * B.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @return  Resultant matrix C partitioned in the same tile size
+     * @throws IllegalArgumentException  if dimension or tile size mismatch
+     */
+    public BlockMatrix compute(BlockMatrix a, BlockMatrix b) {
+        Throw.when()
+            .isNull(() -> a, () -> "First operand is missing.")
+            .isNull(() -> b, () -> "Second operand is missing.")
+            .isTrue(
+                () -> a.getColCount() != b.getRowCount(), 
+                () -> "Dimension mismatch. Unable to multiply a "
+                    + a.getRowCount()+ "x" + a.getColCount()
+                    + " matrix with a "
+                    + b.getRowCount()+ "x" + b.getColCount()
+                    + " matrix.")
+            .isTrue(
+                () -> a.getTileSize() != b.getTileSize(), 
+                () -> "Tile size mismatch " + a.getTileSize() + " <> " + b.getTileSize());
+        
+        BlockMatrix ans = BlockMatrix.zeros(a.getRowCount(), b.getColCount(), a.getTileSize());
+        int numTiles = ans.getGridRowCount() * ans.getGridColCount();
+        long numFlop = (long) a.getRowCount() * a.getColCount() * b.getColCount();
+        if(numTiles < 2 || numFlop < Thresholds.threshold(Operation.MUL)){
+            this.serial(a, b, ans, 0, numTiles);
+        }else{
+            MapReducer.of(0, numTiles)
+                .flop((int) Math.min(numFlop / numTiles, Integer.MAX_VALUE), Thresholds.grain(Operation.MUL))
+                .forEach((begin, end) -> this.serial(a, b, ans, begin, end));
+        }
+        return ans;
+    }
+    
+    /**
+     * Compute a range of tiles of C in serial, where tiles are indexed in row-major order.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param ans  Resultant matrix C
+     * @param begin  Begin index of tiles
+     * @param end  End index of tiles
+     */
+    protected void serial(BlockMatrix a, BlockMatrix b, BlockMatrix ans, int begin, int end) {
+        for(int t = begin; t < end; t++){
+            int i = t / ans.getGridColCount();
+            int j = t % ans.getGridColCount();
+            double[] tile = ans.getTile(i, j);
+            for(int k = 0; k < a.getGridColCount(); k++){
+                gemm(1.0, a.getTile(i, k), b.getTile(k, j), tile, 
+                    a.tileRowCount(i), a.tileColCount(k), b.tileColCount(j));
+            }
+        }
+    }
+    
+    /**
+     * Compute C = C + alpha * A * B for tiles in row-major order.
+     * @param alpha  Scalar factor
+     * @param a  Tile A with m rows and k columns
+     * @param b  Tile B with k rows and n columns
+     * @param c  Tile C with m rows and n columns
+     * @param m  Number of rows of A and C
+     * @param k  Number of columns of A and rows of B
+     * @param n  Number of columns of B and C
+     */
+    public static void gemm(double alpha, double[] a, double[] b, double[] c, int m, int k, int n) {
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int i = 0; i < m; i++){
+            for(int p = 0; p < k; p++){
+                double factor = alpha * a[i * k + p];
+                if(factor != 0.0){
+                    kernels.axpy(factor, b, p * n, c, i * n, n);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Compute C = C + alpha * A * B^T for tiles in row-major order.
+     * @param alpha  Scalar factor
+     * @param a  Tile A with m rows and k columns
+     * @param b  Tile B with n rows and k columns
+     * @param c  Tile C with m rows and n columns
+     * @param m  Number of rows of A and C
+     * @param k  Number of columns of A and B
+     * @param n  Number of rows of B and columns of C
+     */
+    public static void gemmT(double alpha, double[] a, double[] b, double[] c, int m, int k, int n) {
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int i = 0; i < m; i++){
+            for(int j = 0; j < n; j++){
+                c[i * n + j] += alpha * kernels.dot(a, i * k, b, j * k, k);
+            }
+        }
+    }
+    
+    /**
+     * Run a task on a range of independent tiles, each tile as a task in parallel if specified.
+     * @param parallel  True to run in parallel, false in serial
+     * @param count  Number of tiles
+     * @param task  Task on a range of tiles
+     */
+    public static void forEach(boolean parallel, int count, BiConsumer<Integer, Integer> task) {
+        if(count < 1){
+            return;
+        }
+        if(!parallel || count < 2){
+            task.accept(0, count);
+            return;
+        }
+        MapReducer.of(0, count).limit(2).forEach(task);
+    }
+
+    /**
+     * Run a task on each independent tile (i, j) in the lower triangle of a square grid, including
+     * the diagonal, with tiles distributed in parallel if specified. This is the access pattern of a 
+     * symmetric update, which only needs half of the tiles.
+     * @param parallel  True to run in parallel, false in serial
+     * @param span  Number of rows and columns of the grid
+     * @param task  Task on a tile given row and column index
+     */
+    public static void forEachLower(boolean parallel, int span, BiConsumer<Integer, Integer> task) {
+        forEach(parallel, span * (span + 1) / 2, (begin, end) -> {
+            int i = (int) ((Math.sqrt(8.0 * begin + 1.0) - 1.0) / 2.0);
+            while(i * (i + 1) / 2 > begin){
+                i--;
+            }
+            while((i + 1) * (i + 2) / 2 <= begin){
+                i++;
+            }
+            int j = begin - i * (i + 1) / 2;
+            for(int t = begin; t < end; t++){
+                task.accept(i, j);
+                if(++j > i){
+                    i++;
+                    j = 0;
+                }
+            }
+        });
+    }
+
+}
@@ -26,9 +26,14 @@ package jacobi.core.op;
 
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
 import jacobi.core.impl.ColumnVector;
+import jacobi.core.impl.FloatMatrix;
 import jacobi.core.util.MapReducer;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
 import jacobi.core.util.Throw;
+import jacobi.core.util.VectorKernels;
 
 /**
  * Compute the dot product of each columns of two matrices.
@@ -40,7 +45,9 @@ import jacobi.core.util.Throw;
 public class Dot {
     
     /**
-     * Default lower limit of number of rows to decide using parallelism.
+     * Default lower limit of number of rows to decide using parallelism, for a square matrix. The 
+     * threshold in use is given by Thresholds for DOT, in number of flop, i.e.&nbsp;the number of rows
+     * times the number of flops of computing a row.
      */
     public static final int DEFAULT_THRESHOLD = 64;
     
@@ -51,11 +58,7 @@ public class Dot {
      * @return  Dot product of the two vectors
      */
     public static double prod(double[] u, double[] v) {
-    	double ans = 0.0;
-    	for(int i = 0; i < v.length; i++){
-    		ans += u[i] * v[i];
-    	}
-    	return ans;
+    	return VectorKernels.getInstance().dot(u, 0, v, 0, v.length);
     }
 
     /**
@@ -89,7 +92,9 @@ public class Dot {
             return mul.compute(Matrices.wrap(new double[][]{ ((ColumnVector) a).getVector() }), b);
         }
         return Matrices.wrap(new double[][]{             
-            a.getRowCount() < DEFAULT_THRESHOLD ? this.serial(a, b) : this.parallel(a, b)
+            (long) a.getRowCount() * this.numFlops(a) < Thresholds.threshold(Operation.DOT)
+                ? this.serial(a, b) 
+                : this.parallel(a, b)
         });
     }
     
@@ -101,7 +106,7 @@ public class Dot {
      */
     protected double[] parallel(Matrix a, Matrix b) {
         return MapReducer.of(0, a.getRowCount())
-                .flop(this.numFlops(a))
+                .flop(this.numFlops(a), Thresholds.grain(Operation.DOT))
                 .map((begin, end) -> this.dot(a, b, begin, end))
                 .reduce((u, v) -> this.sum(u, v))
                 .get();
@@ -126,6 +131,12 @@ public class Dot {
      * @return  Sum of product of the columns for limited rows
      */
     protected double[] dot(Matrix a, Matrix b, int begin, int end) {
+        if(a instanceof ArrayMatrix && b instanceof ArrayMatrix){
+            return this.dot((ArrayMatrix) a, (ArrayMatrix) b, begin, end);
+        }
+        if(a instanceof FloatMatrix && b instanceof FloatMatrix){
+            return this.dot((FloatMatrix) a, (FloatMatrix) b, begin, end);
+        }
         double[] w = new double[a.getColCount()];
         for(int i = begin; i < end; i++){
             this.dot(a.getRow(i), b.getRow(i), w);
@@ -133,6 +144,49 @@ public class Dot {
         return w;
     }
     
+    /**
+     * Compute the sum of product of columns for limited rows, with both matrices stored
+     * in a single backing array. A single column stored contiguously is reduced by the dot 
+     * product kernel, otherwise the products of each row are accumulated by the mulAdd kernel.
+     * @param a  Matrix A
+     * @param b  Matrix B
+     * @param begin  Begin index of rows of interest
+     * @param end  End index of rows of interest
+     * @return  Sum of product of the columns for limited rows
+     */
+    protected double[] dot(ArrayMatrix a, ArrayMatrix b, int begin, int end) {
+        VectorKernels kernels = VectorKernels.getInstance();
+        if(a.getColCount() == 1 && a.getStride() == 1 && b.getStride() == 1){
+            return new double[]{ 
+                kernels.dot(a.getArray(), a.indexOf(begin, 0), b.getArray(), b.indexOf(begin, 0), end - begin) 
+            };
+        }
+        
+        double[] w = new double[a.getColCount()];
+        for(int i = begin; i < end; i++){
+            kernels.mulAdd(a.getArray(), a.indexOf(i, 0), b.getArray(), b.indexOf(i, 0), w, 0, w.length);
+        }
+        return w;
+    }
+    
+    /**
+     * Compute the sum of product of columns for limited rows, with both matrices stored
+     * in single precision. Products are accumulated in double precision.
+     * @param a  Matrix A
+     * @param b  Matrix B
+     * @param begin  Begin index of rows of interest
+     * @param end  End index of rows of interest
+     * @return  Sum of product of the columns for limited rows
+     */
+    protected double[] dot(FloatMatrix a, FloatMatrix b, int begin, int end) {
+        VectorKernels kernels = VectorKernels.getInstance();
+        double[] w = new double[a.getColCount()];
+        for(int i = begin; i < end; i++){
+            kernels.mulAdd(a.getArray(), a.indexOf(i, 0), b.getArray(), b.indexOf(i, 0), w, 0, w.length);
+        }
+        return w;
+    }
+    
     /**
      * Merge two arrays by summing the elements.
      * @param u  Vector u
@@ -0,0 +1,688 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.DefaultMatrix;
+import jacobi.core.impl.ImmutableMatrix;
+import jacobi.core.util.MapReducer;
+import jacobi.core.util.Throw;
+
+/**
+ * Node of a lazily evaluated matrix expression.
+ * 
+ * <p>An expression is a directed acyclic graph of element-wise operations, i.e.&nbsp;addition, subtraction
+ * and Hadamard product, scalar multiplications and matrix products, with matrices as terminals. 
+ * Building an expression does not compute any element. When evaluated, the matrix products are 
+ * computed first, each only once, and the element-wise operations are fused into a single pass 
+ * row-by-row without intermediate matrices.</p>
+ * 
+ * <p>Scalar multiplications are folded into the coefficient of a matrix product if possible, i.e.&nbsp;
+ * k * (A * B), (k * A) * B and A * (k * B) all computes k * A * B once by Gemm with k as alpha, without 
+ * another pass to scale the product. The resultant matrix of a product is owned by the evaluation, and 
+ * the first product computed in double precision, i.e.&nbsp;an ArrayMatrix or a DefaultMatrix, is 
+ * reused to store the result if the dimension agrees.</p>
+ * 
+ * <p>An expression is itself an immutable matrix, which is evaluated once on first access of elements.
+ * It is favorable to obtain the result by evaluate() instead, which is a mutable matrix.</p>
+ * 
+ * <p>Terminals capture live references of the matrices, not copies. Changes to a matrix after an 
+ * expression is built are visible to evaluations of the expression, except the value cached on 
+ * first access of elements.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public abstract class Expression extends ImmutableMatrix {
+    
+    /**
+     * Create an expression of a matrix.
+     * @param matrix  Input matrix
+     * @return  The matrix if it is already an expression, or a terminal of the matrix otherwise
+     */
+    public static Expression of(Matrix matrix) {
+        Throw.when().isNull(() -> matrix, () -> "No matrix.");
+        return matrix instanceof Expression ? (Expression) matrix : new Terminal(matrix);
+    }
+    
+    /**
+     * Constructor.
+     * @param numRows  Number of rows
+     * @param numCols  Number of columns
+     */
+    protected Expression(int numRows, int numCols) {
+        this.numRows = numRows;
+        this.numCols = numCols;
+    }
+    
+    /**
+     * Element-wise addition with a matrix, i.e.&nbsp;this + B
+     * @param b  Matrix B
+     * @return  Expression of the sum
+     */
+    public Expression add(Matrix b) {
+        return new ElementWise(Operator.ADD, this, Expression.of(b));
+    }
+    
+    /**
+     * Element-wise subtraction with a matrix, i.e.&nbsp;this - B
+     * @param b  Matrix B
+     * @return  Expression of the difference
+     */
+    public Expression sub(Matrix b) {
+        return new ElementWise(Operator.SUB, this, Expression.of(b));
+    }
+    
+    /**
+     * Hadamard product with a matrix
+     * @param b  Matrix B
+     * @return  Expression of the Hadamard product
+     */
+    public Expression hadamard(Matrix b) {
+        return new ElementWise(Operator.MUL, this, Expression.of(b));
+    }
+    
+    /**
+     * Scalar multiplication, i.e.&nbsp;k * this
+     * @param k  Scalar value
+     * @return  Expression of the scaled matrix
+     */
+    public Expression mul(double k) {
+        return new Scale(this, k);
+    }
+    
+    /**
+     * Matrix multiplication, i.e.&nbsp;this * B
+     * @param b  Matrix B
+     * @return  Expression of the product
+     */
+    public Expression mul(Matrix b) {
+        return Product.of(this, Expression.of(b), false, 1.0);
+    }
+    
+    /**
+     * Matrix multiplication with the transpose, i.e.&nbsp;this * B^t
+     * @param b  Matrix B
+     * @return  Expression of the product
+     */
+    public Expression mulT(Matrix b) {
+        return Product.of(this, Expression.of(b), true, 1.0);
+    }
+    
+    /**
+     * Evaluate this expression into a new matrix.
+     * @return  Resultant matrix
+     */
+    public Matrix evaluate() {
+        if(this.numRows == 0 || this.numCols == 0){
+            return Matrices.zeros(this.numRows, this.numCols);
+        }
+        
+        // expressions are only equal to themselves, and products are kept in the order computed
+        Map<Expression, Matrix> values = new LinkedHashMap<>();
+        Matrix dest = this.materialize(values);
+        if(dest != null){
+            return dest;
+        }
+        
+        dest = values.values().stream()
+            .filter(m -> m.getRowCount() == this.numRows && m.getColCount() == this.numCols)
+            .filter(Expression::isDense)
+            .findFirst()
+            .orElseGet(() -> Matrices.zeros(this.numRows, this.numCols));
+        this.fuse(values, dest);
+        return dest;
+    }
+
+    /**
+     * Evaluate this expression into a destination matrix. The destination can be a matrix in 
+     * this expression, which is overwritten after it is read.
+     * @param dest  Destination matrix
+     * @return  Destination matrix
+     * @throws IllegalArgumentException  if the dimension of destination mismatch
+     */
+    public Matrix evaluate(Matrix dest) {
+        Throw.when()
+            .isNull(() -> dest, () -> "No destination matrix.")
+            .isTrue(
+                () -> dest.getRowCount() != this.numRows || dest.getColCount() != this.numCols,
+                () -> "Unable to evaluate a " + this.numRows + "x" + this.numCols 
+                    + " matrix into a " + dest.getRowCount() + "x" + dest.getColCount() + " matrix.");
+        if(this.numRows == 0 || this.numCols == 0){
+            return dest;
+        }
+        return this.evaluate(new LinkedHashMap<>(), dest);
+    }
+    
+    /**
+     * Evaluate this expression into a destination matrix, with products already computed.
+     * @param values  Values of the products computed, which are owned by the evaluation
+     * @param dest  Destination matrix
+     * @return  Destination matrix
+     */
+    protected Matrix evaluate(Map<Expression, Matrix> values, Matrix dest) {
+        Matrix value = this.materialize(values);
+        if(value != null){
+            return new InPlaceOperators.Assign().compute(dest, value);
+        }
+        this.fuse(values, dest);
+        return dest;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.numRows;
+    }
+
+    @Override
+    public int getColCount() {
+        return this.numCols;
+    }
+
+    @Override
+    public double[] getRow(int index) {
+        return Arrays.copyOf(this.value().getRow(index), this.numCols);
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return this.value().get(i, j);
+    }
+
+    @Override
+    public Matrix copy() {
+        return this.evaluate();
+    }
+    
+    /**
+     * Compute the matrix products in this expression, and find the value of this expression if 
+     * no element-wise pass is needed.
+     * @param values  Values of the products computed, which are owned by the evaluation
+     * @return  Value of this expression if available, or null if element-wise pass is needed
+     */
+    protected abstract Matrix materialize(Map<Expression, Matrix> values);
+    
+    /**
+     * Compile this expression into a kernel computing rows of the value.
+     * @param values  Values of the products computed
+     * @return  Kernel of this expression
+     */
+    protected abstract Kernel compile(Map<Expression, Matrix> values);
+    
+    /**
+     * Number of nodes visited in computing an element in the element-wise pass.
+     * @return  Number of nodes
+     */
+    protected abstract int depth();
+    
+    /**
+     * Compute the element-wise pass of this expression into a destination matrix.
+     * @param values  Values of the products computed
+     * @param dest  Destination matrix, which can be a value of a product
+     */
+    protected void fuse(Map<Expression, Matrix> values, Matrix dest) {
+        long numFlop = (long) this.numRows * this.numCols * this.depth();
+        if(numFlop < DEFAULT_NUM_FLOP){
+            this.fuse(values, dest, 0, this.numRows);
+            return;
+        }
+        MapReducer.of(0, this.numRows)
+            .flop((int) Math.min((long) this.numCols * this.depth(), Integer.MAX_VALUE))
+            .forEach((begin, end) -> this.fuse(values, dest, begin, end));
+    }
+    
+    /**
+     * Compute the element-wise pass of this expression into a destination matrix for rows of interest.
+     * @param values  Values of the products computed
+     * @param dest  Destination matrix, which can be a value of a product
+     * @param begin  Begin index of rows
+     * @param end  End index of rows
+     */
+    protected void fuse(Map<Expression, Matrix> values, Matrix dest, int begin, int end) {
+        Kernel kernel = this.compile(values);
+        double[] row = new double[this.numCols];
+        for(int i = begin; i < end; i++){
+            kernel.apply(i, row);
+            dest.setRow(i, row);
+        }
+    }
+    
+    /**
+     * Find the value of an operand of a matrix product, evaluating element-wise operations if necessary.
+     * @param values  Values of the products computed
+     * @return  Value of this expression
+     */
+    protected Matrix value(Map<Expression, Matrix> values) {
+        Matrix val = this.materialize(values);
+        if(val != null){
+            return val;
+        }
+        
+        Matrix dest = Matrices.zeros(this.numRows, this.numCols);
+        this.fuse(values, dest);
+        return dest;
+    }
+    
+    /**
+     * Create a kernel reading the scaled rows of a matrix.
+     * @param matrix  Input matrix
+     * @param k  Scalar coefficient
+     * @return  Kernel of the scaled matrix
+     */
+    protected static Kernel kernel(Matrix matrix, double k) {
+        if(matrix instanceof ArrayMatrix){
+            ArrayMatrix array = (ArrayMatrix) matrix;
+            double[] elem = array.getArray();
+            return (i, out) -> {
+                int offset = array.indexOf(i, 0);
+                for(int j = 0; j < out.length; j++){
+                    out[j] = k * elem[offset + j];
+                }
+            };
+        }
+        
+        return (i, out) -> {
+            double[] row = matrix.getRow(i);
+            for(int j = 0; j < out.length; j++){
+                out[j] = k * row[j];
+            }
+        };
+    }
+    
+    /**
+     * Determine if a matrix stores elements in double precision in memory, which can be overwritten 
+     * as the destination of an evaluation.
+     * @param matrix  Input matrix
+     * @return  True if the matrix is an ArrayMatrix or a DefaultMatrix, false otherwise
+     */
+    protected static boolean isDense(Matrix matrix) {
+        return matrix instanceof ArrayMatrix || matrix instanceof DefaultMatrix;
+    }
+    
+    /**
+     * Get the value of this expression, which is evaluated once when first accessed.
+     * @return  Value of this expression
+     */
+    protected Matrix value() {
+        Matrix val = this.value;
+        if(val == null){
+            synchronized(this){
+                if(this.value == null){
+                    this.value = this.evaluate();
+                }
+                val = this.value;
+            }
+        }
+        return val;
+    }
+    
+    /**
+     * Default minimum number of flop to justify computing the element-wise pass in parallel.
+     */
+    protected static final long DEFAULT_NUM_FLOP = 512 * 512;
+    
+    private int numRows, numCols;
+    private volatile Matrix value;
+    
+    /**
+     * Compiled kernel of an expression, which computes a row of the value of an expression.
+     * A kernel may contain buffers and is not to be used concurrently.
+     */
+    protected interface Kernel {
+        
+        /**
+         * Compute a row of the value of an expression.
+         * @param index  Index of row
+         * @param out  Output row values
+         */
+        public void apply(int index, double[] out);
+        
+    }
+    
+    /**
+     * Element-wise binary operators.
+     */
+    protected enum Operator {
+        /**
+         * Addition
+         */
+        ADD {
+
+            @Override
+            public void apply(double[] u, double[] v) {
+                for(int i = 0; i < u.length; i++){
+                    u[i] += v[i];
+                }
+            }
+            
+        },
+        /**
+         * Subtraction
+         */
+        SUB {
+
+            @Override
+            public void apply(double[] u, double[] v) {
+                for(int i = 0; i < u.length; i++){
+                    u[i] -= v[i];
+                }
+            }
+            
+        },
+        /**
+         * Multiplication
+         */
+        MUL {
+
+            @Override
+            public void apply(double[] u, double[] v) {
+                for(int i = 0; i < u.length; i++){
+                    u[i] *= v[i];
+                }
+            }
+            
+        };
+        
+        /**
+         * Apply this operator element-wise in place, i.e.&nbsp;u = u (op) v
+         * @param u  1st operand and output
+         * @param v  2nd operand
+         */
+        public abstract void apply(double[] u, double[] v);
+    }
+    
+    /**
+     * Terminal of an expression, i.e.&nbsp;a matrix.
+     */
+    protected static class Terminal extends Expression {
+
+        /**
+         * Constructor.
+         * @param matrix  Matrix value
+         */
+        public Terminal(Matrix matrix) {
+            super(matrix.getRowCount(), matrix.getColCount());
+            this.matrix = matrix;
+        }
+
+        @Override
+        public Matrix evaluate() {
+            return this.matrix.copy();
+        }
+
+        @Override
+        protected Matrix value() {
+            return this.matrix;
+        }
+
+        @Override
+        protected Matrix value(Map<Expression, Matrix> values) {
+            return this.matrix;
+        }
+
+        @Override
+        public Matrix evaluate(Matrix dest) {
+            Throw.when()
+                .isNull(() -> dest, () -> "No destination matrix.");
+            return new InPlaceOperators.Assign().compute(dest, this.matrix);
+        }
+
+        @Override
+        protected Matrix materialize(Map<Expression, Matrix> values) {
+            return null;
+        }
+
+        @Override
+        protected Kernel compile(Map<Expression, Matrix> values) {
+            return Expression.kernel(this.matrix, 1.0);
+        }
+
+        @Override
+        protected int depth() {
+            return 1;
+        }
+        
+        private Matrix matrix;
+    }
+    
+    /**
+     * Element-wise operation of two expressions.
+     */
+    protected static class ElementWise extends Expression {
+
+        /**
+         * Constructor.
+         * @param oper  Element-wise operator
+         * @param left  Left operand
+         * @param right  Right operand
+         * @throws IllegalArgumentException  if dimension mismatch
+         */
+        public ElementWise(Operator oper, Expression left, Expression right) {
+            super(left.getRowCount(), left.getColCount());
+            Throw.when()
+                .isFalse(
+                    () -> left.getRowCount() == right.getRowCount(),
+                    () -> "Row count mismatch. "
+                          +  left.getRowCount() 
+                          + " <> " 
+                          + right.getRowCount())
+                .isFalse(
+                    () -> left.getColCount() == right.getColCount(),
+                    () -> "Column count mismatch."
+                          +  left.getColCount() 
+                          + " <> " 
+                          + right.getColCount());
+            this.oper = oper;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        protected Matrix materialize(Map<Expression, Matrix> values) {
+            this.left.materialize(values);
+            this.right.materialize(values);
+            return null;
+        }
+
+        @Override
+        protected Kernel compile(Map<Expression, Matrix> values) {
+            Kernel u = this.left.compile(values);
+            Kernel v = this.right.compile(values);
+            double[] buf = new double[this.getColCount()];
+            return (i, out) -> {
+                u.apply(i, out);
+                v.apply(i, buf);
+                this.oper.apply(out, buf);
+            };
+        }
+
+        @Override
+        protected int depth() {
+            return 1 + this.left.depth() + this.right.depth();
+        }
+        
+        private Operator oper;
+        private Expression left, right;
+    }
+    
+    /**
+     * Scalar multiplication of an expression.
+     */
+    protected static class Scale extends Expression {
+
+        /**
+         * Constructor.
+         * @param base  Base expression
+         * @param k  Scalar value
+         */
+        public Scale(Expression base, double k) {
+            super(base.getRowCount(), base.getColCount());
+            this.base = base;
+            this.k = k;
+        }
+
+        @Override
+        public Expression mul(double k) {
+            return new Scale(this.base, this.k * k);
+        }
+
+        @Override
+        protected Matrix materialize(Map<Expression, Matrix> values) {
+            this.base.materialize(values);
+            return null;
+        }
+
+        @Override
+        protected Kernel compile(Map<Expression, Matrix> values) {
+            if(this.base instanceof Terminal){
+                return Expression.kernel(((Terminal) this.base).matrix, this.k);
+            }
+            
+            Kernel kernel = this.base.compile(values);
+            return (i, out) -> {
+                kernel.apply(i, out);
+                for(int j = 0; j < out.length; j++){
+                    out[j] *= this.k;
+                }
+            };
+        }
+
+        @Override
+        protected int depth() {
+            return 1 + this.base.depth();
+        }
+        
+        private Expression base;
+        private double k;
+    }
+    
+    /**
+     * Matrix product of two expressions with a scalar coefficient, i.e.&nbsp;k * A * B or k * A * B^t.
+     */
+    protected static class Product extends Expression {
+        
+        /**
+         * Create a product of two expressions, with scalar multiplications of the operands folded 
+         * into the coefficient.
+         * @param left  Left operand
+         * @param right  Right operand
+         * @param transpose  True to multiply with the transpose of right operand, false otherwise
+         * @param k  Scalar coefficient
+         * @return  Expression of the product
+         * @throws IllegalArgumentException  if dimension mismatch
+         */
+        public static Product of(Expression left, Expression right, boolean transpose, double k) {
+            double coeff = k;
+            Expression a = left;
+            Expression b = right;
+            if(a instanceof Scale){
+                coeff *= ((Scale) a).k;
+                a = ((Scale) a).base;
+            }
+            
+            if(b instanceof Scale){
+                coeff *= ((Scale) b).k;
+                b = ((Scale) b).base;
+            }
+            return new Product(a, b, transpose, coeff);
+        }
+
+        /**
+         * Constructor.
+         * @param left  Left operand
+         * @param right  Right operand
+         * @param transpose  True to multiply with the transpose of right operand, false otherwise
+         * @param k  Scalar coefficient
+         * @throws IllegalArgumentException  if dimension mismatch
+         */
+        public Product(Expression left, Expression right, boolean transpose, double k) {
+            super(left.getRowCount(), transpose ? right.getRowCount() : right.getColCount());
+            Throw.when()
+                .isTrue(
+                    () -> left.getColCount() != (transpose ? right.getColCount() : right.getRowCount()), 
+                    () -> "Dimension mismatch. Unable to multiply a "
+                        + left.getRowCount()+ "x" + left.getColCount()
+                        + " matrix with a "
+                        + right.getRowCount()+ "x" + right.getColCount()
+                        + " matrix" + (transpose ? " transposed." : "."));
+            this.left = left;
+            this.right = right;
+            this.transpose = transpose;
+            this.k = k;
+        }
+
+        @Override
+        public Expression mul(double k) {
+            return new Product(this.left, this.right, this.transpose, this.k * k);
+        }
+
+        @Override
+        protected Matrix evaluate(Map<Expression, Matrix> values, Matrix dest) {
+            Matrix a = this.left.value(values);
+            Matrix b = this.right.value(values);
+            if(dest == a || dest == b){
+                return super.evaluate(values, dest);
+            }
+            
+            Gemm gemm = this.transpose ? new Gemm.Transposed() : new Gemm();
+            return gemm.compute(dest, this.k, a, b, 0.0);
+        }
+
+        @Override
+        protected Matrix materialize(Map<Expression, Matrix> values) {
+            Matrix value = values.get(this);
+            if(value == null){
+                Matrix a = this.left.value(values);
+                Matrix b = this.right.value(values);
+                if(this.k == 1.0){
+                    value = this.transpose ? new MulT().compute(a, b) : new Mul().compute(a, b);
+                }else{
+                    Gemm gemm = this.transpose ? new Gemm.Transposed() : new Gemm();
+                    value = gemm.compute(Matrices.zeros(this.getRowCount(), this.getColCount()), this.k, a, b, 0.0);
+                }
+                values.put(this, value);
+            }
+            return value;
+        }
+
+        @Override
+        protected Kernel compile(Map<Expression, Matrix> values) {
+            return Expression.kernel(values.get(this), 1.0);
+        }
+
+        @Override
+        protected int depth() {
+            return 1;
+        }
+        
+        private Expression left, right;
+        private boolean transpose;
+        private double k;
+    }
+}
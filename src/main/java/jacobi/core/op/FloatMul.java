@@ -0,0 +1,107 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import jacobi.api.annotations.Pure;
+import jacobi.core.impl.FloatMatrix;
+import jacobi.core.util.MapReducer;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Throw;
+import jacobi.core.util.VectorKernels;
+
+/**
+ * Matrix multiplication of matrices stored in single precision, i.e.&nbsp;computes C = A * B.
+ * 
+ * <p>Each row of C is accumulated in double precision by rows of B directly from the float storage, 
+ * and narrowed to float only when stored, s.t.&nbsp;no widened copy of A or B is made and rounding 
+ * errors do not accumulate in single precision.</p>
+ * 
+ * @author Y.K. Chan
+ */
+@Pure
+public class FloatMul {
+    
+    /**
+     * Compute matrix C where C = A * B.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @return  Resultant matrix C in single precision
+     * @throws IllegalArgumentException  if dimension mismatch
+     */
+    public FloatMatrix compute(FloatMatrix a, FloatMatrix b) {
+        Throw.when()
+            .isNull(() -> a, () -> "First operand is missing.")
+            .isNull(() -> b, () -> "Second operand is missing.")
+            .isTrue(
+                () -> a.getColCount() != b.getRowCount(), 
+                () -> "Dimension mismatch. Unable to multiply a "
+                    + a.getRowCount()+ "x" + a.getColCount()
+                    + " matrix with a "
+                    + b.getRowCount()+ "x" + b.getColCount()
+                    + " matrix.");
+        
+        FloatMatrix ans = FloatMatrix.of(a.getRowCount(), b.getColCount());
+        long numFlop = (long) a.getRowCount() * a.getColCount() * b.getColCount();
+        if(a.getRowCount() < 2 || numFlop < Thresholds.threshold(Operation.MUL)){
+            this.serial(a, b, ans, 0, a.getRowCount());
+        }else{
+            MapReducer.of(0, a.getRowCount())
+                .flop((int) Math.min(numFlop / a.getRowCount(), Integer.MAX_VALUE), Thresholds.grain(Operation.MUL))
+                .forEach((begin, end) -> this.serial(a, b, ans, begin, end));
+        }
+        return ans;
+    }
+    
+    /**
+     * Fill the rows of interest of resultant matrix C where C = A * B.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param ans  Resultant matrix C
+     * @param begin  Begin index of rows of interest
+     * @param end  End index of rows of interest
+     */
+    protected void serial(FloatMatrix a, FloatMatrix b, FloatMatrix ans, int begin, int end) {
+        float[] u = a.getArray();
+        float[] v = b.getArray();
+        float[] w = ans.getArray();
+        
+        int numCols = ans.getColCount();
+        double[] acc = new double[numCols];
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int i = begin; i < end; i++){
+            int rowA = a.indexOf(i, 0);
+            for(int k = 0; k < a.getColCount(); k++){
+                kernels.axpy(u[rowA + k], v, b.indexOf(k, 0), acc, 0, numCols);
+            }
+            
+            int rowC = ans.indexOf(i, 0);
+            for(int j = 0; j < numCols; j++){
+                w[rowC + j] = (float) acc[j];
+                acc[j] = 0.0;
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,249 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.util.MapReducer;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Throw;
+
+/**
+ * General matrix multiplication in place, i.e.&nbsp;computes C = alpha * A * B + beta * C.
+ * 
+ * <p>The resultant matrix C is updated in place s.t.&nbsp;no matrix is allocated. When beta is zero,
+ * C is overwritten without being read, i.e.&nbsp;NaN in C is not propagated.</p>
+ * 
+ * <p>Large products into a matrix stored in a single array is computed by PackedMul, which 
+ * allocates packing buffers only, otherwise each row of C is accumulated by rows of B in place.</p>
+ * 
+ * <p>C must not be the same instance of A or B. An operand sharing storage with C otherwise, 
+ * e.g.&nbsp;a view of C or an overlapping region of the same array, is copied before C is updated.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class Gemm {
+    
+    /**
+     * Constructor.
+     */
+    public Gemm() {
+        this.mul = new Mul();
+        this.packed = new PackedMul();
+        this.scale = new InPlaceOperators.Scale();
+    }
+    
+    /**
+     * Compute C = alpha * A * B + beta * C in place.
+     * @param c  Resultant matrix C
+     * @param alpha  Scalar alpha
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param beta  Scalar beta
+     * @return  Resultant matrix C
+     * @throws IllegalArgumentException  if dimension mismatch or C is the same instance as A or B
+     */
+    public Matrix compute(Matrix c, double alpha, Matrix a, Matrix b, double beta) {
+        this.validate(c, a, b);
+        return this.accumulate(c, alpha, 
+            InPlaceOperators.isShared(c, a) ? ArrayMatrix.of(a) : a, 
+            InPlaceOperators.isShared(c, b) ? ArrayMatrix.of(b) : b, 
+            beta
+        );
+    }
+    
+    /**
+     * Validate the dimensions of the operands.
+     * @param c  Resultant matrix C
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @throws IllegalArgumentException  if dimension mismatch or C is the same instance as A or B
+     */
+    protected void validate(Matrix c, Matrix a, Matrix b) {
+        Throw.when()
+            .isNull(() -> a, () -> "First operand is missing.")
+            .isNull(() -> b, () -> "Second operand is missing.")
+            .isNull(() -> c, () -> "Resultant matrix is missing.")
+            .isTrue(
+                () -> a.getColCount() != this.depthOf(b) 
+                   || a.getRowCount() != c.getRowCount()
+                   || this.widthOf(b) != c.getColCount(), 
+                () -> "Dimension mismatch. Unable to multiply a "
+                    + a.getRowCount()+ "x" + a.getColCount()
+                    + " matrix with a "
+                    + b.getRowCount()+ "x" + b.getColCount()
+                    + " matrix" + (this.isTransposed() ? " transposed" : "")
+                    + " into a "
+                    + c.getRowCount()+ "x" + c.getColCount()
+                    + " matrix.")
+            .isTrue(
+                () -> c == a || c == b, 
+                () -> "Resultant matrix can not be an operand.");
+    }
+    
+    /**
+     * Compute C = alpha * A * B + beta * C in place, given that A and B do not share storage with C.
+     * @param c  Resultant matrix C
+     * @param alpha  Scalar alpha
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param beta  Scalar beta
+     * @return  Resultant matrix C
+     */
+    protected Matrix accumulate(Matrix c, double alpha, Matrix a, Matrix b, double beta) {
+        if(beta != 1.0){
+            this.scale.compute(c, beta);
+        }
+        
+        if(alpha == 0.0 || a.getColCount() == 0){
+            return c;
+        }
+        
+        if(!this.isTransposed() && c instanceof ArrayMatrix && this.mul.isPackable(a, b)){
+            this.packed.compute(alpha, a, b, (ArrayMatrix) c);
+            return c;
+        }
+        
+        long numFlop = (long) c.getRowCount() * c.getColCount() * a.getColCount();
+        if(numFlop < Thresholds.threshold(Operation.MUL)){
+            this.serial(c, alpha, a, b, 0, c.getRowCount());
+        }else{
+            MapReducer.of(0, c.getRowCount())
+                .flop((int) Math.min(numFlop / c.getRowCount(), Integer.MAX_VALUE), Thresholds.grain(Operation.MUL))
+                .forEach((begin, end) -> this.serial(c, alpha, a, b, begin, end));
+        }
+        return c;
+    }
+    
+    /**
+     * Compute C = C + alpha * A * B for rows of interest. Each row of C is accumulated by rows of B 
+     * in the order of storage.
+     * @param c  Resultant matrix C
+     * @param alpha  Scalar alpha
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param begin  Begin index of rows
+     * @param end  End index of rows
+     */
+    protected void serial(Matrix c, double alpha, Matrix a, Matrix b, int begin, int end) {
+        int n = c.getColCount();
+        int len = a.getColCount();
+        ArrayMatrix arrayC = c instanceof ArrayMatrix ? (ArrayMatrix) c : null;
+        ArrayMatrix arrayA = a instanceof ArrayMatrix ? (ArrayMatrix) a : null;
+        ArrayMatrix arrayB = b instanceof ArrayMatrix ? (ArrayMatrix) b : null;
+        for(int i = begin; i < end; i++){
+            double[] w = arrayC == null ? c.getRow(i) : arrayC.getArray();
+            int offset = arrayC == null ? 0 : arrayC.indexOf(i, 0);
+            
+            double[] u = arrayA == null ? a.getRow(i) : arrayA.getArray();
+            int rowA = arrayA == null ? 0 : arrayA.indexOf(i, 0);
+            for(int k = 0; k < len; k++){
+                double elem = alpha * u[rowA + k];
+                double[] v = arrayB == null ? b.getRow(k) : arrayB.getArray();
+                int rowB = arrayB == null ? 0 : arrayB.indexOf(k, 0);
+                for(int j = 0; j < n; j++){
+                    w[offset + j] += elem * v[rowB + j];
+                }
+            }
+            
+            if(arrayC == null){
+                c.setRow(i, w);
+            }
+        }
+    }
+    
+    /**
+     * Determine if the second operand is transposed.
+     * @return  True if computing alpha * A * B^t + beta * C, false otherwise
+     */
+    protected boolean isTransposed() {
+        return false;
+    }
+    
+    /**
+     * Find the number of rows of the second operand after transpose if needed.
+     * @param b  Input matrix B
+     * @return  Number of rows of the second operand
+     */
+    protected int depthOf(Matrix b) {
+        return this.isTransposed() ? b.getColCount() : b.getRowCount();
+    }
+    
+    /**
+     * Find the number of columns of the second operand after transpose if needed.
+     * @param b  Input matrix B
+     * @return  Number of columns of the second operand
+     */
+    protected int widthOf(Matrix b) {
+        return this.isTransposed() ? b.getRowCount() : b.getColCount();
+    }
+    
+    private Mul mul;
+    private PackedMul packed;
+    private InPlaceOperators.Scale scale;
+    
+    /**
+     * General matrix multiplication with the transpose of the second operand in place, 
+     * i.e.&nbsp;computes C = alpha * A * B^t + beta * C.
+     */
+    public static class Transposed extends Gemm {
+
+        @Override
+        protected void serial(Matrix c, double alpha, Matrix a, Matrix b, int begin, int end) {
+            int n = c.getColCount();
+            int len = a.getColCount();
+            ArrayMatrix arrayC = c instanceof ArrayMatrix ? (ArrayMatrix) c : null;
+            ArrayMatrix arrayA = a instanceof ArrayMatrix ? (ArrayMatrix) a : null;
+            ArrayMatrix arrayB = b instanceof ArrayMatrix ? (ArrayMatrix) b : null;
+            for(int i = begin; i < end; i++){
+                double[] w = arrayC == null ? c.getRow(i) : arrayC.getArray();
+                int offset = arrayC == null ? 0 : arrayC.indexOf(i, 0);
+                
+                double[] u = arrayA == null ? a.getRow(i) : arrayA.getArray();
+                int rowA = arrayA == null ? 0 : arrayA.indexOf(i, 0);
+                for(int j = 0; j < n; j++){
+                    double[] v = arrayB == null ? b.getRow(j) : arrayB.getArray();
+                    int rowB = arrayB == null ? 0 : arrayB.indexOf(j, 0);
+                    
+                    double dot = 0.0;
+                    for(int k = 0; k < len; k++){
+                        dot += u[rowA + k] * v[rowB + k];
+                    }
+                    w[offset + j] += alpha * dot;
+                }
+                
+                if(arrayC == null){
+                    c.setRow(i, w);
+                }
+            }
+        }
+
+        @Override
+        protected boolean isTransposed() {
+            return true;
+        }
+        
+    }
+}
@@ -0,0 +1,324 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.SelectedMatrix;
+import jacobi.core.impl.TransposedMatrix;
+import jacobi.core.util.MapReducer;
+import jacobi.core.util.Throw;
+
+/**
+ * Implementation classes for operators that update the first operand in place.
+ * 
+ * <p>Rows of matrices stored in a single array are accessed directly, otherwise each row is
+ * obtained by getRow and written back by setRow, s.t.&nbsp;no object is allocated for matrices 
+ * that return the inner row array, e.g.&nbsp;DefaultMatrix.</p>
+ * 
+ * <p>An operand sharing storage with the updated matrix in a different layout, e.g.&nbsp;an 
+ * overlapping region of the same array, is copied before the update.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class InPlaceOperators {
+    
+    /**
+     * Matrix addition in place, i.e.&nbsp;A = A + B.
+     */
+    public static class Add extends Axpy {
+        
+        /**
+         * Compute A = A + B in place.
+         * @param a  Input matrix A
+         * @param b  Input matrix B
+         * @return  Matrix A
+         * @throws IllegalArgumentException  if dimension mismatch
+         */
+        public Matrix compute(Matrix a, Matrix b) {
+            return this.compute(a, 1.0, b);
+        }
+        
+    }
+    
+    /**
+     * Matrix subtraction in place, i.e.&nbsp;A = A - B.
+     */
+    public static class Sub extends Axpy {
+        
+        /**
+         * Compute A = A - B in place.
+         * @param a  Input matrix A
+         * @param b  Input matrix B
+         * @return  Matrix A
+         * @throws IllegalArgumentException  if dimension mismatch
+         */
+        public Matrix compute(Matrix a, Matrix b) {
+            return this.compute(a, -1.0, b);
+        }
+        
+    }
+    
+    /**
+     * Scaled matrix addition in place, i.e.&nbsp;A = A + k * B.
+     */
+    public static class Axpy extends RowUpdate {
+        
+        /**
+         * Compute A = A + k * B in place.
+         * @param a  Input matrix A
+         * @param k  Scalar k
+         * @param b  Input matrix B
+         * @return  Matrix A
+         * @throws IllegalArgumentException  if dimension mismatch
+         */
+        public Matrix compute(Matrix a, double k, Matrix b) {
+            return this.update(a, k, b);
+        }
+
+        @Override
+        protected void apply(double[] u, int uBegin, double k, double[] v, int vBegin, int len) {
+            for(int j = 0; j < len; j++){
+                u[uBegin + j] += k * v[vBegin + j];
+            }
+        }
+        
+    }
+    
+    /**
+     * Hadamard product in place, i.e.&nbsp;A = A .* B.
+     */
+    public static class Hadamard extends RowUpdate {
+        
+        /**
+         * Compute the Hadamard product of A and B in place of A.
+         * @param a  Input matrix A
+         * @param b  Input matrix B
+         * @return  Matrix A
+         * @throws IllegalArgumentException  if dimension mismatch
+         */
+        public Matrix compute(Matrix a, Matrix b) {
+            return this.update(a, 1.0, b);
+        }
+
+        @Override
+        protected void apply(double[] u, int uBegin, double k, double[] v, int vBegin, int len) {
+            for(int j = 0; j < len; j++){
+                u[uBegin + j] *= v[vBegin + j];
+            }
+        }
+        
+    }
+    
+    /**
+     * Assignment of elements, i.e.&nbsp;A = B.
+     */
+    public static class Assign extends RowUpdate {
+        
+        /**
+         * Copy the elements of B into A.
+         * @param a  Input matrix A
+         * @param b  Input matrix B
+         * @return  Matrix A
+         * @throws IllegalArgumentException  if dimension mismatch
+         */
+        public Matrix compute(Matrix a, Matrix b) {
+            return a == b ? a : this.update(a, 1.0, b);
+        }
+
+        @Override
+        protected void apply(double[] u, int uBegin, double k, double[] v, int vBegin, int len) {
+            System.arraycopy(v, vBegin, u, uBegin, len);
+        }
+        
+    }
+    
+    /**
+     * Scalar multiplication in place, i.e.&nbsp;A = k * A. When k is zero, A is filled with 
+     * zeros without being read.
+     */
+    public static class Scale extends RowUpdate {
+        
+        /**
+         * Compute A = k * A in place.
+         * @param a  Input matrix A
+         * @param k  Scalar k
+         * @return  Matrix A
+         */
+        public Matrix compute(Matrix a, double k) {
+            return k == 1.0 ? a : this.update(a, k, a);
+        }
+
+        @Override
+        protected void apply(double[] u, int uBegin, double k, double[] v, int vBegin, int len) {
+            if(k == 0.0){
+                for(int j = 0; j < len; j++){
+                    u[uBegin + j] = 0.0;
+                }
+                return;
+            }
+            
+            for(int j = 0; j < len; j++){
+                u[uBegin + j] *= k;
+            }
+        }
+        
+    }
+    
+    /**
+     * Common parent class for updating a matrix A in place row-by-row by a matrix B
+     * in the same dimension.
+     */
+    protected abstract static class RowUpdate {
+        
+        /**
+         * Update A in place row-by-row by B with a scalar parameter.
+         * @param a  Input matrix A
+         * @param k  Scalar parameter
+         * @param b  Input matrix B
+         * @return  Matrix A
+         * @throws IllegalArgumentException  if dimension mismatch
+         */
+        protected Matrix update(Matrix a, double k, Matrix b) {
+            Throw.when()
+                .isNull(() -> a, () -> "1st operand is null.")
+                .isNull(() -> b, () -> "2nd operand is null.")
+                .isFalse(
+                    () -> a.getRowCount() == b.getRowCount(),
+                    () -> "Row count mismatch. "
+                          +  a.getRowCount() 
+                          + " <> " 
+                          + b.getRowCount())
+                .isFalse(
+                    () -> a.getColCount() == b.getColCount(),
+                    () -> "Column count mismatch."
+                          +  a.getColCount() 
+                          + " <> " 
+                          + b.getColCount());
+            
+            Matrix src = a == b || isSameLayout(a, b) || !isShared(a, b) ? b : ArrayMatrix.of(b);
+            if((long) a.getRowCount() * a.getColCount() < DEFAULT_NUM_FLOP){
+                this.serial(a, k, src, 0, a.getRowCount());
+            }else{
+                MapReducer.of(0, a.getRowCount())
+                    .flop(a.getColCount())
+                    .forEach((begin, end) -> this.serial(a, k, src, begin, end));
+            }
+            return a;
+        }
+        
+        /**
+         * Determine if two matrices are stored in the same positions of the same array.
+         * @param a  Input matrix A
+         * @param b  Input matrix B
+         * @return  True if A and B are in the same layout of the same array, false otherwise
+         */
+        protected boolean isSameLayout(Matrix a, Matrix b) {
+            if(!(a instanceof ArrayMatrix) || !(b instanceof ArrayMatrix)){
+                return false;
+            }
+            ArrayMatrix u = (ArrayMatrix) a;
+            ArrayMatrix v = (ArrayMatrix) b;
+            return u.getArray() == v.getArray()
+                && u.getOffset() == v.getOffset()
+                && u.getStride() == v.getStride();
+        }
+        
+        /**
+         * Update rows of interest of A in place.
+         * @param a  Input matrix A
+         * @param k  Scalar parameter
+         * @param b  Input matrix B
+         * @param begin  Begin index of rows
+         * @param end  End index of rows
+         */
+        protected void serial(Matrix a, double k, Matrix b, int begin, int end) {
+            for(int i = begin; i < end; i++){
+                double[] u = a instanceof ArrayMatrix ? ((ArrayMatrix) a).getArray() : a.getRow(i);
+                int rowA = a instanceof ArrayMatrix ? ((ArrayMatrix) a).indexOf(i, 0) : 0;
+                
+                double[] v = a == b ? u : b instanceof ArrayMatrix ? ((ArrayMatrix) b).getArray() : b.getRow(i);
+                int rowB = a == b ? rowA : b instanceof ArrayMatrix ? ((ArrayMatrix) b).indexOf(i, 0) : 0;
+                
+                this.apply(u, rowA, k, v, rowB, a.getColCount());
+                if(!(a instanceof ArrayMatrix)){
+                    a.setRow(i, u);
+                }
+            }
+        }
+        
+        /**
+         * Update a row of A in place.
+         * @param u  Array of row of A
+         * @param uBegin  Begin index of the row in u
+         * @param k  Scalar parameter
+         * @param v  Array of row of B
+         * @param vBegin  Begin index of the row in v
+         * @param len  Length of the row
+         */
+        protected abstract void apply(double[] u, int uBegin, double k, double[] v, int vBegin, int len);
+        
+    }
+    
+    /**
+     * Determine if two matrices may share storage, i.e.&nbsp;the same instance, views of the same
+     * matrix, or overlapping regions of the same array. Other views are regarded as disjoint.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @return  True if A and B may share storage, false otherwise
+     */
+    static boolean isShared(Matrix a, Matrix b) {
+        if(a == b){
+            return true;
+        }
+        Matrix u = storageOf(a);
+        Matrix v = storageOf(b);
+        if(u == v){
+            return true;
+        }
+        return u instanceof ArrayMatrix 
+            && v instanceof ArrayMatrix 
+            && ((ArrayMatrix) u).overlaps((ArrayMatrix) v);
+    }
+    
+    /**
+     * Find the matrix that holds the elements of a view.
+     * @param matrix  Input matrix
+     * @return  Base matrix of the view, or the matrix itself if not a view
+     */
+    private static Matrix storageOf(Matrix matrix) {
+        Matrix base = matrix;
+        while(true){
+            if(base instanceof SelectedMatrix){
+                base = ((SelectedMatrix) base).getBase();
+            }else if(base instanceof TransposedMatrix){
+                base = ((TransposedMatrix) base).getBase();
+            }else{
+                return base;
+            }
+        }
+    }
+    
+    private static final long DEFAULT_NUM_FLOP = 512 * 512;
+}
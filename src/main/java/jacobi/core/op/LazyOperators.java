@@ -0,0 +1,192 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import jacobi.api.Matrix;
+import jacobi.api.annotations.Pure;
+import jacobi.api.ext.LazyOp;
+import jacobi.core.facade.FacadeProxy;
+import jacobi.core.util.Throw;
+
+/**
+ * Implementation classes for lazily evaluated operators, which build an Expression instead of 
+ * computing the result.
+ * 
+ * @author Y.K. Chan
+ */
+public class LazyOperators {
+    
+    /**
+     * Begin a chain of lazily evaluated operators.
+     */
+    @Pure
+    public static class Lazy {
+        
+        /**
+         * Begin a chain of lazily evaluated operators on a matrix.
+         * @param a  Input matrix A
+         * @return  Lazy operators on A
+         */
+        public LazyOp compute(Matrix a) {
+            return FacadeProxy.of(LazyOp.class, a);
+        }
+        
+    }
+    
+    /**
+     * Lazy matrix addition.
+     */
+    @Pure
+    public static class Add {
+        
+        /**
+         * Build expression of A + B.
+         * @param a  Input matrix A
+         * @param b  Input matrix B
+         * @return  Expression of A + B
+         */
+        public Matrix compute(Matrix a, Matrix b) {
+            return Expression.of(a).add(b);
+        }
+        
+    }
+    
+    /**
+     * Lazy matrix subtraction.
+     */
+    @Pure
+    public static class Sub {
+        
+        /**
+         * Build expression of A - B.
+         * @param a  Input matrix A
+         * @param b  Input matrix B
+         * @return  Expression of A - B
+         */
+        public Matrix compute(Matrix a, Matrix b) {
+            return Expression.of(a).sub(b);
+        }
+        
+    }
+    
+    /**
+     * Lazy Hadamard product and scalar multiplication.
+     */
+    @Pure
+    public static class Hadamard {
+        
+        /**
+         * Build expression of the Hadamard product of A and B.
+         * @param a  Input matrix A
+         * @param b  Input matrix B
+         * @return  Expression of the Hadamard product
+         */
+        public Matrix compute(Matrix a, Matrix b) {
+            return Expression.of(a).hadamard(b);
+        }
+        
+        /**
+         * Build expression of k * A.
+         * @param a  Input matrix A
+         * @param k  Scalar value k
+         * @return  Expression of k * A
+         */
+        public Matrix compute(Matrix a, double k) {
+            return Expression.of(a).mul(k);
+        }
+        
+    }
+    
+    /**
+     * Lazy matrix multiplication.
+     */
+    @Pure
+    public static class Mul {
+        
+        /**
+         * Build expression of A * B.
+         * @param a  Input matrix A
+         * @param b  Input matrix B
+         * @return  Expression of A * B
+         */
+        public Matrix compute(Matrix a, Matrix b) {
+            return Expression.of(a).mul(b);
+        }
+        
+    }
+    
+    /**
+     * Lazy matrix multiplication with transpose.
+     */
+    @Pure
+    public static class MulT {
+        
+        /**
+         * Build expression of A * B^t.
+         * @param a  Input matrix A
+         * @param b  Input matrix B
+         * @return  Expression of A * B^t
+         */
+        public Matrix compute(Matrix a, Matrix b) {
+            return Expression.of(a).mulT(b);
+        }
+        
+    }
+    
+    /**
+     * Evaluation of an expression into a destination matrix.
+     */
+    @Pure
+    public static class Into {
+        
+        /**
+         * Evaluate an expression into a destination matrix.
+         * @param a  Expression, or a matrix
+         * @param dest  Destination matrix
+         * @return  Destination matrix
+         */
+        public Matrix compute(Matrix a, Matrix dest) {
+            return Expression.of(a).evaluate(dest);
+        }
+        
+    }
+    
+    /**
+     * Evaluation of an expression.
+     */
+    @Pure
+    public static class Evaluate {
+        
+        /**
+         * Evaluate an expression.
+         * @param a  Expression, or a matrix
+         * @return  Value of the expression
+         */
+        public Matrix compute(Matrix a) {
+            Throw.when().isNull(() -> a, () -> "No expression.");
+            return a instanceof Expression ? ((Expression) a).evaluate() : a;
+        }
+        
+    }
+}
@@ -26,15 +26,27 @@ package jacobi.core.op;
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
 import jacobi.api.annotations.Pure;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.BlockMatrix;
 import jacobi.core.impl.ColumnVector;
+import jacobi.core.impl.FloatMatrix;
+import jacobi.core.impl.SparseMatrix;
+import jacobi.core.impl.TransposedMatrix;
+import jacobi.core.util.MapReducer;
 import jacobi.core.util.ParallelSupplier;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
 import jacobi.core.util.Throw;
+import jacobi.core.util.VectorKernels;
 import java.util.function.IntConsumer;
 import java.util.stream.IntStream;
 
 /**
  * Matrix Multiplication operator, i.e.&nbsp;computes C = A * B.
  * 
+ * <p>The conventional product is always computed, regardless of the size. Strassen-Winograd algorithm,
+ * which trades accuracy for fewer flop, is only available explicitly in StrassenMul.</p>
+ * 
  * @author Y.K. Chan
  */
 @Pure
@@ -44,6 +56,12 @@ public class Mul {
      * Default partition size for cache utilization.
      */
     public static final int DEFAULT_STRIDE_LENGTH = 8;
+    
+    /**
+     * Default minimum number of flop to justify packing the operands for cache-blocked multiplication.
+     */
+    public static final long DEFAULT_PACK_FLOP = 64L * 64L * 64L;
+    
 
     /**
      * Constructor.
@@ -59,6 +77,10 @@ public class Mul {
     public Mul(int stride) {
         this.stride = stride;
         this.mulT = new MulT();
+        this.packed = new PackedMul();
+        this.sparse = new SparseMul();
+        this.block = new BlockMul();
+        this.floats = new FloatMul();
     }
     
     /**
@@ -79,17 +101,93 @@ public class Mul {
                     + b.getRowCount()+ "x" + b.getColCount()
                     + " matrix.");
         
+        if(b instanceof TransposedMatrix){
+            return this.mulT.compute(a, ((TransposedMatrix) b).getBase());
+        }
+        
+        if(a instanceof BlockMatrix && b instanceof BlockMatrix
+            && ((BlockMatrix) a).getTileSize() == ((BlockMatrix) b).getTileSize()){
+            return this.block.compute((BlockMatrix) a, (BlockMatrix) b);
+        }
+        
+        if(a instanceof FloatMatrix && b instanceof FloatMatrix){
+            return this.floats.compute((FloatMatrix) a, (FloatMatrix) b);
+        }
+        
+        if(a instanceof SparseMatrix || b instanceof SparseMatrix){
+            return this.sparse.compute(a, b);
+        }
+        
         if(b instanceof ColumnVector){
             return a.getRowCount() == 1 
                 ? Matrices.scalar(this.dot(a.getRow(0), ((ColumnVector) b).getVector()))
                 : this.mulVector(a, (ColumnVector) b);
         }
         
+        if(this.isPackable(a, b)){
+            return this.packed.compute(a, b, a instanceof ArrayMatrix && b instanceof ArrayMatrix 
+                ? ArrayMatrix.of(a.getRowCount(), b.getColCount())
+                : Matrices.zeros(a.getRowCount(), b.getColCount()));
+        }
+        
+        if(a instanceof ArrayMatrix && b instanceof ArrayMatrix){
+            ArrayMatrix ans = ArrayMatrix.of(a.getRowCount(), b.getColCount());
+            this.compute((ArrayMatrix) a, (ArrayMatrix) b, ans);
+            return ans;
+        }
+        
         Matrix ans = Matrices.zeros(a.getRowCount(), b.getColCount());
         this.compute(a, this.copy(b), ans);
         return ans;
     }
     
+    /**
+     * Fill the entries of resultant matrix C where C = A * B, with all matrices
+     * stored in a single backing array.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param ans   Resultant matrix C
+     */
+    protected void compute(ArrayMatrix a, ArrayMatrix b, ArrayMatrix ans) {
+        long numFlop = ((long) ans.getRowCount() * ans.getColCount()) * a.getColCount();
+        if(a.getRowCount() < this.stride || numFlop < Thresholds.threshold(Operation.MUL)){
+            this.serial(a, b, ans, 0, a.getRowCount());
+        }else{
+            MapReducer.of(0, a.getRowCount())
+                .flop((int) Math.min(numFlop / a.getRowCount(), Integer.MAX_VALUE), Thresholds.grain(Operation.MUL))
+                .forEach((begin, end) -> this.serial(a, b, ans, begin, end));
+        }
+    }
+    
+    /**
+     * Fill the rows of interest of resultant matrix C where C = A * B, with all matrices
+     * stored in a single backing array. 
+     * 
+     * <p>Each row of C is accumulated by rows of B in the order of storage, s.t.&nbsp;the
+     * inner-most loop runs through contiguous elements in both B and C.</p>
+     * 
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param ans   Resultant matrix C
+     * @param begin  Begin index of rows of interest
+     * @param end  End index of rows of interest
+     */
+    protected void serial(ArrayMatrix a, ArrayMatrix b, ArrayMatrix ans, int begin, int end) {
+        double[] u = a.getArray();
+        double[] v = b.getArray();
+        double[] w = ans.getArray();
+        
+        int numCols = ans.getColCount();
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int i = begin; i < end; i++){
+            int rowA = a.indexOf(i, 0);
+            int rowC = ans.indexOf(i, 0);
+            for(int k = 0; k < a.getColCount(); k++){
+                kernels.axpy(u[rowA + k], v, b.indexOf(k, 0), w, rowC, numCols);
+            }
+        }
+    }
+    
     /**
      * Fill the entries of resultant matrix C where C = A * B.
      * @param a  Input matrix A
@@ -98,7 +196,7 @@ public class Mul {
      */
     protected void compute(Matrix a, Matrix b, Matrix ans) {
         long numFlop = ((long) ans.getRowCount() * ans.getColCount()) * a.getColCount();
-        if(a.getRowCount() < this.stride || numFlop < ParallelSupplier.DEFAULT_FLOP_THRESHOLD ){
+        if(a.getRowCount() < this.stride || numFlop < Thresholds.threshold(Operation.MUL) ){
             this.serial(a, b, ans);            
         }else{ 
             this.parallel(a, b, ans);
@@ -161,12 +259,9 @@ public class Mul {
      * @param v   Output vector v
      */
     protected void computeBlock(double[] u, Matrix b, int rowBegin, int rowEnd, int colBegin, int colEnd, double[] v) {
+        VectorKernels kernels = VectorKernels.getInstance();
         for(int i = rowBegin; i < rowEnd; i++){
-            double elem = u[i];            
-            for(int j = colBegin; j < colEnd; j++){
-                double[] r = b.getRow(i);
-                v[j] += elem * r[j];
-            }
+            kernels.axpy(u[i], b.getRow(i), colBegin, v, colBegin, colEnd - colBegin);
         }
     }
     
@@ -190,6 +285,18 @@ public class Mul {
         return Dot.prod(u, v);
     }
     
+    /**
+     * Determine if the product A * B is large enough to be computed by packing the operands.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @return  True if packing the operands is justified, false otherwise
+     */
+    protected boolean isPackable(Matrix a, Matrix b) {
+        int minDim = Math.min(a.getRowCount(), Math.min(a.getColCount(), b.getColCount()));
+        return minDim >= DEFAULT_STRIDE_LENGTH
+            && (long) a.getRowCount() * a.getColCount() * b.getColCount() >= DEFAULT_PACK_FLOP;
+    }
+    
     /**
      * Shallow copy of a matrix, i.e.&nbsp;only row references are copied.
      * The copy of the matrix should not be mutated.
@@ -204,4 +311,8 @@ public class Mul {
     
     private int stride;
     private MulT mulT;
+    private PackedMul packed;
+    private SparseMul sparse;
+    private BlockMul block;
+    private FloatMul floats;
 }
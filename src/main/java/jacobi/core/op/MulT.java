@@ -27,9 +27,15 @@ package jacobi.core.op;
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
 import jacobi.api.annotations.Pure;
+import jacobi.core.impl.ArrayMatrix;
 import jacobi.core.impl.ColumnVector;
+import jacobi.core.impl.SparseMatrix;
+import jacobi.core.impl.TransposedMatrix;
 import jacobi.core.util.MapReducer;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
 import jacobi.core.util.Throw;
+import jacobi.core.util.VectorKernels;
 
 /**
  * Compute the product of A * B^t given matrix A and B.
@@ -57,12 +63,69 @@ public class MulT {
                     + b.getRowCount()+ "x" + b.getColCount()
                     + " matrix.");
         
+        if(b instanceof TransposedMatrix){
+            return new Mul().compute(a, ((TransposedMatrix) b).getBase());
+        }
+        
+        if(a instanceof SparseMatrix || b instanceof SparseMatrix){
+            return new SparseMul().computeT(a, b);
+        }
+        
         if(b.getColCount() == 1){
         	return new ColumnVector(this.compute(a, b.getRow(0)));
         }
         
+        if(a instanceof ArrayMatrix && b instanceof ArrayMatrix){
+            return this.compute((ArrayMatrix) a, (ArrayMatrix) b, ArrayMatrix.of(a.getRowCount(), b.getRowCount()));
+        }
+        
         return this.compute(a, b, Matrices.zeros(a.getRowCount(), b.getRowCount()));
     }
+    
+    /**
+     * Compute matrix C where C = A * B^t with C created, with all matrices stored in 
+     * a single backing array.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param ans  Resultant matrix C
+     * @return  Resultant matrix C
+     */
+    protected Matrix compute(ArrayMatrix a, ArrayMatrix b, ArrayMatrix ans) {
+        long numFlop = (long) a.getRowCount() * a.getColCount() * b.getRowCount();
+        if(numFlop < Thresholds.threshold(Operation.MUL_T)){
+            this.serial(a, b, ans, 0, ans.getRowCount());
+        }else{
+            MapReducer.of(0, ans.getRowCount())
+                .flop((int) Math.min(numFlop / a.getRowCount(), Integer.MAX_VALUE), Thresholds.grain(Operation.MUL_T))
+                .forEach((begin, end) -> this.serial(a, b, ans, begin, end));
+        }
+        return ans;
+    }
+    
+    /**
+     * Compute the rows of interest of matrix C where C = A * B^t, with all matrices stored 
+     * in a single backing array.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param ans  Resultant matrix C
+     * @param begin  Begin index of rows of interest
+     * @param end  End index of rows of interest
+     */
+    protected void serial(ArrayMatrix a, ArrayMatrix b, ArrayMatrix ans, int begin, int end) {
+        double[] u = a.getArray();
+        double[] v = b.getArray();
+        double[] w = ans.getArray();
+        
+        int len = a.getColCount();
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int i = begin; i < end; i++){
+            int rowA = a.indexOf(i, 0);
+            int rowC = ans.indexOf(i, 0);
+            for(int k = 0; k < b.getRowCount(); k++){
+                w[rowC + k] = kernels.dot(u, rowA, v, b.indexOf(k, 0), len);
+            }
+        }
+    }
 
     /**
      * Compute matrix C where C = A * B^t with C created.
@@ -72,8 +135,8 @@ public class MulT {
      * @return  Resultant matrix C
      */
     protected Matrix compute(Matrix a, Matrix b, Matrix ans) {
-        int numFlop = a.getRowCount() * a.getColCount() * b.getRowCount();
-        if(numFlop < DEFAULT_LIMIT){
+        long numFlop = (long) a.getRowCount() * a.getColCount() * b.getRowCount();
+        if(numFlop < Thresholds.threshold(Operation.MUL_T)){
             this.serial(a, b, ans, 0, ans.getRowCount());
         }else{
             this.parallel(a, b, ans, a.getRowCount() * a.getColCount());
@@ -91,7 +154,7 @@ public class MulT {
      */
     protected Matrix parallel(Matrix a, Matrix b, Matrix ans, int rowFlop) {
         return MapReducer.of(0, ans.getRowCount())
-                .flop(rowFlop)
+                .flop(rowFlop, Thresholds.grain(Operation.MUL_T))
                 .forEach((begin, end) -> serial(a, b, ans, begin, end), ans);
     }
     
@@ -119,13 +182,9 @@ public class MulT {
      * @return  u^t * B * w
      */
     protected double[] compute(double[] u, Matrix b, double[] w) {
+        VectorKernels kernels = VectorKernels.getInstance();
         for(int k = 0; k < w.length; k++){
-            double elem = 0.0;
-            double[] v = b.getRow(k);
-            for(int i = 0; i < u.length; i++){
-                elem += u[i] * v[i];
-            }
-            w[k] = elem;
+            w[k] = kernels.dot(u, 0, b.getRow(k), 0, u.length);
         }
         return w;
     }
@@ -145,7 +204,8 @@ public class MulT {
     }
     
     /**
-     * Default minimum number of FLOP to justify computing in parallel
+     * Default minimum number of FLOP to justify computing in parallel. The threshold in use is 
+     * given by Thresholds for MUL_T.
      */
     protected static final int DEFAULT_LIMIT = 128 * 128 * 128;
 }
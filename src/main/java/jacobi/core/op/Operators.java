@@ -25,7 +25,9 @@ package jacobi.core.op;
 
 import jacobi.api.Matrix;
 import jacobi.api.annotations.Pure;
+import jacobi.core.impl.ArrayMatrix;
 import jacobi.core.util.Throw;
+import jacobi.core.util.VectorKernels;
 
 /**
  * Implementation classes for operators.
@@ -85,7 +87,38 @@ public class Operators {
          */
         public Matrix compute(Matrix a, double k) {
             Throw.when().isNull(() -> a, () -> "1st operand is null.");
+            if(a instanceof ArrayMatrix){
+                return this.scale((ArrayMatrix) a, k);
+            }
             return super.compute(a, new Scalar(a.getRowCount(), a.getColCount(), k));
         }
+        
+        /**
+         * Compute the Hadamand product with a matrix stored in a single backing array.
+         * @param a  Input matrix A
+         * @param k  Scalar value k
+         * @return The Hadamand product
+         */
+        protected Matrix scale(ArrayMatrix a, double k) {
+            ArrayMatrix ans = ArrayMatrix.of(a.getRowCount(), a.getColCount());
+            double[] u = a.getArray();
+            double[] w = ans.getArray();
+            VectorKernels kernels = VectorKernels.getInstance();
+            for(int i = 0; i < a.getRowCount(); i++){
+                kernels.scale(k, u, a.indexOf(i, 0), w, ans.indexOf(i, 0), a.getColCount());
+            }
+            return ans;
+        }
+
+        @Override
+        protected void serial(ArrayMatrix a, ArrayMatrix b, ArrayMatrix ans, int begin, int end) {
+            double[] u = a.getArray();
+            double[] v = b.getArray();
+            double[] w = ans.getArray();
+            VectorKernels kernels = VectorKernels.getInstance();
+            for(int i = begin; i < end; i++){
+                kernels.mul(u, a.indexOf(i, 0), v, b.indexOf(i, 0), w, ans.indexOf(i, 0), a.getColCount());
+            }
+        }
     }    
 }
@@ -0,0 +1,345 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.annotations.Pure;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.TransposedMatrix;
+import jacobi.core.prop.Transpose;
+import jacobi.core.util.Throw;
+
+/**
+ * Matrix multiplication with operands too large to be held in memory, e.g.&nbsp;memory-mapped
+ * or file-backed matrices with hundreds of millions of rows.
+ * 
+ * <p>The tall operands are streamed in tiles of consecutive rows, each copied into a contiguous
+ * array. A single I/O thread, shared by all instances, reads the next few tiles ahead while the 
+ * current tile is being computed on the compute pool, s.t.&nbsp;reading overlaps with computation. 
+ * Only a bounded number of tiles are in memory at any time.</p>
+ * 
+ * <p>Two products are supported. A^t * B, e.g.&nbsp;the Gram matrix A^t * A, is accumulated over 
+ * tiles of rows of A and B as the sum of Ta^t * Tb by Gemm directly into an in-memory sum, without
+ * transposing the tiles, and added to an in-memory or on-disk result at the end. A * B with B held 
+ * in memory is computed tile by tile of rows of A by the row-dot kernel in MulT and written to the 
+ * corresponding rows of the result, which can be a memory-mapped matrix.</p>
+ * 
+ * <p>Progress is reported after each tile with the number of rows processed and the total
+ * number of rows.</p>
+ * 
+ * @author Y.K. Chan
+ */
+@Pure
+public class OutOfCoreMul {
+    
+    /**
+     * Default maximum number of bytes of a tile
+     */
+    public static final long DEFAULT_TILE_BYTES = 1L << 25;
+    
+    /**
+     * Default number of tiles in the prefetch pipeline
+     */
+    public static final int DEFAULT_PREFETCH = 2;
+    
+    /**
+     * Listener of progress of computation.
+     */
+    @FunctionalInterface
+    public interface Progress {
+        
+        /**
+         * Notify the progress after a tile is computed.
+         * @param done  Number of rows processed
+         * @param total  Total number of rows
+         */
+        public void update(long done, long total);
+        
+    }
+    
+    /**
+     * Constructor.
+     */
+    public OutOfCoreMul() {
+        this(DEFAULT_TILE_BYTES, DEFAULT_PREFETCH, (done, total) -> {});
+    }
+    
+    /**
+     * Constructor.
+     * @param tileBytes  Maximum number of bytes of a tile of an operand
+     * @param prefetch  Number of tiles in the prefetch pipeline, i.e.&nbsp;the tile being computed
+     *                  and the tiles read ahead
+     * @param progress  Listener of progress
+     * @throws IllegalArgumentException  if tile bytes or prefetch is not positive, or listener is null
+     */
+    public OutOfCoreMul(long tileBytes, int prefetch, Progress progress) {
+        Throw.when()
+            .isTrue(() -> tileBytes < 1, () -> "Invalid tile size " + tileBytes)
+            .isTrue(() -> prefetch < 1, () -> "Invalid number of tiles to prefetch " + prefetch)
+            .isNull(() -> progress, () -> "No progress listener.");
+        this.tileBytes = tileBytes;
+        this.prefetch = prefetch;
+        this.progress = progress;
+        this.transpose = new Transpose();
+        this.mulT = new MulT();
+        this.gemm = new Gemm();
+    }
+    
+    /**
+     * Compute the Gram matrix A^t * A.
+     * @param a  Input matrix A
+     * @return  Gram matrix A^t * A
+     */
+    public Matrix computeGram(Matrix a) {
+        Throw.when().isNull(() -> a, () -> "No matrix to compute.");
+        Matrix ans = Matrices.zeros(a.getColCount(), a.getColCount());
+        this.computeTA(a, a, ans);
+        return ans;
+    }
+    
+    /**
+     * Compute A^t * B, where A and B have the same number of rows.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @return  Resultant matrix A^t * B
+     */
+    public Matrix computeTA(Matrix a, Matrix b) {
+        Throw.when()
+            .isNull(() -> a, () -> "First operand is missing.")
+            .isNull(() -> b, () -> "Second operand is missing.");
+        Matrix ans = Matrices.zeros(a.getColCount(), b.getColCount());
+        this.computeTA(a, b, ans);
+        return ans;
+    }
+    
+    /**
+     * Accumulate A^t * B to a resultant matrix C, i.e.&nbsp;C = C + A^t * B, where A and B 
+     * have the same number of rows. C can be in memory or on disk.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param ans  Resultant matrix C
+     * @throws IllegalArgumentException  if any matrix is null or dimension mismatch
+     */
+    public void computeTA(Matrix a, Matrix b, Matrix ans) {
+        Throw.when()
+            .isNull(() -> a, () -> "First operand is missing.")
+            .isNull(() -> b, () -> "Second operand is missing.")
+            .isNull(() -> ans, () -> "No resultant matrix.")
+            .isTrue(
+                () -> a.getRowCount() != b.getRowCount(), 
+                () -> "Row count mismatch. " + a.getRowCount() + " <> " + b.getRowCount())
+            .isTrue(
+                () -> ans.getRowCount() != a.getColCount() || ans.getColCount() != b.getColCount(), 
+                () -> "Dimension mismatch. Unable to accumulate a " 
+                    + a.getColCount() + "x" + b.getColCount() + " product to a "
+                    + ans.getRowCount() + "x" + ans.getColCount() + " matrix.");
+        
+        int tileRows = this.tileRows(a.getColCount() + (a == b ? 0 : b.getColCount()));
+        ArrayMatrix sum = ArrayMatrix.of(a.getColCount(), b.getColCount());
+        this.stream(a.getRowCount(), tileRows, 
+            (begin, end) -> {
+                ArrayMatrix ta = this.load(a, begin, end);
+                return new ArrayMatrix[]{ ta, a == b ? ta : this.load(b, begin, end) };
+            }, 
+            (tiles) -> this.gemm.compute(sum, 1.0, TransposedMatrix.of(tiles[0]), tiles[1], 1.0));
+        
+        for(int i = 0; i < ans.getRowCount(); i++){
+            double[] row = ans.getRow(i);
+            double[] values = sum.getRow(i);
+            for(int j = 0; j < row.length; j++){
+                row[j] += values[j];
+            }
+            ans.setRow(i, row);
+        }
+    }
+    
+    /**
+     * Compute A * B where B is held in memory.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @return  Resultant matrix A * B in memory
+     */
+    public Matrix compute(Matrix a, Matrix b) {
+        Throw.when()
+            .isNull(() -> a, () -> "First operand is missing.")
+            .isNull(() -> b, () -> "Second operand is missing.");
+        Matrix ans = Matrices.zeros(a.getRowCount(), b.getColCount());
+        this.compute(a, b, ans);
+        return ans;
+    }
+    
+    /**
+     * Compute C = A * B where B is held in memory. Each row of C is written once, thus C can
+     * be on disk, e.g.&nbsp;a memory-mapped matrix.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param ans  Resultant matrix C
+     * @throws IllegalArgumentException  if any matrix is null or dimension mismatch
+     */
+    public void compute(Matrix a, Matrix b, Matrix ans) {
+        Throw.when()
+            .isNull(() -> a, () -> "First operand is missing.")
+            .isNull(() -> b, () -> "Second operand is missing.")
+            .isNull(() -> ans, () -> "No resultant matrix.")
+            .isTrue(
+                () -> a.getColCount() != b.getRowCount(), 
+                () -> "Dimension mismatch. Unable to multiply a "
+                    + a.getRowCount()+ "x" + a.getColCount()
+                    + " matrix with a "
+                    + b.getRowCount()+ "x" + b.getColCount()
+                    + " matrix.")
+            .isTrue(
+                () -> ans.getRowCount() != a.getRowCount() || ans.getColCount() != b.getColCount(), 
+                () -> "Dimension mismatch. Unable to write a " 
+                    + a.getRowCount() + "x" + b.getColCount() + " product to a "
+                    + ans.getRowCount() + "x" + ans.getColCount() + " matrix.");
+        
+        ArrayMatrix bt = this.transpose(ArrayMatrix.of(b));
+        int tileRows = this.tileRows(a.getColCount() + b.getColCount());
+        int[] offset = { 0 };
+        this.stream(a.getRowCount(), tileRows, 
+            (begin, end) -> this.load(a, begin, end),
+            (tile) -> {
+                Matrix prod = this.mulT.compute(tile, bt, ArrayMatrix.of(tile.getRowCount(), bt.getRowCount()));
+                for(int i = 0; i < prod.getRowCount(); i++){
+                    ans.setRow(offset[0] + i, prod.getRow(i));
+                }
+                offset[0] += prod.getRowCount();
+            });
+    }
+    
+    /**
+     * Stream tiles of rows through a prefetch pipeline. Tiles are loaded in order by the shared
+     * I/O thread and consumed in order by the calling thread. At most prefetch tiles are in the
+     * pipeline, including the tile being consumed. Tiles not yet loaded are cancelled on failure.
+     * @param <T>  Type of loaded tile
+     * @param numRows  Total number of rows
+     * @param tileRows  Number of rows in a tile
+     * @param loader  Function to load a range of rows
+     * @param consumer  Consumer of a loaded tile
+     */
+    protected <T> void stream(int numRows, int tileRows, Loader<T> loader, Consumer<T> consumer) {
+        Deque<CompletableFuture<T>> pipeline = new ArrayDeque<>();
+        try {
+            int next = 0;
+            int done = 0;
+            while(done < numRows){
+                while(next < numRows && pipeline.size() < this.prefetch){
+                    int begin = next;
+                    int end = (int) Math.min((long) begin + tileRows, numRows);
+                    pipeline.addLast(CompletableFuture.supplyAsync(() -> loader.load(begin, end), IO));
+                    next = end;
+                }
+                consumer.accept(this.await(pipeline.removeFirst()));
+                done = (int) Math.min((long) done + tileRows, numRows);
+                this.progress.update(done, numRows);
+            }
+        } finally {
+            pipeline.forEach((future) -> future.cancel(false));
+        }
+    }
+    
+    /**
+     * Load a range of rows of a matrix into a tile stored in a single backing array.
+     * @param matrix  Input matrix
+     * @param begin  Begin index of rows
+     * @param end  End index of rows, exclusive
+     * @return  Tile of rows
+     */
+    protected ArrayMatrix load(Matrix matrix, int begin, int end) {
+        int n = matrix.getColCount();
+        ArrayMatrix tile = ArrayMatrix.of(end - begin, n);
+        double[] array = tile.getArray();
+        matrix.forEachRow(begin, end, (row, i) -> System.arraycopy(row, 0, array, (i - begin) * n, n));
+        return tile;
+    }
+    
+    /**
+     * Find the number of rows of a tile within the maximum number of bytes.
+     * @param numCols  Number of columns of all operands loaded for a tile
+     * @return  Number of rows of a tile
+     */
+    protected int tileRows(int numCols) {
+        return (int) Math.max(1L, Math.min(this.tileBytes / (Double.BYTES * Math.max(numCols, 1L)), Integer.MAX_VALUE));
+    }
+    
+    /**
+     * Transpose a tile.
+     * @param tile  Tile of rows
+     * @return  Transpose of the tile
+     */
+    protected ArrayMatrix transpose(ArrayMatrix tile) {
+        return (ArrayMatrix) this.transpose.compute(tile);
+    }
+    
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch(CompletionException ex) {
+            if(ex.getCause() instanceof RuntimeException){
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+    
+    /**
+     * Loader of a range of rows.
+     * @param <T>  Type of loaded tile
+     */
+    @FunctionalInterface
+    protected interface Loader<T> {
+        
+        /**
+         * Load a range of rows.
+         * @param begin  Begin index of rows
+         * @param end  End index of rows, exclusive
+         * @return  Loaded tile
+         */
+        public T load(int begin, int end);
+        
+    }
+    
+    private long tileBytes;
+    private int prefetch;
+    private Progress progress;
+    private Transpose transpose;
+    private MulT mulT;
+    private Gemm gemm;
+    
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor((task) -> {
+        Thread thread = new Thread(task, "jacobi-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+}
@@ -0,0 +1,400 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.util.MapReducer;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Throw;
+
+/**
+ * Cache-blocked matrix multiplication with packed operands, i.e.&nbsp;computes C = C + alpha * A * B.
+ * 
+ * <p>The product is partitioned in three levels. Columns of B are partitioned into panels of
+ * width nc, which is to be resident in L3 cache. Each panel is further partitioned by rows into 
+ * blocks of depth kc, and the block of B is packed into a contiguous buffer in strips of NR columns. 
+ * Rows of A are partitioned into blocks of height mc to be resident in L2 cache, and each block of A
+ * is packed into a contiguous buffer in strips of MR rows.</p>
+ * 
+ * <p>A strip of A and a strip of B, both of length kc and resident in L1 cache, are multiplied by a 
+ * micro-kernel which accumulates a MR x NR tile of C in local variables, which is written back
+ * to C only once per strip.</p>
+ * 
+ * <p>The scalar alpha is applied when packing A s.t.&nbsp;the micro-kernel is not burdened.</p>
+ * 
+ * <p>Blocks of A within a panel of B are independent of each other and are computed in parallel when
+ * the amount of work justifies. Packing buffers of A are pooled within a computation s.t.&nbsp;each 
+ * worker allocates at most one buffer, instead of one for every block of B.</p>
+ * 
+ * <p>Operands and the resultant matrix are not required to be stored in a single array. Rows of a general 
+ * matrix are accessed by getRow when packing. For a general C, the part of C updated by a block of A is 
+ * copied into a contiguous buffer once, accumulated by the micro-kernel there, and copied back once. 
+ * The buffers are pooled in the same way as the packing buffers of A. The type of the matrices is 
+ * resolved once for each block s.t.&nbsp;the packing loops and the micro-kernel work on arrays only.</p>
+ * 
+ * <p>The block sizes are derived from the sizes of the cache such that half of the cache is occupied by 
+ * the resident data.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class PackedMul {
+    
+    /**
+     * Default size of L1 cache in bytes
+     */
+    public static final int DEFAULT_L1_CACHE = 32 * 1024;
+    
+    /**
+     * Default size of L2 cache in bytes
+     */
+    public static final int DEFAULT_L2_CACHE = 256 * 1024;
+    
+    /**
+     * Default size of L3 cache in bytes
+     */
+    public static final int DEFAULT_L3_CACHE = 8 * 1024 * 1024;
+    
+    /**
+     * Number of rows of a strip of A, i.e.&nbsp;the height of the micro-kernel
+     */
+    public static final int MR = 4;
+    
+    /**
+     * Number of columns of a strip of B, i.e.&nbsp;the width of the micro-kernel
+     */
+    public static final int NR = 4;
+    
+    /**
+     * Constructor with default cache sizes.
+     */
+    public PackedMul() {
+        this(DEFAULT_L1_CACHE, DEFAULT_L2_CACHE, DEFAULT_L3_CACHE);
+    }
+    
+    /**
+     * Constructor.
+     * @param l1  Size of L1 cache in bytes
+     * @param l2  Size of L2 cache in bytes
+     * @param l3  Size of L3 cache in bytes
+     */
+    public PackedMul(int l1, int l2, int l3) {
+        Throw.when()
+            .isTrue(() -> l1 < 1 || l2 < 1 || l3 < 1, () -> "Invalid cache sizes " + l1 + ", " + l2 + ", " + l3);
+        
+        this.kc = Math.max(l1 / (2 * Double.BYTES * (MR + NR)), 1);
+        this.mc = Math.max(l2 / (2 * Double.BYTES * this.kc) / MR, 1) * MR;
+        this.nc = Math.max(l3 / (2 * Double.BYTES * this.kc) / NR, 1) * NR;
+    }
+    
+    /**
+     * Compute C = C + A * B.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param c  Resultant matrix C
+     * @return  Resultant matrix C
+     */
+    public Matrix compute(Matrix a, Matrix b, Matrix c) {
+        return this.compute(1.0, a, b, c);
+    }
+    
+    /**
+     * Compute C = C + alpha * A * B.
+     * @param alpha  Scalar alpha
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param c  Resultant matrix C
+     * @return  Resultant matrix C
+     */
+    public Matrix compute(double alpha, Matrix a, Matrix b, Matrix c) {
+        Throw.when()
+            .isNull(() -> a, () -> "First operand is missing.")
+            .isNull(() -> b, () -> "Second operand is missing.")
+            .isNull(() -> c, () -> "Resultant matrix is missing.")
+            .isTrue(
+                () -> a.getColCount() != b.getRowCount() 
+                   || a.getRowCount() != c.getRowCount()
+                   || b.getColCount() != c.getColCount(), 
+                () -> "Dimension mismatch. Unable to multiply a "
+                    + a.getRowCount()+ "x" + a.getColCount()
+                    + " matrix with a "
+                    + b.getRowCount()+ "x" + b.getColCount()
+                    + " matrix into a "
+                    + c.getRowCount()+ "x" + c.getColCount()
+                    + " matrix.");
+        
+        int m = a.getRowCount();
+        int n = b.getColCount();
+        int k = a.getColCount();
+        
+        int numBlocks = (m + this.mc - 1) / this.mc;
+        boolean parallel = numBlocks > 1 
+            && (double) m * n * k > Thresholds.threshold(Operation.MUL);
+        
+        double[] packB = new double[this.kc * this.ceil(Math.min(this.nc, n), NR)];
+        Queue<double[]> pool = new ConcurrentLinkedQueue<>();
+        Queue<double[]> bufs = new ConcurrentLinkedQueue<>();
+        int bufLength = c instanceof ArrayMatrix ? 0 : this.mc * Math.min(this.nc, n);
+        
+        for(int jc = 0; jc < n; jc += this.nc){
+            int nb = Math.min(this.nc, n - jc);
+            for(int pc = 0; pc < k; pc += this.kc){
+                int kb = Math.min(this.kc, k - pc);
+                this.packB(b, pc, kb, jc, nb, packB);
+                
+                int colBegin = jc;
+                int depthBegin = pc;
+                if(parallel){
+                    MapReducer.of(0, numBlocks).limit(2).forEach((begin, end) -> {
+                        double[] packA = this.borrow(pool, this.mc * this.kc);
+                        double[] bufC = this.borrow(bufs, bufLength);
+                        for(int blk = begin; blk < end; blk++){
+                            this.block(alpha, a, blk * this.mc, depthBegin, kb, colBegin, nb, packA, packB, c, bufC);
+                        }
+                        pool.offer(packA);
+                        bufs.offer(bufC);
+                    });
+                }else{
+                    double[] packA = this.borrow(pool, this.mc * this.kc);
+                    double[] bufC = this.borrow(bufs, bufLength);
+                    for(int ic = 0; ic < m; ic += this.mc){
+                        this.block(alpha, a, ic, pc, kb, jc, nb, packA, packB, c, bufC);
+                    }
+                    pool.offer(packA);
+                    bufs.offer(bufC);
+                }
+            }
+        }
+        return c;
+    }
+    
+    /**
+     * Compute C[ic:ic+mc, jc:jc+nb] += alpha * A[ic:ic+mc, pc:pc+kb] * B[pc:pc+kb, jc:jc+nb], 
+     * with B already packed.
+     * @param alpha  Scalar alpha
+     * @param a  Input matrix A
+     * @param ic  Begin index of rows of A
+     * @param pc  Begin index of columns of A
+     * @param kb  Number of columns of A
+     * @param jc  Begin index of columns of C
+     * @param nb  Number of columns of C
+     * @param packA  Buffer for packing block of A
+     * @param packB  Packed block of B
+     * @param c  Resultant matrix C
+     * @param bufC  Buffer for the block of C if C is not an ArrayMatrix
+     */
+    protected void block(double alpha, Matrix a, int ic, int pc, int kb, int jc, int nb, 
+            double[] packA, double[] packB, Matrix c, double[] bufC) {
+        int mb = Math.min(this.mc, a.getRowCount() - ic);
+        this.packA(alpha, a, ic, mb, pc, kb, packA);
+        
+        if(c instanceof ArrayMatrix){
+            ArrayMatrix arrayC = (ArrayMatrix) c;
+            this.macro(packA, packB, kb, mb, nb, arrayC.getArray(), arrayC.indexOf(ic, jc), arrayC.getStride());
+            return;
+        }
+        
+        for(int r = 0; r < mb; r++){
+            System.arraycopy(c.getRow(ic + r), jc, bufC, r * nb, nb);
+        }
+        this.macro(packA, packB, kb, mb, nb, bufC, 0, nb);
+        for(int r = 0; r < mb; r++){
+            double[] row = c.getRow(ic + r);
+            System.arraycopy(bufC, r * nb, row, jc, nb);
+            c.setRow(ic + r, row);
+        }
+    }
+    
+    /**
+     * Compute all tiles of a block of C stored in an array by the micro-kernel.
+     * @param packA  Packed block of A
+     * @param packB  Packed block of B
+     * @param kb  Length of the strips
+     * @param mb  Number of rows of the block
+     * @param nb  Number of columns of the block
+     * @param c  Array storing the block of C
+     * @param offset  Index of the first element of the block in the array
+     * @param stride  Distance between rows of the block in the array
+     */
+    protected void macro(double[] packA, double[] packB, int kb, int mb, int nb, 
+            double[] c, int offset, int stride) {
+        for(int jr = 0; jr < nb; jr += NR){
+            int nr = Math.min(NR, nb - jr);
+            for(int ir = 0; ir < mb; ir += MR){
+                int mr = Math.min(MR, mb - ir);
+                this.kernel(packA, ir * kb, packB, jr * kb, kb, c, offset + ir * stride + jr, stride, mr, nr);
+            }
+        }
+    }
+    
+    /**
+     * Micro-kernel for computing a MR x NR tile of C by a strip of A and a strip of B.
+     * @param packA  Packed block of A
+     * @param aBegin  Begin index of the strip of A
+     * @param packB  Packed block of B
+     * @param bBegin  Begin index of the strip of B
+     * @param kb  Length of the strips
+     * @param c  Array storing the tile of C
+     * @param k  Index of the first element of the tile in the array
+     * @param stride  Distance between rows of the tile in the array
+     * @param mr  Number of rows of the tile
+     * @param nr  Number of columns of the tile
+     */
+    protected void kernel(double[] packA, int aBegin, double[] packB, int bBegin, int kb, 
+            double[] c, int k, int stride, int mr, int nr) {
+        
+        double c00 = 0.0, c01 = 0.0, c02 = 0.0, c03 = 0.0;
+        double c10 = 0.0, c11 = 0.0, c12 = 0.0, c13 = 0.0;
+        double c20 = 0.0, c21 = 0.0, c22 = 0.0, c23 = 0.0;
+        double c30 = 0.0, c31 = 0.0, c32 = 0.0, c33 = 0.0;
+        
+        int ai = aBegin;
+        int bi = bBegin;
+        for(int p = 0; p < kb; p++){
+            double a0 = packA[ai], a1 = packA[ai + 1], a2 = packA[ai + 2], a3 = packA[ai + 3];
+            double b0 = packB[bi], b1 = packB[bi + 1], b2 = packB[bi + 2], b3 = packB[bi + 3];
+            
+            c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+            c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+            c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+            c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+            
+            ai += MR;
+            bi += NR;
+        }
+        
+        if(mr == MR && nr == NR){
+            int t = k;
+            c[t] += c00; c[t + 1] += c01; c[t + 2] += c02; c[t + 3] += c03;
+            t += stride;
+            c[t] += c10; c[t + 1] += c11; c[t + 2] += c12; c[t + 3] += c13;
+            t += stride;
+            c[t] += c20; c[t + 1] += c21; c[t + 2] += c22; c[t + 3] += c23;
+            t += stride;
+            c[t] += c30; c[t + 1] += c31; c[t + 2] += c32; c[t + 3] += c33;
+            return;
+        }
+        
+        double[] tile = {
+            c00, c01, c02, c03,
+            c10, c11, c12, c13,
+            c20, c21, c22, c23,
+            c30, c31, c32, c33
+        };
+        for(int r = 0; r < mr; r++){
+            int t = k + r * stride;
+            for(int s = 0; s < nr; s++){
+                c[t + s] += tile[r * NR + s];
+            }
+        }
+    }
+    
+    /**
+     * Pack alpha * A[i0:i0+mb, p0:p0+kb] into strips of MR rows. Within a strip elements are stored
+     * column-by-column. The last strip is padded with zeros.
+     * @param alpha  Scalar alpha
+     * @param a  Input matrix A
+     * @param i0  Begin index of rows
+     * @param mb  Number of rows
+     * @param p0  Begin index of columns
+     * @param kb  Number of columns
+     * @param buffer  Packing buffer
+     */
+    protected void packA(double alpha, Matrix a, int i0, int mb, int p0, int kb, double[] buffer) {
+        ArrayMatrix arrayA = a instanceof ArrayMatrix ? (ArrayMatrix) a : null;
+        for(int ir = 0; ir < mb; ir += MR){
+            int base = ir * kb;
+            int mr = Math.min(MR, mb - ir);
+            for(int r = 0; r < MR; r++){
+                if(r >= mr){
+                    for(int p = 0; p < kb; p++){
+                        buffer[base + p * MR + r] = 0.0;
+                    }
+                    continue;
+                }
+                
+                double[] row = arrayA == null ? a.getRow(i0 + ir + r) : arrayA.getArray();
+                int begin = arrayA == null ? p0 : arrayA.indexOf(i0 + ir + r, p0);
+                for(int p = 0; p < kb; p++){
+                    buffer[base + p * MR + r] = alpha * row[begin + p];
+                }
+            }
+        }
+    }
+    
+    /**
+     * Pack B[p0:p0+kb, j0:j0+nb] into strips of NR columns. Within a strip elements are stored
+     * row-by-row. The last strip is padded with zeros.
+     * @param b  Input matrix B
+     * @param p0  Begin index of rows
+     * @param kb  Number of rows
+     * @param j0  Begin index of columns
+     * @param nb  Number of columns
+     * @param buffer  Packing buffer
+     */
+    protected void packB(Matrix b, int p0, int kb, int j0, int nb, double[] buffer) {
+        ArrayMatrix arrayB = b instanceof ArrayMatrix ? (ArrayMatrix) b : null;
+        for(int p = 0; p < kb; p++){
+            double[] row = arrayB == null ? b.getRow(p0 + p) : arrayB.getArray();
+            int begin = arrayB == null ? j0 : arrayB.indexOf(p0 + p, j0);
+            for(int jr = 0; jr < nb; jr += NR){
+                int base = jr * kb + p * NR;
+                int nr = Math.min(NR, nb - jr);
+                for(int s = 0; s < nr; s++){
+                    buffer[base + s] = row[begin + jr + s];
+                }
+                for(int s = nr; s < NR; s++){
+                    buffer[base + s] = 0.0;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Take a buffer from a pool, or allocate one if the pool is exhausted.
+     * @param pool  Pool of buffers
+     * @param length  Length of a buffer
+     * @return  Buffer of the given length
+     */
+    protected double[] borrow(Queue<double[]> pool, int length) {
+        double[] buffer = pool.poll();
+        return buffer == null ? new double[length] : buffer;
+    }
+    
+    /**
+     * Round up a number to a multiple of a unit.
+     * @param num  Input number
+     * @param unit  Unit
+     * @return  Smallest multiple of the unit not less than the input number
+     */
+    private int ceil(int num, int unit) {
+        return (num + unit - 1) / unit * unit;
+    }
+    
+    private int mc, nc, kc;
+}
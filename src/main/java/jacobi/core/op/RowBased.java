@@ -25,8 +25,13 @@ package jacobi.core.op;
 
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.BlockMatrix;
+import jacobi.core.impl.SparseMatrix;
+import jacobi.core.util.ComputePool;
 import jacobi.core.util.MapReducer;
 import jacobi.core.util.Throw;
+import java.util.Arrays;
 import java.util.function.DoubleBinaryOperator;
 import java.util.stream.IntStream;
 
@@ -50,6 +55,7 @@ public class RowBased {
      */
     public RowBased(DoubleBinaryOperator op) {
         this(RowOperation.forEach(op));
+        this.func = op;
     }
 
     /**
@@ -85,11 +91,162 @@ public class RowBased {
                       + " <> " 
                       + b.getColCount());
         
+        if(this.func != null && a instanceof ArrayMatrix && b instanceof ArrayMatrix){
+            ArrayMatrix ans = ArrayMatrix.of(a.getRowCount(), a.getColCount());
+            this.compute((ArrayMatrix) a, (ArrayMatrix) b, ans);
+            return ans;
+        }
+        
+        if(this.func != null && a instanceof SparseMatrix && b instanceof SparseMatrix
+            && this.func.applyAsDouble(0.0, 0.0) == 0.0){
+            return this.merge((SparseMatrix) a, (SparseMatrix) b);
+        }
+        
+        if(this.func != null && a instanceof BlockMatrix && b instanceof BlockMatrix
+            && ((BlockMatrix) a).isConformed((BlockMatrix) b)){
+            return this.tiled((BlockMatrix) a, (BlockMatrix) b);
+        }
+        
         Matrix ans = Matrices.zeros(a.getRowCount(), a.getColCount());
-        this.compute(a, b, ans);
+        this.compute(
+            a instanceof SparseMatrix ? ((SparseMatrix) a).toCsr() : a, 
+            b instanceof SparseMatrix ? ((SparseMatrix) b).toCsr() : b, 
+            ans
+        );
         return ans;
     }
     
+    /**
+     * Compute result with resultant matrix C created, with all matrices stored in a 
+     * single backing array. This is only applicable when constructed with an 
+     * element-wise function.
+     * @param a  Matrix A
+     * @param b  Matrix B
+     * @param ans   Resultant matrix C
+     */
+    protected void compute(ArrayMatrix a, ArrayMatrix b, ArrayMatrix ans) {
+        if(a.getRowCount() * a.getColCount() < DEFAULT_NUM_FLOP){
+            this.serial(a, b, ans, 0, a.getRowCount());
+        }else{
+            MapReducer.of(0, a.getRowCount())
+                .flop(a.getColCount())
+                .forEach((begin, end) -> this.serial(a, b, ans, begin, end));
+        }
+    }
+    
+    /**
+     * Compute result in serial of given region of rows of interest, with all matrices stored in a 
+     * single backing array.
+     * @param a  Matrix A
+     * @param b  Matrix B
+     * @param ans  Result matrix C
+     * @param begin  Start of index of row
+     * @param end   End of index of row, exclusive
+     */
+    protected void serial(ArrayMatrix a, ArrayMatrix b, ArrayMatrix ans, int begin, int end) {
+        double[] u = a.getArray();
+        double[] v = b.getArray();
+        double[] w = ans.getArray();
+        for(int i = begin; i < end; i++){
+            int rowA = a.indexOf(i, 0);
+            int rowB = b.indexOf(i, 0);
+            int rowC = ans.indexOf(i, 0);
+            for(int j = 0; j < a.getColCount(); j++){
+                w[rowC + j] = this.func.applyAsDouble(u[rowA + j], v[rowB + j]);
+            }
+        }
+    }
+    
+    /**
+     * Compute result of block matrices partitioned in the same grid tile by tile, which is only
+     * applicable when constructed with an element-wise function.
+     * @param a  Block matrix A
+     * @param b  Block matrix B
+     * @return  Block matrix C partitioned in the same grid
+     */
+    protected BlockMatrix tiled(BlockMatrix a, BlockMatrix b) {
+        BlockMatrix ans = BlockMatrix.zeros(a.getRowCount(), a.getColCount(), a.getTileSize());
+        int numTiles = a.getGridRowCount() * a.getGridColCount();
+        if(a.getRowCount() * a.getColCount() < DEFAULT_NUM_FLOP){
+            this.tiled(a, b, ans, 0, numTiles);
+        }else{
+            MapReducer.of(0, numTiles)
+                .flop(a.getTileSize() * a.getTileSize())
+                .forEach((begin, end) -> this.tiled(a, b, ans, begin, end));
+        }
+        return ans;
+    }
+    
+    /**
+     * Compute result of a range of tiles in serial, where tiles are indexed in row-major order.
+     * @param a  Block matrix A
+     * @param b  Block matrix B
+     * @param ans  Block matrix C
+     * @param begin  Begin index of tiles
+     * @param end  End index of tiles, exclusive
+     */
+    protected void tiled(BlockMatrix a, BlockMatrix b, BlockMatrix ans, int begin, int end) {
+        for(int t = begin; t < end; t++){
+            int i = t / a.getGridColCount();
+            int j = t % a.getGridColCount();
+            double[] u = a.getTile(i, j);
+            double[] v = b.getTile(i, j);
+            double[] w = ans.getTile(i, j);
+            for(int k = 0; k < w.length; k++){
+                w[k] = this.func.applyAsDouble(u[k], v[k]);
+            }
+        }
+    }
+    
+    /**
+     * Compute result of sparse matrices by merging the non-zero elements of each row (column),
+     * which is only applicable when constructed with an element-wise function that maps zeros to zero.
+     * @param a  Sparse matrix A
+     * @param b  Sparse matrix B
+     * @return  Sparse matrix C in the same format of A
+     */
+    protected SparseMatrix merge(SparseMatrix a, SparseMatrix b) {
+        SparseMatrix other = a.isRowMajor() ? b.toCsr() : b.toCsc();
+        int[] aPtr = a.getPointers();
+        int[] aIdx = a.getIndices();
+        double[] aVals = a.getValues();
+        
+        int[] bPtr = other.getPointers();
+        int[] bIdx = other.getIndices();
+        double[] bVals = other.getValues();
+        
+        int[] ptr = new int[aPtr.length];
+        int[] idx = new int[a.getNonZeroCount() + other.getNonZeroCount()];
+        double[] vals = new double[idx.length];
+        
+        int nnz = 0;
+        for(int line = 0; line + 1 < ptr.length; line++){
+            int p = aPtr[line];
+            int q = bPtr[line];
+            while(p < aPtr[line + 1] || q < bPtr[line + 1]){
+                int i = p < aPtr[line + 1] ? aIdx[p] : Integer.MAX_VALUE;
+                int j = q < bPtr[line + 1] ? bIdx[q] : Integer.MAX_VALUE;
+                
+                double elem = this.func.applyAsDouble(
+                    i <= j ? aVals[p++] : 0.0, 
+                    j <= i ? bVals[q++] : 0.0
+                );
+                
+                if(elem != 0.0){
+                    idx[nnz] = Math.min(i, j);
+                    vals[nnz++] = elem;
+                }
+            }
+            ptr[line + 1] = nnz;
+        }
+        
+        int[] indices = Arrays.copyOf(idx, nnz);
+        double[] values = Arrays.copyOf(vals, nnz);
+        return a.isRowMajor()
+            ? SparseMatrix.csr(a.getRowCount(), a.getColCount(), ptr, indices, values)
+            : SparseMatrix.csc(a.getRowCount(), a.getColCount(), ptr, indices, values);
+    }
+    
     /**
      * Compute result in with resultant matrix C created.
      * @param a  Matrix A
@@ -125,9 +282,9 @@ public class RowBased {
      * @param ans  Result matrix C
      */
     protected void stream(Matrix a, Matrix b, Matrix ans) {
-        IntStream.range(0, a.getRowCount()).parallel().forEach(
+        ComputePool.run(() -> IntStream.range(0, a.getRowCount()).parallel().forEach(
             (i) -> this.operate(a, b, ans, i)
-        );
+        ));
     }
     
     /**
@@ -150,6 +307,7 @@ public class RowBased {
     }
     
     private RowOperation<Void> oper;
+    private DoubleBinaryOperator func;
     
     private static final int DEFAULT_NUM_FLOP = 512 * 512;    
 }
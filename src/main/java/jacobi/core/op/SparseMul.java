@@ -0,0 +1,328 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.util.Arrays;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.annotations.Pure;
+import jacobi.core.impl.ColumnVector;
+import jacobi.core.impl.SparseMatrix;
+import jacobi.core.util.MapReducer;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+
+/**
+ * Matrix multiplication with sparse operands, i.e.&nbsp;computes C = A * B or C = A * B^t where at
+ * least one of A and B is a sparse matrix.
+ * 
+ * <p>The number of flop is proportional to the number of non-zero elements instead of the 
+ * dimension of the operands. The product of two sparse matrices is a sparse matrix computed 
+ * row-by-row with a dense accumulator, otherwise the product is dense.</p>
+ * 
+ * @author Y.K. Chan
+ */
+@Pure
+public class SparseMul {
+    
+    /**
+     * Compute matrix C where C = A * B, with dimensions assumed to be valid.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @return  Resultant matrix C
+     */
+    public Matrix compute(Matrix a, Matrix b) {
+        if(a instanceof SparseMatrix && b instanceof SparseMatrix){
+            return this.compute(((SparseMatrix) a).toCsr(), ((SparseMatrix) b).toCsr());
+        }
+        
+        if(a instanceof SparseMatrix){
+            return b instanceof ColumnVector
+                ? new ColumnVector(this.compute((SparseMatrix) a, ((ColumnVector) b).getVector()))
+                : this.compute(((SparseMatrix) a).toCsr(), b);
+        }
+        return this.compute(a, (SparseMatrix) b);
+    }
+    
+    /**
+     * Compute matrix C where C = A * B^t, with dimensions assumed to be valid.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @return  Resultant matrix C
+     */
+    public Matrix computeT(Matrix a, Matrix b) {
+        if(b instanceof SparseMatrix){
+            return this.compute(a, ((SparseMatrix) b).transpose());
+        }
+        
+        SparseMatrix csr = ((SparseMatrix) a).toCsr();
+        return b.getRowCount() == 1
+            ? new ColumnVector(this.compute(csr, b.getRow(0)))
+            : this.computeT(csr, b);
+    }
+    
+    /**
+     * Compute v = A * u where A is a sparse matrix and u is a column vector.
+     * @param a  Sparse matrix A
+     * @param u  Column vector u
+     * @return  Column vector v
+     */
+    protected double[] compute(SparseMatrix a, double[] u) {
+        int[] ptr = a.getPointers();
+        int[] idx = a.getIndices();
+        double[] vals = a.getValues();
+        
+        double[] v = new double[a.getRowCount()];
+        if(a.isRowMajor()){
+            for(int i = 0; i < v.length; i++){
+                double elem = 0.0;
+                for(int k = ptr[i]; k < ptr[i + 1]; k++){
+                    elem += vals[k] * u[idx[k]];
+                }
+                v[i] = elem;
+            }
+            return v;
+        }
+        
+        for(int j = 0; j < u.length; j++){
+            double elem = u[j];
+            if(elem == 0.0){
+                continue;
+            }
+            for(int k = ptr[j]; k < ptr[j + 1]; k++){
+                v[idx[k]] += vals[k] * elem;
+            }
+        }
+        return v;
+    }
+    
+    /**
+     * Compute C = A * B where A is a sparse matrix in CSR format and B is a dense matrix.
+     * @param a  Sparse matrix A in CSR format
+     * @param b  Dense matrix B
+     * @return  Resultant matrix C
+     */
+    protected Matrix compute(SparseMatrix a, Matrix b) {
+        double[][] rows = new double[b.getRowCount()][];
+        double[][] ans = new double[a.getRowCount()][b.getColCount()];
+        
+        int[] ptr = a.getPointers();
+        int[] idx = a.getIndices();
+        double[] vals = a.getValues();
+        
+        this.forEachRow(ans.length, (long) a.getNonZeroCount() * b.getColCount(), (begin, end) -> {
+            for(int i = begin; i < end; i++){
+                double[] w = ans[i];
+                for(int k = ptr[i]; k < ptr[i + 1]; k++){
+                    double[] v = this.fetch(b, rows, idx[k]);
+                    double elem = vals[k];
+                    for(int j = 0; j < w.length; j++){
+                        w[j] += elem * v[j];
+                    }
+                }
+            }
+        });
+        return Matrices.wrap(ans);
+    }
+    
+    /**
+     * Compute C = A * B^t where A is a sparse matrix in CSR format and B is a dense matrix.
+     * @param a  Sparse matrix A in CSR format
+     * @param b  Dense matrix B
+     * @return  Resultant matrix C
+     */
+    protected Matrix computeT(SparseMatrix a, Matrix b) {
+        double[][] ans = new double[a.getRowCount()][b.getRowCount()];
+        
+        int[] ptr = a.getPointers();
+        int[] idx = a.getIndices();
+        double[] vals = a.getValues();
+        
+        this.forEachRow(b.getRowCount(), (long) a.getNonZeroCount() * b.getRowCount(), (begin, end) -> {
+            for(int j = begin; j < end; j++){
+                double[] v = b.getRow(j);
+                for(int i = 0; i < ans.length; i++){
+                    double elem = 0.0;
+                    for(int k = ptr[i]; k < ptr[i + 1]; k++){
+                        elem += vals[k] * v[idx[k]];
+                    }
+                    ans[i][j] = elem;
+                }
+            }
+        });
+        return Matrices.wrap(ans);
+    }
+    
+    /**
+     * Compute C = A * B where A is a dense matrix and B is a sparse matrix.
+     * @param a  Dense matrix A
+     * @param b  Sparse matrix B
+     * @return  Resultant matrix C
+     */
+    protected Matrix compute(Matrix a, SparseMatrix b) {
+        double[][] ans = new double[a.getRowCount()][b.getColCount()];
+        
+        int[] ptr = b.getPointers();
+        int[] idx = b.getIndices();
+        double[] vals = b.getValues();
+        
+        this.forEachRow(ans.length, (long) a.getRowCount() * b.getNonZeroCount(), (begin, end) -> {
+            for(int i = begin; i < end; i++){
+                double[] u = a.getRow(i);
+                double[] w = ans[i];
+                if(b.isRowMajor()){
+                    for(int k = 0; k < u.length; k++){
+                        double elem = u[k];
+                        if(elem == 0.0){
+                            continue;
+                        }
+                        for(int t = ptr[k]; t < ptr[k + 1]; t++){
+                            w[idx[t]] += elem * vals[t];
+                        }
+                    }
+                    continue;
+                }
+                
+                for(int j = 0; j < w.length; j++){
+                    double elem = 0.0;
+                    for(int t = ptr[j]; t < ptr[j + 1]; t++){
+                        elem += u[idx[t]] * vals[t];
+                    }
+                    w[j] = elem;
+                }
+            }
+        });
+        return Matrices.wrap(ans);
+    }
+    
+    /**
+     * Compute C = A * B where A and B are sparse matrices in CSR format. Each row of C is
+     * accumulated in a dense array, with the column indices of non-zero elements marked.
+     * @param a  Sparse matrix A in CSR format
+     * @param b  Sparse matrix B in CSR format
+     * @return  Sparse matrix C in CSR format
+     */
+    protected SparseMatrix compute(SparseMatrix a, SparseMatrix b) {
+        int[] aPtr = a.getPointers();
+        int[] aIdx = a.getIndices();
+        double[] aVals = a.getValues();
+        
+        int[] bPtr = b.getPointers();
+        int[] bIdx = b.getIndices();
+        double[] bVals = b.getValues();
+        
+        double[] acc = new double[b.getColCount()];
+        int[] marker = new int[b.getColCount()];
+        int[] cols = new int[b.getColCount()];
+        Arrays.fill(marker, -1);
+        
+        int[] ptr = new int[a.getRowCount() + 1];
+        int[] idx = new int[Math.max(a.getNonZeroCount(), 1)];
+        double[] vals = new double[idx.length];
+        
+        int nnz = 0;
+        for(int i = 0; i < a.getRowCount(); i++){
+            int count = 0;
+            for(int k = aPtr[i]; k < aPtr[i + 1]; k++){
+                double elem = aVals[k];
+                int row = aIdx[k];
+                for(int t = bPtr[row]; t < bPtr[row + 1]; t++){
+                    int j = bIdx[t];
+                    if(marker[j] != i){
+                        marker[j] = i;
+                        cols[count++] = j;
+                        acc[j] = 0.0;
+                    }
+                    acc[j] += elem * bVals[t];
+                }
+            }
+            
+            Arrays.sort(cols, 0, count);
+            if(nnz + count > idx.length){
+                int len = Math.max(2 * idx.length, nnz + count);
+                idx = Arrays.copyOf(idx, len);
+                vals = Arrays.copyOf(vals, len);
+            }
+            
+            for(int k = 0; k < count; k++){
+                double elem = acc[cols[k]];
+                if(elem != 0.0){
+                    idx[nnz] = cols[k];
+                    vals[nnz++] = elem;
+                }
+            }
+            ptr[i + 1] = nnz;
+        }
+        return SparseMatrix.csr(a.getRowCount(), b.getColCount(), ptr, idx, vals);
+    }
+    
+    /**
+     * Run a task on ranges of rows, in parallel if the number of flop is large enough.
+     * @param numRows  Number of rows
+     * @param numFlop  Total number of flop
+     * @param task  Task on a range of rows
+     */
+    protected void forEachRow(int numRows, long numFlop, RowTask task) {
+        if(numRows < 2 || numFlop < Thresholds.threshold(Operation.MUL)){
+            task.run(0, numRows);
+            return;
+        }
+        
+        MapReducer.of(0, numRows)
+            .flop((int) Math.max(Math.min(numFlop / numRows, Integer.MAX_VALUE), 1), Thresholds.grain(Operation.MUL))
+            .forEach(task::run);
+    }
+    
+    /**
+     * Fetch a row of a dense matrix, which is cached for repeated access. Fetching the same 
+     * row concurrently is harmless since the fetched rows are only read.
+     * @param matrix  Dense matrix
+     * @param rows  Cache of rows
+     * @param index  Row index
+     * @return  Row of the matrix
+     */
+    protected double[] fetch(Matrix matrix, double[][] rows, int index) {
+        double[] row = rows[index];
+        if(row == null){
+            row = matrix.getRow(index);
+            rows[index] = row;
+        }
+        return row;
+    }
+    
+    /**
+     * Task on a range of rows.
+     */
+    protected interface RowTask {
+        
+        /**
+         * Run the task on a range of rows
+         * @param begin  Begin index of rows
+         * @param end  End index of rows, exclusive
+         */
+        public void run(int begin, int end);
+        
+    }
+}
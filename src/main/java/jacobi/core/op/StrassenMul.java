@@ -0,0 +1,310 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.util.Arrays;
+
+import jacobi.api.Matrix;
+import jacobi.api.annotations.Pure;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.util.Throw;
+
+/**
+ * Matrix multiplication by Strassen-Winograd algorithm, i.e.&nbsp;computes C = A * B with 7 products
+ * of half the size instead of 8 on each level of recursion.
+ * 
+ * <p>With quadrants A11, A12, A21, A22 of A and similarly for B and C, the Winograd variant computes</p>
+ * <pre>
+ * S1 = A21 + A22, S2 = S1 - A11, S3 = A11 - A21, S4 = A12 - S2
+ * T1 = B12 - B11, T2 = B22 - T1, T3 = B22 - B12, T4 = T2 - B21
+ * M1 = A11 * B11, M2 = A12 * B21, M3 = S4 * B22, M4 = A22 * T4, 
+ * M5 = S1 * T1, M6 = S2 * T2, M7 = S3 * T3
+ * U2 = M1 + M6, U3 = U2 + M7, U4 = U2 + M5
+ * C11 = M1 + M2, C12 = U4 + M3, C21 = U3 - M4, C22 = U3 + M5
+ * </pre>
+ * 
+ * <p>The recursion stops when any dimension falls below the cut-off, and the product is computed by the 
+ * cache-blocked kernel in PackedMul. Odd dimensions are handled by peeling, i.e.&nbsp;the last row, column 
+ * or depth of odd size is excluded from the recursion and added by vector operations.</p>
+ * 
+ * <p>The sums and products on a level follow the schedule of Douglas et al., s.t.&nbsp;each product is 
+ * written into a quadrant of C or a single temporary, and a level allocates only two temporaries X and Y 
+ * of a quadrant size. The products are computed in sequence, and the products at the cut-off are computed
+ * by PackedMul, which is parallel when the number of flop is above the threshold for MUL.</p>
+ * 
+ * <p>This is not selected by Mul automatically, and is only used when requested explicitly, 
+ * e.g.&nbsp;by Op.mulStrassen.</p>
+ * 
+ * <p>The rounding error is larger than the conventional product, and grows with the depth of 
+ * recursion in the max-norm instead of element-wise, thus this is intended for large products
+ * where the reduction of flop is significant.</p>
+ * 
+ * @author Y.K. Chan
+ */
+@Pure
+public class StrassenMul {
+    
+    /**
+     * Default minimum dimension to recurse, below which the blocked kernel is used.
+     */
+    public static final int DEFAULT_CUTOFF = 512;
+    
+    /**
+     * Constructor.
+     */
+    public StrassenMul() {
+        this(DEFAULT_CUTOFF);
+    }
+    
+    /**
+     * Constructor.
+     * @param cutoff  Minimum dimension to recurse
+     * @throws IllegalArgumentException  if cut-off is less than 2
+     */
+    public StrassenMul(int cutoff) {
+        Throw.when().isTrue(() -> cutoff < 2, () -> "Invalid cut-off " + cutoff);
+        this.cutoff = cutoff;
+        this.packed = new PackedMul();
+    }
+    
+    /**
+     * Compute matrix C where C = A * B.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @return   Resultant matrix C
+     */
+    public Matrix compute(Matrix a, Matrix b) {
+        Throw.when()
+            .isNull(() -> a, () -> "First operand is missing.")
+            .isNull(() -> b, () -> "Second operand is missing.")
+            .isTrue(
+                () -> a.getColCount() != b.getRowCount(), 
+                () -> "Dimension mismatch. Unable to multiply a "
+                    + a.getRowCount()+ "x" + a.getColCount()
+                    + " matrix with a "
+                    + b.getRowCount()+ "x" + b.getColCount()
+                    + " matrix.");
+        if(a.getRowCount() == 0 || a.getColCount() == 0 || b.getColCount() == 0){
+            return new Mul().compute(a, b);
+        }
+        ArrayMatrix ans = ArrayMatrix.of(a.getRowCount(), b.getColCount());
+        this.compute(this.toArray(a), this.toArray(b), ans);
+        return ans;
+    }
+    
+    /**
+     * Compute matrix C where C = A * B, with all matrices stored in a single backing array. C
+     * can not share storage with A or B.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param c  Resultant matrix C
+     */
+    public void compute(ArrayMatrix a, ArrayMatrix b, ArrayMatrix c) {
+        this.multiply(a, b, c);
+    }
+    
+    /**
+     * Compute C = A * B by recursion if all dimensions are not below the cut-off.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param c  Resultant matrix C
+     */
+    protected void multiply(ArrayMatrix a, ArrayMatrix b, ArrayMatrix c) {
+        if(!this.isRecursive(a, b)){
+            this.fill(c, 0.0);
+            this.packed.compute(a, b, c);
+            return;
+        }
+        
+        int m = a.getRowCount() & ~1;
+        int k = a.getColCount() & ~1;
+        int n = b.getColCount() & ~1;
+        
+        this.winograd(this.sub(a, 0, 0, m, k), this.sub(b, 0, 0, k, n), this.sub(c, 0, 0, m, n));
+        this.peel(a, b, c, m, k, n);
+    }
+    
+    /**
+     * Compute C = A * B by one level of Strassen-Winograd recursion with all dimensions even. The 
+     * sums and products are scheduled s.t.&nbsp;only two temporaries X and Y are needed besides the 
+     * quadrants of C.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param c  Resultant matrix C
+     */
+    protected void winograd(ArrayMatrix a, ArrayMatrix b, ArrayMatrix c) {
+        int m = a.getRowCount() / 2;
+        int k = a.getColCount() / 2;
+        int n = b.getColCount() / 2;
+        
+        ArrayMatrix a11 = this.sub(a, 0, 0, m, k), a12 = this.sub(a, 0, k, m, k);
+        ArrayMatrix a21 = this.sub(a, m, 0, m, k), a22 = this.sub(a, m, k, m, k);
+        ArrayMatrix b11 = this.sub(b, 0, 0, k, n), b12 = this.sub(b, 0, n, k, n);
+        ArrayMatrix b21 = this.sub(b, k, 0, k, n), b22 = this.sub(b, k, n, k, n);
+        ArrayMatrix c11 = this.sub(c, 0, 0, m, n), c12 = this.sub(c, 0, n, m, n);
+        ArrayMatrix c21 = this.sub(c, m, 0, m, n), c22 = this.sub(c, m, n, m, n);
+        
+        // X holds the sums of A and then M1, Y holds the sums of B
+        double[] temp = new double[m * Math.max(k, n)];
+        ArrayMatrix x = ArrayMatrix.wrap(temp, 0, m, k, k);
+        ArrayMatrix y = ArrayMatrix.of(k, n);
+        
+        this.multiply(this.combine(a11, -1.0, a21, x), this.combine(b22, -1.0, b12, y), c21);  // M7
+        this.multiply(this.combine(a21, 1.0, a22, x), this.combine(b12, -1.0, b11, y), c22);   // M5
+        this.multiply(this.combine(x, -1.0, a11, x), this.combine(b22, -1.0, y, y), c12);      // M6
+        this.multiply(this.combine(a12, -1.0, x, x), b22, c11);                               // M3
+        
+        ArrayMatrix m1 = ArrayMatrix.wrap(temp, 0, m, n, n);
+        this.multiply(a11, b11, m1);
+        this.combine(m1, 1.0, c12, c12);   // U2 = M1 + M6
+        this.combine(c12, 1.0, c21, c21);  // U3 = U2 + M7
+        this.combine(c12, 1.0, c22, c12);  // U4 = U2 + M5
+        this.combine(c21, 1.0, c22, c22);  // C22 = U3 + M5
+        this.combine(c12, 1.0, c11, c12);  // C12 = U4 + M3
+        
+        this.multiply(a22, this.combine(y, -1.0, b21, y), c11);  // M4
+        this.combine(c21, -1.0, c11, c21);                      // C21 = U3 - M4
+        this.multiply(a12, b21, c11);                           // M2
+        this.combine(m1, 1.0, c11, c11);                        // C11 = M1 + M2
+    }
+    
+    /**
+     * Add the contribution of the peeled last row, column and depth of odd dimensions, 
+     * given C[0:m, 0:n] = A[0:m, 0:k] * B[0:k, 0:n] is computed.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @param c  Resultant matrix C
+     * @param m  Even number of rows of A computed
+     * @param k  Even number of columns of A computed
+     * @param n  Even number of columns of B computed
+     */
+    protected void peel(ArrayMatrix a, ArrayMatrix b, ArrayMatrix c, int m, int k, int n) {
+        double[] u = a.getArray();
+        double[] v = b.getArray();
+        double[] w = c.getArray();
+        if(k < a.getColCount()){
+            int rowB = b.indexOf(k, 0);
+            for(int i = 0; i < m; i++){
+                double elem = u[a.indexOf(i, k)];
+                int rowC = c.indexOf(i, 0);
+                for(int j = 0; j < n; j++){
+                    w[rowC + j] += elem * v[rowB + j];
+                }
+            }
+        }
+        if(n < b.getColCount()){
+            for(int i = 0; i < m; i++){
+                int rowA = a.indexOf(i, 0);
+                double sum = 0.0;
+                for(int p = 0; p < a.getColCount(); p++){
+                    sum += u[rowA + p] * v[b.indexOf(p, n)];
+                }
+                w[c.indexOf(i, n)] = sum;
+            }
+        }
+        if(m < a.getRowCount()){
+            int rowA = a.indexOf(m, 0);
+            int rowC = c.indexOf(m, 0);
+            Arrays.fill(w, rowC, rowC + c.getColCount(), 0.0);
+            for(int p = 0; p < a.getColCount(); p++){
+                double elem = u[rowA + p];
+                int rowB = b.indexOf(p, 0);
+                for(int j = 0; j < b.getColCount(); j++){
+                    w[rowC + j] += elem * v[rowB + j];
+                }
+            }
+        }
+    }
+    
+    /**
+     * Determine if a product should be computed by recursion, i.e.&nbsp;all dimensions are not
+     * below the cut-off.
+     * @param a  Input matrix A
+     * @param b  Input matrix B
+     * @return  True if recursive, false otherwise
+     */
+    protected boolean isRecursive(Matrix a, Matrix b) {
+        return Math.min(a.getRowCount(), Math.min(a.getColCount(), b.getColCount())) >= this.cutoff;
+    }
+    
+    /**
+     * Compute Z = X + k * Y element-wise. Z can be the same as X or Y.
+     * @param x  Matrix X
+     * @param k  Coefficient k, which should be 1 or -1 s.t.&nbsp;the result is exact as addition
+     * @param y  Matrix Y
+     * @param z  Resultant matrix Z
+     * @return  Resultant matrix Z
+     */
+    protected ArrayMatrix combine(ArrayMatrix x, double k, ArrayMatrix y, ArrayMatrix z) {
+        double[] u = x.getArray();
+        double[] v = y.getArray();
+        double[] w = z.getArray();
+        for(int i = 0; i < z.getRowCount(); i++){
+            int rowX = x.indexOf(i, 0);
+            int rowY = y.indexOf(i, 0);
+            int rowZ = z.indexOf(i, 0);
+            for(int j = 0; j < z.getColCount(); j++){
+                w[rowZ + j] = u[rowX + j] + k * v[rowY + j];
+            }
+        }
+        return z;
+    }
+    
+    /**
+     * Fill all elements of a matrix with a value.
+     * @param mat  Input matrix
+     * @param value  Value to fill
+     */
+    protected void fill(ArrayMatrix mat, double value) {
+        for(int i = 0; i < mat.getRowCount(); i++){
+            int begin = mat.indexOf(i, 0);
+            Arrays.fill(mat.getArray(), begin, begin + mat.getColCount(), value);
+        }
+    }
+    
+    /**
+     * Get a sub-matrix which shares storage with a matrix.
+     * @param mat  Input matrix
+     * @param i  Begin index of rows
+     * @param j  Begin index of columns
+     * @param m  Number of rows
+     * @param n  Number of columns
+     * @return  Sub-matrix
+     */
+    protected ArrayMatrix sub(ArrayMatrix mat, int i, int j, int m, int n) {
+        return ArrayMatrix.wrap(mat.getArray(), mat.indexOf(i, j), m, n, mat.getStride());
+    }
+    
+    /**
+     * Get a matrix stored in a single backing array, copying if necessary.
+     * @param mat  Input matrix
+     * @return  Matrix stored in a single backing array
+     */
+    protected ArrayMatrix toArray(Matrix mat) {
+        return mat instanceof ArrayMatrix ? (ArrayMatrix) mat : ArrayMatrix.of(mat);
+    }
+    
+    private int cutoff;
+    private PackedMul packed;
+}
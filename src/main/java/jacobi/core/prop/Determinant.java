@@ -27,9 +27,11 @@ import java.util.Arrays;
 
 import jacobi.api.Matrix;
 import jacobi.core.decomp.gauss.AbstractElementaryOperatorDecor;
+import jacobi.core.decomp.gauss.BlockLU;
 import jacobi.core.decomp.gauss.ElementaryOperator;
 import jacobi.core.decomp.gauss.GenericGaussianElim;
 import jacobi.core.decomp.qr.step.shifts.DoubleShift;
+import jacobi.core.impl.BlockMatrix;
 import jacobi.core.util.Throw;
 
 /**
@@ -37,7 +39,8 @@ import jacobi.core.util.Throw;
  * 
  * <p>This class is not mutating, i.e.&nbsp;it does not change the value of the original matrix.</p>
  * 
- * <p>The current implementation is using Gaussian Elimination.</p>
+ * <p>The current implementation is using Gaussian Elimination, or tiled LU decomposition for large 
+ * matrices.</p>
  * 
  * @author Y.K. Chan
  */
@@ -48,6 +51,7 @@ public class Determinant {
      */
     public Determinant() {
         this.gaussElim = new GenericGaussianElim();
+        this.blockLU = new BlockLU();
     }
     
     /**
@@ -73,6 +77,9 @@ public class Determinant {
             default :
                 break;
         }
+        if(this.blockLU.isPackable(matrix)){
+            return this.blockLU.det(BlockMatrix.of(matrix));
+        }
         double det = this.gaussElim.compute(matrix, (op) -> new Sign(op)).get();        
         
         for(int i = 0; i < matrix.getRowCount(); i++){ 
@@ -102,6 +109,7 @@ public class Determinant {
     }
     
     private GenericGaussianElim gaussElim;
+    private BlockLU blockLU;
     
     private static class Sign extends AbstractElementaryOperatorDecor {
 
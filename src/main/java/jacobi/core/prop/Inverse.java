@@ -25,7 +25,9 @@ package jacobi.core.prop;
 
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
+import jacobi.core.decomp.gauss.BlockLU;
 import jacobi.core.decomp.gauss.GaussianDecomp;
+import jacobi.core.impl.BlockMatrix;
 import jacobi.core.impl.DefaultMatrix;
 import jacobi.core.solver.Substitution;
 import jacobi.core.util.Throw;
@@ -34,7 +36,8 @@ import java.util.Optional;
 /**
  * Implementation for finding inverse.
  * 
- * <p>Currently it uses Gaussian Elimination against an identity matrix.</p>
+ * <p>Currently it uses Gaussian Elimination against an identity matrix, or tiled LU decomposition 
+ * for large matrices.</p>
  * 
  * @author Y.K. Chan
  */
@@ -45,6 +48,7 @@ public class Inverse {
      */
     public Inverse() {
         this.gaussDecomp = new GaussianDecomp();
+        this.blockLU = new BlockLU();
     }
     
     /**
@@ -75,6 +79,9 @@ public class Inverse {
             default :
                 break;
         }
+        if(this.blockLU.isPackable(a)){
+            return this.blockLU.solve(BlockMatrix.of(a), Matrices.identity(a.getRowCount()));
+        }
         Matrix y = Matrices.identity(a.getRowCount());
         this.gaussDecomp.compute(a, y);
         return new Substitution(Substitution.Mode.BACKWARD, a).compute(y);
@@ -140,6 +147,7 @@ public class Inverse {
     }
     
     private GaussianDecomp gaussDecomp;
+    private BlockLU blockLU;
     
     private static final double EPSILON = 1e-12;
 }
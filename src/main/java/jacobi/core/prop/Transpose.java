@@ -33,8 +33,15 @@ import java.util.stream.Collectors;
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
 import jacobi.api.annotations.Pure;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.BlockMatrix;
 import jacobi.core.impl.ColumnVector;
 import jacobi.core.impl.Empty;
+import jacobi.core.impl.SparseMatrix;
+import jacobi.core.impl.TransposedMatrix;
+import jacobi.core.util.MapReducer;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
 import jacobi.core.util.Throw;
 
 /**
@@ -60,6 +67,22 @@ public class Transpose {
     public Matrix compute(Matrix matrix) {
     	Throw.when().isNull(() -> matrix, () -> "No matrix to transpose.");
     	
+    	if(matrix instanceof ArrayMatrix){
+    		return this.transpose((ArrayMatrix) matrix);
+    	}
+    	
+    	if(matrix instanceof BlockMatrix){
+    		return this.transpose((BlockMatrix) matrix);
+    	}
+    	
+    	if(matrix instanceof TransposedMatrix){
+    		return ((TransposedMatrix) matrix).getBase().copy();
+    	}
+    	
+    	if(matrix instanceof SparseMatrix){
+    		return ((SparseMatrix) matrix).transpose();
+    	}
+    	
     	return matrix.getRowCount() == 0 
     		? Empty.getInstance()
     		: Matrices.wrap(
@@ -67,6 +90,77 @@ public class Transpose {
     		);
     }
     
+    /**
+     * Create the transpose of the input matrix stored in a single backing array. Elements are
+     * copied in square tiles s.t.&nbsp;both reading and writing stay within a few cache lines.
+     * @param matrix  Input matrix A
+     * @return  Transpose matrix A^T
+     */
+    protected Matrix transpose(ArrayMatrix matrix) {
+    	int m = matrix.getRowCount();
+    	int n = matrix.getColCount();
+    	
+    	ArrayMatrix trans = ArrayMatrix.of(n, m);
+    	double[] src = matrix.getArray();
+    	double[] dest = trans.getArray();
+    	
+    	for(int i = 0; i < m; i += TILE_SIZE){
+    		int rowEnd = Math.min(i + TILE_SIZE, m);
+    		for(int j = 0; j < n; j += TILE_SIZE){
+    			int colEnd = Math.min(j + TILE_SIZE, n);
+    			for(int p = i; p < rowEnd; p++){
+    				int from = matrix.indexOf(p, 0);
+    				for(int q = j; q < colEnd; q++){
+    					dest[trans.indexOf(q, p)] = src[from + q];
+    				}
+    			}
+    		}
+    	}
+    	return trans;
+    }
+    
+    /**
+     * Create the transpose of a block matrix, by transposing each tile to the reflected position
+     * of the grid. Tiles are transposed in parallel if the matrix is large enough.
+     * @param matrix  Input block matrix A
+     * @return  Transpose matrix A^T partitioned in the same tile size
+     */
+    protected BlockMatrix transpose(BlockMatrix matrix) {
+    	BlockMatrix trans = BlockMatrix.zeros(matrix.getColCount(), matrix.getRowCount(), matrix.getTileSize());
+    	int numTiles = matrix.getGridRowCount() * matrix.getGridColCount();
+    	if((long) matrix.getRowCount() * matrix.getColCount() < Thresholds.threshold(Operation.DEFAULT)){
+    		this.transpose(matrix, trans, 0, numTiles);
+    	}else{
+    		MapReducer.of(0, numTiles)
+    			.flop(matrix.getTileSize() * matrix.getTileSize())
+    			.forEach((begin, end) -> this.transpose(matrix, trans, begin, end));
+    	}
+    	return trans;
+    }
+    
+    /**
+     * Transpose a range of tiles of a block matrix in serial, where tiles are indexed in row-major order.
+     * @param matrix  Input block matrix A
+     * @param trans  Transpose matrix A^T
+     * @param begin  Begin index of tiles
+     * @param end  End index of tiles, exclusive
+     */
+    protected void transpose(BlockMatrix matrix, BlockMatrix trans, int begin, int end) {
+    	for(int t = begin; t < end; t++){
+    		int i = t / matrix.getGridColCount();
+    		int j = t % matrix.getGridColCount();
+    		int m = matrix.tileRowCount(i);
+    		int n = matrix.tileColCount(j);
+    		double[] src = matrix.getTile(i, j);
+    		double[] dest = trans.getTile(j, i);
+    		for(int p = 0; p < m; p++){
+    			for(int q = 0; q < n; q++){
+    				dest[q * m + p] = src[p * n + q];
+    			}
+    		}
+    	}
+    }
+    
     /**
      * Compute on each column of the input matrix and get the results
      * @param matrix  Input matrix
@@ -100,10 +194,14 @@ public class Transpose {
     			}
     		}
     		
-    		for(int i = 0; i < matrix.getRowCount(); i++) {
-    			double[] row = matrix.getRow(i);
-    			for(int k = 0; k < span; k++) {
-    				buffer[k][i] = row[j + k];
+    		if(matrix instanceof ArrayMatrix){
+    			this.fetch((ArrayMatrix) matrix, j, span, buffer);
+    		}else{
+    			for(int i = 0; i < matrix.getRowCount(); i++) {
+    				double[] row = matrix.getRow(i);
+    				for(int k = 0; k < span; k++) {
+    					buffer[k][i] = row[j + k];
+    				}
     			}
     		}
     		
@@ -119,6 +217,28 @@ public class Transpose {
     	return results;
     }
     
+    /**
+     * Fetch a number of columns from a matrix stored in a single backing array.
+     * @param matrix  Input matrix
+     * @param begin  Begin index of columns
+     * @param span  Number of columns to fetch
+     * @param buffer  Buffer of column values
+     */
+    protected void fetch(ArrayMatrix matrix, int begin, int span, double[][] buffer) {
+    	double[] array = matrix.getArray();
+    	for(int i = 0; i < matrix.getRowCount(); i++) {
+    		int from = matrix.indexOf(i, begin);
+    		for(int k = 0; k < span; k++) {
+    			buffer[k][i] = array[from + k];
+    		}
+    	}
+    }
+    
+    /**
+     * Tile size for transposing a matrix stored in a single backing array
+     */
+    protected static final int TILE_SIZE = 32;
+    
     /**
      * Fetch size
      */
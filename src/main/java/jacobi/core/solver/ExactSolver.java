@@ -24,7 +24,9 @@
 package jacobi.core.solver;
 
 import jacobi.api.Matrix;
+import jacobi.core.decomp.gauss.BlockLU;
 import jacobi.core.decomp.gauss.GaussianDecomp;
+import jacobi.core.impl.BlockMatrix;
 import jacobi.core.solver.Substitution.Mode;
 import jacobi.core.util.Throw;
 import java.util.Optional;
@@ -36,10 +38,13 @@ import java.util.Optional;
  * 
  * <p>This class is for solving the exact solution of a full-rank square matrix A.</p>
  * 
- * <p>This class uses Gaussian Eliminated to obtain the solution.</p>
+ * <p>This class uses Gaussian Eliminated to obtain the solution. Large systems, as decided by 
+ * BlockLU.isPackable with the threshold given by Thresholds for DECOMP, are solved by tiled
+ * LU decomposition with the matrix packed into tiles.</p>
  * 
- * <p>This class is mutating, i.e.&nbsp;it destroys the value of the first parameter,
- * matrix A. Value of matrix y however, is not disturbed.</p>
+ * <p>This class is mutating, i.e.&nbsp;it transforms the first parameter, matrix A, into the upper 
+ * triangular factor U, either in place or copied back from the packed tiles. Value of matrix y 
+ * however, is not disturbed.</p>
  * 
  * @author Y.K. Chan
  */
@@ -50,6 +55,7 @@ public class ExactSolver {
      */
     public ExactSolver() {
         this.gaussDecomp = new GaussianDecomp();
+        this.blockLU = new BlockLU();
     }
         
     /**
@@ -78,6 +84,12 @@ public class ExactSolver {
         if(a.getRowCount() == 0){
             return Optional.of(y);
         }
+        if(this.blockLU.isPackable(a)){
+            BlockMatrix packed = BlockMatrix.of(a);
+            Matrix x = this.blockLU.solve(packed, y);
+            this.gaussDecomp.unpack(packed, a);
+            return Optional.ofNullable(x);
+        }
         Matrix x = y.copy();
         this.gaussDecomp.compute(a, x);
         return this.backwardSubs(a, x);
@@ -94,4 +106,5 @@ public class ExactSolver {
     }
 
     private GaussianDecomp gaussDecomp;
+    private BlockLU blockLU;
 }
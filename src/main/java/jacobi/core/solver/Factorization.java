@@ -0,0 +1,74 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.solver;
+
+import jacobi.api.Matrix;
+
+/**
+ * A factorization of a coefficient matrix A that is reusable for solving systems of linear 
+ * equations A * X = B for different right-hand sides B without factoring A again.
+ * 
+ * <p>For a square matrix A the solution is exact. For an over-determined A the solution is 
+ * in a linear-least square sense.</p>
+ * 
+ * <p>Implementations are immutable once constructed, and are safe to be shared among threads. Solving
+ * only reads the factors, and each call works on its own copy of B or on B itself for solveInPlace, 
+ * s.t.&nbsp;no scratch state is shared among calls. Columns of B are independent, and are distributed 
+ * among threads if the number of flop justifies.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public interface Factorization {
+    
+    /**
+     * Get the number of equations, i.e.&nbsp;number of rows of A.
+     * @return  Number of equations
+     */
+    public int getRowCount();
+    
+    /**
+     * Get the number of unknowns, i.e.&nbsp;number of columns of A.
+     * @return  Number of unknowns
+     */
+    public int getColCount();
+    
+    /**
+     * Solve the system of linear equations A * X = B. Value of B is not disturbed.
+     * @param rhs  Right-hand side B
+     * @return  Solution X
+     * @throws  IllegalArgumentException if B is null or dimension mismatch
+     */
+    public Matrix solve(Matrix rhs);
+    
+    /**
+     * Solve the system of linear equations A * X = B by transforming B. For a square matrix A, B is
+     * transformed into X. For an over-determined A, the top rows of B is transformed into X and the
+     * remaining rows contain the components of the residual.
+     * @param rhs  Right-hand side B
+     * @return  Instance of B transformed
+     * @throws  IllegalArgumentException if B is null or dimension mismatch
+     */
+    public Matrix solveInPlace(Matrix rhs);
+    
+}
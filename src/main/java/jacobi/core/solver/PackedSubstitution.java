@@ -0,0 +1,157 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.solver;
+
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.BlockMatrix;
+import jacobi.core.op.BlockMul;
+import jacobi.core.solver.Substitution.Mode;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Throw;
+import jacobi.core.util.VectorKernels;
+
+/**
+ * Implementation of Backward and Forward Substitution by a square triangular matrix packed in a 
+ * single array.
+ * 
+ * <p>The right-hand side is partitioned into panels of columns, which are independent and are 
+ * distributed among threads if the number of flop justifies. Only the leading rows of the 
+ * right-hand side, as many as the order of the triangular matrix, are substituted.</p>
+ * 
+ * <p>Only the part of the triangular matrix of interest is accessed, thus L and U of a 
+ * LU decomposition can share the same packed matrix. For practical and performance reasons, 
+ * this class would NOT check if the diagonal elements are negligible. It is up to the caller to 
+ * ensure the data integrity of the input.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class PackedSubstitution {
+    
+    /**
+     * Constructor.
+     * @param mode  Forward/Backward substitution
+     * @param tri  Lower/Upper triangular matrix
+     * @param unit  True if the diagonal is regarded as all ones, false otherwise
+     * @throws  IllegalArgumentException if mode or triangular matrix is null, or not square
+     */
+    public PackedSubstitution(Mode mode, ArrayMatrix tri, boolean unit) {
+        Throw.when()
+            .isNull(() -> mode, () -> "No substitution mode.")
+            .isNull(() -> tri, () -> "No triangular matrix.")
+            .isTrue(
+                () -> tri.getRowCount() != tri.getColCount(), 
+                () -> "Triangular matrix is not square. (" 
+                    + tri.getRowCount() + "x" + tri.getColCount() + ")");
+        this.mode = mode;
+        this.tri = tri;
+        this.unit = unit;
+    }
+    
+    /**
+     * Compute substitution. This method is perturbative, i.e.&nbsp;it transforms 
+     * the input into the output.
+     * @param rhs  Right-hand side of the equation
+     * @return  Instance of rhs after substitution
+     * @throws  IllegalArgumentException if rhs is null or has fewer rows than the triangular matrix
+     */
+    public ArrayMatrix compute(ArrayMatrix rhs) {
+        Throw.when()
+            .isNull(() -> rhs, () -> "No known values for substitution")
+            .isTrue(
+                () -> rhs.getRowCount() < this.tri.getRowCount(), 
+                () -> "Dimension mismatch. Expects " 
+                    + this.tri.getRowCount() + ", got " + rhs.getRowCount() + " known values.");
+        int width = BlockMatrix.DEFAULT_TILE_SIZE;
+        int panels = (rhs.getColCount() + width - 1) / width;
+        boolean parallel = (long) this.tri.getRowCount() * this.tri.getRowCount() * rhs.getColCount() 
+            >= Thresholds.threshold(Operation.MUL);
+        BlockMul.forEach(parallel, panels, (begin, end) -> {
+            for(int p = begin; p < end; p++){
+                int from = p * width;
+                int to = Math.min(from + width, rhs.getColCount());
+                if(this.mode == Mode.BACKWARD){
+                    this.backward(rhs, from, to);
+                }else{
+                    this.forward(rhs, from, to);
+                }
+            }
+        });
+        return rhs;
+    }
+    
+    /**
+     * Forward substitution by the lower triangular part on columns of interest in X.
+     * @param x  Right-hand side X
+     * @param begin  Begin index of columns of interest
+     * @param end  End index of columns of interest
+     */
+    protected void forward(ArrayMatrix x, int begin, int end) {
+        double[] factors = this.tri.getArray();
+        double[] array = x.getArray();
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int i = 0; i < this.tri.getRowCount(); i++){
+            int row = this.tri.indexOf(i, 0);
+            for(int p = 0; p < i; p++){
+                double factor = factors[row + p];
+                if(factor != 0.0){
+                    kernels.axpy(-factor, array, x.indexOf(p, begin), array, x.indexOf(i, begin), end - begin);
+                }
+            }
+            if(!this.unit){
+                int k = x.indexOf(i, begin);
+                kernels.scale(1.0 / factors[row + i], array, k, array, k, end - begin);
+            }
+        }
+    }
+    
+    /**
+     * Backward substitution by the upper triangular part on columns of interest in X.
+     * @param x  Right-hand side X
+     * @param begin  Begin index of columns of interest
+     * @param end  End index of columns of interest
+     */
+    protected void backward(ArrayMatrix x, int begin, int end) {
+        double[] factors = this.tri.getArray();
+        double[] array = x.getArray();
+        VectorKernels kernels = VectorKernels.getInstance();
+        for(int i = this.tri.getRowCount() - 1; i >= 0; i--){
+            int row = this.tri.indexOf(i, 0);
+            for(int p = i + 1; p < this.tri.getColCount(); p++){
+                double factor = factors[row + p];
+                if(factor != 0.0){
+                    kernels.axpy(-factor, array, x.indexOf(p, begin), array, x.indexOf(i, begin), end - begin);
+                }
+            }
+            if(!this.unit){
+                int k = x.indexOf(i, begin);
+                kernels.scale(1.0 / factors[row + i], array, k, array, k, end - begin);
+            }
+        }
+    }
+    
+    private Mode mode;
+    private ArrayMatrix tri;
+    private boolean unit;
+}
@@ -0,0 +1,182 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.solver;
+
+import jacobi.core.decomp.qr.QRUpdate;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.solver.Substitution.Mode;
+import jacobi.core.util.Real;
+import jacobi.core.util.Throw;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Optional;
+
+/**
+ * Solve a linear-least square problem y = X * b over a sliding window of the latest observations.
+ * 
+ * <p>The upper triangular factor R of the QR decomposition of [X y] is maintained, with y appended
+ * as the last column. An arriving observation updates R, and an expiring observation downdates R,
+ * both in O(n^2) where n is the number of variables. The estimator b is solved by 
+ * R[0:n, 0:n] * b = R[0:n, n], and |R[n, n]| is the norm of the residual.</p>
+ * 
+ * <p>When y fits exactly, R[n, n] is negligible relative to the norm of y, and the residual of an expiring 
+ * observation is rounding errors of the same order, which are not downdated. Only the projection on the 
+ * first n columns is downdated, i.e.&nbsp;the expiring y is replaced by its fitted value, and R[n, n] is kept.
+ * Downdating can still fail when the remaining observations are degenerated, in which case R is factored 
+ * again from the observations in the window. R is also factored again after every window of observations added, 
+ * s.t.&nbsp;the rounding errors of the updates do not accumulate, which costs O(n^2) per observation
+ * amortized.</p>
+ * 
+ * <p>This class is not thread-safe.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class SlidingWindowSolver {
+    
+    /**
+     * Constructor.
+     * @param numVars  Number of variables n
+     * @param window  Maximum number of observations in the window
+     * @throws  IllegalArgumentException if number of variables or window is not positive
+     */
+    public SlidingWindowSolver(int numVars, int window) {
+        this(numVars, window, new QRUpdate());
+    }
+    
+    /**
+     * Constructor.
+     * @param numVars  Number of variables n
+     * @param window  Maximum number of observations in the window
+     * @param qrUpdate  Implementation of update on upper triangular factor
+     * @throws  IllegalArgumentException if number of variables or window is not positive
+     */
+    public SlidingWindowSolver(int numVars, int window, QRUpdate qrUpdate) {
+        Throw.when()
+            .isTrue(() -> numVars < 1, () -> "Invalid number of variables " + numVars)
+            .isTrue(() -> window < 1, () -> "Invalid window size " + window);
+        this.window = window;
+        this.qrUpdate = qrUpdate;
+        this.upper = ArrayMatrix.of(numVars + 1, numVars + 1);
+        this.rows = new ArrayDeque<>(window + 1);
+    }
+    
+    /**
+     * Get the number of observations in the window.
+     * @return  Number of observations
+     */
+    public int size() {
+        return this.rows.size();
+    }
+    
+    /**
+     * Add an observation, and remove the oldest observation if the window is full.
+     * @param x  Values of variables
+     * @param y  Observed value
+     * @return  This
+     * @throws  IllegalArgumentException if x is null or dimension mismatch
+     */
+    public SlidingWindowSolver add(double[] x, double y) {
+        int n = this.upper.getColCount() - 1;
+        Throw.when()
+            .isNull(() -> x, () -> "No values of variables.")
+            .isTrue(
+                () -> x.length != n, 
+                () -> "Dimension mismatch. Expects " + n + " variables, actual " + x.length + ".");
+        double[] row = Arrays.copyOf(x, n + 1);
+        row[n] = y;
+        
+        this.rows.addLast(row);
+        this.qrUpdate.update(this.upper, row);
+        if(this.rows.size() > this.window){
+            double[] expired = this.rows.removeFirst();
+            if(!this.downdate(expired)){
+                this.refactor();
+                return this;
+            }
+        }
+        
+        if(++this.count >= this.window){
+            this.refactor();
+        }
+        return this;
+    }
+    
+    /**
+     * Find the linear-least square estimator b of the observations in the window.
+     * @return  Estimator b, or empty if the observations are degenerated
+     */
+    public Optional<double[]> solve() {
+        int n = this.upper.getColCount() - 1;
+        if(this.rows.size() < n){
+            return Optional.empty();
+        }
+        ArrayMatrix tri = ArrayMatrix.wrap(this.upper.getArray(), 0, n, n, n + 1);
+        double[] rhs = new double[n];
+        for(int i = 0; i < n; i++){
+            rhs[i] = this.upper.get(i, n);
+        }
+        return Optional.ofNullable(new Substitution(Mode.BACKWARD, tri).compute(rhs));
+    }
+    
+    /**
+     * Get the norm of the residual of the estimator, i.e.&nbsp;|y - X * b|.
+     * @return  Norm of the residual
+     */
+    public double residual() {
+        int n = this.upper.getColCount() - 1;
+        return Math.abs(this.upper.get(n, n));
+    }
+    
+    /**
+     * Downdate R by an expiring observation, with only the projection on the first n columns if y fits exactly.
+     * @param row  Values of variables and observed value of the expiring observation
+     * @return  True if downdated, false otherwise
+     */
+    protected boolean downdate(double[] row) {
+        int n = this.upper.getColCount() - 1;
+        double norm = 0.0;
+        for(int i = 0; i <= n; i++){
+            norm += this.upper.get(i, n) * this.upper.get(i, n);
+        }
+        boolean exact = Math.abs(this.upper.get(n, n)) <= Real.EPSILON * Math.sqrt(norm);
+        return this.qrUpdate.downdate(this.upper, row, exact ? n : n + 1).isPresent();
+    }
+    
+    /**
+     * Factor R again from the observations in the window.
+     */
+    protected void refactor() {
+        this.count = 0;
+        Arrays.fill(this.upper.getArray(), 0.0);
+        for(double[] row : this.rows){
+            this.qrUpdate.update(this.upper, row);
+        }
+    }
+
+    private int window, count;
+    private QRUpdate qrUpdate;
+    private ArrayMatrix upper;
+    private Deque<double[]> rows;
+}
@@ -25,6 +25,7 @@ package jacobi.core.solver;
 
 import jacobi.api.Matrix;
 import jacobi.core.impl.ColumnVector;
+import jacobi.core.util.ComputePool;
 import jacobi.core.util.Real;
 import jacobi.core.util.Throw;
 import java.util.stream.IntStream;
@@ -223,12 +224,12 @@ public class Substitution {
      * @param end   End of row to be substituted
      */
     protected void stream(Matrix rhs, double[] subs, int subIndex, int begin, int end) {
-        IntStream.range(begin, end).parallel().forEach((i) -> {
+        ComputePool.run(() -> IntStream.range(begin, end).parallel().forEach((i) -> {
             double[] row = rhs.getRow(i);
             double elem = this.tri.get(i, subIndex);
             this.substitute(row, elem, subs);
             rhs.setRow(i, row);
-        });
+        }));
     }
     
     /**
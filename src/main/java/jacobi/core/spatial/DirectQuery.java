@@ -32,6 +32,7 @@ import jacobi.api.Matrix;
 import jacobi.api.spatial.SpatialIndex;
 import jacobi.core.util.IntStack;
 import jacobi.core.util.MinHeap;
+import jacobi.core.util.VectorKernels;
 
 /**
  * Perform spatial query linearly without index.
@@ -85,12 +86,7 @@ public class DirectQuery implements SpatialIndex<Integer> {
 	 * @return  Squared euclidean distance
 	 */
 	protected static double sqDist(double[] u, double[] v) {
-		double dist = 0.0;
-		for(int i = 0; i < u.length; i++){
-			double dx = u[i] - v[i];
-			dist += dx * dx;
-		}
-		return dist;
+		return VectorKernels.getInstance().sqDist(u, 0, v, 0, u.length);
 	}
 
 	private Matrix matrix;
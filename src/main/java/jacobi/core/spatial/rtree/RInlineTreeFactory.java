@@ -86,7 +86,10 @@ public class RInlineTreeFactory {
 		Deque<RLayer> stack = new ArrayDeque<>();
 		stack.push(base);
 		
-		RLayer nodes = this.sPacker.apply(this.toList(matrix, base.cuts));
+		RLayer nodes = this.sPacker.apply(inline 
+			? this.toList(base.bounds, matrix.getColCount(), matrix.getRowCount())
+			: this.toList(matrix, base.cuts)
+		);
 		stack.push(nodes);
 		
 		int max = DEFAULT_MAX_DEPTH;
@@ -120,23 +123,51 @@ public class RInlineTreeFactory {
 	 * @return  A R-Layer consists of the sequence of the data, and inlined data if inline flag is true
 	 */
 	protected RLayer serialize(Matrix matrix, boolean inline) {
-		int[] seq = this.sortingFn.sort(this.toList(matrix, null));
-		
 		if(!inline){
-			return new RLayer(seq, new double[0]);
+			return new RLayer(this.sortingFn.sort(this.toList(matrix, null)), new double[0]);
 		}
 		
 		int dim = matrix.getColCount();
 		int len = matrix.getRowCount() * matrix.getColCount();
 		
+		// rows are streamed once into the inline data, s.t. matrices not holding double 
+		// rows in memory, e.g. single precision or memory-mapped, are not copied again.
+		// Sorting and packing read the inline data through views afterwards.
 		double[] serial = new double[len];
-		for(int i = 0; i < seq.length; i++){
-			double[] vector = matrix.getRow(seq[i]);
-			System.arraycopy(vector, 0, serial, i * dim, dim);
-		}
+		matrix.forEachRow(0, matrix.getRowCount(), (row, i) -> System.arraycopy(row, 0, serial, i * dim, dim));
+		
+		int[] seq = this.sortingFn.sort(serial, dim, matrix.getRowCount());
+		this.permute(serial, dim, seq);
 		return new RLayer(seq, serial);
 	}
 	
+	/**
+	 * Re-arrange the vectors in a serialized array in place, s.t.&nbsp;the i-th vector becomes the
+	 * seq[i]-th vector originally.
+	 * @param serial  Vectors serialized in an array
+	 * @param dim  Dimension of vectors
+	 * @param seq  Sequence of vectors
+	 */
+	protected void permute(double[] serial, int dim, int[] seq) {
+		boolean[] done = new boolean[seq.length];
+		double[] temp = new double[dim];
+		for(int start = 0; start < seq.length; start++){
+			if(done[start]){
+				continue;
+			}
+			
+			System.arraycopy(serial, start * dim, temp, 0, dim);
+			int i = start;
+			while(seq[i] != start){
+				System.arraycopy(serial, seq[i] * dim, serial, i * dim, dim);
+				done[i] = true;
+				i = seq[i];
+			}
+			System.arraycopy(temp, 0, serial, i * dim, dim);
+			done[i] = true;
+		}
+	}
+	
 	/**
 	 * Wrap a matrix into a list of arrays.
 	 * @param matrix  Input data matrix
@@ -159,6 +190,30 @@ public class RInlineTreeFactory {
 		};
 	}
 
+	/**
+	 * Wrap a serialized array of vectors into a list of arrays. A vector is copied out 
+	 * only when it is accessed.
+	 * @param serial  Vectors serialized in an array
+	 * @param dim  Dimension of vectors
+	 * @param count  Number of vectors
+	 * @return  List of arrays
+	 */
+	protected List<double[]> toList(double[] serial, int dim, int count) {
+		return new AbstractList<double[]>(){
+
+			@Override
+			public double[] get(int index) {
+				return Arrays.copyOfRange(serial, index * dim, (index + 1) * dim);
+			}
+
+			@Override
+			public int size() {
+				return count;
+			}
+			
+		};
+	}
+
 	private SpatialSort sortingFn;
 	private Function<RLayer, RLayer> rPacker;
 	private Function<List<double[]>, RLayer> sPacker;
@@ -111,6 +111,15 @@ public class DefaultSpatialSort implements SpatialSort {
 		return this.zSort.sort(vectors);
 	}
 	
+	@Override
+	public int[] sort(double[] serial, int dim, int count) {
+		if(dim == 1){
+			// not a spatial sort, but ok
+			return Ranking.of(count).init(i -> serial[i]).sort();
+		}
+		return SpatialSort.super.sort(serial, dim, count);
+	}
+	
 	/**
 	 * Get spatial sort implementation for special case that only a few dimensions are significant
 	 * @param dim  Dimensions that are significant
@@ -23,7 +23,10 @@
  */
 package jacobi.core.spatial.sort;
 
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Common interface for sorting a list of spatial vectors.
@@ -41,5 +44,34 @@ public interface SpatialSort {
 	 * @return  Array of index in sorted order
 	 */
 	public int[] sort(List<double[]> vectors);
+	
+	/**
+	 * Sort spatial vectors serialized in a single array. By default the array is sorted through a list
+	 * view which copies out a vector only when it is accessed. Implementations sorting on a few 
+	 * dimensions can compare by offsets instead.
+	 * @param serial  Vectors serialized in an array
+	 * @param dim  Dimension of vectors
+	 * @param count  Number of vectors
+	 * @return  Array of index in sorted order
+	 */
+	public default int[] sort(double[] serial, int dim, int count) {
+		if(dim < 1){
+			return IntStream.range(0, count).toArray();
+		}
+		
+		return this.sort(new AbstractList<double[]>(){
+
+			@Override
+			public double[] get(int index) {
+				return Arrays.copyOfRange(serial, index * dim, (index + 1) * dim);
+			}
+
+			@Override
+			public int size() {
+				return count;
+			}
+			
+		});
+	}
 
 }
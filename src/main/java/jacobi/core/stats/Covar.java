@@ -25,6 +25,7 @@ package jacobi.core.stats;
 
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
+import jacobi.api.annotations.Pure;
 
 /**
  * Computation of covariance matrix.
@@ -34,6 +35,7 @@ import jacobi.api.Matrix;
  * 
  * @author Y.K. Chan
  */
+@Pure
 public class Covar {
 
     /**
@@ -77,8 +79,7 @@ public class Covar {
      */
     protected Matrix serial(Matrix matrix, int begin, int end, double[] mean, Matrix cov) {
         double[] dist = new double[mean.length];
-        for(int k = begin; k < end; k++){
-            double[] row = matrix.getRow(k);
+        matrix.forEachRow(begin, end, (row, k) -> {
             for(int i = 0; i < dist.length; i++){
                 dist[i] = row[i] - mean[i];
             }
@@ -89,7 +90,7 @@ public class Covar {
                 }
                 cov.setRow(i, covRow);
             }
-        }
+        });
         return cov;
     }
     
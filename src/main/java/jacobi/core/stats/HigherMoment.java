@@ -25,6 +25,7 @@
 package jacobi.core.stats;
 
 import jacobi.api.Matrix;
+import jacobi.api.annotations.Pure;
 import jacobi.core.util.Throw;
 import java.util.function.DoubleUnaryOperator;
 
@@ -44,11 +45,13 @@ import java.util.function.DoubleUnaryOperator;
  * 
  * @author Y.K. Chan
  */
+@Pure
 public class HigherMoment {
     
     /**
      * Skewness, i.e.&nbsp; 3rd order of moment.
      */
+    @Pure
     public static class Skewness extends HigherMoment {
 
         /**
@@ -63,6 +66,7 @@ public class HigherMoment {
     /**
      * Kurtosis, i.e.&nbsp; 4th order of moment.
      */
+    @Pure
     public static class Kurtosis extends HigherMoment {
 
         /**
@@ -24,6 +24,8 @@
 package jacobi.core.stats;
 
 import jacobi.api.Matrix;
+import jacobi.api.annotations.Pure;
+import jacobi.core.impl.SparseMatrix;
 import jacobi.core.util.Throw;
 import java.util.Arrays;
 import java.util.function.BiConsumer;
@@ -31,6 +33,9 @@ import java.util.function.BiConsumer;
 /**
  * For computing vector that is from reducing of all rows in a matrix, e.g.&nbsp;max, min, mean. 
  * 
+ * <p>Rows are visited in order by streaming, thus matrices not held in memory can be reduced
+ * without loading all rows.</p>
+ * 
  * @author Y.K. Chan
  */
 public class RowReduce { 
@@ -38,6 +43,7 @@ public class RowReduce {
     /**
      * Entrance class for maximum function
      */
+    @Pure
     public static class Max extends RowReduce {
 
         /**
@@ -52,6 +58,7 @@ public class RowReduce {
     /**
      * Entrance class for minimum function
      */
+    @Pure
     public static class Min extends RowReduce {
 
         /**
@@ -66,6 +73,7 @@ public class RowReduce {
     /**
      * Entrance class for mean function
      */
+    @Pure
     public static class Mean extends RowReduce {
 
         /**
@@ -77,13 +85,34 @@ public class RowReduce {
 
         @Override
         public double[] compute(Matrix matrix) {
-            double[] ans = super.compute(matrix);
+            double[] ans = matrix instanceof SparseMatrix 
+                ? this.sum((SparseMatrix) matrix) 
+                : super.compute(matrix);
             for(int i = 0; i < ans.length; i++){
                 ans[i] /= matrix.getRowCount();
             }
             return ans;
         }
         
+        /**
+         * Compute the sum of each column of a sparse matrix by its non-zero elements.
+         * @param matrix  Sparse matrix
+         * @return  Sum of each column
+         */
+        protected double[] sum(SparseMatrix matrix) {
+            int[] ptr = matrix.getPointers();
+            int[] idx = matrix.getIndices();
+            double[] vals = matrix.getValues();
+            
+            double[] ans = new double[matrix.getColCount()];
+            for(int line = 0; line + 1 < ptr.length; line++){
+                for(int k = ptr[line]; k < ptr[line + 1]; k++){
+                    ans[matrix.isRowMajor() ? idx[k] : line] += vals[k];
+                }
+            }
+            return ans;
+        }
+        
     }
 
     /**
@@ -116,9 +145,7 @@ public class RowReduce {
             throw new IllegalStateException();
         }
         double[] ans = Arrays.copyOf(matrix.getRow(begin), matrix.getColCount());
-        for(int i = begin + 1; i < end; i++){
-            this.reduce.accept(ans, matrix.getRow(i));
-        }
+        matrix.forEachRow(begin + 1, end, (row, i) -> this.reduce.accept(ans, row));
         return ans;
     }
     
@@ -24,6 +24,8 @@
 package jacobi.core.stats;
 
 import jacobi.api.Matrix;
+import jacobi.api.annotations.Pure;
+import jacobi.core.impl.SparseMatrix;
 import jacobi.core.util.Throw;
 
 /**
@@ -40,13 +42,18 @@ import jacobi.core.util.Throw;
  * <p>A biased variance is chosen since it's easier to understand and simplier
  * to convert to un-biased variance if necessary.</p>
  * 
+ * <p>For a sparse matrix, only the non-zero elements are visited and the contribution of the
+ * zero elements of each column is added in one go.</p>
+ * 
  * @author Y.K. Chan
  */
+@Pure
 public class Variance {
     
     /**
      * Compute the standard deviation, which is square root of variance.
      */
+    @Pure
     public static class StdDev {
 
         /**
@@ -97,7 +104,9 @@ public class Variance {
             return new double[0];
         }
         
-        double[] var = this.serial(matrix, 0, matrix.getRowCount(), mean);
+        double[] var = matrix instanceof SparseMatrix
+            ? this.sparse((SparseMatrix) matrix, mean)
+            : this.serial(matrix, 0, matrix.getRowCount(), mean);
         for(int i = 0; i < var.length; i++){
             var[i] /= matrix.getRowCount();
         }
@@ -124,4 +133,32 @@ public class Variance {
         return sum;
     }
     
+    /**
+     * Compute the sum of squared deviations of each column of a sparse matrix given the mean.
+     * @param matrix  Sparse matrix
+     * @param mean  Mean of each columns
+     * @return  Sum of squared deviations of each columns
+     */
+    protected double[] sparse(SparseMatrix matrix, double[] mean) {
+        int[] ptr = matrix.getPointers();
+        int[] idx = matrix.getIndices();
+        double[] vals = matrix.getValues();
+        
+        double[] sum = new double[mean.length];
+        int[] count = new int[mean.length];
+        for(int line = 0; line + 1 < ptr.length; line++){
+            for(int k = ptr[line]; k < ptr[line + 1]; k++){
+                int j = matrix.isRowMajor() ? idx[k] : line;
+                double delta = vals[k] - mean[j];
+                sum[j] += delta * delta;
+                count[j]++;
+            }
+        }
+        
+        for(int j = 0; j < sum.length; j++){
+            sum[j] += (matrix.getRowCount() - count[j]) * mean[j] * mean[j];
+        }
+        return sum;
+    }
+    
 }
@@ -0,0 +1,298 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.util;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Thresholds.Setting;
+
+/**
+ * Calibration of parallelism thresholds by micro-benchmarking.
+ * 
+ * <p>For each operation the time per flop of its own innermost kernel is measured, as well as the cost of
+ * entering a parallel region and the cost of forking a single task in the shared ComputePool. With p 
+ * threads, computing n flop in parallel saves about n * t * (1 - 1/p) of time for t being the time per 
+ * flop, thus the threshold is the number of flop where the saving is a multiple of the cost of the parallel
+ * region. The grain size is the number of flop s.t.&nbsp;the cost of forking is a small fraction of
+ * the work of a task.</p>
+ * 
+ * <p>Each measurement is the best of a number of repeated runs to reduce the noise of scheduling and
+ * garbage collection. Before measuring, the task is warmed up for at least a thousand runs, and further
+ * until the average time of consecutive batches of runs is stable, s.t.&nbsp;the kernels are compiled
+ * before being measured.</p>
+ * 
+ * @author Y.K. Chan
+ */
+class Calibration {
+    
+    /**
+     * Length of vectors in kernel benchmarks
+     */
+    protected static final int DEFAULT_LENGTH = 256;
+    
+    /**
+     * Number of repeated runs for each measurement
+     */
+    protected static final int DEFAULT_NUM_RUNS = 32;
+    
+    /**
+     * Minimum number of warm-up runs before measuring
+     */
+    protected static final int DEFAULT_MIN_WARM_UP = 1024;
+    
+    /**
+     * Maximum number of warm-up runs before measuring
+     */
+    protected static final int DEFAULT_MAX_WARM_UP = 16384;
+    
+    /**
+     * Relative difference of the average time of consecutive batches to be regarded as stable
+     */
+    protected static final double DEFAULT_STABLE_RATIO = 0.05;
+    
+    /**
+     * Number of kernel calls for each run
+     */
+    protected static final int DEFAULT_NUM_CALLS = 256;
+    
+    /**
+     * Ratio of saving to the cost of the parallel region to start parallelizing
+     */
+    protected static final double DEFAULT_MARGIN = 2.0;
+    
+    /**
+     * Ratio of the work of a task to the cost of forking it
+     */
+    protected static final double DEFAULT_GRAIN_RATIO = 16.0;
+    
+    /**
+     * Minimum grain size in number of flop
+     */
+    protected static final long MIN_GRAIN = 256;
+
+    /**
+     * Constructor.
+     * @param kernels  Kernels to be benchmarked
+     * @param parallelism  Number of worker threads
+     */
+    public Calibration(VectorKernels kernels, int parallelism) {
+        this.kernels = kernels;
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Calibrate the setting of all operations.
+     * @return  Calibrated settings by operation
+     */
+    public Map<Operation, Setting> run() {
+        double regionCost = this.regionCost();
+        double taskCost = this.taskCost();
+        Map<Operation, Setting> settings = new EnumMap<>(Operation.class);
+        for(Operation op : Operation.values()){
+            settings.put(op, this.setting(this.flopCost(op), regionCost, taskCost));
+        }
+        return settings;
+    }
+    
+    /**
+     * Compute the setting by the measured costs.
+     * @param flopCost  Time per flop in nanoseconds
+     * @param regionCost  Time of entering and leaving a parallel region in nanoseconds
+     * @param taskCost  Time of forking and joining a task in nanoseconds
+     * @return  Setting of parallelism
+     */
+    protected Setting setting(double flopCost, double regionCost, double taskCost) {
+        double unit = Math.max(flopCost, Double.MIN_NORMAL);
+        long grain = Math.max(MIN_GRAIN, this.toLong(DEFAULT_GRAIN_RATIO * taskCost / unit));
+        if(this.parallelism < 2){
+            return new Setting(Long.MAX_VALUE, grain);
+        }
+        double saving = 1.0 - 1.0 / this.parallelism;
+        long threshold = this.toLong(DEFAULT_MARGIN * regionCost / (unit * saving));
+        return new Setting(Math.max(threshold, grain), grain);
+    }
+    
+    /**
+     * Measure the time per flop of the innermost kernel of an operation.
+     * @param op  Operation
+     * @return  Time per flop in nanoseconds
+     */
+    protected double flopCost(Operation op) {
+        double[] u = new double[DEFAULT_LENGTH];
+        double[] v = new double[DEFAULT_LENGTH];
+        for(int i = 0; i < DEFAULT_LENGTH; i++){
+            u[i] = 1.0 + i / (double) DEFAULT_LENGTH;
+            v[i] = 1.0 - i / (double) DEFAULT_LENGTH;
+        }
+        
+        Runnable kernel = this.kernel(op, u, v);
+        return this.best(() -> {
+            for(int i = 0; i < DEFAULT_NUM_CALLS; i++){
+                kernel.run();
+            }
+        }) / ((double) DEFAULT_NUM_CALLS * DEFAULT_LENGTH);
+    }
+    
+    /**
+     * Find the innermost kernel of an operation on two vectors of the default length.
+     * @param op  Operation
+     * @param u  Vector u
+     * @param v  Vector v, which may be updated by the kernel
+     * @return  Kernel of the operation
+     */
+    protected Runnable kernel(Operation op, double[] u, double[] v) {
+        switch(op) {
+            case MUL_T:
+                // row-by-row dot products
+                return () -> this.sink += this.kernels.dot(u, 0, v, 0, DEFAULT_LENGTH);
+            case DOT:
+                // products of columns accumulated row-by-row
+                return () -> this.kernels.mulAdd(u, 0, u, 0, v, 0, DEFAULT_LENGTH);
+            case KMEANS:
+                return () -> this.sink += this.kernels.sqDist(u, 0, v, 0, DEFAULT_LENGTH);
+            case MUL:
+            case DECOMP:
+            case DEFAULT:
+            default:
+                // rows of the resultant accumulated by scaled rows
+                return () -> this.kernels.axpy(1e-9, u, 0, v, 0, DEFAULT_LENGTH);
+        }
+    }
+    
+    /**
+     * Measure the time of a parallel region with a single task for each worker.
+     * @return  Time in nanoseconds
+     */
+    protected double regionCost() {
+        return this.best(() -> ComputePool.invoke(new Fork(0, this.parallelism)));
+    }
+    
+    /**
+     * Measure the time of forking and joining a single task.
+     * @return  Time in nanoseconds
+     */
+    protected double taskCost() {
+        int numTasks = 64 * this.parallelism;
+        return this.best(() -> ComputePool.invoke(new Fork(0, numTasks))) / numTasks;
+    }
+    
+    /**
+     * Find the shortest time of repeated runs of a task, after warming up.
+     * @param task  Task to be run
+     * @return  Shortest time in nanoseconds
+     */
+    protected double best(Runnable task) {
+        this.warmUp(task);
+        long best = Long.MAX_VALUE;
+        for(int k = 0; k < DEFAULT_NUM_RUNS; k++){
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Math.max(best, 1L);
+    }
+    
+    /**
+     * Run a task repeatedly until the time of runs is stable, i.e.&nbsp;the average time of a batch of 
+     * runs differs from the previous batch by a small ratio, within the minimum and maximum number of runs.
+     * @param task  Task to be run
+     * @return  Number of warm-up runs
+     */
+    protected int warmUp(Runnable task) {
+        for(int k = 0; k < DEFAULT_MIN_WARM_UP; k++){
+            task.run();
+        }
+        
+        long prev = this.batch(task);
+        int count = DEFAULT_MIN_WARM_UP + DEFAULT_NUM_RUNS;
+        while(count < DEFAULT_MAX_WARM_UP){
+            long next = this.batch(task);
+            count += DEFAULT_NUM_RUNS;
+            if(Math.abs(next - prev) <= DEFAULT_STABLE_RATIO * prev){
+                break;
+            }
+            prev = next;
+        }
+        return count;
+    }
+    
+    /**
+     * Measure the total time of a batch of runs of a task.
+     * @param task  Task to be run
+     * @return  Total time in nanoseconds
+     */
+    protected long batch(Runnable task) {
+        long start = System.nanoTime();
+        for(int k = 0; k < DEFAULT_NUM_RUNS; k++){
+            task.run();
+        }
+        return System.nanoTime() - start;
+    }
+    
+    /**
+     * Round a positive number to long, saturated at Long.MAX_VALUE.
+     * @param value  Positive number
+     * @return  Rounded value
+     */
+    protected long toLong(double value) {
+        return value >= Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(1L, Math.round(value));
+    }
+    
+    private VectorKernels kernels;
+    private int parallelism;
+    private volatile double sink;
+    
+    /**
+     * Fork-join task that recursively divides a range of indices and does nothing on leaves.
+     */
+    protected static class Fork extends RecursiveAction {
+
+        /**
+         * Constructor.
+         * @param begin  Begin of range of leaves
+         * @param end  End of range of leaves
+         */
+        public Fork(int begin, int end) {
+            this.begin = begin;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if(end - begin < 2){
+                return;
+            }
+            int mid = (begin + end) / 2;
+            Fork left = new Fork(begin, mid);
+            left.fork();
+            new Fork(mid, end).compute();
+            left.join();
+        }
+        
+        private int begin, end;
+    }
+}
@@ -0,0 +1,225 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executor for all parallel computations in this library.
+ * 
+ * <p>All parallel regions, i.e.&nbsp;MapReducer, ParallelSupplier and parallel streams, are run in a single 
+ * work-stealing pool with bounded parallelism, instead of spawning threads per call, s.t.&nbsp;the number of 
+ * computing threads does not grow with the number of concurrent callers.</p>
+ * 
+ * <p>A parallel region that is entered from a worker of the pool, i.e.&nbsp;a nested parallel region, 
+ * does not submit new work to the queue and wait, but is computed by the worker itself, either
+ * by fork-join within the worker or in serial.</p>
+ * 
+ * <p>The parallelism of the default pool is the number of available processors, and can be configured
+ * by the system property jacobi.parallelism. Alternatively a pool can be given by setPool, e.g.&nbsp;to share
+ * with an application.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public final class ComputePool {
+    
+    /**
+     * Name of system property for the parallelism of the default pool
+     */
+    public static final String PROPERTY_PARALLELISM = "jacobi.parallelism";
+    
+    private ComputePool() {
+        throw new UnsupportedOperationException("Do not instaniate.");
+    }
+    
+    /**
+     * Get the shared pool, creating the default pool if none is given.
+     * @return  Shared fork-join pool
+     */
+    public static ForkJoinPool getPool() {
+        ForkJoinPool pool = instance;
+        if(pool == null){
+            synchronized(ComputePool.class){
+                if(instance == null){
+                    instance = newPool(defaultParallelism());
+                    owned = true;
+                }
+                pool = instance;
+            }
+        }
+        return pool;
+    }
+    
+    /**
+     * Replace the shared pool. The previous pool is shut down only if it is created by this class,
+     * i.e.&nbsp;a pool given by setPool is left to the caller to shut down.
+     * @param pool  Fork-join pool, or null to use the default pool
+     */
+    public static void setPool(ForkJoinPool pool) {
+        replace(pool, false);
+    }
+    
+    /**
+     * Replace the shared pool with a new pool with given parallelism.
+     * @param parallelism  Number of worker threads
+     * @throws IllegalArgumentException  if parallelism is not positive
+     */
+    public static void setParallelism(int parallelism) {
+        Throw.when().isTrue(() -> parallelism < 1, () -> "Invalid parallelism " + parallelism);
+        replace(newPool(parallelism), true);
+    }
+    
+    /**
+     * Get the parallelism of the shared pool.
+     * @return  Parallelism
+     */
+    public static int getParallelism() {
+        return getPool().getParallelism();
+    }
+    
+    /**
+     * Determine if current thread is a worker of the shared pool, i.e.&nbsp;in a parallel region.
+     * @return  True if current thread is a worker of the shared pool, false otherwise
+     */
+    public static boolean isWorker() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof ForkJoinWorkerThread
+            && ((ForkJoinWorkerThread) thread).getPool() == getPool();
+    }
+    
+    /**
+     * Invoke a fork-join task in the shared pool and wait for its result. The task is computed
+     * by current thread if current thread is already a worker of the shared pool.
+     * @param <T>  Type of result
+     * @param task  Fork-join task
+     * @return  Result of the task
+     */
+    public static <T> T invoke(ForkJoinTask<T> task) {
+        if(isWorker()){
+            return task.invoke();
+        }
+        enter();
+        return getPool().invoke(task);
+    }
+    
+    /**
+     * Run a task in the shared pool and wait for its completion. Parallel streams run within the 
+     * task are also computed in the shared pool. The task is run by current thread if current thread 
+     * is already a worker of the shared pool.
+     * @param task  Task to be run
+     */
+    public static void run(Runnable task) {
+        if(isWorker()){
+            task.run();
+            return;
+        }
+        enter();
+        getPool().invoke(ForkJoinTask.adapt(task));
+    }
+    
+    /**
+     * Submit a task to the shared pool without waiting.
+     * @param task  Task to be run
+     * @return  Fork-join task for joining
+     */
+    public static ForkJoinTask<?> submit(Runnable task) {
+        enter();
+        return getPool().submit(task);
+    }
+    
+    /**
+     * Set the listener to be notified when a caller, i.e.&nbsp;not a worker, enters a parallel region 
+     * or submits a task. The listener is run by the calling thread and should be cheap.
+     * @param listener  Listener, or null to remove
+     */
+    public static void setListener(Runnable listener) {
+        ComputePool.listener = listener;
+    }
+    
+    /**
+     * Notify the listener, if any, of entering a parallel region.
+     */
+    private static void enter() {
+        Runnable action = listener;
+        if(action != null){
+            action.run();
+        }
+    }
+    
+    /**
+     * Get the default parallelism by system property, or the number of available processors
+     * if not specified or invalid.
+     * @return  Default parallelism
+     */
+    protected static int defaultParallelism() {
+        int numProcs = Runtime.getRuntime().availableProcessors();
+        try {
+            int value = Integer.getInteger(PROPERTY_PARALLELISM, numProcs);
+            return value < 1 ? numProcs : value;
+        } catch(SecurityException ex) {
+            return numProcs;
+        }
+    }
+    
+    /**
+     * Replace the shared pool and shut down the previous pool if it is created by this class.
+     * @param pool  New pool
+     * @param isOwned  True if the new pool is created by this class
+     */
+    private static void replace(ForkJoinPool pool, boolean isOwned) {
+        ForkJoinPool prev = null;
+        synchronized(ComputePool.class){
+            if(owned){
+                prev = instance;
+            }
+            instance = pool;
+            owned = pool != null && isOwned;
+        }
+        if(prev != null && prev != pool){
+            prev.shutdown();
+        }
+    }
+    
+    /**
+     * Create a new pool with daemon worker threads.
+     * @param parallelism  Number of worker threads
+     * @return  New fork-join pool
+     */
+    private static ForkJoinPool newPool(int parallelism) {
+        AtomicInteger count = new AtomicInteger(0);
+        return new ForkJoinPool(parallelism, (pool) -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("jacobi-compute-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+    
+    private static volatile ForkJoinPool instance;
+    private static volatile Runnable listener;
+    private static boolean owned;
+}
@@ -24,7 +24,6 @@
 
 package jacobi.core.util;
 
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveTask;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -48,6 +47,8 @@ import java.util.function.Supplier;
  * 
  * <p>It also skips using parallelism if the amount of work falls under the limit.</p>
  * 
+ * <p>Tasks are computed in the shared ComputePool.</p>
+ * 
  * @author Y.K. Chan
  * @param <T>  Result type
  */
@@ -100,7 +101,7 @@ public class MapReducer<T> implements Supplier<T> {
         if(end - begin < limit){
             return this.mapper.apply(begin, end);
         }        
-        return ForkJoinPool.commonPool().invoke(new Task(begin, end));
+        return ComputePool.invoke(new Task(begin, end));
     }
     
     private int begin, end, limit;
@@ -151,13 +152,24 @@ public class MapReducer<T> implements Supplier<T> {
         public Limited limit(int num);
         
         /**
-         * Specify the number of flop for each index and use the default number of flop
+         * Specify the number of flop for each index and use the default grain size
          * to compute the maximum number of work a thread should be allocated to.
          * @param count  Number of flop for each index
          * @return  Builder helper class
          */
         public default Limited flop(int count) {
-            return this.limit(Math.max(DEFAULT_NUM_FLOP / count, 2));
+            return this.flop(count, Thresholds.grain(Thresholds.Operation.DEFAULT));
+        }
+        
+        /**
+         * Specify the number of flop for each index and the number of flop for a single thread
+         * to compute the maximum number of work a thread should be allocated to.
+         * @param count  Number of flop for each index
+         * @param grain  Number of flop for a single thread
+         * @return  Builder helper class
+         */
+        public default Limited flop(int count, long grain) {
+            return this.limit((int) Math.max(Math.min(grain / Math.max(count, 1), Integer.MAX_VALUE), 2));
         }
         
     }
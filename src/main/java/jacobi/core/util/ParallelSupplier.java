@@ -25,6 +25,8 @@
 package jacobi.core.util;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.IntConsumer;
 import java.util.function.Supplier;
@@ -32,13 +34,19 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
- * Composite suppliers that will be run in parallel, each with its own thread.
+ * Composite suppliers that will be run in parallel.
  * 
- * <p>In some scenarios, especially works are closely dependent of each other and synchronizing is frequent, fork-join 
- * model is not suitable since it requires spawning threads each time of synchronizing. Synchronization in ExecutorService
- * is hard since newFixedThreadPool guarantees maximum thread limit, but lesser threads may be spawned instead.</p>
+ * <p>In some scenarios, works are of similar sizes and are better distributed by workers pulling from
+ * a common source, instead of recursively dividing the range of works as in fork-join model.</p>
  * 
- * <p>This class uses one thread per supplier so the number of threads is predictable.</p>
+ * <p>The first supplier is run by the calling thread and the rest are run in the shared ComputePool. 
+ * Since the parallelism of the pool is bounded, suppliers are not guaranteed to be run concurrently, 
+ * thus suppliers should not wait for each other. When called within a worker of the pool, i.e.&nbsp;a 
+ * nested parallel region, all suppliers are run by the calling thread in serial. A single supplier is 
+ * run by the calling thread, and no supplier results in an empty list.</p>
+ * 
+ * <p>If the first supplier fails with an error not caught as the result, the suppliers in the pool not 
+ * yet started are skipped, and those running are waited for before the error is re-thrown.</p>
  * 
  * @author Y.K. Chan
  * @param <T>  Individual return result
@@ -75,6 +83,12 @@ public class ParallelSupplier<T> implements Supplier<List<T>> {
      * @param numThreads   Number of worker threads
     */
     public static void cyclic(IntConsumer task, int begin, int end, int numThreads) {
+    	if(ComputePool.isWorker()){
+    		for(int i = begin; i < end; i++){
+    			task.accept(i);
+    		}
+    		return;
+    	}
     	AtomicInteger work = new AtomicInteger(begin); 
         ParallelSupplier.of(() -> { 
             int next = work.getAndIncrement();
@@ -83,7 +97,7 @@ public class ParallelSupplier<T> implements Supplier<List<T>> {
                 next = work.getAndIncrement();                
             }
             return null;
-        }, numThreads).get();
+        }, Math.max(1, Math.min(numThreads, ComputePool.getParallelism() + 1))).get();
     }
     
     /**
@@ -129,21 +143,29 @@ public class ParallelSupplier<T> implements Supplier<List<T>> {
 
     @Override
     public List<T> get() {
-        List<Thread> threads = this.suppliers.stream()
-                .sequential().skip(1).map(Thread::new)
-                .collect(Collectors.toList());
-        Task<T> first = this.suppliers.iterator().next();
-        threads.forEach(Thread::start);
-        first.run();
-        threads.forEach(t -> {
-            try { 
-                t.join(DEFAULT_TIMEOUT); 
-            } catch (InterruptedException ex) { 
-            	
-            	Thread.currentThread().interrupt();
-                throw new IllegalStateException(ex);
-            } 
-        }); 
+        if(ComputePool.isWorker() || this.suppliers.size() < 2){
+            this.suppliers.forEach(Task::run);
+        }else{
+            AtomicBoolean aborted = new AtomicBoolean(false);
+            List<ForkJoinTask<?>> tasks = this.suppliers.stream()
+                    .sequential().skip(1)
+                    .map(t -> ComputePool.submit(() -> {
+                        if(!aborted.get()){
+                            t.run();
+                        }
+                    }))
+                    .collect(Collectors.toList());
+            boolean done = false;
+            try {
+                this.suppliers.iterator().next().run();
+                done = true;
+            } finally {
+                // cancelling a running fork-join task does not wait for it, thus skip by a flag instead
+                aborted.set(!done);
+                tasks.forEach(ForkJoinTask::quietlyJoin);
+            }
+            tasks.forEach(ForkJoinTask::join);
+        }
         return this.suppliers.stream()
                 .map(t -> t.get())
                 .collect(Collectors.toList());
@@ -151,8 +173,6 @@ public class ParallelSupplier<T> implements Supplier<List<T>> {
 
     private List<Task<T>> suppliers;
     
-    private static final long DEFAULT_TIMEOUT = 60 * 1000L;        
-    
     /**
      * Supplier and Runnable with cached return result.
      * @param <T>  Individual return result
@@ -0,0 +1,367 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Registry of the thresholds to decide between serial and parallel computation, and the grain sizes, 
+ * i.e.&nbsp;the number of flop for a single task, for each operation.
+ * 
+ * <p>By default the thresholds are the constants defined in the implementations. They can be overridden by
+ * set, loaded from a profile in a properties file, or calibrated by micro-benchmarking the kernels of each 
+ * operation on the running machine. A profile given by the system property jacobi.thresholds is loaded at
+ * startup, and the thresholds are calibrated at startup if the system property jacobi.calibrate is true.
+ * A profile that can not be read or contains invalid values fails the initialization of this class
+ * with an IllegalStateException, instead of being ignored.</p>
+ * 
+ * <p>In a profile each operation has the keys &lt;operation&gt;.threshold and &lt;operation&gt;.grain, 
+ * e.g.&nbsp;mul_t.threshold, in lower case. Missing keys are left unchanged.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public final class Thresholds {
+    
+    /**
+     * Name of system property for the path of a profile to be loaded at startup
+     */
+    public static final String PROPERTY_PROFILE = "jacobi.thresholds";
+    
+    /**
+     * Name of system property for calibrating the thresholds at startup
+     */
+    public static final String PROPERTY_CALIBRATE = "jacobi.calibrate";
+    
+    private Thresholds() {
+        throw new UnsupportedOperationException("Do not instaniate.");
+    }
+    
+    /**
+     * Get the number of flop to start computing an operation in parallel.
+     * @param op  Operation
+     * @return  Threshold in number of flop
+     */
+    public static long threshold(Operation op) {
+        return get(op).getThreshold();
+    }
+    
+    /**
+     * Get the number of flop for a single task when an operation is computed in parallel.
+     * @param op  Operation
+     * @return  Grain size in number of flop
+     */
+    public static long grain(Operation op) {
+        return get(op).getGrain();
+    }
+    
+    /**
+     * Get the current setting of an operation.
+     * @param op  Operation
+     * @return  Current setting
+     */
+    public static Setting get(Operation op) {
+        return SETTINGS.get(op.ordinal());
+    }
+    
+    /**
+     * Get the current settings of all operations.
+     * @return  Current settings by operation
+     */
+    public static Map<Operation, Setting> getAll() {
+        Map<Operation, Setting> settings = new EnumMap<>(Operation.class);
+        for(Operation op : Operation.values()){
+            settings.put(op, get(op));
+        }
+        return Collections.unmodifiableMap(settings);
+    }
+    
+    /**
+     * Override the setting of an operation.
+     * @param op  Operation
+     * @param threshold  Number of flop to start computing in parallel
+     * @param grain  Number of flop for a single task
+     * @throws IllegalArgumentException  if operation is null, or threshold or grain is not positive
+     */
+    public static void set(Operation op, long threshold, long grain) {
+        Throw.when().isNull(() -> op, () -> "No operation to set.");
+        set(op, new Setting(threshold, grain));
+    }
+    
+    /**
+     * Override the setting of an operation.
+     * @param op  Operation
+     * @param setting  New setting
+     * @throws IllegalArgumentException  if operation or setting is null
+     */
+    public static void set(Operation op, Setting setting) {
+        Throw.when()
+            .isNull(() -> op, () -> "No operation to set.")
+            .isNull(() -> setting, () -> "No setting for " + op);
+        SETTINGS.set(op.ordinal(), setting);
+    }
+    
+    /**
+     * Restore the default settings of all operations.
+     */
+    public static void reset() {
+        for(Operation op : Operation.values()){
+            SETTINGS.set(op.ordinal(), op.getDefault());
+        }
+    }
+    
+    /**
+     * Calibrate the settings of all operations by micro-benchmarking on the running machine,
+     * with the parallelism of the shared ComputePool.
+     * @return  Calibrated settings by operation
+     */
+    public static Map<Operation, Setting> calibrate() {
+        Map<Operation, Setting> settings = new Calibration(VectorKernels.getInstance(), 
+                ComputePool.getParallelism()).run();
+        settings.forEach(Thresholds::set);
+        return settings;
+    }
+    
+    /**
+     * Load settings from a profile.
+     * @param path  Path of the properties file
+     * @throws IOException  when failed to read the file
+     * @throws IllegalArgumentException  if a value in the profile is invalid
+     */
+    public static void load(Path path) throws IOException {
+        Properties props = new Properties();
+        try(InputStream input = Files.newInputStream(path)){
+            props.load(input);
+        }
+        Map<Operation, Setting> settings = new EnumMap<>(Operation.class);
+        for(Operation op : Operation.values()){
+            Setting current = get(op);
+            settings.put(op, new Setting(
+                parse(props, op.key() + ".threshold", current.getThreshold()),
+                parse(props, op.key() + ".grain", current.getGrain())
+            ));
+        }
+        settings.forEach(Thresholds::set);
+    }
+    
+    /**
+     * Save the current settings of all operations as a profile.
+     * @param path  Path of the properties file
+     * @throws IOException  when failed to write the file
+     */
+    public static void save(Path path) throws IOException {
+        Properties props = new Properties();
+        for(Operation op : Operation.values()){
+            Setting setting = get(op);
+            props.setProperty(op.key() + ".threshold", String.valueOf(setting.getThreshold()));
+            props.setProperty(op.key() + ".grain", String.valueOf(setting.getGrain()));
+        }
+        try(OutputStream output = Files.newOutputStream(path)){
+            props.store(output, "jacobi parallelism thresholds");
+        }
+    }
+    
+    /**
+     * Parse a value in a profile.
+     * @param props  Properties in the profile
+     * @param key  Key of the value
+     * @param defaultValue  Value when the key is not found
+     * @return  Value in the profile, or default value if not found
+     * @throws IllegalArgumentException  if the value is not a number
+     */
+    private static long parse(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        if(value == null){
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch(NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid value " + value + " for " + key);
+        }
+    }
+    
+    /**
+     * Initialize the settings by the profile and calibration specified in system properties. 
+     * @throws IllegalStateException  if the profile can not be read or is invalid
+     */
+    private static void init() {
+        reset();
+        String profile = System.getProperty(PROPERTY_PROFILE);
+        if(profile != null){
+            try {
+                load(Paths.get(profile));
+            } catch(IOException | RuntimeException ex) {
+                throw new IllegalStateException("Unable to load thresholds profile " + profile, ex);
+            }
+        }
+        if(Boolean.getBoolean(PROPERTY_CALIBRATE)){
+            calibrate();
+        }
+    }
+    
+    private static final AtomicReferenceArray<Setting> SETTINGS = new AtomicReferenceArray<>(Operation.values().length);
+    
+    static {
+        init();
+    }
+    
+    /**
+     * Operations with parallelism thresholds.
+     * 
+     * @author Y.K. Chan
+     */
+    public enum Operation {
+        
+        /**
+         * Default for operations not listed, e.g.&nbsp;grain size of MapReducer.flop and transpose.
+         */
+        DEFAULT(ParallelSupplier.DEFAULT_FLOP_THRESHOLD, MapReducer.DEFAULT_NUM_FLOP),
+        
+        /**
+         * Matrix multiplication C = A * B, i.e.&nbsp;Mul, Gemm, PackedMul and SparseMul.
+         */
+        MUL(ParallelSupplier.DEFAULT_FLOP_THRESHOLD, MapReducer.DEFAULT_NUM_FLOP),
+        
+        /**
+         * Matrix multiplication with transpose C = A * B^t, i.e.&nbsp;MulT.
+         */
+        MUL_T(128 * 128 * 128, MapReducer.DEFAULT_NUM_FLOP),
+        
+        /**
+         * Dot product of columns, i.e.&nbsp;Dot. The threshold is the number of flop, i.e.&nbsp;the 
+         * number of rows times the number of columns.
+         */
+        DOT(64 * 64, MapReducer.DEFAULT_NUM_FLOP),
+        
+        /**
+         * K-means clustering and the Gaussian mixture model initialized by it.
+         */
+        KMEANS(4096L, MapReducer.DEFAULT_NUM_FLOP),
+        
+        /**
+         * Decomposition of dense matrices packed into tiles, i.e.&nbsp;BlockLU and BlockCholesky. The 
+         * threshold is the number of flop n^3 of a n-by-n matrix to be packed. Elimination in place 
+         * is measured faster in a single thread up to n = 1024, thus the tiles only pay off when 
+         * eliminated in parallel, and the threshold is worth lowering by a profile for many cores.
+         */
+        DECOMP(1024L * 1024L * 1024L, MapReducer.DEFAULT_NUM_FLOP);
+        
+        /**
+         * Constructor.
+         * @param threshold  Default threshold
+         * @param grain  Default grain size
+         */
+        private Operation(long threshold, long grain) {
+            this.threshold = threshold;
+            this.grain = grain;
+        }
+        
+        /**
+         * Get the default setting.
+         * @return  Default setting
+         */
+        public Setting getDefault() {
+            return new Setting(this.threshold, this.grain);
+        }
+        
+        /**
+         * Get the key prefix of this operation in a profile.
+         * @return  Key prefix
+         */
+        public String key() {
+            return this.name().toLowerCase();
+        }
+        
+        private final long threshold, grain;
+    }
+    
+    /**
+     * Immutable setting of parallelism for an operation.
+     * 
+     * @author Y.K. Chan
+     */
+    public static final class Setting {
+        
+        /**
+         * Constructor.
+         * @param threshold  Number of flop to start computing in parallel
+         * @param grain  Number of flop for a single task
+         * @throws IllegalArgumentException  if threshold or grain is not positive
+         */
+        public Setting(long threshold, long grain) {
+            Throw.when()
+                .isTrue(() -> threshold < 1, () -> "Invalid threshold " + threshold)
+                .isTrue(() -> grain < 1, () -> "Invalid grain size " + grain);
+            this.threshold = threshold;
+            this.grain = grain;
+        }
+        
+        /**
+         * Get the number of flop to start computing in parallel.
+         * @return  Threshold in number of flop
+         */
+        public long getThreshold() {
+            return threshold;
+        }
+        
+        /**
+         * Get the number of flop for a single task.
+         * @return  Grain size in number of flop
+         */
+        public long getGrain() {
+            return grain;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Setting)){
+                return false;
+            }
+            Setting other = (Setting) obj;
+            return this.threshold == other.threshold && this.grain == other.grain;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(this.threshold) + Long.hashCode(this.grain);
+        }
+
+        @Override
+        public String toString() {
+            return "Setting{threshold=" + this.threshold + ", grain=" + this.grain + "}";
+        }
+        
+        private final long threshold, grain;
+    }
+}
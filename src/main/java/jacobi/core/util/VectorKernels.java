@@ -0,0 +1,257 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.util;
+
+/**
+ * Kernels of the innermost loops on ranges of arrays, e.g.&nbsp;dot product and axpy.
+ * 
+ * <p>This class is the scalar implementation for Java 8. On JDK 17 or later, an implementation by
+ * the Vector API (jdk.incubator.vector) is packaged in the versioned directory of the multi-release
+ * jar, and is selected at runtime if the module is enabled, i.e.&nbsp;the JVM is started with 
+ * --add-modules jdk.incubator.vector. It can be disabled by setting the system property 
+ * jacobi.simd to false.</p>
+ * 
+ * <p>Element-wise kernels give identical results in all implementations. Reductions, 
+ * i.e.&nbsp;dot product and squared distance, may differ in rounding since the order of 
+ * summation is changed for SIMD lanes.</p>
+ * 
+ * <p>Kernels on float arrays are for matrices stored in single precision. Elements are widened to 
+ * double before any arithmetic, thus results are accumulated in double precision.</p>
+ * 
+ * @author Y.K. Chan
+ */
+public class VectorKernels {
+    
+    /**
+     * Name of system property for enabling SIMD kernels if available
+     */
+    public static final String PROPERTY_SIMD = "jacobi.simd";
+    
+    /**
+     * Get the kernels selected for this JVM.
+     * @return  Instance of kernels
+     */
+    public static VectorKernels getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Determine if this implementation is accelerated by SIMD instructions.
+     * @return  True if accelerated, false otherwise
+     */
+    public boolean isAccelerated() {
+        return false;
+    }
+    
+    /**
+     * Compute the dot product of u[uBegin:uBegin+len] and v[vBegin:vBegin+len].
+     * @param u  Array of vector u
+     * @param uBegin  Begin index of u
+     * @param v  Array of vector v
+     * @param vBegin  Begin index of v
+     * @param len  Length of vectors
+     * @return  Dot product
+     */
+    public double dot(double[] u, int uBegin, double[] v, int vBegin, int len) {
+        double ans = 0.0;
+        for(int i = 0; i < len; i++){
+            ans += u[uBegin + i] * v[vBegin + i];
+        }
+        return ans;
+    }
+    
+    /**
+     * Compute the squared euclidean distance between u[uBegin:uBegin+len] and v[vBegin:vBegin+len].
+     * @param u  Array of vector u
+     * @param uBegin  Begin index of u
+     * @param v  Array of vector v
+     * @param vBegin  Begin index of v
+     * @param len  Length of vectors
+     * @return  Squared euclidean distance
+     */
+    public double sqDist(double[] u, int uBegin, double[] v, int vBegin, int len) {
+        double ans = 0.0;
+        for(int i = 0; i < len; i++){
+            double dx = u[uBegin + i] - v[vBegin + i];
+            ans += dx * dx;
+        }
+        return ans;
+    }
+    
+    /**
+     * Compute y = y + a * x in place, for x = x[xBegin:xBegin+len] and y = y[yBegin:yBegin+len].
+     * @param a  Scalar a
+     * @param x  Array of vector x
+     * @param xBegin  Begin index of x
+     * @param y  Array of vector y
+     * @param yBegin  Begin index of y
+     * @param len  Length of vectors
+     */
+    public void axpy(double a, double[] x, int xBegin, double[] y, int yBegin, int len) {
+        for(int i = 0; i < len; i++){
+            y[yBegin + i] += a * x[xBegin + i];
+        }
+    }
+    
+    /**
+     * Compute the element-wise product w = u .* v, for u = u[uBegin:uBegin+len], v = v[vBegin:vBegin+len]
+     * and w = w[wBegin:wBegin+len]. The output w can be the same range as u or v.
+     * @param u  Array of vector u
+     * @param uBegin  Begin index of u
+     * @param v  Array of vector v
+     * @param vBegin  Begin index of v
+     * @param w  Array of output vector w
+     * @param wBegin  Begin index of w
+     * @param len  Length of vectors
+     */
+    public void mul(double[] u, int uBegin, double[] v, int vBegin, double[] w, int wBegin, int len) {
+        for(int i = 0; i < len; i++){
+            w[wBegin + i] = u[uBegin + i] * v[vBegin + i];
+        }
+    }
+    
+    /**
+     * Compute w = w + u .* v in place, for u = u[uBegin:uBegin+len], v = v[vBegin:vBegin+len] and 
+     * w = w[wBegin:wBegin+len].
+     * @param u  Array of vector u
+     * @param uBegin  Begin index of u
+     * @param v  Array of vector v
+     * @param vBegin  Begin index of v
+     * @param w  Array of output vector w
+     * @param wBegin  Begin index of w
+     * @param len  Length of vectors
+     */
+    public void mulAdd(double[] u, int uBegin, double[] v, int vBegin, double[] w, int wBegin, int len) {
+        for(int i = 0; i < len; i++){
+            w[wBegin + i] += u[uBegin + i] * v[vBegin + i];
+        }
+    }
+    
+    /**
+     * Compute w = k * u, for u = u[uBegin:uBegin+len] and w = w[wBegin:wBegin+len]. The output w can
+     * be the same range as u.
+     * @param k  Scalar k
+     * @param u  Array of vector u
+     * @param uBegin  Begin index of u
+     * @param w  Array of output vector w
+     * @param wBegin  Begin index of w
+     * @param len  Length of vectors
+     */
+    public void scale(double k, double[] u, int uBegin, double[] w, int wBegin, int len) {
+        for(int i = 0; i < len; i++){
+            w[wBegin + i] = k * u[uBegin + i];
+        }
+    }
+    
+    /**
+     * Compute the dot product of u[uBegin:uBegin+len] and v[vBegin:vBegin+len] in single precision
+     * storage, accumulated in double precision.
+     * @param u  Array of vector u
+     * @param uBegin  Begin index of u
+     * @param v  Array of vector v
+     * @param vBegin  Begin index of v
+     * @param len  Length of vectors
+     * @return  Dot product
+     */
+    public double dot(float[] u, int uBegin, float[] v, int vBegin, int len) {
+        double ans = 0.0;
+        for(int i = 0; i < len; i++){
+            ans += (double) u[uBegin + i] * v[vBegin + i];
+        }
+        return ans;
+    }
+    
+    /**
+     * Compute the squared euclidean distance between u[uBegin:uBegin+len] and v[vBegin:vBegin+len] in
+     * single precision storage, accumulated in double precision.
+     * @param u  Array of vector u
+     * @param uBegin  Begin index of u
+     * @param v  Array of vector v
+     * @param vBegin  Begin index of v
+     * @param len  Length of vectors
+     * @return  Squared euclidean distance
+     */
+    public double sqDist(float[] u, int uBegin, float[] v, int vBegin, int len) {
+        double ans = 0.0;
+        for(int i = 0; i < len; i++){
+            double dx = (double) u[uBegin + i] - v[vBegin + i];
+            ans += dx * dx;
+        }
+        return ans;
+    }
+    
+    /**
+     * Compute y = y + a * x in place, for x = x[xBegin:xBegin+len] in single precision storage and 
+     * y = y[yBegin:yBegin+len].
+     * @param a  Scalar a
+     * @param x  Array of vector x
+     * @param xBegin  Begin index of x
+     * @param y  Array of vector y
+     * @param yBegin  Begin index of y
+     * @param len  Length of vectors
+     */
+    public void axpy(double a, float[] x, int xBegin, double[] y, int yBegin, int len) {
+        for(int i = 0; i < len; i++){
+            y[yBegin + i] += a * x[xBegin + i];
+        }
+    }
+    
+    /**
+     * Compute w = w + u .* v in place, for u = u[uBegin:uBegin+len] and v = v[vBegin:vBegin+len] in 
+     * single precision storage and w = w[wBegin:wBegin+len], accumulated in double precision.
+     * @param u  Array of vector u
+     * @param uBegin  Begin index of u
+     * @param v  Array of vector v
+     * @param vBegin  Begin index of v
+     * @param w  Array of output vector w
+     * @param wBegin  Begin index of w
+     * @param len  Length of vectors
+     */
+    public void mulAdd(float[] u, int uBegin, float[] v, int vBegin, double[] w, int wBegin, int len) {
+        for(int i = 0; i < len; i++){
+            w[wBegin + i] += (double) u[uBegin + i] * v[vBegin + i];
+        }
+    }
+    
+    /**
+     * Load the SIMD implementation if available and enabled, or this scalar implementation otherwise.
+     * @return  Instance of kernels
+     */
+    private static VectorKernels load() {
+        if(!Boolean.parseBoolean(System.getProperty(PROPERTY_SIMD, "true"))){
+            return new VectorKernels();
+        }
+        
+        try {
+            Class<?> clazz = Class.forName(VectorKernels.class.getPackage().getName() + SIMD_CLASS_NAME);
+            return (VectorKernels) clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException ex) {
+            return new VectorKernels();
+        }
+    }
+    
+    private static final String SIMD_CLASS_NAME = ".SimdVectorKernels";
+    
+    private static final VectorKernels INSTANCE = load();
+}
@@ -0,0 +1,288 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of kernels by the Vector API, in the preferred species of the platform,
+ * e.g.&nbsp;8 lanes of double on AVX-512.
+ * 
+ * <p>Multiplications and additions are not fused s.t.&nbsp;element-wise kernels give identical results
+ * as the scalar implementation, and no slow path is taken on hardware without FMA. Reductions are 
+ * accumulated in two vectors to hide the latency of addition.</p>
+ * 
+ * <p>Kernels on float arrays load as many floats as the lanes of double, i.e.&nbsp;in a vector of half
+ * the size, and widen them to double in registers s.t.&nbsp;only half the memory traffic is incurred.</p>
+ * 
+ * <p>This class is only available in the versioned directory for JDK 17 of the multi-release jar, 
+ * and is instantiated reflectively by VectorKernels.</p>
+ * 
+ * @author Y.K. Chan
+ */
+class SimdVectorKernels extends VectorKernels {
+    
+    /**
+     * Constructor.
+     * @throws UnsupportedOperationException  if the platform has no SIMD support for double
+     */
+    SimdVectorKernels() {
+        if(SPECIES.length() < 2){
+            throw new UnsupportedOperationException("No SIMD support for double.");
+        }
+    }
+
+    @Override
+    public boolean isAccelerated() {
+        return true;
+    }
+
+    @Override
+    public double dot(double[] u, int uBegin, double[] v, int vBegin, int len) {
+        int step = SPECIES.length();
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        
+        DoubleVector acc0 = DoubleVector.zero(SPECIES);
+        DoubleVector acc1 = DoubleVector.zero(SPECIES);
+        for(; i + step < bound; i += 2 * step){
+            acc0 = DoubleVector.fromArray(SPECIES, u, uBegin + i)
+                .mul(DoubleVector.fromArray(SPECIES, v, vBegin + i))
+                .add(acc0);
+            acc1 = DoubleVector.fromArray(SPECIES, u, uBegin + i + step)
+                .mul(DoubleVector.fromArray(SPECIES, v, vBegin + i + step))
+                .add(acc1);
+        }
+        
+        for(; i < bound; i += step){
+            acc0 = DoubleVector.fromArray(SPECIES, u, uBegin + i)
+                .mul(DoubleVector.fromArray(SPECIES, v, vBegin + i))
+                .add(acc0);
+        }
+        
+        double ans = acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+        for(; i < len; i++){
+            ans += u[uBegin + i] * v[vBegin + i];
+        }
+        return ans;
+    }
+
+    @Override
+    public double sqDist(double[] u, int uBegin, double[] v, int vBegin, int len) {
+        int step = SPECIES.length();
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        
+        DoubleVector acc0 = DoubleVector.zero(SPECIES);
+        DoubleVector acc1 = DoubleVector.zero(SPECIES);
+        for(; i + step < bound; i += 2 * step){
+            DoubleVector dx0 = DoubleVector.fromArray(SPECIES, u, uBegin + i)
+                .sub(DoubleVector.fromArray(SPECIES, v, vBegin + i));
+            DoubleVector dx1 = DoubleVector.fromArray(SPECIES, u, uBegin + i + step)
+                .sub(DoubleVector.fromArray(SPECIES, v, vBegin + i + step));
+            acc0 = dx0.mul(dx0).add(acc0);
+            acc1 = dx1.mul(dx1).add(acc1);
+        }
+        
+        for(; i < bound; i += step){
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, u, uBegin + i)
+                .sub(DoubleVector.fromArray(SPECIES, v, vBegin + i));
+            acc0 = dx.mul(dx).add(acc0);
+        }
+        
+        double ans = acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+        for(; i < len; i++){
+            double dx = u[uBegin + i] - v[vBegin + i];
+            ans += dx * dx;
+        }
+        return ans;
+    }
+
+    @Override
+    public void axpy(double a, double[] x, int xBegin, double[] y, int yBegin, int len) {
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        for(; i < bound; i += SPECIES.length()){
+            DoubleVector.fromArray(SPECIES, x, xBegin + i)
+                .mul(a)
+                .add(DoubleVector.fromArray(SPECIES, y, yBegin + i))
+                .intoArray(y, yBegin + i);
+        }
+        
+        for(; i < len; i++){
+            y[yBegin + i] += a * x[xBegin + i];
+        }
+    }
+
+    @Override
+    public void mul(double[] u, int uBegin, double[] v, int vBegin, double[] w, int wBegin, int len) {
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        for(; i < bound; i += SPECIES.length()){
+            DoubleVector.fromArray(SPECIES, u, uBegin + i)
+                .mul(DoubleVector.fromArray(SPECIES, v, vBegin + i))
+                .intoArray(w, wBegin + i);
+        }
+        
+        for(; i < len; i++){
+            w[wBegin + i] = u[uBegin + i] * v[vBegin + i];
+        }
+    }
+
+    @Override
+    public void mulAdd(double[] u, int uBegin, double[] v, int vBegin, double[] w, int wBegin, int len) {
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        for(; i < bound; i += SPECIES.length()){
+            DoubleVector.fromArray(SPECIES, u, uBegin + i)
+                .mul(DoubleVector.fromArray(SPECIES, v, vBegin + i))
+                .add(DoubleVector.fromArray(SPECIES, w, wBegin + i))
+                .intoArray(w, wBegin + i);
+        }
+        
+        for(; i < len; i++){
+            w[wBegin + i] += u[uBegin + i] * v[vBegin + i];
+        }
+    }
+
+    @Override
+    public void scale(double k, double[] u, int uBegin, double[] w, int wBegin, int len) {
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        for(; i < bound; i += SPECIES.length()){
+            DoubleVector.fromArray(SPECIES, u, uBegin + i)
+                .mul(k)
+                .intoArray(w, wBegin + i);
+        }
+        
+        for(; i < len; i++){
+            w[wBegin + i] = k * u[uBegin + i];
+        }
+    }
+    
+    @Override
+    public double dot(float[] u, int uBegin, float[] v, int vBegin, int len) {
+        int step = SPECIES.length();
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        
+        DoubleVector acc0 = DoubleVector.zero(SPECIES);
+        DoubleVector acc1 = DoubleVector.zero(SPECIES);
+        for(; i + step < bound; i += 2 * step){
+            acc0 = widen(u, uBegin + i).mul(widen(v, vBegin + i)).add(acc0);
+            acc1 = widen(u, uBegin + i + step).mul(widen(v, vBegin + i + step)).add(acc1);
+        }
+        
+        for(; i < bound; i += step){
+            acc0 = widen(u, uBegin + i).mul(widen(v, vBegin + i)).add(acc0);
+        }
+        
+        double ans = acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+        for(; i < len; i++){
+            ans += (double) u[uBegin + i] * v[vBegin + i];
+        }
+        return ans;
+    }
+
+    @Override
+    public double sqDist(float[] u, int uBegin, float[] v, int vBegin, int len) {
+        int step = SPECIES.length();
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        
+        DoubleVector acc0 = DoubleVector.zero(SPECIES);
+        DoubleVector acc1 = DoubleVector.zero(SPECIES);
+        for(; i + step < bound; i += 2 * step){
+            DoubleVector dx0 = widen(u, uBegin + i).sub(widen(v, vBegin + i));
+            DoubleVector dx1 = widen(u, uBegin + i + step).sub(widen(v, vBegin + i + step));
+            acc0 = dx0.mul(dx0).add(acc0);
+            acc1 = dx1.mul(dx1).add(acc1);
+        }
+        
+        for(; i < bound; i += step){
+            DoubleVector dx = widen(u, uBegin + i).sub(widen(v, vBegin + i));
+            acc0 = dx.mul(dx).add(acc0);
+        }
+        
+        double ans = acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+        for(; i < len; i++){
+            double dx = (double) u[uBegin + i] - v[vBegin + i];
+            ans += dx * dx;
+        }
+        return ans;
+    }
+
+    @Override
+    public void axpy(double a, float[] x, int xBegin, double[] y, int yBegin, int len) {
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        for(; i < bound; i += SPECIES.length()){
+            widen(x, xBegin + i)
+                .mul(a)
+                .add(DoubleVector.fromArray(SPECIES, y, yBegin + i))
+                .intoArray(y, yBegin + i);
+        }
+        
+        for(; i < len; i++){
+            y[yBegin + i] += a * x[xBegin + i];
+        }
+    }
+    
+    @Override
+    public void mulAdd(float[] u, int uBegin, float[] v, int vBegin, double[] w, int wBegin, int len) {
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        for(; i < bound; i += SPECIES.length()){
+            widen(u, uBegin + i)
+                .mul(widen(v, vBegin + i))
+                .add(DoubleVector.fromArray(SPECIES, w, wBegin + i))
+                .intoArray(w, wBegin + i);
+        }
+        
+        for(; i < len; i++){
+            w[wBegin + i] += (double) u[uBegin + i] * v[vBegin + i];
+        }
+    }
+    
+    /**
+     * Load floats into a vector of double, with as many lanes as the preferred species.
+     * @param array  Array of floats
+     * @param begin  Begin index of the floats to load
+     * @return  Vector of double
+     */
+    private static DoubleVector widen(float[] array, int begin) {
+        return (DoubleVector) FloatVector.fromArray(F_SPECIES, array, begin)
+            .convertShape(VectorOperators.F2D, SPECIES, 0);
+    }
+    
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    
+    private static final VectorSpecies<Float> F_SPECIES = VectorSpecies.of(
+        float.class, VectorShape.forBitSize(SPECIES.vectorBitSize() / 2)
+    );
+}
@@ -27,9 +27,13 @@ import jacobi.core.impl.DefaultMatrix;
 import jacobi.core.impl.DiagonalMatrix;
 import jacobi.core.impl.Empty;
 import jacobi.core.impl.ImmutableMatrix;
+import jacobi.core.impl.MappedMatrix;
 import jacobi.test.util.Jacobi;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import org.junit.Assert;
 import org.junit.Test;
@@ -163,4 +167,24 @@ public class MatricesTest {
         Assert.assertArrayEquals(new double[]{0.0, 0.0, 0.0}, matrix.getRow(0), 1e-12);
     }
     
+    @Test
+    public void shouldBeAbleToWriteAndReadBinaryFile() throws IOException {
+        Path path = Files.createTempFile("matrices", ".mat");
+        try {
+            Matrix matrix = Matrices.wrap(new double[][]{
+                {1.0, 2.0, 3.0},
+                {4.0, 3.0, 2.0},
+            });
+            Matrices.write(matrix, path, Arrays.asList("a", "b", "c"));
+            Jacobi.assertEquals(matrix, Matrices.read(path));
+            
+            try(MappedMatrix mapped = Matrices.map(path)){
+                Assert.assertEquals(Arrays.asList("a", "b", "c"), mapped.getColumnNames());
+                Jacobi.assertEquals(matrix, mapped);
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+    
 }
@@ -71,4 +71,15 @@ public class AugmentedTest {
         Assert.assertTrue(new Augmented(Matrices.zeros(7, 3)).select(1).get() instanceof ColumnVector);
     }
     
+    @Test
+    public void testSelectAllIsSnapshot() {
+        Matrix base = Matrices.wrap(new double[][]{ {1.0, 2.0, 3.0}, {4.0, 5.0, 6.0} });
+        Matrix matrix = new Augmented(base).select(0, 1, 2).get();
+        base.set(1, 2, Math.PI);
+        base.getRow(0)[0] = Math.E;
+        
+        Assert.assertArrayEquals(new double[]{1.0, 2.0, 3.0}, matrix.getRow(0), 0.0);
+        Assert.assertArrayEquals(new double[]{4.0, 5.0, 6.0}, matrix.getRow(1), 0.0);
+    }
+    
 }
@@ -25,6 +25,10 @@ package jacobi.core.decomp.chol;
 
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.BlockMatrix;
 import jacobi.core.prop.Transpose;
 import jacobi.core.util.Pair;
 import jacobi.test.annotations.JacobiEquals;
@@ -35,6 +39,7 @@ import jacobi.test.util.Jacobi;
 import jacobi.test.util.JacobiJUnit4ClassRunner;
 
 import java.util.Arrays;
+import java.util.Random;
 import java.util.stream.IntStream;
 import org.junit.Assert;
 import org.junit.Test;
@@ -68,6 +73,14 @@ public class CholeskyDecompTest {
         this.lower = new CholeskyDecomp().compute(this.input).get();
     }
     
+    @Test
+    @JacobiImport("4x4")
+    @JacobiEquals(expected = 1, actual = 1)
+    public void test4x4InBlocks() {
+        this.lower = new CholeskyDecomp().compute(BlockMatrix.of(this.input, 3)).get();
+        Assert.assertTrue(this.lower instanceof BlockMatrix);
+    }
+    
     @Test
     @JacobiImport("4x4")
     @JacobiEquals(expected = 1, actual = 1)
@@ -88,6 +101,7 @@ public class CholeskyDecompTest {
     public void testNotPositiveDefinite5x5() {
         Assert.assertFalse(new CholeskyDecomp().compute(input).isPresent());
         Assert.assertFalse(new CholeskyDecomp().isPositiveDefinite(input));
+        Assert.assertFalse(new CholeskyDecomp().compute(BlockMatrix.of(input, 2)).isPresent());
     }
     
     @Test
@@ -104,6 +118,20 @@ public class CholeskyDecompTest {
         Assert.assertFalse(new CholeskyDecomp().computeSquared(this.input.getRow(0)).isPresent());
     }
     
+    @Test
+    public void shouldBeAbleToDecomposeLargeMatrixInTiles() {
+        Matrix b = Jacobi.random(150, 150, new Random(1L)::nextGaussian);
+        Matrix a = b.ext(Op.class).mul(b.ext(Prop.class).transpose()).get();
+        
+        Matrix expects = new CholeskyDecomp(Long.MAX_VALUE).compute(a).get();
+        Matrix lower = new CholeskyDecomp(65L * 65L * 65L).compute(a).get();
+        Assert.assertTrue(lower instanceof ArrayMatrix);
+        Jacobi.assertEquals(expects, lower, 1e-9);
+        
+        a.set(100, 100, -1.0);
+        Assert.assertFalse(new CholeskyDecomp(65L * 65L * 65L).isPositiveDefinite(a));
+    }
+    
     @Test(expected = IllegalArgumentException.class)
     public void test5x4() {
         new CholeskyDecomp().compute(Matrices.zeros(5, 4)).get();
@@ -0,0 +1,71 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.chol;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.test.util.Jacobi;
+
+public class CholeskyUpdateTest {
+	
+	@Test
+	public void shouldBeAbleToUpdateAndDowndate() {
+		Matrix b = Jacobi.random(20, 6, new Random(1L)::nextGaussian);
+		Matrix a = this.gram(b);
+		double[] x = Jacobi.random(1, 6, new Random(2L)::nextGaussian).getRow(0);
+		
+		Matrix lower = new CholeskyDecomp().compute(a).get();
+		new CholeskyUpdate().update(lower, x);
+		
+		Matrix updated = a.copy();
+		for(int i = 0; i < 6; i++){
+			for(int j = 0; j < 6; j++){
+				updated.set(i, j, a.get(i, j) + x[i] * x[j]);
+			}
+		}
+		Jacobi.assertEquals(new CholeskyDecomp().compute(updated).get(), lower, 1e-9);
+		
+		new CholeskyUpdate().downdate(lower, x).get();
+		Jacobi.assertEquals(new CholeskyDecomp().compute(a).get(), lower, 1e-9);
+	}
+	
+	@Test
+	public void shouldFailToDowndateIntoIndefiniteMatrix() {
+		Matrix lower = Matrices.identity(3);
+		Assert.assertFalse(new CholeskyUpdate().downdate(lower, new double[]{0.0, 2.0, 0.0}).isPresent());
+		Jacobi.assertEquals(Matrices.identity(3), lower, 0.0);
+	}
+	
+	private Matrix gram(Matrix matrix) {
+		return matrix.ext(Prop.class).transpose().ext(Op.class).mul(matrix).get();
+	}
+	
+}
@@ -0,0 +1,167 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.chol;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Decomp;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.core.impl.BlockMatrix;
+import jacobi.core.util.ComputePool;
+import jacobi.core.util.Pair;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.test.util.Jacobi;
+
+public class LDLDecompTest {
+	
+	@After
+	public void resetThresholds() {
+		Thresholds.reset();
+	}
+	
+	@Test
+	public void shouldBeAbleToDecomposePositiveDefiniteMatrixAsCholesky() {
+		Matrix b = Jacobi.random(6, 6, new Random(1L)::nextGaussian);
+		Matrix a = b.ext(Op.class).mul(b.ext(Prop.class).transpose()).get();
+		
+		Pair ldl = a.ext(Decomp.class).ldl().get();
+		Matrix chol = a.ext(Decomp.class).chol().get();
+		for(int i = 0; i < a.getRowCount(); i++){
+			double sqrt = Math.sqrt(ldl.getRight().get(i, i));
+			Assert.assertEquals(chol.get(i, i), sqrt, 1e-9);
+			for(int j = 0; j < i; j++){
+				Assert.assertEquals(chol.get(i, j), ldl.getLeft().get(i, j) * Math.sqrt(ldl.getRight().get(j, j)), 1e-9);
+			}
+		}
+		this.assertDecomposed(a, ldl, 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToDecomposeIndefiniteMatrix() {
+		Matrix a = this.symmetric(7, 2L);
+		Pair ldl = a.ext(Decomp.class).ldl().get();
+		Assert.assertFalse(a.ext(Decomp.class).chol().isPresent());
+		this.assertDecomposed(a, ldl, 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToDecomposeSemiDefiniteMatrix() {
+		Matrix b = Jacobi.random(8, 3, new Random(3L)::nextGaussian);
+		Matrix a = b.ext(Op.class).mul(b.ext(Prop.class).transpose()).get();
+		
+		Pair ldl = a.ext(Decomp.class).ldl().get();
+		int rank = 0;
+		for(int i = 0; i < a.getRowCount(); i++){
+			rank += ldl.getRight().get(i, i) == 0.0 ? 0 : 1;
+		}
+		Assert.assertEquals(3, rank);
+		this.assertDecomposed(a, ldl, 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToDetectDegeneratedColumnsRelativeToScale() {
+		Matrix b = Jacobi.random(8, 3, new Random(5L)::nextGaussian);
+		for(double scale : new double[]{ 1e-14, 1e6 }){
+			Matrix a = b.ext(Op.class).mul(b.ext(Prop.class).transpose()).mul(scale).get();
+			
+			Pair ldl = a.ext(Decomp.class).ldl().get();
+			int rank = 0;
+			for(int i = 0; i < a.getRowCount(); i++){
+				rank += ldl.getRight().get(i, i) == 0.0 ? 0 : 1;
+			}
+			Assert.assertEquals(3, rank);
+			this.assertDecomposed(a, ldl, 1e-9 * scale);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToDecomposeLargeIndefiniteMatrixInParallel() {
+		Thresholds.set(Operation.DECOMP, 1, 1);
+		Matrix a = this.symmetric(150, 4L);
+		for(int i = 0; i < a.getRowCount(); i++){
+			a.set(i, i, a.get(i, i) + (i % 2 == 0 ? 50.0 : -50.0));
+		}
+		
+		Pair ldl = new LDLDecomp().compute(BlockMatrix.of(a, 16)).get();
+		this.assertDecomposed(a, ldl, 1e-8);
+		Jacobi.assertEquals(ldl.getLeft(), a.ext(Decomp.class).ldl().get().getLeft(), 1e-9);
+	}
+	
+	@Test
+	public void shouldGateParallelismByThresholdOfDecomp() {
+		Matrix a = BlockMatrix.of(this.symmetric(80, 6L), 16);
+		AtomicInteger entered = new AtomicInteger(0);
+		ComputePool.setListener(entered::incrementAndGet);
+		try {
+			Thresholds.set(Operation.MUL, 1, 1);
+			Thresholds.set(Operation.DECOMP, Long.MAX_VALUE, 1);
+			new LDLDecomp().compute(a).get();
+			Assert.assertEquals(0, entered.get());
+			
+			Thresholds.set(Operation.DECOMP, 1, 1);
+			new LDLDecomp().compute(a).get();
+			Assert.assertTrue(entered.get() > 0);
+		} finally {
+			ComputePool.setListener(null);
+		}
+	}
+	
+	@Test
+	public void shouldFailWhenZeroPivotWithNonZeroColumn() {
+		Matrix a = Matrices.of(new double[][]{ {0.0, 1.0}, {1.0, 0.0} });
+		Assert.assertFalse(new LDLDecomp().compute(a).isPresent());
+	}
+	
+	private void assertDecomposed(Matrix a, Pair ldl, double eps) {
+		Matrix lower = ldl.getLeft();
+		for(int i = 0; i < a.getRowCount(); i++){
+			Assert.assertEquals(1.0, lower.get(i, i), 0.0);
+			for(int j = i + 1; j < a.getColCount(); j++){
+				Assert.assertEquals(0.0, lower.get(i, j), 0.0);
+			}
+		}
+		Matrix prod = lower.ext(Op.class).mul(ldl.getRight()).mul(lower.ext(Prop.class).transpose()).get();
+		Jacobi.assertEquals(a, prod, eps);
+	}
+	
+	private Matrix symmetric(int n, long seed) {
+		Matrix matrix = Jacobi.random(n, n, new Random(seed)::nextGaussian);
+		for(int i = 0; i < n; i++){
+			for(int j = 0; j < i; j++){
+				matrix.set(j, i, matrix.get(i, j));
+			}
+		}
+		return matrix;
+	}
+	
+}
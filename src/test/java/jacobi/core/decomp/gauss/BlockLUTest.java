@@ -0,0 +1,148 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.gauss;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Decomp;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.api.ext.Solver;
+import jacobi.core.impl.BlockMatrix;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Triplet;
+import jacobi.test.util.Jacobi;
+
+public class BlockLUTest {
+	
+	@After
+	public void resetThresholds() {
+		Thresholds.reset();
+	}
+	
+	@Test
+	public void shouldBeAbleToPackOnlyLargeSquareMatrices() {
+		BlockLU lu = new BlockLU();
+		Assert.assertTrue(lu.isPackable(Matrices.zeros(1024, 1024)));
+		Assert.assertFalse(lu.isPackable(Matrices.zeros(1023, 1023)));
+		Assert.assertFalse(lu.isPackable(Matrices.zeros(100, 99)));
+		Assert.assertFalse(lu.isPackable(BlockMatrix.zeros(100, 100, 16)));
+		Assert.assertFalse(new BlockLU(Long.MAX_VALUE).isPackable(Matrices.zeros(100, 100)));
+	}
+	
+	@Test
+	public void shouldBeAbleToPackByThresholdOfDecomp() {
+		Thresholds.set(Operation.DECOMP, 1000L, 1000L);
+		Assert.assertTrue(new BlockLU().isPackable(Matrices.zeros(10, 10)));
+		Assert.assertFalse(new BlockLU().isPackable(Matrices.zeros(9, 9)));
+	}
+	
+	@Test
+	public void shouldBeAbleToDecomposeLargeMatrixByFacade() {
+		Thresholds.set(Operation.DECOMP, PACK_FLOP, 1L);
+		Matrix a = Jacobi.random(100, 100, new Random(1L)::nextGaussian);
+		Triplet plu = a.ext(Decomp.class).gauss();
+		
+		Matrix lower = plu.getMiddle();
+		Matrix upper = plu.getRight();
+		for(int i = 0; i < a.getRowCount(); i++){
+			Assert.assertEquals(1.0, lower.get(i, i), 0.0);
+			for(int j = 0; j < i; j++){
+				Assert.assertEquals(0.0, upper.get(i, j), 0.0);
+				Assert.assertEquals(0.0, lower.get(j, i), 0.0);
+			}
+		}
+		Jacobi.assertEquals(a, plu.getLeft().ext(Op.class).mul(lower).mul(upper).get(), 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToTransformPartnerAsGenericElimination() {
+		Thresholds.set(Operation.DECOMP, PACK_FLOP, 1L);
+		Matrix a = Jacobi.random(97, 97, new Random(2L)::nextGaussian);
+		Matrix b = Jacobi.random(97, 5, new Random(3L)::nextGaussian);
+		
+		Matrix generic = b.copy();
+		Matrix upper = new GaussianDecomp(new GenericGaussianElim(), new BlockLU(Long.MAX_VALUE))
+			.compute(a.copy(), generic);
+		
+		Matrix partner = b.copy();
+		Matrix ans = new GaussianDecomp().compute(a.copy(), partner);
+		Jacobi.assertEquals(upper, ans, 1e-9);
+		Jacobi.assertEquals(generic, partner, 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToFindDeterminantOfLargeMatrix() {
+		Matrix a = Jacobi.random(90, 90, new Random(4L)::nextGaussian);
+		Matrix upper = new GaussianDecomp(new GenericGaussianElim(), new BlockLU(Long.MAX_VALUE))
+			.compute(a.copy(), Matrices.zeros(90, 1));
+		
+		double logDet = 0.0;
+		for(int i = 0; i < upper.getRowCount(); i++){
+			logDet += Math.log(Math.abs(upper.get(i, i)));
+		}
+		
+		double det = a.ext(Prop.class).det();
+		Assert.assertEquals(logDet, Math.log(Math.abs(det)), 1e-9);
+		Assert.assertEquals(Math.abs(det), Math.abs(new BlockLU().det(BlockMatrix.of(a, 16))), Math.abs(det) * 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToInvertLargeMatrixInParallel() {
+		Thresholds.set(Operation.DECOMP, PACK_FLOP, 1L);
+		Thresholds.set(Operation.MUL, 1, 1);
+		Matrix a = Jacobi.random(130, 130, new Random(5L)::nextGaussian);
+		Matrix inv = a.ext(Prop.class).inv().get();
+		Jacobi.assertEquals(Matrices.identity(130), a.ext(Op.class).mul(inv).get(), 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToSolveLargeSystem() {
+		Thresholds.set(Operation.DECOMP, PACK_FLOP, 1L);
+		Matrix a = Jacobi.random(150, 150, new Random(6L)::nextGaussian);
+		Matrix y = Jacobi.random(150, 3, new Random(7L)::nextGaussian);
+		Matrix x = a.ext(Solver.class).exact(y).get();
+		Jacobi.assertEquals(y, a.ext(Op.class).mul(x).get(), 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToFailOnSingularLargeMatrix() {
+		Thresholds.set(Operation.DECOMP, PACK_FLOP, 1L);
+		Matrix a = Jacobi.random(80, 80, new Random(8L)::nextGaussian);
+		a.setRow(40, a.getRow(7));
+		
+		Assert.assertFalse(a.ext(Prop.class).inv().isPresent());
+		Assert.assertFalse(a.ext(Solver.class).exact(Jacobi.random(80, 1, new Random(9L)::nextGaussian)).isPresent());
+		Assert.assertEquals(0.0, a.ext(Prop.class).det(), 1e-6);
+	}
+	
+	private static final long PACK_FLOP = 65L * 65L * 65L;
+}
@@ -24,6 +24,7 @@
 package jacobi.core.decomp.gauss;
 
 import jacobi.api.Matrix;
+import jacobi.core.impl.BlockMatrix;
 import jacobi.core.util.Triplet;
 import jacobi.test.annotations.JacobiEquals;
 import jacobi.test.annotations.JacobiImport;
@@ -90,6 +91,18 @@ public class GaussainDecompTest {
         this.upper = plu.getRight();
     }
     
+    @Test
+    @JacobiImport("5x5")
+    @JacobiEquals(expected = 100, actual = 100)
+    @JacobiEquals(expected = 101, actual = 101)
+    @JacobiEquals(expected = 102, actual = 102)
+    public void test5x5InBlocks() {
+        Triplet plu = this.gaussDecomp.compute(BlockMatrix.of(this.input, 2));
+        this.perm = plu.getLeft();
+        this.lower = plu.getMiddle();
+        this.upper = plu.getRight();
+    }
+    
     @Test
     @JacobiImport("Degen 4x4")
     @JacobiEquals(expected = 100, actual = 100)
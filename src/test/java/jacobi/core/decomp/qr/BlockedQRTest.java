@@ -0,0 +1,148 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.qr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Decomp;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.op.MulT;
+import jacobi.core.solver.LLSquaresSolver;
+import jacobi.core.util.Pair;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.test.util.Jacobi;
+
+public class BlockedQRTest {
+	
+	@After
+	public void resetThresholds() {
+		Thresholds.reset();
+	}
+	
+	@Test
+	public void shouldBeAbleToAgreeWithUnblockedQROnTallMatrix() {
+		Matrix a = Jacobi.random(150, 70, new Random(1L)::nextGaussian);
+		Matrix expects = new QRDecomp(new BlockedQR(), Long.MAX_VALUE).compute(a.copy());
+		
+		ArrayMatrix r = ArrayMatrix.of(a);
+		new BlockedQR(16).compute(r, wy -> {});
+		Jacobi.assertEquals(expects, r, 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToAgreeWithUnblockedQROnSquareMatrix() {
+		Matrix a = Jacobi.random(33, 33, new Random(9L)::nextGaussian);
+		Matrix expects = new QRDecomp(new BlockedQR(), Long.MAX_VALUE).compute(a.copy());
+		
+		ArrayMatrix r = ArrayMatrix.of(a);
+		List<BlockReflector> panels = new ArrayList<>();
+		new BlockedQR(16).compute(r, panels::add);
+		Jacobi.assertEquals(expects, r, 1e-9);
+		Assert.assertEquals(2, panels.size());
+	}
+	
+	@Test
+	public void shouldBeAbleToAgreeWithUnblockedQRInParallel() {
+		Thresholds.set(Operation.MUL, 1, 1);
+		Matrix a = Jacobi.random(211, 53, new Random(2L)::nextGaussian);
+		Matrix expects = new QRDecomp(new BlockedQR(), Long.MAX_VALUE).compute(a.copy());
+		
+		ArrayMatrix r = ArrayMatrix.of(a);
+		new BlockedQR(8).compute(r, wy -> {});
+		Jacobi.assertEquals(expects, r, 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToComputeOrthogonalQInPanels() {
+		Matrix a = Jacobi.random(90, 90, new Random(3L)::nextGaussian);
+		Pair qr = new QRDecomp(new BlockedQR(16), 0L).computeQR(a.copy());
+		Matrix q = qr.getLeft();
+		Matrix r = qr.getRight();
+		
+		Jacobi.assertEquals(a, q.ext(Op.class).mul(r).get(), 1e-9);
+		Jacobi.assertEquals(Matrices.identity(90), new MulT().compute(q.ext(Prop.class).transpose(), 
+			q.ext(Prop.class).transpose()), 1e-9);
+		for(int i = 0; i < r.getRowCount(); i++){
+			for(int j = 0; j < i; j++){
+				Assert.assertEquals(0.0, r.get(i, j), 0.0);
+			}
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToDecomposeWideMatrixInPanels() {
+		Matrix a = Jacobi.random(40, 90, new Random(4L)::nextGaussian);
+		Pair qr = new QRDecomp(new BlockedQR(16), 0L).computeQR(a.copy());
+		Jacobi.assertEquals(a, qr.getLeft().ext(Op.class).mul(qr.getRight()).get(), 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToSkipEliminatedColumnsInPanel() {
+		Matrix a = Jacobi.random(60, 40, new Random(5L)::nextGaussian);
+		for(int i = 0; i < a.getRowCount(); i++){
+			a.set(i, 3, 0.0);
+			a.set(i, 20, 2.0 * a.get(i, 19));
+		}
+		Pair qr = new QRDecomp(new BlockedQR(8), 0L).computeQR(a.copy());
+		Jacobi.assertEquals(a, qr.getLeft().ext(Op.class).mul(qr.getRight()).get(), 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToSolveLeastSquaresWithPartnerInPanels() {
+		Matrix a = Jacobi.random(400, 72, new Random(6L)::nextGaussian);
+		Matrix y = Jacobi.random(400, 2, new Random(7L)::nextGaussian);
+		
+		Matrix ata = new MulT().compute(a.ext(Prop.class).transpose(), a.ext(Prop.class).transpose());
+		Matrix aty = a.ext(Prop.class).transpose().ext(Op.class).mul(y).get();
+		Matrix expects = ata.ext(Decomp.class).chol().map(l -> {
+			Matrix z = new jacobi.core.solver.Substitution(
+				jacobi.core.solver.Substitution.Mode.FORWARD, l).compute(aty.copy());
+			return new jacobi.core.solver.Substitution(
+				jacobi.core.solver.Substitution.Mode.BACKWARD, l.ext(Prop.class).transpose()).compute(z);
+		}).get();
+		
+		Matrix x = new LLSquaresSolver().solve(a.copy(), y).get();
+		Jacobi.assertEquals(expects, x, 1e-8);
+	}
+	
+	@Test
+	public void shouldBeAbleToDecomposeThroughFacadeInPanels() {
+		Matrix a = Jacobi.random(130, 100, new Random(8L)::nextGaussian);
+		Pair qr = a.copy().ext(Decomp.class).qr();
+		Assert.assertTrue(qr.getLeft() instanceof ArrayMatrix);
+		Jacobi.assertEquals(a, qr.getLeft().ext(Op.class).mul(qr.getRight()).get(), 1e-9);
+	}
+	
+}
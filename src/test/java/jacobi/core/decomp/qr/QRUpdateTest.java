@@ -0,0 +1,152 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.decomp.qr;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.api.ext.Solver;
+import jacobi.test.util.Jacobi;
+
+public class QRUpdateTest {
+	
+	@Test
+	public void shouldBeAbleToAppendRow() {
+		Matrix a = Jacobi.random(10, 4, new Random(1L)::nextGaussian);
+		Matrix upper = new QRDecomp().compute(a.copy());
+		
+		double[] row = Jacobi.random(1, 4, new Random(2L)::nextGaussian).getRow(0);
+		new QRUpdate().update(upper, row);
+		
+		Matrix b = Matrices.zeros(11, 4);
+		for(int i = 0; i < 10; i++){
+			b.setRow(i, a.getRow(i));
+		}
+		b.setRow(10, row);
+		this.assertUpperTriangular(upper);
+		Jacobi.assertEquals(this.gram(b), this.gram(upper), 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToRemoveRow() {
+		Matrix a = Jacobi.random(12, 5, new Random(3L)::nextGaussian);
+		Matrix upper = new QRDecomp().compute(a.copy());
+		
+		new QRUpdate().downdate(upper, a.getRow(7)).get();
+		
+		Matrix b = a.copy();
+		b.setRow(7, new double[5]);
+		this.assertUpperTriangular(upper);
+		Jacobi.assertEquals(this.gram(b), this.gram(upper), 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToRemoveRowOfSmallMagnitude() {
+		Matrix a = Jacobi.random(12, 5, new Random(6L)::nextGaussian).ext(Op.class).mul(1e-14).get();
+		Matrix upper = Matrices.zeros(5, 5);
+		for(int i = 0; i < a.getRowCount(); i++){
+			new QRUpdate().update(upper, a.getRow(i));
+		}
+		
+		new QRUpdate().downdate(upper, a.getRow(4)).get();
+		
+		Matrix b = a.copy();
+		b.setRow(4, new double[5]);
+		Jacobi.assertEquals(this.gram(b), this.gram(upper), 1e-36);
+	}
+	
+	@Test
+	public void shouldBeAbleToRemoveProjectionOnLeadingColumns() {
+		Matrix a = Jacobi.random(12, 5, new Random(7L)::nextGaussian);
+		Matrix upper = new QRDecomp().compute(a.copy());
+		double[] last = upper.getRow(4);
+		
+		Matrix x = Matrices.zeros(12, 4);
+		Matrix y = Matrices.zeros(12, 1);
+		for(int i = 0; i < a.getRowCount(); i++){
+			x.setRow(i, Arrays.copyOf(a.getRow(i), 4));
+			y.set(i, 0, a.get(i, 4));
+		}
+		Matrix coeff = x.ext(Solver.class).llsquare(y).get();
+		double[] fitted = Arrays.copyOf(a.getRow(7), 5);
+		fitted[4] = x.ext(Op.class).mul(coeff).get().get(7, 0);
+		
+		new QRUpdate().downdate(upper, a.getRow(7), 4).get();
+		
+		Matrix expects = this.gram(a);
+		for(int i = 0; i < 5; i++){
+			for(int j = 0; j < 5; j++){
+				expects.set(i, j, expects.get(i, j) - fitted[i] * fitted[j]);
+			}
+		}
+		this.assertUpperTriangular(upper);
+		Jacobi.assertEquals(expects, this.gram(upper), 1e-9);
+		Assert.assertArrayEquals(last, upper.getRow(4), 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToUpdateFromZeros() {
+		Matrix a = Jacobi.random(8, 3, new Random(4L)::nextGaussian);
+		Matrix upper = Matrices.zeros(3, 3);
+		for(int i = 0; i < a.getRowCount(); i++){
+			new QRUpdate().update(upper, a.getRow(i));
+		}
+		Jacobi.assertEquals(this.gram(a), this.gram(upper), 1e-9);
+	}
+	
+	@Test
+	public void shouldFailToRemoveRowWhenRankIsLost() {
+		Matrix a = Jacobi.random(3, 3, new Random(5L)::nextGaussian);
+		Matrix upper = new QRDecomp().compute(a.copy());
+		Matrix before = upper.copy();
+		
+		Assert.assertFalse(new QRUpdate().downdate(upper, a.getRow(1)).isPresent());
+		Jacobi.assertEquals(before, upper, 0.0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenDimensionMismatch() {
+		new QRUpdate().update(Matrices.zeros(3, 3), new double[2]);
+	}
+	
+	private void assertUpperTriangular(Matrix upper) {
+		for(int i = 0; i < upper.getRowCount(); i++){
+			for(int j = 0; j < Math.min(i, upper.getColCount()); j++){
+				Assert.assertEquals(0.0, upper.get(i, j), 0.0);
+			}
+		}
+	}
+	
+	private Matrix gram(Matrix matrix) {
+		return matrix.ext(Prop.class).transpose().ext(Op.class).mul(matrix).get();
+	}
+	
+}
@@ -29,8 +29,14 @@ import jacobi.api.annotations.Facade;
 import jacobi.api.annotations.Pure;
 import jacobi.api.annotations.Implementation;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Assert;
 import org.junit.Before;
@@ -140,6 +146,52 @@ public class FacadeEngineTest {
                 null);
     }
     
+    @Test
+    public void testWarmUp() throws Exception {
+        FacadeEngine engine = new FacadeEngine();
+        Assert.assertEquals(4, engine.warmUp(DoSomethingWithString.class));
+        Assert.assertEquals(1, DoSthImpl.COUNT.get());
+        Assert.assertEquals(1, DoSthElseImpl.COUNT.get());
+        
+        Assert.assertEquals(0, engine.warmUp(DoSomethingWithString.class));
+        Assert.assertEquals(
+                "123?17",
+                engine.invoke(DoSomethingWithString.class.getMethod("doSth", int.class),
+                "123",
+                new Object[]{17}));
+        Assert.assertEquals(1, DoSthImpl.COUNT.get());
+        
+        engine.clearCache();
+        Assert.assertEquals(4, engine.warmUp(DoSomethingWithString.class));
+        Assert.assertEquals(2, DoSthImpl.COUNT.get());
+    }
+    
+    @Test
+    public void testWarmUpNotAFacade() throws Exception {
+        FacadeEngine engine = new FacadeEngine();
+        this.expected.expect(IllegalArgumentException.class);
+        engine.warmUp(String.class);
+    }
+    
+    @Test
+    public void testConcurrentInvoke() throws Exception {
+        FacadeEngine engine = new FacadeEngine();
+        Method method = DoSomethingWithString.class.getMethod("doSth", int.class);
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for(int i = 0; i < 64; i++){
+                int k = i;
+                results.add(threads.submit(() -> engine.invoke(method, "123", new Object[]{k})));
+            }
+            for(int i = 0; i < results.size(); i++){
+                Assert.assertEquals("123?" + i, results.get(i).get());
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+    
     @Facade(String.class)
     public interface DoSomethingWithString {
         
@@ -0,0 +1,156 @@
+package jacobi.core.facade;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Decomp;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.test.util.Jacobi;
+
+public class FacadeMetricsTest {
+    
+    @After
+    public void tearDown() {
+        FacadeMetrics.getInstance().setEnabled(false);
+        FacadeMetrics.getInstance().reset();
+        FacadeMetrics.getInstance().unregister();
+        Thresholds.reset();
+    }
+    
+    @Test
+    public void shouldNotRecordWhenDisabled() {
+        FacadeMetrics.getInstance().setEnabled(false);
+        Matrix a = Jacobi.random(4, 4, new Random(7L)::nextGaussian);
+        a.ext(Op.class).mul(a);
+        Assert.assertFalse(FacadeMetrics.isRecording());
+        Assert.assertEquals(0L, FacadeMetrics.getInstance().getTotalCallCount());
+    }
+    
+    @Test
+    public void shouldBeAbleToRecordCallsByFacadeMethod() {
+        FacadeMetrics metrics = FacadeMetrics.getInstance();
+        metrics.setEnabled(true);
+        
+        Random rand = new Random(Double.doubleToLongBits(Math.PI));
+        Matrix a = Jacobi.random(5, 3, rand::nextGaussian);
+        Matrix b = Jacobi.random(3, 7, rand::nextGaussian);
+        
+        a.ext(Op.class).mul(b);
+        a.ext(Op.class).mul(b);
+        b.ext(Decomp.class).qr();
+        
+        Map<String, FacadeMetrics.Snapshot> snapshot = metrics.snapshot();
+        Assert.assertTrue(snapshot.containsKey("Op.mul"));
+        Assert.assertTrue(snapshot.containsKey("Decomp.qr"));
+        
+        FacadeMetrics.Snapshot mul = snapshot.get("Op.mul");
+        Assert.assertEquals(2L, mul.getCount());
+        Assert.assertEquals(0L, mul.getFailedCount());
+        Assert.assertEquals(5L, mul.getMaxRows());
+        Assert.assertEquals(3L, mul.getMaxCols());
+        Assert.assertEquals(2L * 5 * 3, mul.getElementCount());
+        Assert.assertEquals(2L * 5 * 3 * 7, mul.getFlop());
+        Assert.assertEquals(2L, mul.getSerialCount());
+        Assert.assertTrue(mul.getMaxNanos() > 0);
+        Assert.assertTrue(mul.getPercentileNanos(50.0) <= mul.getMaxNanos());
+        Assert.assertEquals(2L, Arrays.stream(mul.getHistogram()).sum());
+        
+        Assert.assertEquals(1L, snapshot.get("Decomp.qr").getCount());
+        Assert.assertEquals(3L, metrics.getTotalCallCount());
+    }
+    
+    @Test
+    public void shouldRecordCallsOnGeneratedFacadeCreatedBeforeEnabling() {
+        Random rand = new Random(Double.doubleToLongBits(Math.sqrt(2.0)));
+        Matrix a = Jacobi.random(4, 4, rand::nextGaussian);
+        Op op = a.ext(Op.class);
+        Prop prop = a.ext(Prop.class);
+        Assert.assertFalse(Proxy.isProxyClass(op.getClass()));
+        
+        FacadeMetrics metrics = FacadeMetrics.getInstance();
+        metrics.setEnabled(true);
+        Assert.assertFalse(Proxy.isProxyClass(a.ext(Op.class).getClass()));
+        
+        op.mul(a);
+        prop.tr();
+        Assert.assertEquals(1L, metrics.getCallCount("Op.mul"));
+        Assert.assertEquals(1L, metrics.getCallCount("Prop.tr"));
+        Assert.assertEquals(4L * 4 * 4, metrics.getEstimatedFlop("Op.mul"));
+    }
+    
+    @Test
+    public void shouldBeAbleToRecordParallelPath() {
+        FacadeMetrics metrics = FacadeMetrics.getInstance();
+        metrics.setEnabled(true);
+        Thresholds.set(Operation.MUL, 1L, 64L);
+        
+        Random rand = new Random(Double.doubleToLongBits(Math.E));
+        Matrix a = Jacobi.random(64, 32, rand::nextGaussian);
+        Matrix b = Jacobi.random(32, 16, rand::nextGaussian);
+        a.ext(Op.class).mul(b);
+        
+        Assert.assertEquals(1L, metrics.getParallelCallCount("Op.mul"));
+    }
+    
+    @Test
+    public void shouldBeAbleToRecordFailedCalls() {
+        FacadeMetrics metrics = FacadeMetrics.getInstance();
+        metrics.setEnabled(true);
+        Matrix a = Matrices.zeros(2, 3);
+        try {
+            a.ext(Prop.class).det();
+            Assert.fail();
+        } catch(RuntimeException ex) {
+            // expected
+        }
+        Assert.assertEquals(1L, metrics.snapshot("Prop.det").getFailedCount());
+    }
+    
+    @Test
+    public void shouldBeAbleToReadByJmx() throws Exception {
+        FacadeMetrics metrics = FacadeMetrics.getInstance();
+        ObjectName name = metrics.register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        
+        server.setAttribute(name, new Attribute("Enabled", true));
+        Assert.assertTrue(FacadeMetrics.isRecording());
+        
+        Matrix a = Jacobi.random(4, 4, new Random(11L)::nextGaussian);
+        a.ext(Op.class).mul(a);
+        
+        Assert.assertEquals(1L, server.getAttribute(name, "TotalCallCount"));
+        Assert.assertArrayEquals(new String[] {"Op.mul"}, (String[]) server.getAttribute(name, "MethodNames"));
+        Assert.assertEquals(1L, server.invoke(name, "getCallCount", 
+            new Object[] {"Op.mul"}, new String[] {String.class.getName()}));
+        Assert.assertTrue(((String) server.invoke(name, "report", null, null)).startsWith("Op.mul count=1"));
+    }
+    
+    @Test
+    public void shouldEstimateFlopByMethod() throws Exception {
+        Method qr = Decomp.class.getMethod("qr");
+        Assert.assertEquals(8L * 5 * 5, FacadeMetrics.estimateFlop(qr, 8, 5, new Object[0]));
+        
+        Method mulT = Op.class.getMethod("mulT", Matrix.class);
+        Assert.assertEquals(8L * 5 * 9, FacadeMetrics.estimateFlop(mulT, 8, 5, new Object[] {Matrices.zeros(9, 5)}));
+        
+        Method tr = Prop.class.getMethod("tr");
+        Assert.assertEquals(5L, FacadeMetrics.estimateFlop(tr, 8, 5, null));
+    }
+}
@@ -0,0 +1,164 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.facade;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+
+public class FacadeProcessorTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Before
+    public void init() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        
+        File src = this.folder.newFolder("src");
+        File out = this.folder.newFolder("out");
+        File pkg = new File(src, "facades");
+        Assert.assertTrue(pkg.mkdirs());
+        
+        this.write(new File(pkg, "Text.java"), 
+            "package facades;",
+            "import jacobi.api.annotations.*;",
+            "@Facade(String.class)",
+            "public interface Text extends java.util.function.Supplier<String> {",
+            "    @Implementation(Concat.class) public Text concat(String str);",
+            "    @Implementation(Length.class) public int length();",
+            "    @Implementation(Split.class) public String[] split(String regex, int... limits);",
+            "    public static class Concat { public String compute(String a, String b) { return a + b; } }",
+            "    public static class Length { public int compute(String a) { return a.length(); } }",
+            "    public static class Split {",
+            "        public String[] compute(String a, String regex, int... limits) {",
+            "            return a.split(regex, limits.length == 0 ? 0 : limits[0]);",
+            "        }",
+            "    }",
+            "}");
+        this.write(new File(pkg, "Negate.java"), 
+            "package facades;",
+            "import jacobi.api.Matrix;",
+            "import jacobi.api.annotations.*;",
+            "@Pure @Facade",
+            "public interface Negate extends java.util.function.Supplier<Matrix> {",
+            "    @Implementation(InPlace.class) public Negate negate();",
+            "    public static class InPlace {",
+            "        public Matrix compute(Matrix m) {",
+            "            for(int i = 0; i < m.getRowCount(); i++) {",
+            "                double[] row = m.getRow(i);",
+            "                for(int j = 0; j < row.length; j++) { row[j] = -row[j]; }",
+            "                m.setRow(i, row);",
+            "            }",
+            "            return m;",
+            "        }",
+            "    }",
+            "}");
+        this.write(new File(pkg, "Broken.java"), 
+            "package facades;",
+            "import jacobi.api.annotations.*;",
+            "@Facade(String.class)",
+            "public interface Broken {",
+            "    public int notImplemented();",
+            "}");
+        
+        int status = compiler.run(null, null, null, 
+            "-classpath", System.getProperty("java.class.path"),
+            "-processor", FacadeProcessor.class.getName(),
+            "-d", out.getAbsolutePath(),
+            "-s", out.getAbsolutePath(),
+            new File(pkg, "Text.java").getAbsolutePath(),
+            new File(pkg, "Negate.java").getAbsolutePath(),
+            new File(pkg, "Broken.java").getAbsolutePath()
+        );
+        Assert.assertEquals(0, status);
+        
+        this.out = out;
+        this.loader = new URLClassLoader(new URL[]{ out.toURI().toURL() }, this.getClass().getClassLoader());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldBeAbleToGenerateFacadeWithChainingAndSupplier() throws Exception {
+        Class<?> facade = this.loader.loadClass("facades.Text");
+        Object text = FacadeProxy.of(facade, "Hello");
+        Assert.assertFalse(Proxy.isProxyClass(text.getClass()));
+        Assert.assertEquals("facades.Text" + FacadeProcessor.GENERATED_SUFFIX, text.getClass().getName());
+        
+        Object chain = facade.getMethod("concat", String.class).invoke(text, " World");
+        Assert.assertEquals("Hello World", ((Supplier<String>) chain).get());
+        Assert.assertEquals(11, facade.getMethod("length").invoke(chain));
+        Assert.assertArrayEquals(new String[]{"Hello", "World"}, 
+            (String[]) facade.getMethod("split", String.class, int[].class).invoke(chain, " ", new int[0]));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldCopyFacadeArgumentForPureFacadeWithImpureImpl() throws Exception {
+        Class<?> facade = this.loader.loadClass("facades.Negate");
+        Matrix matrix = Matrices.wrap(new double[][]{ {1.0, -2.0} });
+        Object negate = FacadeProxy.of(facade, matrix);
+        Assert.assertFalse(Proxy.isProxyClass(negate.getClass()));
+        
+        Matrix result = ((Supplier<Matrix>) facade.getMethod("negate").invoke(negate)).get();
+        Assert.assertArrayEquals(new double[]{-1.0, 2.0}, result.getRow(0), 1e-12);
+        Assert.assertArrayEquals(new double[]{1.0, -2.0}, matrix.getRow(0), 1e-12);
+    }
+    
+    @Test
+    public void shouldLeaveUnresolvableFacadeToReflection() throws Exception {
+        Assert.assertFalse(new File(this.out, "facades/Broken" + FacadeProcessor.GENERATED_SUFFIX + ".class").exists());
+        
+        Class<?> facade = this.loader.loadClass("facades.Broken");
+        Object broken = FacadeProxy.of(facade, "Broken");
+        Assert.assertTrue(Proxy.isProxyClass(broken.getClass()));
+    }
+    
+    private void write(File file, String... lines) throws IOException {
+        Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+    
+    private File out;
+    private URLClassLoader loader;
+}
@@ -23,10 +23,16 @@
  */
 package jacobi.core.facade;
 
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
 import jacobi.api.annotations.Facade;
 import jacobi.api.annotations.Implementation;
+import jacobi.api.ext.Data;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
 
 import java.io.Serializable;
+import java.lang.reflect.Proxy;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -116,6 +122,51 @@ public class FacadeProxyTest {
     	Date date = proxy.first().get();
     }
     
+    @Test
+    public void shouldUseGeneratedClassForLibraryFacade() {
+        Matrix matrix = Matrices.wrap(new double[][]{ {1.0, 2.0}, {3.0, 4.0} });
+        Op op = matrix.ext(Op.class);
+        Assert.assertFalse(Proxy.isProxyClass(op.getClass()));
+        
+        Op chain = op.mul(matrix).add(matrix);
+        Assert.assertFalse(Proxy.isProxyClass(chain.getClass()));
+        Assert.assertArrayEquals(new double[]{8.0, 12.0}, chain.get().getRow(0), 1e-12);
+        Assert.assertArrayEquals(new double[]{18.0, 26.0}, chain.get().getRow(1), 1e-12);
+        Assert.assertSame(matrix, op.get());
+    }
+    
+    @Test
+    public void shouldFallbackToProxyForFacadeWithoutGeneratedClass() {
+        TestChainingInFluentInterface facade = FacadeProxy.of(TestChainingInFluentInterface.class, "Start");
+        Assert.assertTrue(Proxy.isProxyClass(facade.getClass()));
+    }
+    
+    @Test
+    public void shouldFallbackToProxyForDelegatedArgument() {
+        Data data = Matrices.zeros(2).ext(Data.class);
+        Assert.assertFalse(Proxy.isProxyClass(data.getClass()));
+        Assert.assertTrue(Proxy.isProxyClass(data.select(0).getClass()));
+        Assert.assertEquals(1, data.select(0).get().getColCount());
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldFailToChainWithInvalidResult() {
+        FacadeProxy.chain(TestChainingInFluentInterface.class, 1337L, 1337L);
+    }
+    
+    @Test
+    public void shouldBeAbleToWarmUpLibraryFacades() {
+        Assert.assertTrue(FacadeProxy.warmUp() > 0);
+        
+        Matrix matrix = Matrices.wrap(new double[][]{ {1.0, 2.0}, {3.0, 4.0} });
+        Assert.assertEquals(-2.0, matrix.ext(Prop.class).det(), 1e-12);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailToWarmUpNonFacade() {
+        FacadeProxy.warmUp(String.class);
+    }
+    
     @Facade(String.class)
     public interface TestFluentInterface extends Supplier<String> {
         
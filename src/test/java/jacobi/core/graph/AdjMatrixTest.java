@@ -14,6 +14,8 @@ import jacobi.api.Matrix;
 import jacobi.api.graph.AdjList;
 import jacobi.api.graph.Edge;
 import jacobi.core.impl.ImmutableMatrix;
+import jacobi.core.impl.SparseMatrix;
+import jacobi.test.util.Jacobi;
 
 public class AdjMatrixTest {
 	
@@ -266,6 +268,18 @@ public class AdjMatrixTest {
 		}
 	}
 	
+	@Test
+	public void shouldBeAbleToConvertToSparseMatrix() {
+		Matrix weights = Matrices.zeros(40);
+		Arrays.fill(weights.getRow(0), 1.0);
+		Arrays.fill(weights.getRow(1), 5, 35, Math.PI);
+		weights.set(2, 3, Math.E).set(2, 17, -1.0).set(2, 39, 2.0);
+		
+		SparseMatrix sparse = AdjMatrix.of(weights).toSparse();
+		Assert.assertEquals(40 + 30 + 3, sparse.getNonZeroCount());
+		Jacobi.assertEquals(weights, sparse);
+	}
+	
 	@Test(expected = IllegalArgumentException.class)
 	public void shouldFailWhenInputMatrixIsNotSquare() {
 		AdjMatrix.of(Matrices.zeros(3, 2));
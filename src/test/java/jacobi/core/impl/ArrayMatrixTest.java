@@ -4,6 +4,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import jacobi.api.Matrix;
+import java.util.Random;
 
 public class ArrayMatrixTest {
 	
@@ -106,5 +107,61 @@ public class ArrayMatrixTest {
 	public void shouldFailWhenNumberOfElementsIsGreaterThanMaxInt() {
 		ArrayMatrix.of(65536, 65536 / 2);
 	}
-
+	
+	@Test
+	public void shouldBeAbleToWrapRegionOfArrayWithStride() {
+		double[] array = new double[] {
+			0.0, 0.0, 0.0, 0.0, 
+			0.0, 1.0, 2.0, 0.0, 
+			0.0, 3.0, 4.0, 0.0, 
+			0.0, 5.0, 6.0, 0.0
+		};
+		ArrayMatrix mat = ArrayMatrix.wrap(array, 5, 3, 2, 4);
+		
+		Assert.assertEquals(3, mat.getRowCount());
+		Assert.assertEquals(2, mat.getColCount());
+		Assert.assertArrayEquals(new double[] {1.0, 2.0}, mat.getRow(0), 1e-12);
+		Assert.assertArrayEquals(new double[] {3.0, 4.0}, mat.getRow(1), 1e-12);
+		Assert.assertArrayEquals(new double[] {5.0, 6.0}, mat.getRow(2), 1e-12);
+		
+		mat.set(1, 1, Math.PI).setRow(2, new double[] {7.0, 8.0}).swapRow(0, 2);
+		Assert.assertEquals(Math.PI, array[10], 1e-12);
+		Assert.assertArrayEquals(new double[] {7.0, 8.0}, mat.getRow(0), 1e-12);
+		Assert.assertArrayEquals(new double[] {1.0, 2.0}, mat.getRow(2), 1e-12);
+		Assert.assertEquals(0.0, array[7], 1e-12);
+		Assert.assertEquals(0.0, array[15], 1e-12);
+	}
+	
+	@Test
+	public void shouldBeCompactAfterCopyWithStride() {
+		Random rand = new Random(Double.doubleToLongBits(Math.E));
+		double[] array = rand.doubles(7 * 9).toArray();
+		ArrayMatrix mat = ArrayMatrix.wrap(array, 9 + 2, 5, 4, 9);
+		ArrayMatrix copy = (ArrayMatrix) mat.copy();
+		
+		Assert.assertEquals(0, copy.getOffset());
+		Assert.assertEquals(4, copy.getStride());
+		Assert.assertEquals(5 * 4, copy.getArray().length);
+		for(int i = 0; i < mat.getRowCount(); i++) {
+			Assert.assertArrayEquals(mat.getRow(i), copy.getRow(i), 1e-12);
+		}
+		
+		copy.set(0, 0, -1.0);
+		Assert.assertNotEquals(-1.0, mat.get(0, 0), 1e-12);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenStrideIsLessThanNumOfColumns() {
+		ArrayMatrix.wrap(new double[16], 0, 4, 4, 3);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenRegionExceedsBackingArray() {
+		ArrayMatrix.wrap(new double[16], 1, 4, 4, 4);
+	}
+	
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void shouldFailWhenSetRowOutOfRangeWithStride() {
+		ArrayMatrix.wrap(new double[16], 0, 2, 2, 4).setRow(2, new double[] {1.0, 2.0});
+	}
 }
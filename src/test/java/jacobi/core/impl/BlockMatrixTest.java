@@ -0,0 +1,114 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrix;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.test.util.Jacobi;
+
+public class BlockMatrixTest {
+	
+	@After
+	public void reset() {
+		Thresholds.reset();
+	}
+	
+	@Test
+	public void shouldBeAbleToPartitionIntoTilesWithEdges() {
+		Matrix matrix = Jacobi.random(7, 10, new Random(1L)::nextDouble);
+		BlockMatrix block = BlockMatrix.of(matrix, 3);
+		Assert.assertEquals(3, block.getGridRowCount());
+		Assert.assertEquals(4, block.getGridColCount());
+		Assert.assertEquals(1, block.tileRowCount(2));
+		Assert.assertEquals(1, block.tileColCount(3));
+		Assert.assertEquals(3, block.getTile(2, 1).length);
+		Assert.assertEquals(matrix.get(4, 7), block.getTile(1, 2)[1 * 3 + 1], 0.0);
+		
+		Jacobi.assertEquals(matrix, block, 0.0);
+		for(int i = 0; i < matrix.getRowCount(); i++){
+			for(int j = 0; j < matrix.getColCount(); j++){
+				Assert.assertEquals(matrix.get(i, j), block.get(i, j), 0.0);
+			}
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToSetAndSwapRows() {
+		Matrix matrix = Jacobi.random(5, 5, new Random(2L)::nextDouble);
+		BlockMatrix block = BlockMatrix.of(matrix, 2);
+		
+		block.swapRow(0, 4).set(1, 3, Math.PI);
+		matrix.swapRow(0, 4).set(1, 3, Math.PI);
+		Jacobi.assertEquals(matrix, block, 0.0);
+		
+		block.setRow(2, new double[]{ 1.0, 2.0, 3.0, 4.0, 5.0 });
+		Assert.assertArrayEquals(new double[]{ 1.0, 2.0, 3.0, 4.0, 5.0 }, block.getRow(2), 0.0);
+		
+		BlockMatrix copy = block.copy();
+		copy.set(2, 2, 0.0);
+		Assert.assertEquals(3.0, block.get(2, 2), 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToAddAndSubInTiles() {
+		Random rand = new Random(3L);
+		Matrix a = Jacobi.random(13, 9, rand::nextDouble);
+		Matrix b = Jacobi.random(13, 9, rand::nextDouble);
+		
+		Matrix sum = BlockMatrix.of(a, 4).ext(Op.class).add(BlockMatrix.of(b, 4)).get();
+		Assert.assertTrue(sum instanceof BlockMatrix);
+		Jacobi.assertEquals(a.ext(Op.class).add(b).get(), sum, 1e-12);
+		Jacobi.assertEquals(a.ext(Op.class).sub(b).get(), BlockMatrix.of(a, 4).ext(Op.class).sub(BlockMatrix.of(b, 4)).get(), 1e-12);
+	}
+	
+	@Test
+	public void shouldBeAbleToTransposeInTiles() {
+		Matrix matrix = Jacobi.random(11, 6, new Random(4L)::nextDouble);
+		Matrix trans = BlockMatrix.of(matrix, 4).ext(Prop.class).transpose();
+		Assert.assertTrue(trans instanceof BlockMatrix);
+		Jacobi.assertEquals(matrix.ext(Prop.class).transpose(), trans, 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToTransposeInParallel() {
+		Thresholds.set(Operation.DEFAULT, 1, 1);
+		Matrix matrix = Jacobi.random(37, 41, new Random(5L)::nextDouble);
+		Jacobi.assertEquals(matrix.ext(Prop.class).transpose(), BlockMatrix.of(matrix, 8).ext(Prop.class).transpose(), 0.0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenTileSizeIsNotPositive() {
+		BlockMatrix.zeros(3, 3, 0);
+	}
+
+}
@@ -0,0 +1,180 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Op;
+import jacobi.api.spatial.DefaultRTreeFactory;
+import jacobi.api.spatial.SpatialIndex;
+import jacobi.core.clustering.EuclideanCluster;
+import jacobi.core.clustering.ExpectationMaximization;
+import jacobi.core.clustering.SilhouetteCoeff;
+import jacobi.test.util.Jacobi;
+
+public class FloatMatrixTest {
+	
+	@Test
+	public void shouldBeAbleToNarrowAndWidenValues() {
+		Matrix base = Jacobi.random(7, 5, new Random(1L)::nextGaussian);
+		Matrix floats = Matrices.floats(base);
+		Assert.assertTrue(floats instanceof FloatMatrix);
+		Assert.assertEquals(35, ((FloatMatrix) floats).getArray().length);
+		for(int i = 0; i < base.getRowCount(); i++){
+			double[] row = floats.getRow(i);
+			for(int j = 0; j < base.getColCount(); j++){
+				Assert.assertEquals((float) base.get(i, j), floats.get(i, j), 0.0);
+				Assert.assertEquals((float) base.get(i, j), row[j], 0.0);
+			}
+		}
+		
+		floats.set(2, 3, Math.PI).setRow(4, new double[]{ 1.0, 2.0, 3.0, 4.0, Math.E });
+		Assert.assertEquals((float) Math.PI, floats.get(2, 3), 0.0);
+		Assert.assertArrayEquals(new double[]{ 1.0, 2.0, 3.0, 4.0, (float) Math.E }, floats.getRow(4), 0.0);
+		
+		floats.swapRow(4, 0);
+		Assert.assertArrayEquals(new double[]{ 1.0, 2.0, 3.0, 4.0, (float) Math.E }, floats.getRow(0), 0.0);
+		
+		Matrix clone = floats.copy();
+		clone.set(0, 0, -1.0);
+		Assert.assertEquals(1.0, floats.get(0, 0), 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToVisitRowsInReusedBuffer() {
+		Matrix floats = FloatMatrix.of(Jacobi.random(6, 3, new Random(2L)::nextGaussian));
+		List<double[]> rows = new ArrayList<>();
+		floats.forEachRow(0, 6, (row, i) -> {
+			Assert.assertArrayEquals(floats.getRow(i), row, 0.0);
+			rows.add(row);
+		});
+		Assert.assertEquals(1, new HashSet<>(rows).size());
+		
+		Matrix view = floats.rows(5, 1, 3);
+		List<double[]> selected = new ArrayList<>();
+		view.forEachRow(0, 3, (row, i) -> {
+			Assert.assertArrayEquals(view.getRow(i), row, 0.0);
+			selected.add(row);
+		});
+		Assert.assertEquals(1, new HashSet<>(selected).size());
+	}
+	
+	@Test
+	public void shouldBeAbleToMultiplyInSinglePrecisionStorage() {
+		Matrix a = Jacobi.random(37, 23, new Random(3L)::nextGaussian);
+		Matrix b = Jacobi.random(23, 41, new Random(4L)::nextGaussian);
+		
+		Matrix ans = FloatMatrix.of(a).ext(Op.class).mul(FloatMatrix.of(b)).get();
+		Assert.assertTrue(ans instanceof FloatMatrix);
+		
+		Matrix expects = this.widen(FloatMatrix.of(a)).ext(Op.class).mul(this.widen(FloatMatrix.of(b))).get();
+		Jacobi.assertEquals(expects, ans, 1e-5);
+	}
+	
+	@Test
+	public void shouldBeAbleToMultiplyInParallelInSinglePrecisionStorage() {
+		FloatMatrix a = FloatMatrix.of(Jacobi.random(300, 70, new Random(5L)::nextGaussian));
+		FloatMatrix b = FloatMatrix.of(Jacobi.random(70, 50, new Random(6L)::nextGaussian));
+		Matrix expects = new jacobi.core.op.Mul().compute(this.widen(a), this.widen(b));
+		Jacobi.assertEquals(expects, new jacobi.core.op.FloatMul().compute(a, b), 1e-4);
+	}
+	
+	@Test
+	public void shouldBeAbleToComputeDotProductInSinglePrecisionStorage() {
+		FloatMatrix a = FloatMatrix.of(Jacobi.random(17, 4, new Random(7L)::nextGaussian));
+		FloatMatrix b = FloatMatrix.of(Jacobi.random(17, 4, new Random(8L)::nextGaussian));
+		Jacobi.assertEquals(
+			this.widen(a).ext(Op.class).dot(this.widen(b)).get(),
+			a.ext(Op.class).dot(b).get(),
+			1e-12
+		);
+	}
+	
+	@Test
+	public void shouldBeAbleToBuildRTreeOnSinglePrecisionStorage() {
+		FloatMatrix floats = FloatMatrix.of(Jacobi.random(512, 3, new Random(9L)::nextGaussian));
+		Matrix widened = this.widen(floats);
+		
+		SpatialIndex<Integer> index = new DefaultRTreeFactory(floats).setLeafMin(8).setLeafMax(16).build();
+		SpatialIndex<Integer> expects = new DefaultRTreeFactory(widened).setLeafMin(8).setLeafMax(16).build();
+		
+		Random rand = new Random(10L);
+		for(int k = 0; k < 16; k++){
+			double[] query = { rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian() };
+			Assert.assertEquals(expects.queryKNN(query, 7), index.queryKNN(query, 7));
+			
+			List<Integer> all = new ArrayList<>();
+			index.queryRange(query, 0.5).forEachRemaining(all::add);
+			for(int i = 0; i < widened.getRowCount(); i++){
+				double dist = Math.sqrt(this.sqDist(widened.getRow(i), query));
+				Assert.assertEquals(dist <= 0.5, all.contains(i));
+			}
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToClusterSinglePrecisionStorage() {
+		FloatMatrix floats = FloatMatrix.of(Jacobi.random(200, 4, new Random(11L)::nextGaussian));
+		ExpectationMaximization<double[]> em = new ExpectationMaximization<>(
+			m -> Arrays.asList(m.getRow(0), m.getRow(1), m.getRow(2)),
+			EuclideanCluster.getInstance(),
+			0L
+		);
+		List<int[]> ans = em.compute(floats);
+		List<int[]> expects = em.compute(this.widen(floats));
+		
+		Assert.assertEquals(expects.size(), ans.size());
+		for(int i = 0; i < ans.size(); i++){
+			Assert.assertArrayEquals(expects.get(i), ans.get(i));
+		}
+		
+		Assert.assertEquals(
+			new SilhouetteCoeff().applyAsDouble(this.widen(floats), ans),
+			new SilhouetteCoeff().applyAsDouble(floats, ans),
+			1e-12
+		);
+	}
+	
+	private Matrix widen(FloatMatrix matrix) {
+		return Matrices.wrap(matrix.toArray());
+	}
+	
+	private double sqDist(double[] u, double[] v) {
+		double ans = 0.0;
+		for(int i = 0; i < u.length; i++){
+			ans += (u[i] - v[i]) * (u[i] - v[i]);
+		}
+		return ans;
+	}
+	
+}
@@ -0,0 +1,182 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jacobi.api.Matrix;
+import jacobi.api.ext.Stats;
+import jacobi.test.util.Jacobi;
+
+public class MappedMatrixTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void shouldBeAbleToWriteAndReadBack() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        Matrix dense = Jacobi.random(17, 5, new Random(7L)::nextDouble);
+        try(MappedMatrix matrix = MappedMatrix.create(path, 17, 5)){
+            for(int i = 0; i < dense.getRowCount(); i++){
+                matrix.setRow(i, dense.getRow(i));
+            }
+            matrix.set(3, 4, Math.PI);
+            dense.set(3, 4, Math.PI);
+        }
+        
+        Assert.assertEquals(MatrixFile.HEADER_LENGTH + 17 * 5 * Double.BYTES, Files.size(path));
+        try(MappedMatrix matrix = MappedMatrix.open(path, true)){
+            Assert.assertTrue(matrix.isReadOnly());
+            Jacobi.assertEquals(dense, matrix);
+            Assert.assertEquals(Math.PI, matrix.get(3, 4), 0.0);
+        }
+    }
+    
+    @Test
+    public void shouldBeAbleToMapInSegments() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        Matrix dense = Jacobi.random(23, 7, new Random(11L)::nextDouble);
+        try(MappedMatrix matrix = MappedMatrix.create(path, 23, 7)){
+            dense.forEachRow(0, dense.getRowCount(), (row, i) -> matrix.setRow(i, row));
+        }
+        
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            MappedMatrix matrix = new MappedMatrix(channel, MapMode.READ_ONLY, 
+                MatrixFile.read(channel), 3 * 7 * Double.BYTES)){
+            Jacobi.assertEquals(dense, matrix);
+            Assert.assertEquals(dense.get(22, 6), matrix.get(22, 6), 0.0);
+        }
+    }
+    
+    @Test
+    public void shouldBeAbleToComputeStatsOutOfCore() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        Matrix dense = Jacobi.random(101, 6, new Random(13L)::nextDouble);
+        try(MappedMatrix matrix = MappedMatrix.create(path, 101, 6)){
+            dense.forEachRow(0, dense.getRowCount(), (row, i) -> matrix.setRow(i, row));
+            
+            Assert.assertArrayEquals(dense.ext(Stats.class).mean(), matrix.ext(Stats.class).mean(), 1e-12);
+            Assert.assertArrayEquals(dense.ext(Stats.class).max(), matrix.ext(Stats.class).max(), 1e-12);
+            Assert.assertArrayEquals(dense.ext(Stats.class).var(), matrix.ext(Stats.class).var(), 1e-12);
+            Jacobi.assertEquals(dense.ext(Stats.class).covar(), matrix.ext(Stats.class).covar(), 1e-12);
+        }
+    }
+    
+    @Test
+    public void shouldComputeStatsWithoutCopying() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        Matrix dense = Jacobi.random(31, 4, new Random(17L)::nextDouble);
+        try(MappedMatrix matrix = MappedMatrix.create(path, 31, 4)){
+            dense.forEachRow(0, dense.getRowCount(), (row, i) -> matrix.setRow(i, row));
+            
+            Set<Path> before = this.tempFiles();
+            Assert.assertArrayEquals(dense.ext(Stats.class).stdDev(), matrix.ext(Stats.class).stdDev(), 1e-12);
+            Assert.assertArrayEquals(dense.ext(Stats.class).skew(), matrix.ext(Stats.class).skew(), 1e-12);
+            Assert.assertArrayEquals(dense.ext(Stats.class).kurt(), matrix.ext(Stats.class).kurt(), 1e-12);
+            Set<Path> created = this.tempFiles();
+            created.removeAll(before);
+            Assert.assertTrue(created.isEmpty());
+        }
+    }
+    
+    @Test
+    public void shouldCopyBeIndependent() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        try(MappedMatrix matrix = MappedMatrix.create(path, 3, 3);
+            MappedMatrix copy = (MappedMatrix) matrix.set(1, 1, 1.0).copy()){
+            copy.set(1, 1, 2.0);
+            
+            Assert.assertEquals(1.0, matrix.get(1, 1), 0.0);
+            Assert.assertEquals(2.0, copy.get(1, 1), 0.0);
+        }
+    }
+    
+    @Test
+    public void shouldDeleteTemporaryFileWhenCopyIsClosed() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        try(MappedMatrix matrix = MappedMatrix.create(path, 3, 3)){
+            Set<Path> before = this.tempFiles();
+            MappedMatrix copy = (MappedMatrix) matrix.copy();
+            Set<Path> created = this.tempFiles();
+            created.removeAll(before);
+            Assert.assertEquals(1, created.size());
+            
+            copy.close();
+            Assert.assertFalse(Files.exists(created.iterator().next()));
+        }
+        Assert.assertTrue(Files.exists(path));
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldFailToSetInReadOnlyMode() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        MappedMatrix.create(path, 2, 2).close();
+        try(MappedMatrix matrix = MappedMatrix.open(path, true)){
+            matrix.setRow(0, new double[2]);
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailToOpenNonMatrixFile() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        Files.write(path, new byte[64]);
+        MappedMatrix.open(path, true);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailToOpenTruncatedFile() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        MappedMatrix.create(path, 4, 4).close();
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)){
+            channel.truncate(MatrixFile.HEADER_LENGTH + 8);
+        }
+        MappedMatrix.open(path, true);
+    }
+    
+    protected Set<Path> tempFiles() throws IOException {
+        try(Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))){
+            return files
+                .filter(p -> p.getFileName().toString().startsWith("jacobi"))
+                .filter(p -> p.getFileName().toString().endsWith(".mat"))
+                .collect(Collectors.toSet());
+        }
+    }
+    
+}
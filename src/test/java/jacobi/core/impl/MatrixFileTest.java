@@ -0,0 +1,146 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.test.util.Jacobi;
+
+public class MatrixFileTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void shouldBeAbleToWriteAndMapWithColumnNames() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        Matrix matrix = Matrices.wrap(new double[][]{
+            {1.0, 2.0, 3.0},
+            {4.0, 5.0, 6.0}
+        });
+        List<String> names = Arrays.asList("x", "θ", "long name");
+        MatrixFile.write(matrix, names, path);
+        
+        try(MappedMatrix mapped = MappedMatrix.open(path, true)){
+            Assert.assertEquals(names, mapped.getColumnNames());
+            Jacobi.assertEquals(matrix, mapped);
+        }
+        
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(path));
+        long offset = header.getLong(24);
+        Assert.assertEquals(MatrixFile.MAGIC, header.getInt(0));
+        Assert.assertEquals(MatrixFile.FLAG_COLUMN_NAMES, header.get(7));
+        Assert.assertEquals(0L, offset % Double.BYTES);
+        Assert.assertEquals(offset + 6 * Double.BYTES, Files.size(path));
+    }
+    
+    @Test
+    public void shouldBeAbleToReadBigEndianFile() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        ByteBuffer buffer = ByteBuffer.allocate(MatrixFile.HEADER_LENGTH + 4 * Double.BYTES)
+            .putInt(MatrixFile.MAGIC)
+            .put(MatrixFile.VERSION)
+            .put((byte) 0)
+            .put((byte) Double.BYTES)
+            .put((byte) 0)
+            .putLong(2L)
+            .putLong(2L)
+            .putLong(MatrixFile.HEADER_LENGTH)
+            .putDouble(Math.PI).putDouble(Math.E).putDouble(-1.0).putDouble(0.5);
+        Files.write(path, buffer.array());
+        
+        try(MappedMatrix mapped = MappedMatrix.open(path, true)){
+            Assert.assertTrue(mapped.getColumnNames().isEmpty());
+            Jacobi.assertEquals(Matrices.wrap(new double[][]{ {Math.PI, Math.E}, {-1.0, 0.5} }), mapped);
+            Jacobi.assertEquals(mapped, mapped.load());
+        }
+    }
+    
+    @Test
+    public void shouldWriteInMultipleBuffers() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        int numRows = MatrixFile.DEFAULT_BUFFER_SIZE / (3 * Double.BYTES) + 7;
+        Matrix matrix = Matrices.zeros(numRows, 3);
+        for(int i = 0; i < numRows; i++){
+            matrix.setRow(i, new double[]{i, -i, i / 2.0});
+        }
+        MatrixFile.write(matrix, Collections.emptyList(), path);
+        
+        try(MappedMatrix mapped = MappedMatrix.open(path, true)){
+            Jacobi.assertEquals(matrix, mapped.load());
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenSizeOfPayloadOverflows() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        ByteBuffer buffer = ByteBuffer.allocate(MatrixFile.HEADER_LENGTH + 4 * Double.BYTES)
+            .putInt(MatrixFile.MAGIC)
+            .put(MatrixFile.VERSION)
+            .put((byte) 0)
+            .put((byte) Double.BYTES)
+            .put((byte) 0)
+            .putLong(Integer.MAX_VALUE)
+            .putLong(Integer.MAX_VALUE)
+            .putLong(MatrixFile.HEADER_LENGTH);
+        Files.write(path, buffer.array());
+        
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            MatrixFile.read(channel);
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenNumberOfColumnNamesMismatch() {
+        new MatrixFile(ByteOrder.nativeOrder(), 2, 3, Arrays.asList("a", "b"));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenColumnNamesAreCorrupted() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        MatrixFile.write(Matrices.identity(2), Arrays.asList("a", "b"), path);
+        
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).putInt(MatrixFile.HEADER_LENGTH, 1 << 20);
+        Files.write(path, bytes);
+        MappedMatrix.open(path, true);
+    }
+    
+}
@@ -0,0 +1,135 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Data;
+import jacobi.test.util.Jacobi;
+
+public class SelectedMatrixTest {
+	
+	@Test
+	public void shouldBeAbleToReadSubMatrixOfDefaultMatrix() {
+		Matrix base = Jacobi.random(7, 9, new Random(1L)::nextDouble);
+		Matrix sub = base.subMatrix(2, 5, 3, 8);
+		Assert.assertTrue(sub instanceof SelectedMatrix);
+		Assert.assertEquals(3, sub.getRowCount());
+		Assert.assertEquals(5, sub.getColCount());
+		for(int i = 0; i < sub.getRowCount(); i++){
+			for(int j = 0; j < sub.getColCount(); j++){
+				Assert.assertEquals(base.get(2 + i, 3 + j), sub.get(i, j), 0.0);
+				Assert.assertEquals(base.get(2 + i, 3 + j), sub.getRow(i)[j], 0.0);
+			}
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToShareStorageOfArrayMatrixInSubMatrix() {
+		ArrayMatrix base = ArrayMatrix.of(Jacobi.random(6, 6, new Random(2L)::nextDouble));
+		Matrix sub = Matrices.subMatrix(base, 1, 4, 2, 5);
+		Assert.assertTrue(sub instanceof ArrayMatrix);
+		Assert.assertSame(base.getArray(), ((ArrayMatrix) sub).getArray());
+		
+		sub.set(0, 0, Math.PI);
+		Assert.assertEquals(Math.PI, base.get(1, 2), 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToWriteThroughViewOfRowsAndColumns() {
+		Matrix base = Jacobi.random(5, 4, new Random(3L)::nextDouble);
+		Matrix view = base.rows(4, 0, 2).cols(3, 1);
+		Assert.assertEquals(3, view.getRowCount());
+		Assert.assertEquals(2, view.getColCount());
+		
+		view.setRow(1, new double[]{ -1.0, -2.0 });
+		Assert.assertEquals(-1.0, base.get(0, 3), 0.0);
+		Assert.assertEquals(-2.0, base.get(0, 1), 0.0);
+		
+		view.set(2, 1, -3.0);
+		Assert.assertEquals(-3.0, base.get(2, 1), 0.0);
+		
+		base.set(4, 3, -4.0);
+		Assert.assertEquals(-4.0, view.get(0, 0), 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToComposeViewsOnBaseMatrix() {
+		Matrix base = Jacobi.random(8, 5, new Random(4L)::nextDouble);
+		Matrix view = base.subMatrix(2, 8, 1, 5).rows(5, 0).cols(2);
+		Assert.assertSame(base, ((SelectedMatrix) view).getBase());
+		Assert.assertEquals(base.get(7, 3), view.get(0, 0), 0.0);
+		Assert.assertEquals(base.get(2, 3), view.get(1, 0), 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToSwapRowsOfViewWithColumnsSelected() {
+		Matrix base = Jacobi.random(4, 3, new Random(5L)::nextDouble);
+		double[][] expects = base.toArray();
+		base.cols(0, 2).swapRow(1, 3);
+		
+		Assert.assertArrayEquals(new double[]{ expects[3][0], expects[1][1], expects[3][2] }, base.getRow(1), 0.0);
+		Assert.assertArrayEquals(new double[]{ expects[1][0], expects[3][1], expects[1][2] }, base.getRow(3), 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToCopyViewIndependentOfBase() {
+		Matrix base = Jacobi.random(4, 4, new Random(6L)::nextDouble);
+		Matrix view = base.rows(3, 1);
+		Matrix copy = view.copy();
+		Jacobi.assertEquals(view, copy, 0.0);
+		
+		base.set(3, 0, Math.E);
+		Assert.assertNotEquals(Math.E, copy.get(0, 0), 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToSelectDataEqualsToCopiedSelection() {
+		Matrix base = Jacobi.random(16, 6, new Random(7L)::nextDouble);
+		Matrix sel = base.ext(Data.class).select(5, 0, 3).select(2, 0).get();
+		Assert.assertEquals(2, sel.getColCount());
+		for(int i = 0; i < base.getRowCount(); i++){
+			Assert.assertArrayEquals(new double[]{ base.get(i, 3), base.get(i, 5) }, sel.getRow(i), 0.0);
+		}
+		
+		sel.set(0, 0, Math.PI);
+		Assert.assertNotEquals(Math.PI, base.get(0, 3), 0.0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenRowIndexIsOutOfRange() {
+		Matrices.rows(Matrices.zeros(3, 3), 0, 3);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenColumnRangeIsInvalid() {
+		Matrices.subMatrix(Matrices.zeros(3, 6), 0, 3, 4, 2);
+	}
+
+}
@@ -0,0 +1,175 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.api.ext.Stats;
+import jacobi.test.util.Jacobi;
+
+public class SparseMatrixTest {
+    
+    @Test
+    public void shouldBeAbleToCompressDenseMatrix() {
+        Matrix dense = Matrices.wrap(new double[][]{
+            {0.0, 1.0, 0.0, 2.0},
+            {0.0, 0.0, 0.0, 0.0},
+            {3.0, 0.0, 4.0, 0.0}
+        });
+        SparseMatrix sparse = SparseMatrix.of(dense);
+        
+        Assert.assertTrue(sparse.isRowMajor());
+        Assert.assertEquals(4, sparse.getNonZeroCount());
+        Assert.assertArrayEquals(new int[]{0, 2, 2, 4}, sparse.getPointers());
+        Jacobi.assertEquals(dense, sparse);
+        Assert.assertEquals(4.0, sparse.get(2, 2), 0.0);
+        Assert.assertEquals(0.0, sparse.get(1, 3), 0.0);
+    }
+    
+    @Test
+    public void shouldBeAbleToConvertBetweenCsrAndCsc() {
+        Matrix dense = Jacobi.random(13, 17, this.sparse(new Random(7L), 0.2));
+        SparseMatrix csr = SparseMatrix.of(dense);
+        SparseMatrix csc = csr.toCsc();
+        
+        Assert.assertFalse(csc.isRowMajor());
+        Assert.assertEquals(csr.getNonZeroCount(), csc.getNonZeroCount());
+        Jacobi.assertEquals(dense, csc);
+        Jacobi.assertEquals(dense, csc.toCsr());
+        Jacobi.assertEquals(dense, Matrices.wrap(csc.toArray()));
+        Assert.assertSame(csr, csr.toCsr());
+    }
+    
+    @Test
+    public void shouldBeAbleToTransposeWithoutCopying() {
+        Matrix dense = Jacobi.random(7, 5, this.sparse(new Random(11L), 0.3));
+        SparseMatrix sparse = SparseMatrix.of(dense);
+        Matrix trans = sparse.ext(Prop.class).transpose();
+        
+        Assert.assertTrue(trans instanceof SparseMatrix);
+        Assert.assertSame(sparse.getValues(), ((SparseMatrix) trans).getValues());
+        Jacobi.assertEquals(dense.ext(Prop.class).transpose(), trans);
+    }
+    
+    @Test
+    public void shouldBeAbleToMulSparseWithDense() {
+        Random rand = new Random(13L);
+        Matrix a = Jacobi.random(31, 23, this.sparse(rand, 0.1));
+        Matrix b = Jacobi.random(23, 19, this.sparse(rand, 1.0));
+        Matrix ans = a.ext(Op.class).mul(b).get();
+        
+        Jacobi.assertEquals(ans, SparseMatrix.of(a).ext(Op.class).mul(b).get(), 1e-12);
+        Jacobi.assertEquals(ans, SparseMatrix.of(a).toCsc().ext(Op.class).mul(b).get(), 1e-12);
+        Jacobi.assertEquals(ans, a.ext(Op.class).mul(SparseMatrix.of(b)).get(), 1e-12);
+        Jacobi.assertEquals(ans, a.ext(Op.class).mul(SparseMatrix.of(b).toCsc()).get(), 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToMulSparseWithColumnVector() {
+        Random rand = new Random(17L);
+        Matrix a = Jacobi.random(41, 29, this.sparse(rand, 0.1));
+        Matrix v = new ColumnVector(rand.doubles(29).toArray());
+        Matrix ans = a.ext(Op.class).mul(v).get();
+        
+        Jacobi.assertEquals(ans, SparseMatrix.of(a).ext(Op.class).mul(v).get(), 1e-12);
+        Jacobi.assertEquals(ans, SparseMatrix.of(a).toCsc().ext(Op.class).mul(v).get(), 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToMulSparseWithSparse() {
+        Random rand = new Random(19L);
+        Matrix a = Jacobi.random(37, 43, this.sparse(rand, 0.05));
+        Matrix b = Jacobi.random(43, 29, this.sparse(rand, 0.05));
+        Matrix ans = SparseMatrix.of(a).ext(Op.class).mul(SparseMatrix.of(b).toCsc()).get();
+        
+        Assert.assertTrue(ans instanceof SparseMatrix);
+        Jacobi.assertEquals(a.ext(Op.class).mul(b).get(), ans, 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToMulTWithSparse() {
+        Random rand = new Random(23L);
+        Matrix a = Jacobi.random(17, 31, this.sparse(rand, 0.1));
+        Matrix b = Jacobi.random(13, 31, this.sparse(rand, 0.2));
+        Matrix ans = a.ext(Op.class).mulT(b).get();
+        
+        Jacobi.assertEquals(ans, SparseMatrix.of(a).ext(Op.class).mulT(b).get(), 1e-12);
+        Jacobi.assertEquals(ans, a.ext(Op.class).mulT(SparseMatrix.of(b)).get(), 1e-12);
+        Jacobi.assertEquals(ans, SparseMatrix.of(a).ext(Op.class).mulT(SparseMatrix.of(b)).get(), 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToAddSparseMatrices() {
+        Random rand = new Random(29L);
+        Matrix a = Jacobi.random(23, 19, this.sparse(rand, 0.1));
+        Matrix b = Jacobi.random(23, 19, this.sparse(rand, 0.1));
+        Matrix ans = a.ext(Op.class).add(b).get();
+        
+        Matrix sum = SparseMatrix.of(a).ext(Op.class).add(SparseMatrix.of(b).toCsc()).get();
+        Assert.assertTrue(sum instanceof SparseMatrix);
+        Jacobi.assertEquals(ans, sum, 1e-12);
+        Jacobi.assertEquals(ans, SparseMatrix.of(a).toCsc().ext(Op.class).add(b).get(), 1e-12);
+        
+        Matrix zero = SparseMatrix.of(a).ext(Op.class).sub(SparseMatrix.of(a)).get();
+        Assert.assertEquals(0, ((SparseMatrix) zero).getNonZeroCount());
+    }
+    
+    @Test
+    public void shouldBeAbleToComputeMeanAndVarOfSparse() {
+        Matrix dense = Jacobi.random(47, 11, this.sparse(new Random(31L), 0.2));
+        SparseMatrix sparse = SparseMatrix.of(dense);
+        
+        Assert.assertArrayEquals(dense.ext(Stats.class).mean(), sparse.ext(Stats.class).mean(), 1e-12);
+        Assert.assertArrayEquals(dense.ext(Stats.class).var(), sparse.ext(Stats.class).var(), 1e-12);
+        Assert.assertArrayEquals(dense.ext(Stats.class).var(), sparse.toCsc().ext(Stats.class).var(), 1e-12);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenIndicesAreNotIncreasing() {
+        SparseMatrix.csr(2, 3, new int[]{0, 2, 3}, new int[]{2, 1, 0}, new double[]{1.0, 2.0, 3.0});
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenIndexIsOutOfRange() {
+        SparseMatrix.csc(2, 3, new int[]{0, 1, 2, 3}, new int[]{0, 1, 2}, new double[]{1.0, 2.0, 3.0});
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldBeImmutable() {
+        SparseMatrix.of(Matrices.identity(3)).set(0, 1, 1.0);
+    }
+    
+    protected DoubleSupplier sparse(Random rand, double density) {
+        return () -> rand.nextDouble() < density ? rand.nextGaussian() : 0.0;
+    }
+    
+}
@@ -0,0 +1,138 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.test.util.Jacobi;
+
+public class TextMatrixLoaderTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void shouldBeAbleToLoadCsvWithHeader() throws IOException {
+        Path path = this.write("x, y ,z\r\n1,2,3\r\n\r\n-4.5,5e-1,  6\r\n");
+        TextMatrixLoader loader = TextMatrixLoader.csv(true);
+        Assert.assertEquals(Arrays.asList("x", "y", "z"), loader.header(path));
+        Jacobi.assertEquals(Matrices.wrap(new double[][]{
+            {1.0, 2.0, 3.0},
+            {-4.5, 0.5, 6.0}
+        }), loader.load(path));
+    }
+    
+    @Test
+    public void shouldBeAbleToLoadTsvWithoutTrailingNewLine() throws IOException {
+        Path path = this.write("1\t\t3\n4\t5\t6");
+        Matrix matrix = Matrices.readText(path, '\t', false);
+        Assert.assertEquals(2, matrix.getRowCount());
+        Assert.assertTrue(Double.isNaN(matrix.get(0, 1)));
+        Assert.assertEquals(6.0, matrix.get(1, 2), 0.0);
+    }
+    
+    @Test
+    public void shouldBeAbleToLoadInChunksInParallel() throws IOException {
+        Matrix expects = Jacobi.random(1024, 7, this.wide(new Random(31L)));
+        Path path = this.write(this.toText(expects, ','));
+        
+        for(int chunkSize : new int[]{1, 13, 256, 4096, Integer.MAX_VALUE}){
+            Matrix matrix = new TextMatrixLoader(',', false, chunkSize).load(path);
+            Jacobi.assertEquals(expects, matrix);
+        }
+    }
+    
+    @Test
+    public void shouldBeAbleToStreamIntoMappedMatrix() throws IOException {
+        Matrix expects = Jacobi.random(333, 4, this.wide(new Random(17L)));
+        Path path = this.write("a,b,c,d\n" + this.toText(expects, ','));
+        Path mapped = this.folder.newFile().toPath();
+        
+        try(MappedMatrix matrix = new TextMatrixLoader(',', true, 1024)
+                .load(path, (m, n, names) -> MappedMatrix.create(mapped, m, n, names))){
+            Jacobi.assertEquals(expects, matrix);
+        }
+        
+        try(MappedMatrix matrix = Matrices.map(mapped)){
+            Assert.assertEquals(Arrays.asList("a", "b", "c", "d"), matrix.getColumnNames());
+            Jacobi.assertEquals(expects, matrix);
+        }
+    }
+    
+    @Test
+    public void shouldBeAbleToLoadEmptyFile() throws IOException {
+        Path path = this.write("\n \n");
+        Matrix matrix = TextMatrixLoader.csv(false).load(path);
+        Assert.assertEquals(0, matrix.getRowCount());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenNumberIsMalformed() throws IOException {
+        TextMatrixLoader.csv(false).load(this.write("1,2\n3,x\n"));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenNumberOfColumnsMismatch() throws IOException {
+        new TextMatrixLoader(',', false, 4).load(this.write("1,2\n3,4\n5,6,7\n8,9\n"));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenNumberOfColumnNamesMismatch() throws IOException {
+        TextMatrixLoader.csv(true).load(this.write("a,b\n1,2,3\n"));
+    }
+    
+    private Path write(String text) throws IOException {
+        Path path = this.folder.newFile().toPath();
+        Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+    
+    private String toText(Matrix matrix, char delimiter) {
+        StringBuilder buf = new StringBuilder();
+        for(int i = 0; i < matrix.getRowCount(); i++){
+            for(int j = 0; j < matrix.getColCount(); j++){
+                buf.append(j > 0 ? String.valueOf(delimiter) : "").append(matrix.get(i, j));
+            }
+            buf.append('\n');
+        }
+        return buf.toString();
+    }
+    
+    private DoubleSupplier wide(Random rand) {
+        return () -> (rand.nextDouble() - 0.5) * Math.pow(10.0, rand.nextInt(12) - 6);
+    }
+}
@@ -0,0 +1,95 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.impl;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.test.util.Jacobi;
+
+public class TransposedMatrixTest {
+	
+	@Test
+	public void shouldBeAbleToReadTransposeOfArrayMatrix() {
+		Matrix base = ArrayMatrix.of(Jacobi.random(5, 3, new Random(1L)::nextDouble));
+		Matrix trans = base.transposedView();
+		Assert.assertEquals(3, trans.getRowCount());
+		Assert.assertEquals(5, trans.getColCount());
+		Jacobi.assertEquals(base.ext(Prop.class).transpose(), trans, 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToWriteThroughTransposedView() {
+		Matrix base = Jacobi.random(4, 6, new Random(2L)::nextDouble);
+		Matrix trans = Matrices.transposedView(base);
+		trans.setRow(5, new double[]{ 1.0, 2.0, 3.0, 4.0 });
+		Assert.assertArrayEquals(new double[]{ 1.0, 2.0, 3.0, 4.0 }, 
+			new double[]{ base.get(0, 5), base.get(1, 5), base.get(2, 5), base.get(3, 5) }, 0.0);
+		
+		double[] col0 = trans.getRow(0);
+		double[] col2 = trans.getRow(2);
+		trans.swapRow(0, 2);
+		Assert.assertArrayEquals(col2, trans.getRow(0), 0.0);
+		Assert.assertArrayEquals(col0, trans.getRow(2), 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToUnwrapTransposeOfTransposedView() {
+		Matrix base = Jacobi.random(3, 3, new Random(3L)::nextDouble);
+		Assert.assertSame(base, base.transposedView().transposedView());
+		
+		Matrix copy = base.transposedView().ext(Prop.class).transpose();
+		Jacobi.assertEquals(base, copy, 0.0);
+		copy.set(0, 0, Math.PI);
+		Assert.assertNotEquals(Math.PI, base.get(0, 0), 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToMultiplyWithTransposedView() {
+		Matrix a = Jacobi.random(7, 5, new Random(4L)::nextDouble);
+		Matrix b = Jacobi.random(9, 5, new Random(5L)::nextDouble);
+		Matrix bt = b.ext(Prop.class).transpose();
+		
+		Matrix expects = a.ext(Op.class).mul(bt).get();
+		Jacobi.assertEquals(expects, a.ext(Op.class).mul(b.transposedView()).get(), 1e-12);
+		Jacobi.assertEquals(expects.ext(Prop.class).transpose(), 
+			bt.transposedView().ext(Op.class).mulT(a).get(), 1e-12);
+	}
+	
+	@Test
+	public void shouldBeAbleToCopyTransposedView() {
+		Matrix base = Jacobi.random(6, 2, new Random(6L)::nextDouble);
+		Matrix copy = base.transposedView().copy();
+		Jacobi.assertEquals(base.ext(Prop.class).transpose(), copy, 0.0);
+		copy.set(1, 1, Math.E);
+		Assert.assertNotEquals(Math.E, base.get(1, 1), 0.0);
+	}
+
+}
@@ -0,0 +1,129 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.lexer;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.core.lexer.ItemLexer.Action;
+
+public class DecimalLexerTest {
+    
+    @Test
+    public void shouldBeAbleToLexNumbersInPlainNotation() {
+        Assert.assertEquals(3.141592653, this.lex("3.141592653"), 0.0);
+        Assert.assertEquals(1991.0, this.lex("1991"), 0.0);
+        Assert.assertEquals(-1991.0, this.lex("-1991"), 0.0);
+        Assert.assertEquals(0.5, this.lex("+.5"), 0.0);
+        Assert.assertEquals(-0.25, this.lex("-0.25"), 0.0);
+        Assert.assertEquals(7.0, this.lex("7."), 0.0);
+        Assert.assertEquals(0.0, this.lex("0000"), 0.0);
+    }
+    
+    @Test
+    public void shouldBeAbleToLexNumbersInScientificNotation() {
+        Assert.assertEquals(1.5e10, this.lex("1.5e10"), 0.0);
+        Assert.assertEquals(-2.5e-3, this.lex("-2.5E-3"), 0.0);
+        Assert.assertEquals(6.02214076e23, this.lex("6.02214076e+23"), 0.0);
+        Assert.assertEquals(4.9e-324, this.lex("4.9e-324"), 0.0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, this.lex("1e400"), 0.0);
+    }
+    
+    @Test
+    public void shouldBeAbleToLexLongMantissaByFallingBack() {
+        Assert.assertEquals(1234567890.1234567890123, this.lex("1234567890.1234567890123"), 0.0);
+        Assert.assertEquals(9007199254740993.0, this.lex("9007199254740993"), 0.0);
+        Assert.assertEquals(0.1, this.lex("0.1000000000000000000000000001"), 0.0);
+    }
+    
+    @Test
+    public void shouldBeCorrectlyRoundedAsDoubleParse() {
+        Random rand = new Random(Double.doubleToLongBits(Math.E));
+        DecimalLexer lexer = new DecimalLexer();
+        for(int i = 0; i < 10000; i++){
+            double value = (rand.nextDouble() - 0.5) * Math.pow(10.0, rand.nextInt(40) - 20);
+            String text = rand.nextBoolean() ? String.valueOf(value) : String.format("%.6f", value);
+            Assert.assertEquals(text, Double.parseDouble(text), this.lex(lexer.reset(), text), 0.0);
+        }
+    }
+    
+    @Test
+    public void shouldRejectNonNumber() {
+        DecimalLexer lexer = new DecimalLexer();
+        Assert.assertEquals(Action.REJECT, lexer.push('a'));
+        Assert.assertFalse(lexer.get().isPresent());
+        Assert.assertEquals(Action.REJECT, lexer.reset().push('\0'));
+    }
+    
+    @Test
+    public void shouldFailOnMalformedNumber() {
+        Assert.assertEquals(Action.FAIL, this.push("-,"));
+        Assert.assertEquals(Action.FAIL, this.push(".,"));
+        Assert.assertEquals(Action.FAIL, this.push("1.2.3"));
+        Assert.assertEquals(Action.FAIL, this.push("1e,"));
+        Assert.assertEquals(Action.FAIL, this.push("1e-,"));
+        Assert.assertEquals(Action.FAIL, this.push("1e5.0"));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void shouldFailWhenPushAfterAccept() {
+        DecimalLexer lexer = new DecimalLexer();
+        lexer.push('1');
+        lexer.push(',');
+        lexer.push('2');
+    }
+    
+    @Test
+    public void shouldBeAbleToReuseAfterReset() {
+        DecimalLexer lexer = new DecimalLexer();
+        Assert.assertEquals(-1.0e50, this.lex(lexer, "-1.0e50"), 0.0);
+        Assert.assertEquals(42.0, this.lex(lexer.reset(), "42"), 0.0);
+        Assert.assertEquals(42.0, lexer.get().get(), 0.0);
+    }
+    
+    private double lex(String text) {
+        return this.lex(new DecimalLexer(), text);
+    }
+    
+    private double lex(DecimalLexer lexer, String text) {
+        for(char ch : text.toCharArray()){
+            Assert.assertEquals(text, Action.MOVE, lexer.push(ch));
+        }
+        Assert.assertEquals(text, Action.ACCEPT, lexer.push('\0'));
+        return lexer.getAsDouble();
+    }
+    
+    private Action push(String text) {
+        DecimalLexer lexer = new DecimalLexer();
+        for(char ch : text.toCharArray()){
+            Action action = lexer.push(ch);
+            if(action != Action.MOVE){
+                return action;
+            }
+        }
+        return lexer.push('\0');
+    }
+}
@@ -0,0 +1,98 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.lexer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.core.lexer.ItemLexer.Action;
+
+public class NumericRowLexerTest {
+    
+    @Test
+    public void shouldBeAbleToLexCommaSeparatedRow() {
+        NumericRowLexer lexer = new NumericRowLexer(',');
+        Assert.assertEquals(Action.ACCEPT, this.push(lexer, "1.5, -2,3e2 ,  .25\r\n"));
+        Assert.assertArrayEquals(new double[]{1.5, -2.0, 300.0, 0.25}, lexer.get().get(), 0.0);
+    }
+    
+    @Test
+    public void shouldBeAbleToLexTabSeparatedRow() {
+        NumericRowLexer lexer = new NumericRowLexer('\t');
+        Assert.assertEquals(Action.ACCEPT, this.push(lexer, " 1\t2 \t3\0"));
+        Assert.assertArrayEquals(new double[]{1.0, 2.0, 3.0}, lexer.get().get(), 0.0);
+    }
+    
+    @Test
+    public void shouldLexEmptyFieldsAsNaN() {
+        NumericRowLexer lexer = new NumericRowLexer(',');
+        Assert.assertEquals(Action.ACCEPT, this.push(lexer, ",1,,2,\n"));
+        Assert.assertArrayEquals(new double[]{Double.NaN, 1.0, Double.NaN, 2.0, Double.NaN}, 
+            lexer.get().get(), 0.0);
+    }
+    
+    @Test
+    public void shouldRejectBlankLine() {
+        NumericRowLexer lexer = new NumericRowLexer(',');
+        Assert.assertEquals(Action.REJECT, this.push(lexer, "  \t\r\n"));
+        Assert.assertFalse(lexer.get().isPresent());
+    }
+    
+    @Test
+    public void shouldFailOnMalformedField() {
+        Assert.assertEquals(Action.FAIL, this.push(new NumericRowLexer(','), "1,abc\n"));
+        Assert.assertEquals(Action.FAIL, this.push(new NumericRowLexer(','), "1,2 3\n"));
+        Assert.assertEquals(Action.FAIL, this.push(new NumericRowLexer(','), "1,2-\n"));
+    }
+    
+    @Test
+    public void shouldBeAbleToReuseWithLongRows() {
+        NumericRowLexer lexer = new NumericRowLexer(',');
+        StringBuilder buf = new StringBuilder();
+        for(int i = 0; i < 100; i++){
+            buf.append(i).append(i + 1 < 100 ? "," : "\n");
+        }
+        Assert.assertEquals(Action.ACCEPT, this.push(lexer, buf.toString()));
+        Assert.assertEquals(100, lexer.getCount());
+        Assert.assertEquals(99.0, lexer.getValues()[99], 0.0);
+        
+        Assert.assertEquals(Action.ACCEPT, this.push(lexer.reset(), "7\n"));
+        Assert.assertArrayEquals(new double[]{7.0}, lexer.get().get(), 0.0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenDelimiterIsPartOfNumber() {
+        new NumericRowLexer('.');
+    }
+    
+    private Action push(NumericRowLexer lexer, String text) {
+        for(char ch : text.toCharArray()){
+            Action action = lexer.push(ch);
+            if(action != Action.MOVE){
+                return action;
+            }
+        }
+        return Action.MOVE;
+    }
+}
@@ -0,0 +1,135 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrix;
+import jacobi.api.ext.Decomp;
+import jacobi.core.decomp.chol.CholeskyDecomp;
+import jacobi.core.decomp.gauss.GaussianDecomp;
+import jacobi.core.impl.BlockMatrix;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Triplet;
+import jacobi.test.util.Jacobi;
+
+public class BlockMulTest {
+	
+	@After
+	public void reset() {
+		Thresholds.reset();
+	}
+	
+	@Test
+	public void shouldBeAbleToMulWithEdgeTiles() {
+		Random rand = new Random(Double.doubleToLongBits(Math.E));
+		for(int[] dim : new int[][] { {1, 1, 1}, {3, 5, 7}, {8, 8, 8}, {9, 17, 13}, {23, 31, 19} }) {
+			Matrix a = Jacobi.random(dim[0], dim[1], rand::nextDouble);
+			Matrix b = Jacobi.random(dim[1], dim[2], rand::nextDouble);
+			
+			BlockMatrix ans = new BlockMul().compute(BlockMatrix.of(a, 4), BlockMatrix.of(b, 4));
+			Jacobi.assertEquals(new Mul().compute(a, b), ans, 1e-10);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToMulInParallelByTiles() {
+		Thresholds.set(Operation.MUL, 1, 1);
+		Random rand = new Random(Double.doubleToLongBits(Math.PI));
+		Matrix a = Jacobi.random(67, 45, rand::nextDouble);
+		Matrix b = Jacobi.random(45, 71, rand::nextDouble);
+		
+		Matrix ans = new Mul().compute(BlockMatrix.of(a, 16), BlockMatrix.of(b, 16));
+		Assert.assertTrue(ans instanceof BlockMatrix);
+		Jacobi.assertEquals(new Mul().compute(a, b), ans, 1e-10);
+	}
+	
+	@Test
+	public void shouldBeAbleToDecomposeCholeskyInTiles() {
+		Thresholds.set(Operation.MUL, 1, 1);
+		Random rand = new Random(Double.doubleToLongBits(Math.sqrt(2.0)));
+		Matrix a = Jacobi.random(37, 37, rand::nextDouble);
+		Matrix spd = new MulT().compute(a, a);
+		for(int i = 0; i < spd.getRowCount(); i++){
+			spd.set(i, i, spd.get(i, i) + spd.getRowCount());
+		}
+		
+		Matrix lower = new CholeskyDecomp().compute(BlockMatrix.of(spd, 8)).get();
+		Jacobi.assertEquals(new CholeskyDecomp().compute(spd).get(), lower, 1e-10);
+		Jacobi.assertEquals(spd, new MulT().compute(lower, lower), 1e-10);
+	}
+	
+	@Test
+	public void shouldBeAbleToDecomposeLUInTiles() {
+		Thresholds.set(Operation.MUL, 1, 1);
+		Random rand = new Random(Double.doubleToLongBits(Math.sqrt(3.0)));
+		for(int[] dim : new int[][] { {29, 29}, {33, 20}, {20, 33} }) {
+			Matrix a = Jacobi.random(dim[0], dim[1], rand::nextDouble);
+			
+			Triplet plu = new GaussianDecomp().compute(BlockMatrix.of(a, 8));
+			Matrix lower = plu.getMiddle();
+			Matrix upper = plu.getRight();
+			for(int i = 0; i < upper.getRowCount(); i++){
+				Assert.assertEquals(1.0, lower.get(i, i), 0.0);
+				for(int j = 0; j < Math.min(i, upper.getColCount()); j++){
+					Assert.assertEquals(0.0, upper.get(i, j), 0.0);
+				}
+			}
+			Jacobi.assertEquals(a, new Mul().compute(plu.getLeft(), new Mul().compute(lower, upper)), 1e-10);
+		}
+		
+		Matrix square = Jacobi.random(29, 29, rand::nextDouble);
+		Jacobi.assertEquals(
+			new GaussianDecomp().compute(square.copy()).getRight(), 
+			new GaussianDecomp().compute(BlockMatrix.of(square, 8)).getRight(), 
+			1e-8);
+	}
+	
+	@Test
+	public void shouldBeAbleToDecomposeByFacadeInTiles() {
+		Matrix a = Jacobi.random(12, 12, new Random(7L)::nextDouble);
+		Triplet plu = BlockMatrix.of(a, 5).ext(Decomp.class).gauss();
+		Jacobi.assertEquals(a, new Mul().compute(plu.getLeft(), new Mul().compute(plu.getMiddle(), plu.getRight())), 1e-10);
+	}
+	
+	@Test
+	public void shouldBeAbleToVisitEachLowerTileOnce() {
+		for(int span : new int[]{ 0, 1, 2, 7, 40 }){
+			AtomicIntegerArray visits = new AtomicIntegerArray(span * span);
+			BlockMul.forEachLower(true, span, (i, j) -> visits.incrementAndGet(i * span + j));
+			for(int i = 0; i < span; i++){
+				for(int j = 0; j < span; j++){
+					Assert.assertEquals(j <= i ? 1 : 0, visits.get(i * span + j));
+				}
+			}
+		}
+	}
+
+}
@@ -34,6 +34,9 @@ import jacobi.test.util.JacobiJUnit4ClassRunner;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.test.util.Jacobi;
+import java.util.Random;
 
 /**
  *
@@ -132,4 +135,34 @@ public class DotTest {
         };
     }
     
+    
+    @Test
+    public void shouldBeAbleToDotFlatMatricesWithStride() {
+        Random rand = new Random(Double.doubleToLongBits(Math.PI));
+        double[] u = rand.doubles(80 * 12).toArray();
+        double[] v = rand.doubles(80 * 9).toArray();
+        
+        Matrix a = ArrayMatrix.wrap(u, 1, 80, 9, 12);
+        Matrix b = ArrayMatrix.wrap(9, v);
+        Jacobi.assertEquals(
+            new Dot().compute(Matrices.wrap(a.toArray()), Matrices.wrap(b.toArray())),
+            this.useMapReduce().compute(a, b), 
+            1e-12
+        );
+    }
+    
+    @Test
+    public void shouldBeAbleToDotSingleColumnOfFlatMatrices() {
+        Random rand = new Random(Double.doubleToLongBits(Math.E));
+        double[] u = rand.doubles(103).toArray();
+        double[] v = rand.doubles(101).toArray();
+        
+        Matrix a = ArrayMatrix.wrap(u, 2, 101, 1, 1);
+        Matrix b = ArrayMatrix.wrap(1, v);
+        Jacobi.assertEquals(
+            new Dot().compute(Matrices.wrap(a.toArray()), Matrices.wrap(b.toArray())),
+            this.useMapReduce().compute(a, b), 
+            1e-12
+        );
+    }
 }
@@ -0,0 +1,182 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.LazyOp;
+import jacobi.api.ext.Op;
+import jacobi.core.impl.DefaultMatrix;
+import jacobi.core.impl.FloatMatrix;
+import jacobi.core.impl.SparseMatrix;
+import jacobi.test.util.Jacobi;
+
+public class ExpressionTest {
+    
+    @Test
+    public void shouldBeAbleToEvaluateElementWiseChainAsEager() {
+        Random rand = new Random(Double.doubleToLongBits(Math.PI));
+        Matrix a = Jacobi.random(7, 5, () -> rand.nextDouble() - 0.5);
+        Matrix b = Jacobi.random(7, 5, () -> rand.nextDouble() - 0.5);
+        Matrix c = Jacobi.random(7, 5, () -> rand.nextDouble() - 0.5);
+        
+        Matrix expects = a.ext(Op.class).add(b).hadamard(c).mul(2.0).sub(a).get();
+        Matrix ans = a.ext(LazyOp.class).add(b).hadamard(c).mul(2.0).sub(a).get();
+        Assert.assertFalse(ans instanceof Expression);
+        Jacobi.assertEquals(expects, ans, 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToEvaluateChainWithProducts() {
+        Random rand = new Random(Double.doubleToLongBits(Math.E));
+        Matrix a = Jacobi.random(6, 4, () -> rand.nextDouble() - 0.5);
+        Matrix b = Jacobi.random(4, 9, () -> rand.nextDouble() - 0.5);
+        Matrix c = Jacobi.random(6, 9, () -> rand.nextDouble() - 0.5);
+        Matrix d = Jacobi.random(3, 9, () -> rand.nextDouble() - 0.5);
+        
+        Matrix expects = a.ext(Op.class).mul(3.0).add(a).mul(b).mul(-0.5).sub(c).mulT(d).mul(2.0).get();
+        Matrix ans = a.ext(Op.class).lazy().mul(3.0).add(a).mul(b).mul(-0.5).sub(c).mulT(d).mul(2.0).get();
+        Jacobi.assertEquals(expects, ans, 1e-12);
+    }
+    
+    @Test
+    public void shouldFoldScalarsIntoProduct() {
+        Random rand = new Random(Double.doubleToLongBits(Math.sqrt(2.0)));
+        Matrix a = Jacobi.random(5, 3, () -> rand.nextDouble() - 0.5);
+        Matrix b = Jacobi.random(3, 5, () -> rand.nextDouble() - 0.5);
+        
+        Expression expr = Expression.of(a).mul(2.0).mul(b).mul(-3.0);
+        Assert.assertTrue(expr instanceof Expression.Product);
+        Jacobi.assertEquals(new Mul().compute(a, b).ext(Op.class).mul(-6.0).get(), expr.evaluate(), 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToEvaluateLargeChainInParallel() {
+        Random rand = new Random(Double.doubleToLongBits(Math.log(3.0)));
+        Matrix a = Jacobi.random(600, 500, () -> rand.nextDouble() - 0.5);
+        Matrix b = new DefaultMatrix(Jacobi.random(600, 500, () -> rand.nextDouble() - 0.5));
+        Matrix c = Matrices.flat(600, 500);
+        
+        Matrix expects = a.ext(Op.class).sub(b).hadamard(a).add(c).mul(0.25).get();
+        Matrix ans = a.ext(LazyOp.class).sub(b).hadamard(a).add(c).mul(0.25).get();
+        Jacobi.assertEquals(expects, ans, 1e-12);
+    }
+    
+    @Test
+    public void shouldReturnMutableResult() {
+        Matrix a = Matrices.wrap(new double[][]{ {1.0, 2.0}, {3.0, 4.0} });
+        Matrix ans = a.ext(LazyOp.class).mul(a).mul(2.0).get();
+        Jacobi.assertEquals(Matrices.wrap(new double[][]{ {14.0, 20.0}, {30.0, 44.0} }), ans);
+        
+        ans.set(0, 0, 0.0);
+        Assert.assertEquals(1.0, a.get(0, 0), 0.0);
+        Assert.assertEquals(0.0, ans.get(0, 0), 0.0);
+    }
+    
+    @Test
+    public void shouldNotWriteIntoSparseProduct() {
+        Matrix a = SparseMatrix.of(Matrices.wrap(new double[][]{ {1.0, 0.0}, {0.0, 2.0} }));
+        Matrix ans = a.ext(LazyOp.class).mul(a).mul(3.0).get();
+        Jacobi.assertEquals(Matrices.wrap(new double[][]{ {3.0, 0.0}, {0.0, 12.0} }), ans);
+    }
+    
+    @Test
+    public void shouldBeAbleToAccessExpressionAsMatrix() {
+        Matrix a = Matrices.wrap(new double[][]{ {1.0, 2.0}, {3.0, 4.0} });
+        Expression expr = Expression.of(a).add(a).mul(a);
+        Assert.assertEquals(2, expr.getRowCount());
+        Assert.assertArrayEquals(new double[]{30.0, 44.0}, expr.getRow(1), 0.0);
+        Assert.assertEquals(14.0, expr.get(0, 0), 0.0);
+    }
+    
+    @Test
+    public void shouldComputeOperandProductsOnceWhenDestinationIsOperand() {
+        Random rand = new Random(Double.doubleToLongBits(Math.E));
+        Matrix a = Jacobi.random(6, 6, () -> rand.nextDouble() - 0.5);
+        Matrix b = Jacobi.random(6, 4, () -> rand.nextDouble() - 0.5);
+        Matrix c = Jacobi.random(4, 6, () -> rand.nextDouble() - 0.5);
+        Matrix expects = new Mul().compute(a, new Mul().compute(b, c));
+        
+        int[] count = {0};
+        Expression bc = new Expression.Product(Expression.of(b), Expression.of(c), false, 1.0) {
+
+            @Override
+            protected Matrix materialize(Map<Expression, Matrix> values) {
+                count[0] += values.containsKey(this) ? 0 : 1;
+                return super.materialize(values);
+            }
+            
+        };
+        
+        Assert.assertSame(a, Expression.of(a).mul(bc).evaluate(a));
+        Assert.assertEquals(1, count[0]);
+        Jacobi.assertEquals(expects, a, 1e-12);
+    }
+    
+    @Test
+    public void shouldNotWriteIntoSinglePrecisionProduct() {
+        Matrix a = FloatMatrix.wrap(2, 1.0f, 2.0f, 3.0f, 4.0f);
+        Matrix b = Matrices.wrap(new double[][]{ {1e-9, 0.1}, {0.2, 1.0 / 3.0} });
+        Matrix ans = Expression.of(a).mul(a).add(b).evaluate();
+        
+        Assert.assertFalse(ans instanceof FloatMatrix);
+        Jacobi.assertEquals(Matrices.wrap(new double[][]{ {7.0 + 1e-9, 10.1}, {15.2, 22.0 + 1.0 / 3.0} }), ans, 1e-15);
+    }
+    
+    @Test
+    public void shouldScaleProductWithoutElementWisePass() {
+        Random rand = new Random(Double.doubleToLongBits(Math.sqrt(2.0)));
+        Matrix a = Jacobi.random(5, 3, () -> rand.nextDouble() - 0.5);
+        Matrix b = Jacobi.random(3, 4, () -> rand.nextDouble() - 0.5);
+        
+        int[] count = {0};
+        Expression expr = new Expression.Product(Expression.of(a), Expression.of(b), false, -2.5) {
+
+            @Override
+            protected void fuse(Map<Expression, Matrix> values, Matrix dest) {
+                count[0]++;
+                super.fuse(values, dest);
+            }
+            
+        };
+        Jacobi.assertEquals(new Mul().compute(a, b).ext(Op.class).mul(-2.5).get(), expr.evaluate(), 1e-12);
+        Assert.assertEquals(0, count[0]);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenElementWiseDimensionMismatch() {
+        Matrices.zeros(3, 2).ext(LazyOp.class).add(Matrices.zeros(2, 3));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenProductDimensionMismatch() {
+        Matrices.zeros(3, 2).ext(LazyOp.class).mul(Matrices.zeros(3, 2));
+    }
+}
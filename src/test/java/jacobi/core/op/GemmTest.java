@@ -0,0 +1,118 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.InPlace;
+import jacobi.api.ext.Op;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.DefaultMatrix;
+import jacobi.test.util.Jacobi;
+
+public class GemmTest {
+    
+    @Test
+    public void shouldBeAbleToAccumulateProductInDefaultMatrix() {
+        Random rand = new Random(Double.doubleToLongBits(Math.PI));
+        Matrix a = Jacobi.random(5, 3, () -> rand.nextDouble() - 0.5);
+        Matrix b = Jacobi.random(3, 4, () -> rand.nextDouble() - 0.5);
+        Matrix c = new DefaultMatrix(Jacobi.random(5, 4, () -> rand.nextDouble() - 0.5));
+        
+        Matrix expects = this.expects(2.5, a, b, -0.5, c);
+        Matrix ans = c.ext(InPlace.class).gemm(2.5, a, b, -0.5).get();
+        Assert.assertSame(c, ans);
+        Jacobi.assertEquals(expects, ans, 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToAccumulateLargeProductByPacking() {
+        Random rand = new Random(Double.doubleToLongBits(Math.E));
+        Matrix a = Jacobi.random(97, 71, () -> rand.nextDouble() - 0.5);
+        Matrix b = Jacobi.random(71, 83, () -> rand.nextDouble() - 0.5);
+        Matrix c = new InPlaceOperators.Assign().compute(Matrices.flat(97, 83), Jacobi.random(97, 83, () -> rand.nextDouble() - 0.5));
+        Assert.assertTrue(c instanceof ArrayMatrix);
+        
+        Matrix expects = this.expects(-1.5, a, b, 3.0, c);
+        Jacobi.assertEquals(expects, new Gemm().compute(c, -1.5, a, b, 3.0), 1e-10);
+    }
+    
+    @Test
+    public void shouldBeAbleToAccumulateProductWithTranspose() {
+        Random rand = new Random(Double.doubleToLongBits(Math.sqrt(2.0)));
+        Matrix a = Jacobi.random(6, 4, () -> rand.nextDouble() - 0.5);
+        Matrix b = Jacobi.random(7, 4, () -> rand.nextDouble() - 0.5);
+        Matrix c = Jacobi.random(6, 7, () -> rand.nextDouble() - 0.5);
+        
+        Matrix expects = a.ext(Op.class).mulT(b).mul(0.75).add(c.ext(Op.class).mul(2.0).get()).get();
+        Matrix ans = c.ext(InPlace.class).gemmT(0.75, a, b, 2.0).get();
+        Jacobi.assertEquals(expects, ans, 1e-12);
+    }
+    
+    @Test
+    public void shouldOverwriteNaNWhenBetaIsZero() {
+        Matrix a = Matrices.wrap(new double[][]{ {1.0, 2.0}, {3.0, 4.0} });
+        Matrix c = Matrices.flat(2, 2);
+        c.set(0, 1, Double.NaN);
+        
+        new Gemm().compute(c, 1.0, a, a, 0.0);
+        Jacobi.assertEquals(Matrices.wrap(new double[][]{ {7.0, 10.0}, {15.0, 22.0} }), c);
+    }
+    
+    @Test
+    public void shouldBeAbleToAccumulateProductOfOverlappingRegion() {
+        Random rand = new Random(Double.doubleToLongBits(Math.log(3.0)));
+        double[] array = new double[6 * 4];
+        for(int i = 0; i < array.length; i++){
+            array[i] = rand.nextDouble() - 0.5;
+        }
+        Matrix c = ArrayMatrix.wrap(array, 0, 4, 4, 4);
+        Matrix a = ArrayMatrix.wrap(array, 8, 4, 4, 4);
+        Matrix b = ArrayMatrix.wrap(array, 4, 4, 4, 4);
+        
+        Matrix expects = this.expects(1.5, a.copy(), b.copy(), -2.0, c.copy());
+        new Gemm().compute(c, 1.5, a, b, -2.0);
+        Jacobi.assertEquals(expects, c, 1e-12);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenResultIsAnOperand() {
+        Matrix a = Matrices.zeros(3, 3);
+        new Gemm().compute(a, 1.0, a, Matrices.zeros(3, 3), 1.0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenDimensionMismatch() {
+        new Gemm().compute(Matrices.zeros(3, 2), 1.0, Matrices.zeros(3, 4), Matrices.zeros(4, 3), 1.0);
+    }
+    
+    private Matrix expects(double alpha, Matrix a, Matrix b, double beta, Matrix c) {
+        return a.ext(Op.class).mul(b).mul(alpha).add(c.ext(Op.class).mul(beta).get()).get();
+    }
+}
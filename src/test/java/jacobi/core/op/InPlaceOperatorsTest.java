@@ -0,0 +1,131 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.InPlace;
+import jacobi.api.ext.Op;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.impl.DefaultMatrix;
+import jacobi.test.util.Jacobi;
+
+public class InPlaceOperatorsTest {
+    
+    @Test
+    public void shouldBeAbleToChainUpdatesInPlace() {
+        Random rand = new Random(Double.doubleToLongBits(Math.PI));
+        Matrix a = Jacobi.random(7, 5, () -> rand.nextDouble() - 0.5);
+        Matrix b = Jacobi.random(7, 5, () -> rand.nextDouble() - 0.5);
+        Matrix c = new DefaultMatrix(Jacobi.random(7, 5, () -> rand.nextDouble() - 0.5));
+        
+        Matrix expects = a.ext(Op.class).add(b).hadamard(c).sub(b).mul(3.0)
+            .add(c.ext(Op.class).mul(-2.0).get()).get();
+        
+        Matrix target = a.copy();
+        Matrix ans = target.ext(InPlace.class).add(b).hadamard(c).sub(b).mul(3.0).axpy(-2.0, c).get();
+        Assert.assertSame(target, ans);
+        Jacobi.assertEquals(expects, ans, 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToUpdateDefaultMatrixInPlace() {
+        Random rand = new Random(Double.doubleToLongBits(Math.E));
+        Matrix a = new DefaultMatrix(Jacobi.random(4, 3, () -> rand.nextDouble() - 0.5));
+        Matrix b = Jacobi.random(4, 3, () -> rand.nextDouble() - 0.5);
+        
+        Matrix expects = a.ext(Op.class).hadamard(b).get();
+        double[] row = a.getRow(2);
+        a.ext(InPlace.class).hadamard(b);
+        Assert.assertSame(row, a.getRow(2));
+        Jacobi.assertEquals(expects, a, 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToUpdateLargeMatrixInParallel() {
+        Random rand = new Random(Double.doubleToLongBits(Math.sqrt(3.0)));
+        Matrix a = Jacobi.random(600, 500, () -> rand.nextDouble() - 0.5);
+        Matrix b = Jacobi.random(600, 500, () -> rand.nextDouble() - 0.5);
+        
+        Matrix expects = a.ext(Op.class).add(b.ext(Op.class).mul(0.5).get()).get();
+        Jacobi.assertEquals(expects, a.ext(InPlace.class).axpy(0.5, b).get(), 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToAddToItself() {
+        Matrix a = Matrices.wrap(new double[][]{ {1.0, 2.0}, {3.0, 4.0} });
+        a.ext(InPlace.class).add(a);
+        Jacobi.assertEquals(Matrices.wrap(new double[][]{ {2.0, 4.0}, {6.0, 8.0} }), a);
+    }
+    
+    @Test
+    public void shouldBeAbleToAssignAndScaleByZero() {
+        Matrix a = Matrices.flat(2, 2);
+        a.set(1, 1, Double.NaN);
+        a.ext(InPlace.class).mul(0.0);
+        Jacobi.assertEquals(Matrices.zeros(2, 2), a);
+        
+        Matrix b = Matrices.wrap(new double[][]{ {1.0, 2.0}, {3.0, 4.0} });
+        a.ext(InPlace.class).assign(b);
+        Jacobi.assertEquals(b, a);
+    }
+    
+    @Test
+    public void shouldBeAbleToEvaluateLazyExpressionIntoDestination() {
+        Random rand = new Random(Double.doubleToLongBits(Math.log(2.0)));
+        Matrix a = Jacobi.random(5, 4, () -> rand.nextDouble() - 0.5);
+        Matrix b = Jacobi.random(4, 5, () -> rand.nextDouble() - 0.5);
+        Matrix c = Jacobi.random(5, 5, () -> rand.nextDouble() - 0.5);
+        
+        Matrix dest = Matrices.flat(5, 5);
+        Matrix expects = a.ext(Op.class).mul(b).mul(2.0).get();
+        Assert.assertSame(dest, a.ext(Op.class).lazy().mul(b).mul(2.0).into(dest));
+        Jacobi.assertEquals(expects, dest, 1e-12);
+        
+        expects = c.ext(Op.class).add(c).hadamard(c).get();
+        Assert.assertSame(c, c.ext(Op.class).lazy().add(c).hadamard(c).into(c));
+        Jacobi.assertEquals(expects, c, 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToAddOverlappingRegion() {
+        double[] array = {1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0};
+        Matrix a = ArrayMatrix.wrap(array, 2, 3, 2, 2);
+        Matrix b = ArrayMatrix.wrap(array, 0, 3, 2, 2);
+        
+        Matrix expects = a.copy().ext(InPlace.class).add(b.copy()).get();
+        new InPlaceOperators.Add().compute(a, b);
+        Jacobi.assertEquals(expects, a);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenDimensionMismatch() {
+        Matrices.zeros(3, 2).ext(InPlace.class).add(Matrices.zeros(2, 3));
+    }
+}
@@ -25,13 +25,16 @@ package jacobi.core.op;
 
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
 import jacobi.core.impl.ColumnVector;
 import jacobi.core.util.MapReducer;
 import jacobi.test.annotations.JacobiEquals;
 import jacobi.test.annotations.JacobiImport;
 import jacobi.test.annotations.JacobiInject;
 import jacobi.test.annotations.JacobiResult;
+import jacobi.test.util.Jacobi;
 import jacobi.test.util.JacobiJUnit4ClassRunner;
+import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -102,4 +105,17 @@ public class MulTTest {
         };
     }
     
+    
+    @Test
+    public void shouldBeAbleToMulTFlatMatricesSameAsDefaultMatrices() {
+        Random rand = new Random(Double.doubleToLongBits(Math.PI));
+        for(int n : new int[]{ 13, 160 }){
+            Matrix u = Jacobi.random(n, 17, rand::nextDouble);
+            Matrix v = Jacobi.random(n + 3, 17, rand::nextDouble);
+            
+            Matrix ans = new MulT().compute(ArrayMatrix.of(u), ArrayMatrix.of(v));
+            Assert.assertTrue(ans instanceof ArrayMatrix);
+            Jacobi.assertEquals(new MulT().compute(u, v), ans, 1e-12);
+        }
+    }
 }
@@ -26,11 +26,14 @@ package jacobi.core.op;
 import jacobi.api.Matrices;
 import jacobi.api.Matrix;
 import jacobi.api.ext.Op;
+import jacobi.core.impl.ArrayMatrix;
 import jacobi.test.annotations.JacobiEquals;
 import jacobi.test.annotations.JacobiImport;
 import jacobi.test.annotations.JacobiInject;
 import jacobi.test.annotations.JacobiResult;
+import jacobi.test.util.Jacobi;
 import jacobi.test.util.JacobiJUnit4ClassRunner;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.Assert;
 import org.junit.Test;
@@ -178,4 +181,30 @@ public class MulTest {
             
         };
     }
+    
+    @Test
+    public void shouldBeAbleToMulFlatMatricesSameAsDefaultMatrices() {
+        Random rand = new Random(Double.doubleToLongBits(Math.PI));
+        Matrix u = Jacobi.random(37, 29, rand::nextDouble);
+        Matrix v = Jacobi.random(29, 41, rand::nextDouble);
+        
+        Matrix ans = new Mul().compute(ArrayMatrix.of(u), ArrayMatrix.of(v));
+        Assert.assertTrue(ans instanceof ArrayMatrix);
+        Jacobi.assertEquals(new Mul().compute(u, v), ans, 1e-12);
+    }
+    
+    @Test
+    public void shouldBeAbleToMulLargeFlatMatricesWithStride() {
+        Random rand = new Random(Double.doubleToLongBits(Math.E));
+        Matrix u = Jacobi.random(128, 96, rand::nextDouble);
+        Matrix v = Jacobi.random(96, 128, rand::nextDouble);
+        
+        double[] array = new double[2 + 130 * 128];
+        for(int i = 0; i < u.getRowCount(); i++){
+            System.arraycopy(u.getRow(i), 0, array, 2 + i * 130, u.getColCount());
+        }
+        
+        Matrix ans = new Mul().compute(ArrayMatrix.wrap(array, 2, 128, 96, 130), ArrayMatrix.of(v));
+        Jacobi.assertEquals(new Mul().compute(u, v), ans, 1e-12);
+    }
 }
@@ -0,0 +1,164 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.core.impl.ImmutableMatrix;
+import jacobi.core.impl.MappedMatrix;
+import jacobi.core.prop.Transpose;
+import jacobi.test.util.Jacobi;
+
+public class OutOfCoreMulTest {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void shouldBeAbleToComputeGramOfMappedMatrixInTiles() throws IOException {
+		Matrix dense = Jacobi.random(103, 6, new Random(1L)::nextDouble);
+		List<Long> updates = new ArrayList<>();
+		try(MappedMatrix mapped = this.write(dense)){
+			Matrix gram = new OutOfCoreMul(7 * 6 * Double.BYTES, 2, (done, total) -> {
+				Assert.assertEquals(103L, total);
+				updates.add(done);
+			}).computeGram(mapped);
+			Jacobi.assertEquals(new Mul().compute(new Transpose().compute(dense), dense), gram, 1e-10);
+		}
+		Assert.assertEquals(15, updates.size());
+		for(int i = 0; i < updates.size(); i++){
+			Assert.assertEquals(Math.min(7L * (i + 1), 103L), updates.get(i).longValue());
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToAccumulateTransposeProductToMappedMatrix() throws IOException {
+		Random rand = new Random(2L);
+		Matrix a = Jacobi.random(50, 4, rand::nextDouble);
+		Matrix b = Jacobi.random(50, 3, rand::nextDouble);
+		Matrix c = Jacobi.random(4, 3, rand::nextDouble);
+		
+		try(MappedMatrix ma = this.write(a); MappedMatrix mb = this.write(b); MappedMatrix mc = this.write(c)){
+			new OutOfCoreMul(64, 1, (done, total) -> {}).computeTA(ma, mb, mc);
+			Matrix expects = new Mul().compute(new Transpose().compute(a), b);
+			for(int i = 0; i < expects.getRowCount(); i++){
+				for(int j = 0; j < expects.getColCount(); j++){
+					expects.set(i, j, expects.get(i, j) + c.get(i, j));
+				}
+			}
+			Jacobi.assertEquals(expects, mc, 1e-10);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToMulTallMatrixIntoMappedMatrix() throws IOException {
+		Random rand = new Random(3L);
+		Matrix a = Jacobi.random(77, 5, rand::nextDouble);
+		Matrix b = Jacobi.random(5, 9, rand::nextDouble);
+		
+		try(MappedMatrix ma = this.write(a); MappedMatrix ans = MappedMatrix.create(this.folder.newFile().toPath(), 77, 9)){
+			new OutOfCoreMul(10 * 8 * Double.BYTES, 3, (done, total) -> {}).compute(ma, b, ans);
+			Jacobi.assertEquals(new Mul().compute(a, b), ans, 1e-10);
+		}
+		Jacobi.assertEquals(new Mul().compute(a, b), new OutOfCoreMul().compute(a, b), 1e-10);
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void shouldRethrowExceptionWhenFailedToLoadTile() {
+		Matrix failing = new ImmutableMatrix() {
+
+			@Override
+			public int getRowCount() {
+				return 20;
+			}
+
+			@Override
+			public int getColCount() {
+				return 2;
+			}
+
+			@Override
+			public double[] getRow(int index) {
+				if(index == 13){
+					throw new UnsupportedOperationException();
+				}
+				return new double[]{ index, 1.0 };
+			}
+			
+		};
+		new OutOfCoreMul(4 * 2 * Double.BYTES, 2, (done, total) -> {}).computeGram(failing);
+	}
+	
+	@Test
+	public void shouldHoldAtMostPrefetchTilesInPipeline() {
+		int[] consumed = {0};
+		int[] ahead = {0};
+		List<Integer> tiles = new ArrayList<>();
+		new OutOfCoreMul(64, 3, (done, total) -> {}).stream(50, 5, 
+			(begin, end) -> {
+				synchronized(consumed){
+					ahead[0] = Math.max(ahead[0], begin / 5 - consumed[0]);
+				}
+				return begin;
+			}, 
+			(begin) -> {
+				try {
+					Thread.sleep(5L);
+				} catch (InterruptedException ex) {
+					throw new IllegalStateException(ex);
+				}
+				synchronized(consumed){
+					consumed[0]++;
+				}
+				tiles.add(begin);
+			});
+		Assert.assertEquals(10, tiles.size());
+		Assert.assertEquals(45, tiles.get(9).intValue());
+		Assert.assertTrue(ahead[0] < 3);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenRowCountMismatch() {
+		new OutOfCoreMul().computeTA(Matrices.zeros(3, 2), Matrices.zeros(4, 2));
+	}
+	
+	private MappedMatrix write(Matrix matrix) throws IOException {
+		Path path = this.folder.newFile().toPath();
+		MappedMatrix mapped = MappedMatrix.create(path, matrix.getRowCount(), matrix.getColCount());
+		matrix.forEachRow(0, matrix.getRowCount(), (row, i) -> mapped.setRow(i, row));
+		return mapped;
+	}
+
+}
@@ -0,0 +1,156 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.util.ComputePool;
+import jacobi.test.util.Jacobi;
+
+public class PackedMulTest {
+	
+	@Test
+	public void shouldBeAbleToMulWithMultipleBlocksInEachLevel() {
+		Random rand = new Random(Double.doubleToLongBits(Math.PI));
+		// kc = 4, mc = 8, nc = 8
+		PackedMul packed = new PackedMul(512, 512, 512);
+		
+		for(int[] dim : new int[][] { {1, 1, 1}, {3, 5, 7}, {9, 17, 13}, {16, 8, 32}, {23, 31, 19} }) {
+			Matrix a = Jacobi.random(dim[0], dim[1], rand::nextDouble);
+			Matrix b = Jacobi.random(dim[1], dim[2], rand::nextDouble);
+			
+			Matrix ans = packed.compute(a, b, ArrayMatrix.of(dim[0], dim[2]));
+			Jacobi.assertEquals(this.naive(a, b), ans, 1e-12);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToMulFlatMatricesWithStride() {
+		Random rand = new Random(Double.doubleToLongBits(Math.E));
+		double[] u = rand.doubles(40 * 30).toArray();
+		double[] v = rand.doubles(30 * 50).toArray();
+		
+		Matrix a = ArrayMatrix.wrap(u, 7, 37, 21, 30);
+		Matrix b = ArrayMatrix.wrap(v, 3, 21, 45, 50);
+		ArrayMatrix c = ArrayMatrix.wrap(new double[37 * 47], 1, 37, 45, 47);
+		
+		new PackedMul(1024, 4096, 8192).compute(a, b, c);
+		Jacobi.assertEquals(this.naive(a, b), c, 1e-12);
+	}
+	
+	@Test
+	public void shouldAccumulateOnResultantMatrix() {
+		Random rand = new Random(Double.doubleToLongBits(Math.sqrt(2.0)));
+		Matrix a = Jacobi.random(11, 6, rand::nextDouble);
+		Matrix b = Jacobi.random(6, 9, rand::nextDouble);
+		ArrayMatrix c = ArrayMatrix.of(11, 9);
+		for(int i = 0; i < c.getRowCount(); i++) {
+			c.setRow(i, rand.doubles(9).toArray());
+		}
+		
+		Matrix expects = new Operators.Add().compute(c.copy(), this.naive(a, b));
+		Jacobi.assertEquals(expects, new PackedMul().compute(a, b, c), 1e-12);
+	}
+	
+	@Test
+	public void shouldBeAbleToMulLargeMatricesInParallel() {
+		Random rand = new Random(Double.doubleToLongBits(Math.PI));
+		Matrix a = Jacobi.random(301, 157, rand::nextDouble);
+		Matrix b = Jacobi.random(157, 203, rand::nextDouble);
+		
+		Jacobi.assertEquals(this.naive(a, b), 
+			new PackedMul(8192, 16384, 65536).compute(a, b, ArrayMatrix.of(301, 203)), 1e-10);
+		Jacobi.assertEquals(this.naive(a, b), new Mul().compute(a, b), 1e-10);
+		Jacobi.assertEquals(this.naive(a, b), new Mul().compute(ArrayMatrix.of(a), ArrayMatrix.of(b)), 1e-10);
+	}
+	
+	@Test
+	public void shouldAllocateAtMostOnePackingBufferForEachWorker() {
+		Random rand = new Random(Double.doubleToLongBits(Math.PI));
+		Matrix a = Jacobi.random(256, 256, rand::nextDouble);
+		Matrix b = Jacobi.random(256, 256, rand::nextDouble);
+		
+		Set<double[]> buffers = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+		// kc = 8, mc = 32, nc = 64, i.e. 128 blocks of B each with 8 blocks of A
+		Matrix ans = new PackedMul(1024, 4096, 8192) {
+
+			@Override
+			protected double[] borrow(Queue<double[]> pool, int length) {
+				double[] buffer = super.borrow(pool, length);
+				if(buffer.length > 0) {
+					buffers.add(buffer);
+				}
+				return buffer;
+			}
+			
+		}.compute(a, b, ArrayMatrix.of(256, 256));
+		
+		Jacobi.assertEquals(this.naive(a, b), ans, 1e-10);
+		Assert.assertTrue(buffers.size() <= ComputePool.getParallelism() + 1);
+	}
+	
+	@Test
+	public void shouldAccumulateOnRowsOfGeneralResultantMatrix() {
+		Random rand = new Random(Double.doubleToLongBits(Math.E));
+		Matrix a = Jacobi.random(37, 21, rand::nextDouble);
+		Matrix b = Jacobi.random(21, 45, rand::nextDouble);
+		Matrix c = Jacobi.random(37, 45, rand::nextDouble);
+		double[] row = c.getRow(0);
+		
+		Matrix expects = new Operators.Add().compute(c.copy(), this.naive(a, b));
+		Assert.assertSame(c, new PackedMul(1024, 4096, 8192).compute(a, b, c));
+		Assert.assertSame(row, c.getRow(0));
+		Jacobi.assertEquals(expects, c, 1e-12);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenDimensionMismatch() {
+		new PackedMul().compute(Matrices.zeros(3, 4), Matrices.zeros(4, 5), ArrayMatrix.of(3, 4));
+	}
+	
+	protected Matrix naive(Matrix a, Matrix b) {
+		Matrix ans = Matrices.zeros(a.getRowCount(), b.getColCount());
+		for(int i = 0; i < a.getRowCount(); i++) {
+			for(int j = 0; j < b.getColCount(); j++) {
+				double elem = 0.0;
+				for(int k = 0; k < a.getColCount(); k++) {
+					elem += a.get(i, k) * b.get(k, j);
+				}
+				ans.set(i, j, elem);
+			}
+		}
+		return ans;
+	}
+
+}
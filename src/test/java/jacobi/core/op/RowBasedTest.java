@@ -34,6 +34,9 @@ import jacobi.test.annotations.JacobiResult;
 import jacobi.test.util.JacobiJUnit4ClassRunner;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.test.util.Jacobi;
+import java.util.Random;
 
 /**
  *
@@ -217,4 +220,21 @@ public class RowBasedTest {
         Operators op = new Operators();
     }
     
+    
+    @Test
+    public void shouldBeAbleToComputeFlatMatricesWithStride() {
+        Random rand = new Random(Double.doubleToLongBits(Math.E));
+        double[] u = rand.doubles(600 * 8).toArray();
+        double[] v = rand.doubles(600 * 7).toArray();
+        
+        Matrix a = ArrayMatrix.wrap(u, 0, 600, 7, 8);
+        Matrix b = ArrayMatrix.wrap(7, v);
+        Matrix c = Matrices.wrap(a.toArray());
+        Matrix d = Matrices.wrap(b.toArray());
+        
+        Jacobi.assertEquals(new Operators.Add().compute(c, d), new Operators.Add().compute(a, b), 1e-12);
+        Jacobi.assertEquals(new Operators.Sub().compute(c, d), new Operators.Sub().compute(a, b), 1e-12);
+        Jacobi.assertEquals(new Operators.Hadamard().compute(c, d), new Operators.Hadamard().compute(a, b), 1e-12);
+        Jacobi.assertEquals(new Operators.Hadamard().compute(c, Math.PI), new Operators.Hadamard().compute(a, Math.PI), 1e-12);
+    }
 }
@@ -0,0 +1,108 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.op;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Op;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.test.util.Jacobi;
+
+public class StrassenMulTest {
+	
+	@After
+	public void reset() {
+		Thresholds.reset();
+	}
+	
+	@Test
+	public void shouldBeAbleToMulWithEvenAndOddDimensions() {
+		Random rand = new Random(Double.doubleToLongBits(Math.PI));
+		StrassenMul strassen = new StrassenMul(4);
+		
+		for(int[] dim : new int[][] { {1, 1, 1}, {3, 5, 7}, {8, 8, 8}, {16, 16, 16}, {9, 17, 13}, {23, 31, 19}, {33, 12, 40} }) {
+			Matrix a = Jacobi.random(dim[0], dim[1], rand::nextGaussian);
+			Matrix b = Jacobi.random(dim[1], dim[2], rand::nextGaussian);
+			
+			Matrix ans = strassen.compute(a, b);
+			Jacobi.assertEquals(new Mul().compute(a, b), ans, 1e-10);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToMulInParallel() {
+		Thresholds.set(Operation.MUL, 64L, 64L);
+		Random rand = new Random(Double.doubleToLongBits(Math.E));
+		Matrix a = Jacobi.random(67, 45, rand::nextGaussian);
+		Matrix b = Jacobi.random(45, 52, rand::nextGaussian);
+		
+		Matrix ans = new StrassenMul(8).compute(a, b);
+		Jacobi.assertEquals(new Mul().compute(a, b), ans, 1e-10);
+	}
+	
+	@Test
+	public void shouldBeAbleToMulFlatMatricesWithStride() {
+		Random rand = new Random(Double.doubleToLongBits(Math.sqrt(2.0)));
+		double[] u = rand.doubles(40 * 30).toArray();
+		double[] v = rand.doubles(30 * 50).toArray();
+		
+		ArrayMatrix a = ArrayMatrix.wrap(u, 7, 37, 21, 30);
+		ArrayMatrix b = ArrayMatrix.wrap(v, 3, 21, 45, 50);
+		ArrayMatrix ans = ArrayMatrix.of(37, 45);
+		
+		new StrassenMul(5).compute(a, b, ans);
+		Jacobi.assertEquals(new Mul().compute(a, b), ans, 1e-10);
+	}
+	
+	@Test
+	public void shouldBeAbleToMulByOpFacade() {
+		Random rand = new Random(Double.doubleToLongBits(Math.PI * Math.E));
+		Matrix a = Jacobi.random(30, 20, rand::nextGaussian);
+		Matrix b = Jacobi.random(20, 10, rand::nextGaussian);
+		
+		Matrix ans = a.ext(Op.class).mulStrassen(b).get();
+		Jacobi.assertEquals(new Mul().compute(a, b), ans, 1e-10);
+	}
+	
+	@Test
+	public void shouldNotRecurseBelowCutoff() {
+		StrassenMul strassen = new StrassenMul();
+		Assert.assertFalse(strassen.isRecursive(Matrices.zeros(511, 1024), Matrices.zeros(1024, 1024)));
+		Assert.assertTrue(strassen.isRecursive(Matrices.zeros(512, 512), Matrices.zeros(512, 512)));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenDimensionMismatch() {
+		new StrassenMul().compute(Matrices.zeros(3, 4), Matrices.zeros(3, 4));
+	}
+	
+}
@@ -35,6 +35,11 @@ import jacobi.test.util.JacobiJUnit4ClassRunner;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import jacobi.api.Matrices;
+import jacobi.core.impl.ArrayMatrix;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
 
 /**
  *
@@ -112,4 +117,20 @@ public class TransposeTest {
     public void testEmpty() {
         Assert.assertTrue(new Transpose().compute(Empty.getInstance()) == Empty.getInstance());
     }
+    
+    @Test
+    public void shouldBeAbleToTransposeFlatMatrixWithStride() {
+        Random rand = new Random(Double.doubleToLongBits(Math.PI));
+        double[] array = rand.doubles(70 * 50).toArray();
+        
+        Matrix matrix = ArrayMatrix.wrap(array, 3, 67, 45, 50);
+        Matrix trans = new Transpose().compute(matrix);
+        Assert.assertTrue(trans instanceof ArrayMatrix);
+        Jacobi.assertEquals(new Transpose().compute(Matrices.wrap(matrix.toArray())), trans);
+        
+        List<double[]> cols = new Transpose().compute(matrix, Function.identity());
+        for(int j = 0; j < cols.size(); j++){
+            Assert.assertArrayEquals(trans.getRow(j), cols.get(j), 1e-12);
+        }
+    }
 }
@@ -31,7 +31,10 @@ import jacobi.test.annotations.JacobiInject;
 import jacobi.test.annotations.JacobiResult;
 import jacobi.test.util.Jacobi;
 import jacobi.test.util.JacobiJUnit4ClassRunner;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
 import java.util.Optional;
+import java.util.Random;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -96,6 +99,25 @@ public class ExactSolverTest {
         Assert.assertEquals(0, this.ans.getRowCount());
     }
     
+    @Test
+    public void testPackedSystemTransformsAIntoUpper() {
+        Random rand = new Random(Double.doubleToLongBits(Math.PI / 3.0));
+        Matrix a = Jacobi.random(80, 80, rand::nextGaussian);
+        Matrix y = Jacobi.random(80, 3, rand::nextGaussian);
+        
+        Matrix upper = a.copy();
+        Matrix expects = new ExactSolver().solve(upper, y).get();
+        
+        Thresholds.set(Operation.DECOMP, 1L, 1L);
+        try {
+            Matrix packed = a.copy();
+            Jacobi.assertEquals(expects, new ExactSolver().solve(packed, y).get(), 1e-9);
+            Jacobi.assertEquals(upper, packed, 1e-9);
+        } finally {
+            Thresholds.reset();
+        }
+    }
+    
     private ExactSolver mock(Matrix upper, Matrix rhs) {
         return new ExactSolver(){
 
@@ -0,0 +1,174 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.solver;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Decomp;
+import jacobi.api.ext.Op;
+import jacobi.api.ext.Prop;
+import jacobi.api.ext.Solver;
+import jacobi.core.impl.ArrayMatrix;
+import jacobi.core.util.Thresholds;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.test.util.Jacobi;
+
+public class FactorizationTest {
+	
+	@After
+	public void resetThresholds() {
+		Thresholds.reset();
+	}
+	
+	@Test
+	public void shouldBeAbleToSolveRepeatedlyByLU() {
+		Matrix a = Jacobi.random(40, 40, new Random(1L)::nextGaussian);
+		Matrix orig = a.copy();
+		Factorization lu = a.ext(Decomp.class).gaussFactor().get();
+		Jacobi.assertEquals(orig, a, 0.0);
+		
+		for(long seed = 2L; seed < 5L; seed++){
+			Matrix y = Jacobi.random(40, (int) seed, new Random(seed)::nextGaussian);
+			Matrix x = lu.solve(y);
+			Jacobi.assertEquals(a.ext(Solver.class).exact(y).get(), x, 1e-9);
+			Jacobi.assertEquals(y, a.ext(Op.class).mul(x).get(), 1e-9);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToSolveLargeSystemInParallelByLU() {
+		Thresholds.set(Operation.MUL, 1, 1);
+		Thresholds.set(Operation.DECOMP, 1, 1);
+		Matrix a = Jacobi.random(150, 150, new Random(6L)::nextGaussian);
+		Matrix y = Jacobi.random(150, 200, new Random(7L)::nextGaussian);
+		
+		Factorization lu = a.ext(Decomp.class).gaussFactor().get();
+		Matrix x = lu.solveInPlace(y.copy());
+		Jacobi.assertEquals(y, a.ext(Op.class).mul(x).get(), 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToSolveByEliminationAndByTilesAlike() {
+		Matrix a = Jacobi.random(80, 80, new Random(22L)::nextGaussian);
+		Matrix y = Jacobi.random(80, 3, new Random(23L)::nextGaussian);
+		Thresholds.set(Operation.DECOMP, 1L, 1L);
+		Matrix tiled = a.ext(Decomp.class).gaussFactor().get().solve(y);
+		
+		Thresholds.set(Operation.DECOMP, Long.MAX_VALUE, 1L);
+		Matrix elim = a.ext(Decomp.class).gaussFactor().get().solve(y);
+		Jacobi.assertEquals(tiled, elim, 1e-9);
+		Jacobi.assertEquals(y, a.ext(Op.class).mul(elim).get(), 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToFailOnSingularMatrixByLU() {
+		Matrix a = Jacobi.random(20, 20, new Random(8L)::nextGaussian);
+		a.setRow(10, a.getRow(3));
+		Assert.assertFalse(a.ext(Decomp.class).gaussFactor().isPresent());
+	}
+	
+	@Test
+	public void shouldBeAbleToSolveLeastSquaresRepeatedlyByQR() {
+		Matrix a = Jacobi.random(30, 5, new Random(9L)::nextGaussian);
+		Factorization qr = a.ext(Decomp.class).qrFactor().get();
+		Assert.assertEquals(30, qr.getRowCount());
+		Assert.assertEquals(5, qr.getColCount());
+		
+		for(long seed = 10L; seed < 13L; seed++){
+			Matrix y = Jacobi.random(30, 2, new Random(seed)::nextGaussian);
+			Matrix x = qr.solve(y);
+			Assert.assertEquals(5, x.getRowCount());
+			Jacobi.assertEquals(a.ext(Solver.class).llsquare(y).get(), x, 1e-9);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToSolveLargeLeastSquaresByBlockedQR() {
+		Thresholds.set(Operation.MUL, 1, 1);
+		Matrix a = Jacobi.random(160, 70, new Random(13L)::nextGaussian);
+		Matrix y = Jacobi.random(160, 80, new Random(14L)::nextGaussian);
+		
+		Factorization qr = a.ext(Decomp.class).qrFactor().get();
+		Matrix x = qr.solve(y);
+		Matrix at = a.ext(Prop.class).transpose();
+		Jacobi.assertEquals(at.ext(Op.class).mul(y).get(), 
+			at.ext(Op.class).mul(a).mul(x).get(), 1e-8);
+		
+		Matrix partner = Matrices.zeros(160, 80);
+		for(int i = 0; i < 160; i++){
+			partner.setRow(i, y.getRow(i));
+		}
+		qr.solveInPlace(partner);
+		for(int i = 0; i < 70; i++){
+			Assert.assertArrayEquals(x.getRow(i), partner.getRow(i), 1e-12);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToFailOnRankDeficientMatrixByQR() {
+		Matrix a = Jacobi.random(12, 4, new Random(15L)::nextGaussian);
+		for(int i = 0; i < 12; i++){
+			a.set(i, 3, 2.0 * a.get(i, 1));
+		}
+		Assert.assertFalse(a.ext(Decomp.class).qrFactor().isPresent());
+	}
+	
+	@Test
+	public void shouldBeAbleToSolveRepeatedlyByCholesky() {
+		Matrix b = Jacobi.random(25, 25, new Random(16L)::nextGaussian);
+		Matrix a = b.ext(Op.class).mul(b.ext(Prop.class).transpose()).get();
+		for(int i = 0; i < 25; i++){
+			a.set(i, i, a.get(i, i) + 1.0);
+		}
+		
+		Factorization chol = a.ext(Decomp.class).cholFactor().get();
+		for(long seed = 17L; seed < 20L; seed++){
+			Matrix y = Jacobi.random(25, 3, new Random(seed)::nextGaussian);
+			Jacobi.assertEquals(y, a.ext(Op.class).mul(chol.solve(y)).get(), 1e-9);
+		}
+		
+		ArrayMatrix y = ArrayMatrix.of(Jacobi.random(25, 1, new Random(20L)::nextGaussian));
+		Matrix expects = chol.solve(y);
+		Assert.assertSame(y, chol.solveInPlace(y));
+		Jacobi.assertEquals(expects, y, 0.0);
+	}
+	
+	@Test
+	public void shouldBeAbleToFailOnIndefiniteMatrixByCholesky() {
+		Matrix a = Matrices.of(new double[][]{ {1.0, 2.0}, {2.0, 1.0} });
+		Assert.assertFalse(a.ext(Decomp.class).cholFactor().isPresent());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenDimensionMismatch() {
+		Jacobi.random(10, 10, new Random(21L)::nextGaussian).ext(Decomp.class).gaussFactor().get().solve(Matrices.zeros(9, 1));
+	}
+	
+}
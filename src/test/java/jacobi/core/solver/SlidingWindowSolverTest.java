@@ -0,0 +1,135 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.solver;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.Matrices;
+import jacobi.api.Matrix;
+import jacobi.api.ext.Solver;
+
+public class SlidingWindowSolverTest {
+	
+	@Test
+	public void shouldBeAbleToSolveOverSlidingWindow() {
+		Random rand = new Random(1L);
+		int window = 12;
+		Matrix x = Matrices.zeros(40, 3);
+		Matrix y = Matrices.zeros(40, 1);
+		for(int i = 0; i < 40; i++){
+			x.setRow(i, new double[]{ 1.0, rand.nextGaussian(), rand.nextGaussian() });
+			y.set(i, 0, 2.0 - x.get(i, 1) + 0.5 * x.get(i, 2) + 0.1 * rand.nextGaussian());
+		}
+		
+		SlidingWindowSolver solver = new SlidingWindowSolver(3, window);
+		for(int k = 0; k < 40; k++){
+			solver.add(x.getRow(k), y.get(k, 0));
+			Assert.assertEquals(Math.min(k + 1, window), solver.size());
+			if(k + 1 < 3){
+				continue;
+			}
+			
+			int begin = Math.max(0, k + 1 - window);
+			Matrix xw = Matrices.zeros(k + 1 - begin, 3);
+			Matrix yw = Matrices.zeros(k + 1 - begin, 1);
+			for(int i = begin; i <= k; i++){
+				xw.setRow(i - begin, x.getRow(i));
+				yw.setRow(i - begin, y.getRow(i));
+			}
+			Matrix expects = xw.ext(Solver.class).llsquare(yw).get();
+			double[] ans = solver.solve().get();
+			for(int j = 0; j < 3; j++){
+				Assert.assertEquals(expects.get(j, 0), ans[j], 1e-8);
+			}
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToRecoverWhenObservationsFitExactly() {
+		SlidingWindowSolver solver = new SlidingWindowSolver(2, 3);
+		solver.add(new double[]{1.0, 0.0}, 5.0)
+			.add(new double[]{1.0, 1.0}, 1.0)
+			.add(new double[]{1.0, 2.0}, 2.0)
+			.add(new double[]{1.0, 3.0}, 3.0);
+		
+		double[] ans = solver.solve().get();
+		Assert.assertEquals(0.0, ans[0], 1e-9);
+		Assert.assertEquals(1.0, ans[1], 1e-9);
+		Assert.assertEquals(0.0, solver.residual(), 1e-9);
+	}
+	
+	@Test
+	public void shouldBeAbleToDowndateWhenObservationsFitExactly() {
+		int[] refactors = {0};
+		SlidingWindowSolver solver = new SlidingWindowSolver(2, 5) {
+
+			@Override
+			protected void refactor() {
+				refactors[0]++;
+				super.refactor();
+			}
+			
+		};
+		for(int k = 0; k < 23; k++){
+			solver.add(new double[]{1.0, k}, 2.0 + 3.0 * k);
+		}
+		
+		double[] ans = solver.solve().get();
+		Assert.assertEquals(2.0, ans[0], 1e-9);
+		Assert.assertEquals(3.0, ans[1], 1e-9);
+		Assert.assertEquals(0.0, solver.residual(), 1e-9);
+		Assert.assertEquals(23 / 5, refactors[0]);
+	}
+	
+	@Test
+	public void shouldNotRefactorEverySampleWhenCollinearObservationsFitExactly() {
+		int[] refactors = {0};
+		SlidingWindowSolver solver = new SlidingWindowSolver(3, 8) {
+
+			@Override
+			protected void refactor() {
+				refactors[0]++;
+				super.refactor();
+			}
+			
+		};
+		for(int k = 0; k < 200; k++){
+			double v = 7.3 * Math.sin(k);
+			solver.add(new double[]{1.0, v, -1.7 * v}, 1e4 * (0.1 + 0.7 * v));
+			Assert.assertEquals(0.0, solver.residual(), 1e-9);
+		}
+		Assert.assertEquals(200 / 8, refactors[0]);
+	}
+	
+	@Test
+	public void shouldNotSolveWhenUnderDetermined() {
+		SlidingWindowSolver solver = new SlidingWindowSolver(3, 5);
+		solver.add(new double[]{1.0, 2.0, 3.0}, 1.0);
+		Assert.assertFalse(solver.solve().isPresent());
+	}
+	
+}
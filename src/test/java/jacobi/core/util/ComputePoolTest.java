@@ -0,0 +1,118 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Y.K. Chan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jacobi.core.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ComputePoolTest {
+	
+	@After
+	public void reset() {
+		ComputePool.setPool(null);
+	}
+	
+	@Test
+	public void shouldUseSameDefaultPoolForAllCalls() {
+		ForkJoinPool pool = ComputePool.getPool();
+		Assert.assertSame(pool, ComputePool.getPool());
+		Assert.assertNotSame(ForkJoinPool.commonPool(), pool);
+		Assert.assertFalse(ComputePool.isWorker());
+	}
+	
+	@Test
+	public void shouldBeAbleToSetParallelism() {
+		ForkJoinPool prev = ComputePool.getPool();
+		ComputePool.setParallelism(3);
+		
+		Assert.assertEquals(3, ComputePool.getParallelism());
+		Assert.assertTrue(prev.isShutdown());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenParallelismIsNotPositive() {
+		ComputePool.setParallelism(0);
+	}
+	
+	@Test
+	public void shouldNotShutdownPoolGivenByCaller() {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			ComputePool.setPool(pool);
+			Assert.assertSame(pool, ComputePool.getPool());
+			
+			ComputePool.setParallelism(1);
+			Assert.assertFalse(pool.isShutdown());
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	@Test
+	public void shouldRunMapReducerInSharedPool() {
+		ComputePool.setParallelism(2);
+		AtomicBoolean inPool = new AtomicBoolean(true);
+		int sum = MapReducer.of(0, 1024).limit(16).map((begin, end) -> {
+			if(!ComputePool.isWorker()) {
+				inPool.set(false);
+			}
+			return end - begin;
+		}).reduce((a, b) -> a + b).get();
+		
+		Assert.assertEquals(1024, sum);
+		Assert.assertTrue(inPool.get());
+	}
+	
+	@Test
+	public void shouldRunInCallerWhenNestedInSharedPool() {
+		ComputePool.run(() -> {
+			Thread worker = Thread.currentThread();
+			Assert.assertTrue(ComputePool.isWorker());
+			ComputePool.run(() -> Assert.assertSame(worker, Thread.currentThread()));
+		});
+	}
+	
+	@Test
+	public void shouldUseSystemPropertyForDefaultParallelism() {
+		String prev = System.getProperty(ComputePool.PROPERTY_PARALLELISM);
+		try {
+			System.setProperty(ComputePool.PROPERTY_PARALLELISM, "5");
+			Assert.assertEquals(5, ComputePool.defaultParallelism());
+			
+			System.setProperty(ComputePool.PROPERTY_PARALLELISM, "-1");
+			Assert.assertEquals(Runtime.getRuntime().availableProcessors(), ComputePool.defaultParallelism());
+		} finally {
+			if(prev == null) {
+				System.clearProperty(ComputePool.PROPERTY_PARALLELISM);
+			} else {
+				System.setProperty(ComputePool.PROPERTY_PARALLELISM, prev);
+			}
+		}
+	}
+
+}
@@ -25,6 +25,7 @@ package jacobi.core.util;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -44,31 +45,61 @@ public class ParallelSupplierTest {
     
     @Test
     public void test() { 
+        String caller = Thread.currentThread().getName();
         List<String> results = ParallelSupplier.of(() -> Thread.currentThread().getName(), 10).get();
-        Set<String> set = new TreeSet<>(results);
-        Assert.assertEquals(10, set.size());
+        Assert.assertEquals(10, results.size());
+        Assert.assertEquals(caller, results.get(0));
+        for(String name : results){
+            Assert.assertTrue(name, name.equals(caller) || name.startsWith("jacobi-compute-"));
+        }
+    }
+    
+    @Test
+    public void testEmpty() {
+        Assert.assertTrue(ParallelSupplier.of(Collections.<Supplier<Integer>>emptyList()).get().isEmpty());
+        Assert.assertTrue(ParallelSupplier.of(() -> 1, 0).get().isEmpty());
+        
+        AtomicInteger count = new AtomicInteger(0);
+        ParallelSupplier.cyclic(i -> count.incrementAndGet(), 0, 5, 0);
+        Assert.assertEquals(5, count.get());
     }
     
     @Test
     public void testJoin() {
         int n = 10;
-        List<Supplier<String>> works = new ArrayList<>();
+        List<Supplier<Integer>> works = new ArrayList<>();
         for(int i = 0; i < n; i++){
-            long t = i * 100L;
+            int k = i;
             works.add(() -> {
                 try {
-                    Thread.sleep(t);
+                    Thread.sleep(10L * (k % 3));
                 } catch (InterruptedException ex) {
                     throw new IllegalStateException(ex);
                 }
-               return Thread.currentThread().getName();
+               return k;
             });
         }
-        List<String> results = ParallelSupplier.of(works).get();
-        Set<String> set = new TreeSet<>(results);
+        List<Integer> results = ParallelSupplier.of(works).get();
+        Set<Integer> set = new TreeSet<>(results);
         Assert.assertEquals(works.size(), set.size());
+        for(int i = 0; i < n; i++){
+            Assert.assertEquals(i, results.get(i).intValue());
+        }
     }    
     
+    @Test
+    public void shouldRunInCallerThreadWhenNestedInComputePool() {
+        List<String> results = ComputePool.getPool().submit(() -> {
+            String worker = Thread.currentThread().getName();
+            List<String> names = ParallelSupplier.of(() -> Thread.currentThread().getName(), 4).get();
+            ParallelSupplier.cyclic(i -> names.add(Thread.currentThread().getName()), 0, 8);
+            Assert.assertEquals(12, names.size());
+            names.add(worker);
+            return names;
+        }).join();
+        Assert.assertEquals(1, new TreeSet<>(results).size());
+    }
+    
     @Test
     public void testCyclic() {
         int num = 128;
@@ -102,6 +133,37 @@ public class ParallelSupplierTest {
         )).get(); 
     }
     
+    @Test
+    public void testErrorThrownInCaller() {
+        AtomicInteger started = new AtomicInteger(0);
+        AtomicInteger finished = new AtomicInteger(0);
+        Supplier<Void> wait = () -> {
+                started.incrementAndGet();
+                try {
+                    Thread.sleep(100L);
+                } catch (InterruptedException ex) {
+                }
+                finished.incrementAndGet();
+                return null;
+            };
+        List<Supplier<Void>> works = new ArrayList<>();
+        works.add(() -> {
+            throw new AssertionError();
+        });
+        for(int i = 0; i < 64; i++){
+            works.add(wait);
+        }
+        boolean thrown = false;
+        try {
+            ParallelSupplier.of(works).get();
+        } catch(AssertionError ex) {
+            thrown = true;
+        }
+        Assert.assertTrue(thrown);
+        Assert.assertEquals(started.get(), finished.get());
+        Assert.assertTrue(started.get() <= ComputePool.getParallelism());
+    }
+    
     @Test(expected = RuntimeException.class)
     public void testExceptionThrownInCyclic() {
         int n = 128;
@@ -0,0 +1,174 @@
+package jacobi.core.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jacobi.api.unsupervised.KMeans;
+import jacobi.core.util.Thresholds.Operation;
+import jacobi.core.util.Thresholds.Setting;
+
+public class ThresholdsTest {
+	
+	@After
+	public void reset() {
+		Thresholds.reset();
+	}
+	
+	@Test
+	public void shouldDefaultToConstantsInImplementations() {
+		Assert.assertEquals(ParallelSupplier.DEFAULT_FLOP_THRESHOLD, Thresholds.threshold(Operation.DEFAULT));
+		Assert.assertEquals(MapReducer.DEFAULT_NUM_FLOP, Thresholds.grain(Operation.DEFAULT));
+		Assert.assertEquals(KMeans.DEFAULT_FLOP_THRESHOLD, Thresholds.threshold(Operation.KMEANS));
+		Assert.assertEquals(Operation.values().length, Thresholds.getAll().size());
+	}
+	
+	@Test
+	public void shouldBeAbleToOverrideAndReset() {
+		Thresholds.set(Operation.MUL_T, 1000L, 100L);
+		Assert.assertEquals(new Setting(1000L, 100L), Thresholds.get(Operation.MUL_T));
+		Assert.assertEquals(new Setting(1000L, 100L), Thresholds.getAll().get(Operation.MUL_T));
+		Assert.assertEquals(Operation.MUL.getDefault(), Thresholds.get(Operation.MUL));
+		
+		Thresholds.reset();
+		Assert.assertEquals(Operation.MUL_T.getDefault(), Thresholds.get(Operation.MUL_T));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenThresholdIsNotPositive() {
+		Thresholds.set(Operation.DOT, 0L, 100L);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenGrainIsNotPositive() {
+		Thresholds.set(Operation.DOT, 100L, -1L);
+	}
+	
+	@Test
+	public void shouldBeAbleToSaveAndLoadProfile() throws IOException {
+		Path path = Files.createTempFile("thresholds", ".properties");
+		try {
+			Thresholds.set(Operation.DOT, 12345L, 678L);
+			Thresholds.set(Operation.KMEANS, 99L, 11L);
+			Map<Operation, Setting> expected = Thresholds.getAll();
+			Thresholds.save(path);
+			
+			Thresholds.reset();
+			Assert.assertNotEquals(expected, Thresholds.getAll());
+			
+			Thresholds.load(path);
+			Assert.assertEquals(expected, Thresholds.getAll());
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+	
+	@Test
+	public void shouldLeaveMissingKeysUnchangedWhenLoadingProfile() throws IOException {
+		Path path = Files.createTempFile("thresholds", ".properties");
+		try {
+			Properties props = new Properties();
+			props.setProperty("mul.grain", "4096");
+			try(OutputStream output = Files.newOutputStream(path)){
+				props.store(output, null);
+			}
+			Thresholds.load(path);
+			Assert.assertEquals(4096L, Thresholds.grain(Operation.MUL));
+			Assert.assertEquals(Operation.MUL.getDefault().getThreshold(), Thresholds.threshold(Operation.MUL));
+			Assert.assertEquals(Operation.DOT.getDefault(), Thresholds.get(Operation.DOT));
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenProfileHasInvalidValue() throws IOException {
+		Path path = Files.createTempFile("thresholds", ".properties");
+		try {
+			Properties props = new Properties();
+			props.setProperty("dot.threshold", "many");
+			try(OutputStream output = Files.newOutputStream(path)){
+				props.store(output, null);
+			}
+			Thresholds.load(path);
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToCalibrateAllOperations() {
+		Map<Operation, Setting> settings = Thresholds.calibrate();
+		Assert.assertEquals(Operation.values().length, settings.size());
+		for(Operation op : Operation.values()){
+			Setting setting = settings.get(op);
+			Assert.assertEquals(setting, Thresholds.get(op));
+			Assert.assertTrue(setting.getGrain() >= Calibration.MIN_GRAIN);
+			Assert.assertTrue(setting.getThreshold() >= setting.getGrain());
+		}
+	}
+	
+	@Test
+	public void shouldNeverParallelizeWithSingleThread() {
+		Setting setting = new Calibration(new VectorKernels(), 1).setting(1.0, 1000.0, 10.0);
+		Assert.assertEquals(Long.MAX_VALUE, setting.getThreshold());
+		Assert.assertEquals(Calibration.MIN_GRAIN, setting.getGrain());
+	}
+	
+	@Test
+	public void shouldIncreaseThresholdWithCostOfParallelRegion() {
+		Calibration calib = new Calibration(new VectorKernels(), 8);
+		Setting cheap = calib.setting(1.0, 1e4, 100.0);
+		Setting costly = calib.setting(1.0, 1e5, 100.0);
+		Assert.assertTrue(costly.getThreshold() > cheap.getThreshold());
+		Assert.assertEquals(cheap.getGrain(), costly.getGrain());
+		Assert.assertEquals(Math.round(2.0 * 1e4 / (1.0 - 1.0 / 8)), cheap.getThreshold());
+	}
+	
+	@Test
+	public void shouldWarmUpForThousandsOfRunsWithinLimit() {
+		int[] counter = {0};
+		int count = new Calibration(new VectorKernels(), 1).warmUp(() -> counter[0]++);
+		Assert.assertTrue(count >= Calibration.DEFAULT_MIN_WARM_UP);
+		Assert.assertTrue(count <= Calibration.DEFAULT_MAX_WARM_UP);
+		Assert.assertEquals(count, counter[0]);
+	}
+	
+	@Test
+	public void shouldCalibrateDotAndMulTWithTheirOwnKernels() {
+		List<String> calls = new ArrayList<>();
+		VectorKernels kernels = new VectorKernels() {
+
+			@Override
+			public double dot(double[] u, int uBegin, double[] v, int vBegin, int len) {
+				calls.add("dot");
+				return super.dot(u, uBegin, v, vBegin, len);
+			}
+
+			@Override
+			public void mulAdd(double[] u, int uBegin, double[] v, int vBegin, double[] w, int wBegin, int len) {
+				calls.add("mulAdd");
+				super.mulAdd(u, uBegin, v, vBegin, w, wBegin, len);
+			}
+			
+		};
+		Calibration calib = new Calibration(kernels, 2);
+		double[] u = new double[Calibration.DEFAULT_LENGTH];
+		double[] v = new double[Calibration.DEFAULT_LENGTH];
+		
+		calib.kernel(Operation.MUL_T, u, v).run();
+		calib.kernel(Operation.DOT, u, v).run();
+		Assert.assertEquals(Arrays.asList("dot", "mulAdd"), calls);
+	}
+	
+}
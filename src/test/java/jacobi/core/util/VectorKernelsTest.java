@@ -0,0 +1,113 @@
+package jacobi.core.util;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VectorKernelsTest {
+	
+	@Test
+	public void shouldBeAbleToComputeDotProductOnOddLengthsAndOffsets() {
+		Random rand = new Random(Double.doubleToLongBits(Math.PI));
+		VectorKernels scalar = new VectorKernels();
+		VectorKernels kernels = VectorKernels.getInstance();
+		for(int len = 0; len < 67; len++){
+			double[] u = this.random(rand, len + 3);
+			double[] v = this.random(rand, len + 5);
+			Assert.assertEquals(scalar.dot(u, 3, v, 1, len), kernels.dot(u, 3, v, 1, len), 1e-12);
+			Assert.assertEquals(scalar.sqDist(u, 0, v, 5, len), kernels.sqDist(u, 0, v, 5, len), 1e-12);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToComputeElementWiseKernelsIdenticalToScalar() {
+		Random rand = new Random(Double.doubleToLongBits(Math.E));
+		VectorKernels scalar = new VectorKernels();
+		VectorKernels kernels = VectorKernels.getInstance();
+		for(int len = 0; len < 67; len++){
+			double[] u = this.random(rand, len + 2);
+			double[] v = this.random(rand, len + 7);
+			double k = rand.nextGaussian();
+			
+			double[] y0 = this.random(rand, len + 1);
+			double[] y1 = y0.clone();
+			scalar.axpy(k, u, 2, y0, 1, len);
+			kernels.axpy(k, u, 2, y1, 1, len);
+			Assert.assertArrayEquals(y0, y1, 0.0);
+			
+			double[] w0 = new double[len + 4];
+			double[] w1 = new double[len + 4];
+			scalar.mul(u, 1, v, 6, w0, 3, len);
+			kernels.mul(u, 1, v, 6, w1, 3, len);
+			Assert.assertArrayEquals(w0, w1, 0.0);
+			
+			scalar.scale(k, v, 7, w0, 0, len);
+			kernels.scale(k, v, 7, w1, 0, len);
+			Assert.assertArrayEquals(w0, w1, 0.0);
+			
+			scalar.mulAdd(u, 2, v, 5, w0, 1, len);
+			kernels.mulAdd(u, 2, v, 5, w1, 1, len);
+			Assert.assertArrayEquals(w0, w1, 0.0);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToComputeKernelsOnFloatsInDoublePrecision() {
+		Random rand = new Random(Double.doubleToLongBits(Math.sqrt(2.0)));
+		VectorKernels scalar = new VectorKernels();
+		VectorKernels kernels = VectorKernels.getInstance();
+		for(int len = 0; len < 67; len++){
+			float[] u = this.randomFloats(rand, len + 3);
+			float[] v = this.randomFloats(rand, len + 5);
+			
+			double dot = 0.0;
+			double dist = 0.0;
+			for(int i = 0; i < len; i++){
+				dot += (double) u[3 + i] * v[1 + i];
+				dist += ((double) u[i] - v[5 + i]) * ((double) u[i] - v[5 + i]);
+			}
+			Assert.assertEquals(dot, scalar.dot(u, 3, v, 1, len), 0.0);
+			Assert.assertEquals(dot, kernels.dot(u, 3, v, 1, len), 1e-12);
+			Assert.assertEquals(dist, scalar.sqDist(u, 0, v, 5, len), 0.0);
+			Assert.assertEquals(dist, kernels.sqDist(u, 0, v, 5, len), 1e-12);
+			
+			double k = rand.nextGaussian();
+			double[] y0 = this.random(rand, len + 1);
+			double[] y1 = y0.clone();
+			scalar.axpy(k, u, 2, y0, 1, len);
+			kernels.axpy(k, u, 2, y1, 1, len);
+			Assert.assertArrayEquals(y0, y1, 0.0);
+			
+			double[] w0 = this.random(rand, len + 2);
+			double[] w1 = w0.clone();
+			scalar.mulAdd(u, 1, v, 4, w0, 2, len);
+			kernels.mulAdd(u, 1, v, 4, w1, 2, len);
+			Assert.assertArrayEquals(w0, w1, 0.0);
+		}
+	}
+	
+	@Test
+	public void shouldBeAbleToLeaveElementsOutOfRangeUnchanged() {
+		double[] y = {1.0, 2.0, 3.0, 4.0, 5.0};
+		VectorKernels.getInstance().axpy(2.0, new double[] {1.0, 1.0, 1.0}, 0, y, 1, 3);
+		Assert.assertArrayEquals(new double[] {1.0, 4.0, 5.0, 6.0, 5.0}, y, 0.0);
+	}
+	
+	private float[] randomFloats(Random rand, int len) {
+		float[] array = new float[len];
+		for(int i = 0; i < len; i++){
+			array[i] = (float) rand.nextGaussian();
+		}
+		return array;
+	}
+	
+	private double[] random(Random rand, int len) {
+		double[] array = new double[len];
+		for(int i = 0; i < len; i++){
+			array[i] = rand.nextGaussian();
+		}
+		return array;
+	}
+	
+}
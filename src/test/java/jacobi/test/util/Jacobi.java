@@ -23,9 +23,11 @@
  */
 package jacobi.test.util;
 
+import jacobi.api.Matrices;
 import jacobi.api.Matrix;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.DoubleSupplier;
 import java.util.stream.Collectors;
 import org.junit.Assert;
 
@@ -35,6 +37,23 @@ import org.junit.Assert;
  */
 public final class Jacobi {
     
+    /**
+     * Create a matrix with elements drawn row-by-row from a random source.
+     * @param m  Number of rows
+     * @param n  Number of columns
+     * @param rand  Random source of elements, e.g.&nbsp;rand::nextGaussian
+     * @return  Random matrix
+     */
+    public static Matrix random(int m, int n, DoubleSupplier rand) {
+        Matrix matrix = Matrices.zeros(m, n);
+        for(int i = 0; i < m; i++){
+            for(int j = 0; j < n; j++){
+                matrix.set(i, j, rand.getAsDouble());
+            }
+        }
+        return matrix;
+    }
+    
     public static void assertEquals(Matrix expects, Matrix actual) {
         Jacobi.assertEquals(expects, actual, 1e-8);
     }